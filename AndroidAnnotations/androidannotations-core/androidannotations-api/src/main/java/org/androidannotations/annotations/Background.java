@@ -144,6 +144,66 @@ import java.lang.annotation.Target;
  * </blockquote>
  * 
  * 
+ * <h2>Priority</h2>
+ * <p>
+ * When the executor is a
+ * {@link org.androidannotations.api.PriorityExecutor PriorityExecutor}, the
+ * queued tasks are executed by decreasing {@link #priority()}, so that
+ * interactive work is not delayed by a burst of less urgent tasks.
+ * </p>
+ * <b>Example</b> :
+ *
+ * <blockquote>
+ * 
+ * <pre>
+ * &#064;EBean
+ * public class MyBean {
+ * 
+ * 	static {
+ * 		BackgroundExecutor.setExecutor(new PriorityExecutor(4, 128, PriorityExecutor.RejectionPolicy.DISCARD_OLDEST));
+ * 	}
+ * 
+ * 	&#064;Background(priority = 10)
+ * 	void loadRequestedPage() {
+ * 		// ...
+ * 	}
+ * 
+ * 	&#064;Background(priority = -10)
+ * 	void prefetchNextPages() {
+ * 		// ...
+ * 	}
+ * }
+ * </pre>
+ * 
+ * </blockquote>
+ * 
+ * 
+ * <h2>Coalescing</h2>
+ * <p>
+ * When a method is called again before its previous calls were executed, you
+ * may only care about the last call. Setting {@link #coalesce()} to
+ * <code>LATEST</code> cancels the pending tasks having the same {@link #id()}
+ * each time a new one is added. Tasks which have already started are not
+ * interrupted.
+ * </p>
+ * <b>Example</b> :
+ *
+ * <blockquote>
+ * 
+ * <pre>
+ * &#064;EBean
+ * public class MyBean {
+ * 
+ * 	&#064;Background(id = &quot;search&quot;, serial = &quot;search&quot;, coalesce = Background.Coalesce.LATEST)
+ * 	void search(String query) {
+ * 		// only the last query waiting for the serial is executed
+ * 	}
+ * }
+ * </pre>
+ * 
+ * </blockquote>
+ * 
+ * 
  * <h2>Delay</h2>
  * <p>
  * Sometimes you may want to delay execution of a background method. To do so,
@@ -203,4 +263,43 @@ public @interface Background {
 	 * @return the serial execution group
 	 **/
 	String serial() default "";
+
+	/**
+	 * Execution priority, higher values are executed first.
+	 *
+	 * The priority is only honored when the executor of
+	 * {@link org.androidannotations.api.BackgroundExecutor BackgroundExecutor}
+	 * is priority aware, such as
+	 * {@link org.androidannotations.api.PriorityExecutor PriorityExecutor}.
+	 * Tasks having the same <code>serial</code> are still executed in order.
+	 *
+	 * @return the priority of the task
+	 **/
+	int priority() default 0;
+
+	/**
+	 * What happens to the pending tasks having the same {@link #id()} when a new
+	 * one is added. The id is mandatory when using {@link Coalesce#LATEST}.
+	 *
+	 * @return {@link Coalesce#NONE} to queue every task,
+	 *         {@link Coalesce#LATEST} to cancel the pending tasks having the
+	 *         same id
+	 */
+	Coalesce coalesce() default Coalesce.NONE;
+
+	/**
+	 * Indicates how the tasks having the same id are coalesced.
+	 */
+	enum Coalesce {
+
+		/**
+		 * Every task is executed.
+		 */
+		NONE, //
+		/**
+		 * A new task cancels the tasks having the same id which have not started
+		 * yet.
+		 */
+		LATEST
+	}
 }
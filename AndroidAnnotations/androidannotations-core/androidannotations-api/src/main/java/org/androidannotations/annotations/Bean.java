@@ -72,6 +72,21 @@ import java.lang.annotation.Target;
  * </pre>
  * 
  * </blockquote>
+ * <p>
+ * To build the bean only when it is first needed, declare the field or
+ * parameter as a {@link org.androidannotations.api.Lazy Lazy} of the bean
+ * type. A {@link org.androidannotations.api.Provider Provider} builds a new
+ * bean on each call instead. Such beans are built after the component has been
+ * initialized, so their views are not injected.
+ * </p>
+ * <blockquote>
+ * 
+ * <pre>
+ * &#064;Bean
+ * Lazy&lt;MyBean&gt; myBean;
+ * </pre>
+ * 
+ * </blockquote>
  * 
  * @see EBean
  */
@@ -134,4 +134,18 @@ public @interface EFragment {
 	 * @return <b>true</b>, if the layout must be set, <b>false</b> otherwise
 	 */
 	boolean forceLayoutInjection() default false;
+
+	/**
+	 * Inflates the layout in the background instead of on the main thread, then
+	 * attaches it on the main thread. The {@link ViewById} fields stay
+	 * <code>null</code> and the {@link AfterViews} methods are not called until
+	 * the layout is attached. The root of the layout cannot be a
+	 * <code>&lt;merge /&gt;</code> tag, and this flag cannot be used with
+	 * {@link DataBound}.
+	 *
+	 * @return <b>true</b>, if the layout must be inflated in the background,
+	 *         <b>false</b> otherwise
+	 * @see org.androidannotations.api.view.AsyncLayoutInflater
+	 */
+	boolean asyncLayout() default false;
 }
@@ -68,6 +68,16 @@ import android.util.Log;
  * </pre>
  * 
  * </blockquote>
+ * <p>
+ * When the <code>traceRecorder</code> annotation processor option is
+ * <code>true</code>, the methods do not log anything: their executions are
+ * recorded with a nanosecond resolution by
+ * {@link org.androidannotations.api.trace.TraceRecorder TraceRecorder}, which
+ * does not format nor allocate anything, and can be exported with
+ * {@link org.androidannotations.api.trace.TraceExporter TraceExporter}. The
+ * <i>tag</i> is then used as the span category and the <i>level</i> is
+ * ignored.
+ * </p>
  */
 @Retention(RetentionPolicy.CLASS)
 @Target(ElementType.METHOD)
@@ -117,6 +117,42 @@ import java.lang.annotation.Target;
  * 
  * </blockquote>
  * 
+ * <h2>Coalescing</h2>
+ * <p>
+ * A method called many times in a row, for instance for each item of a list,
+ * does not need to run more than once. Setting {@link #coalesce()} to
+ * <code>LATEST</code> removes the pending calls having the same {@link #id()}
+ * from the handler queue each time a new call is posted. Combined with a
+ * {@link #delay()}, this debounces the method: it runs once the calls stopped
+ * for the given delay.
+ * </p>
+ * 
+ * <blockquote> <b>Example</b> :
+ * 
+ * <pre>
+ * &#064;EBean
+ * public class MyBean {
+ * 
+ * 	&#064;UiThread(id = &quot;refresh&quot;, coalesce = UiThread.Coalesce.LATEST)
+ * 	void refresh() {
+ * 		// runs once, even if called for every item
+ * 	}
+ * }
+ * </pre>
+ * 
+ * </blockquote>
+ * 
+ * <h2>Allocations</h2>
+ * <p>
+ * By default, each call allocates a new {@link Runnable} holding its
+ * arguments. When the <code>pooledUiThreadCalls</code> annotation processor
+ * option is <code>true</code>, methods without parameters post the same
+ * runnable on each call, and the runnables of methods having parameters are
+ * recycled once they have run, so that calls from hot paths such as scroll
+ * listeners do not allocate in the steady state. Generic methods are not
+ * pooled.
+ * </p>
+ * 
  * 
  * @see Background
  * @see android.os.Handler
@@ -175,4 +211,29 @@ public @interface UiThread {
 	 * @return the id for cancellation
 	 */
 	String id() default "";
+
+	/**
+	 * What happens to the pending calls having the same {@link #id()} when a new
+	 * one is posted. The id is mandatory when using {@link Coalesce#LATEST}.
+	 *
+	 * @return {@link Coalesce#NONE} to post every call, {@link Coalesce#LATEST}
+	 *         to remove the pending calls having the same id
+	 */
+	Coalesce coalesce() default Coalesce.NONE;
+
+	/**
+	 * Indicates how the calls having the same id are coalesced.
+	 */
+	enum Coalesce {
+
+		/**
+		 * Every call is executed.
+		 */
+		NONE, //
+		/**
+		 * A new call removes the calls having the same id which are still waiting
+		 * in the handler queue.
+		 */
+		LATEST
+	}
 }
@@ -21,6 +21,10 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import org.androidannotations.api.sharedpreferences.DefaultSharedPreferencesStorage;
+import org.androidannotations.api.sharedpreferences.MappedSharedPreferencesStorage;
+import org.androidannotations.api.sharedpreferences.SharedPreferencesStorage;
+
 import android.content.Context;
 
 /**
@@ -65,6 +69,16 @@ import android.content.Context;
  * </pre>
  * 
  * </blockquote>
+ * <p>
+ * Each access method of the generated class always returns the same field
+ * instance. Fields read on hot paths can keep their value in memory with
+ * {@link org.androidannotations.api.sharedpreferences.AbstractPrefField#enableReadCache()
+ * enableReadCache()}:
+ * </p>
+ * 
+ * <pre>
+ * myPref.age().enableReadCache();
+ * </pre>
  * 
  * @see Pref
  */
@@ -124,4 +138,24 @@ public @interface SharedPref {
 	 * @return the operating mode
 	 */
 	int mode() default Context.MODE_PRIVATE;
+
+	/**
+	 * The storage providing the underlying {@link android.content.SharedPreferences
+	 * SharedPreferences}. The default storage uses the platform implementation,
+	 * which rewrites the whole file on each commit.
+	 * {@link MappedSharedPreferencesStorage} appends the changes to a memory
+	 * mapped log instead, which is faster for large preferences:
+	 * 
+	 * <pre>
+	 * &#064;SharedPref(value = Scope.UNIQUE, storage = MappedSharedPreferencesStorage.class)
+	 * public interface MyPref {
+	 * }
+	 * </pre>
+	 * 
+	 * The class must have a public no argument constructor. It is instantiated
+	 * each time the generated class is.
+	 * 
+	 * @return the class providing the preferences
+	 */
+	Class<? extends SharedPreferencesStorage> storage() default DefaultSharedPreferencesStorage.class;
 }
@@ -16,9 +16,15 @@
  */
 package org.androidannotations.api;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -71,8 +77,20 @@ public final class BackgroundExecutor {
 
 	private static WrongThreadListener wrongThreadListener = DEFAULT_WRONG_THREAD_LISTENER;
 
-	private static final List<Task> TASKS = new ArrayList<>();
+	/*
+	 * There is no global lock: tasks having a serial are guarded by the lock of
+	 * their serial queue, then by their own lock. Tasks without serial are only
+	 * guarded by their own lock.
+	 */
+	private static final ConcurrentMap<String, SerialQueue> SERIAL_QUEUES = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, Set<Task>> TASKS_BY_ID = new ConcurrentHashMap<>();
 	private static final ThreadLocal<String> CURRENT_SERIAL = new ThreadLocal<>();
+	private static final ThreadLocal<CallerRuns> CALLER_RUNS = new ThreadLocal<CallerRuns>() {
+		@Override
+		protected CallerRuns initialValue() {
+			return new CallerRuns();
+		}
+	};
 
 	private BackgroundExecutor() {
 	}
@@ -129,14 +147,158 @@ public final class BackgroundExecutor {
 	 *             {@link #setExecutor(Executor)} has been called with such an
 	 *             executor)
 	 */
-	public static synchronized void execute(Task task) {
-		if (task.id != null || task.serial != null) {
-			/* keep task */
-			TASKS.add(task);
+	public static void execute(Task task) {
+		try {
+			enqueue(task);
+		} finally {
+			runCallerRunnables();
+		}
+	}
+
+	private static void enqueue(Task task) {
+		if (task.serial == null) {
+			synchronized (task) {
+				if (task.id != null) {
+					/* keep task */
+					addToIdIndex(task);
+				}
+				submit(task);
+			}
+			return;
+		}
+
+		while (true) {
+			SerialQueue queue = SERIAL_QUEUES.get(task.serial);
+			if (queue == null) {
+				SerialQueue newQueue = new SerialQueue();
+				queue = SERIAL_QUEUES.putIfAbsent(task.serial, newQueue);
+				if (queue == null) {
+					queue = newQueue;
+				}
+			}
+			synchronized (queue) {
+				if (SERIAL_QUEUES.get(task.serial) != queue) {
+					/* the queue has been discarded after becoming empty */
+					continue;
+				}
+				synchronized (task) {
+					task.queue = queue;
+					if (task.id != null) {
+						/* keep task */
+						addToIdIndex(task);
+					}
+					if (queue.active == null) {
+						queue.active = task;
+						submit(task);
+					} else {
+						queue.pending.add(task);
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Execute a task like {@link #execute(Task)}, then cancel the tasks having the
+	 * same id which were added before it and have not started yet, so that only
+	 * the latest one runs. Tasks which have already started are not interrupted.
+	 * 
+	 * @param task
+	 *            the task to execute
+	 * @throws IllegalArgumentException
+	 *             if <code>task.delay</code> is strictly positive and the current
+	 *             executor does not support scheduling (if
+	 *             {@link #setExecutor(Executor)} has been called with such an
+	 *             executor)
+	 */
+	public static void executeLatest(Task task) {
+		try {
+			enqueue(task);
+			cancelPrevious(task);
+		} finally {
+			runCallerRunnables();
+		}
+	}
+
+	private static void cancelPrevious(Task task) {
+		if (task.id == null) {
+			/* nothing to coalesce with */
+			return;
+		}
+
+		Set<Task> indexedTasks = TASKS_BY_ID.get(task.id);
+		if (indexedTasks == null) {
+			/* the task has already completed */
+			return;
+		}
+
+		List<Task> previousTasks = new ArrayList<>();
+		synchronized (indexedTasks) {
+			if (!indexedTasks.contains(task)) {
+				/* the task has already completed, the others were added after it */
+				return;
+			}
+			/* the index keeps the insertion order */
+			for (Task indexedTask : indexedTasks) {
+				if (indexedTask == task) {
+					break;
+				}
+				previousTasks.add(indexedTask);
+			}
 		}
-		if (task.serial == null || !hasSerialRunning(task.serial)) {
-			task.executionAsked = true;
+		cancel(previousTasks, false);
+	}
+
+	/**
+	 * Submit a task to the executor. The caller must hold the task lock.
+	 */
+	private static void submit(Task task) {
+		task.executionAsked = true;
+		CallerRuns callerRuns = CALLER_RUNS.get();
+		callerRuns.lockDepth++;
+		try {
 			task.future = directExecute(task, task.remainingDelay);
+		} finally {
+			callerRuns.lockDepth--;
+		}
+	}
+
+	/**
+	 * Runs a runnable that an executor rejected on the thread which submitted it,
+	 * see {@link PriorityExecutor.RejectionPolicy#CALLER_RUNS}.
+	 * <p>
+	 * The tasks are submitted while holding the lock of their serial queue and
+	 * their own lock, so running them right away could run user code under these
+	 * locks, and run the tasks of a serial recursively. In that case the runnable
+	 * is run once the locks are released, in rejection order.
+	 */
+	static void runOnCallerThread(Runnable runnable) {
+		CallerRuns callerRuns = CALLER_RUNS.get();
+		if (callerRuns.lockDepth == 0 && !callerRuns.running) {
+			runnable.run();
+		} else {
+			callerRuns.runnables.add(runnable);
+		}
+	}
+
+	/**
+	 * Runs the runnables rejected while the current thread held a lock, unless it
+	 * still holds one or is already running them further up the stack.
+	 */
+	private static void runCallerRunnables() {
+		CallerRuns callerRuns = CALLER_RUNS.get();
+		if (callerRuns.lockDepth > 0 || callerRuns.running) {
+			return;
+		}
+		callerRuns.running = true;
+		try {
+			Runnable runnable;
+			while ((runnable = callerRuns.runnables.poll()) != null) {
+				runnable.run();
+			}
+		} finally {
+			callerRuns.running = false;
 		}
 	}
 
@@ -223,6 +385,8 @@ public final class BackgroundExecutor {
 	 * 
 	 * @param executor
 	 *            the new executor
+	 * @see PriorityExecutor
+	 * @see VirtualThreadExecutor
 	 */
 	public static void setExecutor(Executor executor) {
 		BackgroundExecutor.executor = executor;
@@ -248,25 +412,60 @@ public final class BackgroundExecutor {
 	 *            <code>true</code> if the thread executing this task should be
 	 *            interrupted; otherwise, in-progress tasks are allowed to complete
 	 */
-	public static synchronized void cancelAll(String id, boolean mayInterruptIfRunning) {
-		for (int i = TASKS.size() - 1; i >= 0; i--) {
-			Task task = TASKS.get(i);
-			if (id.equals(task.id)) {
-				if (task.future != null) {
-					task.future.cancel(mayInterruptIfRunning);
-					if (!task.managed.getAndSet(true)) {
-						/*
-						 * the task has been submitted to the executor, but its execution has not
-						 * started yet, so that its run() method will never call postExecute()
-						 */
-						task.postExecute();
-					}
-				} else if (task.executionAsked) {
-					Log.w(TAG, "A task with id " + task.id + " cannot be cancelled (the executor set does not support it)");
-				} else {
-					/* this task has not been submitted to the executor */
-					TASKS.remove(i);
+	public static void cancelAll(String id, boolean mayInterruptIfRunning) {
+		Set<Task> indexedTasks = TASKS_BY_ID.get(id);
+		if (indexedTasks == null) {
+			return;
+		}
+
+		List<Task> tasks;
+		synchronized (indexedTasks) {
+			tasks = new ArrayList<>(indexedTasks);
+		}
+		try {
+			cancel(tasks, mayInterruptIfRunning);
+		} finally {
+			runCallerRunnables();
+		}
+	}
+
+	/**
+	 * Cancel the given tasks, the last added first.
+	 */
+	private static void cancel(List<Task> tasks, boolean mayInterruptIfRunning) {
+		for (int i = tasks.size() - 1; i >= 0; i--) {
+			Task task = tasks.get(i);
+			if (task.serial != null) {
+				/* the queue is set before the task is indexed and never changes */
+				synchronized (task.queue) {
+					cancel(task, mayInterruptIfRunning);
 				}
+			} else {
+				cancel(task, mayInterruptIfRunning);
+			}
+		}
+	}
+
+	/**
+	 * Cancel a task. The caller must hold the lock of the task serial queue, if
+	 * any.
+	 */
+	private static void cancel(Task task, boolean mayInterruptIfRunning) {
+		synchronized (task) {
+			if (task.future != null) {
+				task.future.cancel(mayInterruptIfRunning);
+				if (!task.managed.getAndSet(true)) {
+					/*
+					 * the task has been submitted to the executor, but its execution has not
+					 * started yet, so that its run() method will never call postExecute()
+					 */
+					task.postExecute();
+				}
+			} else if (task.executionAsked) {
+				Log.w(TAG, "A task with id " + task.id + " cannot be cancelled (the executor set does not support it)");
+			} else if (task.queue != null && task.queue.pending.remove(task)) {
+				/* this task has not been submitted to the executor */
+				removeFromIdIndex(task);
 			}
 		}
 	}
@@ -317,40 +516,54 @@ public final class BackgroundExecutor {
 		wrongThreadListener.onWrongBgSerial(current, serials);
 	}
 
-	/**
-	 * Indicates whether a task with the specified <code>serial</code> has been
-	 * submitted to the executor.
-	 *
-	 * @param serial
-	 *            the serial queue
-	 * @return <code>true</code> if such a task has been submitted,
-	 *         <code>false</code> otherwise
-	 */
-	private static boolean hasSerialRunning(String serial) {
-		for (Task task : TASKS) {
-			if (task.executionAsked && serial.equals(task.serial)) {
-				return true;
+	private static void addToIdIndex(Task task) {
+		while (true) {
+			Set<Task> tasks = TASKS_BY_ID.get(task.id);
+			if (tasks == null) {
+				Set<Task> newTasks = new LinkedHashSet<>();
+				tasks = TASKS_BY_ID.putIfAbsent(task.id, newTasks);
+				if (tasks == null) {
+					tasks = newTasks;
+				}
+			}
+			synchronized (tasks) {
+				if (TASKS_BY_ID.get(task.id) == tasks) {
+					tasks.add(task);
+					return;
+				}
+				/* the set has been discarded after becoming empty */
 			}
 		}
-		return false;
 	}
 
-	/**
-	 * Retrieve and remove the first task having the specified <code>serial</code>
-	 * (if any).
-	 * 
-	 * @param serial
-	 *            the serial queue
-	 * @return task if found, <code>null</code> otherwise
-	 */
-	private static Task take(String serial) {
-		int len = TASKS.size();
-		for (int i = 0; i < len; i++) {
-			if (serial.equals(TASKS.get(i).serial)) {
-				return TASKS.remove(i);
+	private static void removeFromIdIndex(Task task) {
+		Set<Task> tasks = TASKS_BY_ID.get(task.id);
+		if (tasks != null) {
+			synchronized (tasks) {
+				if (tasks.remove(task) && tasks.isEmpty()) {
+					TASKS_BY_ID.remove(task.id, tasks);
+				}
 			}
 		}
-		return null;
+	}
+
+	/**
+	 * The tasks having the same serial: the one submitted to the executor, and
+	 * the ones waiting for it to complete, in submission order.
+	 */
+	private static final class SerialQueue {
+		private Task active;
+		private final Queue<Task> pending = new ArrayDeque<>();
+	}
+
+	/**
+	 * The state of a thread regarding the rejected runnables it has to run, see
+	 * {@link BackgroundExecutor#runOnCallerThread(Runnable)}.
+	 */
+	private static final class CallerRuns {
+		private int lockDepth;
+		private boolean running;
+		private final Queue<Runnable> runnables = new ArrayDeque<>();
 	}
 
 	public static abstract class Task implements Runnable {
@@ -359,6 +572,8 @@ public final class BackgroundExecutor {
 		private long remainingDelay;
 		private long targetTimeMillis; /* since epoch */
 		private String serial;
+		private int priority;
+		private SerialQueue queue;
 		private boolean executionAsked;
 		private Future<?> future;
 
@@ -370,12 +585,31 @@ public final class BackgroundExecutor {
 		 * 
 		 * Therefore, cancelAll() *must* call postExecute() if run() is not started.
 		 * 
-		 * This flag guarantees that either cancelAll() or run() manages this task post
-		 * execution, but not both.
+		 * This flag guarantees that only one of cancelAll(), discard() or run() manages
+		 * this task post execution.
 		 */
 		private AtomicBoolean managed = new AtomicBoolean();
 
 		public Task(String id, long delay, String serial) {
+			this(id, delay, serial, 0);
+		}
+
+		/**
+		 * Creates a task having a priority, which is only honored by priority aware
+		 * executors, such as {@link PriorityExecutor}.
+		 *
+		 * @param id
+		 *            identifier used for task cancellation
+		 * @param delay
+		 *            the time from now to delay execution, in milliseconds
+		 * @param serial
+		 *            the serial queue (<code>null</code> or <code>""</code> for no
+		 *            serial execution)
+		 * @param priority
+		 *            the priority of the task, higher values are executed first
+		 */
+		public Task(String id, long delay, String serial, int priority) {
+			this.priority = priority;
 			if (!"".equals(id)) {
 				this.id = id;
 			}
@@ -395,36 +629,68 @@ public final class BackgroundExecutor {
 				return;
 			}
 
+			/* the task may run inline, in a thread running another task */
+			String callerSerial = CURRENT_SERIAL.get();
 			try {
 				CURRENT_SERIAL.set(serial);
 				execute();
 			} finally {
+				CURRENT_SERIAL.set(callerSerial);
 				/* handle next tasks */
-				postExecute();
+				try {
+					postExecute();
+				} finally {
+					runCallerRunnables();
+				}
 			}
 		}
 
 		public abstract void execute();
 
+		public int getPriority() {
+			return priority;
+		}
+
+		/**
+		 * Called by an executor which drops this task without running it, so that
+		 * the next tasks of its serial, if any, are still executed.
+		 */
+		void discard() {
+			if (!managed.getAndSet(true)) {
+				try {
+					postExecute();
+				} finally {
+					runCallerRunnables();
+				}
+			}
+		}
+
 		private void postExecute() {
 			if (id == null && serial == null) {
 				/* nothing to do */
 				return;
 			}
-			CURRENT_SERIAL.set(null);
-			synchronized (BackgroundExecutor.class) {
-				/* execution complete */
-				TASKS.remove(this);
 
-				if (serial != null) {
-					Task next = take(serial);
+			/* execution complete */
+			if (id != null) {
+				removeFromIdIndex(this);
+			}
+
+			if (serial != null) {
+				synchronized (queue) {
+					Task next = queue.pending.poll();
+					queue.active = next;
 					if (next != null) {
-						if (next.remainingDelay != 0) {
-							/* the delay may not have elapsed yet */
-							next.remainingDelay = Math.max(0L, next.targetTimeMillis - SystemClock.elapsedRealtime());
+						synchronized (next) {
+							if (next.remainingDelay != 0) {
+								/* the delay may not have elapsed yet */
+								next.remainingDelay = Math.max(0L, next.targetTimeMillis - SystemClock.elapsedRealtime());
+							}
+							/* a task having the same serial was queued, execute it */
+							submit(next);
 						}
-						/* a task having the same serial was queued, execute it */
-						BackgroundExecutor.execute(next);
+					} else {
+						SERIAL_QUEUES.remove(serial, queue);
 					}
 				}
 			}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import android.content.Context;
+
+/**
+ * A {@link Provider} of an {@link org.androidannotations.annotations.EBean
+ * EBean}, building a new bean on each {@link #get()} call.
+ *
+ * @param <T>
+ *            the type of the bean
+ */
+public abstract class BeanProvider<T> implements Provider<T> {
+
+	private final Context context;
+
+	public BeanProvider(Context context) {
+		this.context = context;
+	}
+
+	@Override
+	public T get() {
+		return create(context);
+	}
+
+	/**
+	 * Builds the bean, usually by calling its generated
+	 * <code>getInstance_()</code> method.
+	 *
+	 * @param context
+	 *            the context of the component the bean is injected in
+	 * @return the bean
+	 */
+	protected abstract T create(Context context);
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The future of a task waiting on a timer thread before being handed to the
+ * executor which runs it.
+ */
+final class DelayedFuture<V> implements ScheduledFuture<V> {
+
+	private final RunnableFuture<V> task;
+	private final ScheduledFuture<?> timerFuture;
+
+	DelayedFuture(RunnableFuture<V> task, ScheduledFuture<?> timerFuture) {
+		this.task = task;
+		this.timerFuture = timerFuture;
+	}
+
+	@Override
+	public long getDelay(TimeUnit unit) {
+		return timerFuture.getDelay(unit);
+	}
+
+	@Override
+	public int compareTo(Delayed other) {
+		long delay = getDelay(TimeUnit.NANOSECONDS);
+		long otherDelay = other.getDelay(TimeUnit.NANOSECONDS);
+		return delay < otherDelay ? -1 : delay == otherDelay ? 0 : 1;
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		timerFuture.cancel(false);
+		return task.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return task.isCancelled();
+	}
+
+	@Override
+	public boolean isDone() {
+		return task.isDone();
+	}
+
+	@Override
+	public V get() throws InterruptedException, ExecutionException {
+		return task.get();
+	}
+
+	@Override
+	public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		return task.get(timeout, unit);
+	}
+}
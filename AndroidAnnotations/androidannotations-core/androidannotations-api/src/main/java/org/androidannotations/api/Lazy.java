@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+/**
+ * A value which is only computed when first requested. Declare an injected
+ * field or parameter with this type to delay its resolution, for instance:
+ *
+ * <pre>
+ * &#064;DrawableRes
+ * Lazy&lt;Drawable&gt; background;
+ * </pre>
+ *
+ * @param <T>
+ *            the type of the value
+ */
+public interface Lazy<T> {
+
+	/**
+	 * @return the value, computed on the first call
+	 */
+	T get();
+}
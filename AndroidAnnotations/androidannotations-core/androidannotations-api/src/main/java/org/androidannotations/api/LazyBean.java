@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import android.content.Context;
+
+/**
+ * An {@link org.androidannotations.annotations.EBean EBean} injected in a
+ * {@link Lazy} field. The bean is built by the first {@link #get()} call, from
+ * any thread, and then kept.
+ *
+ * @param <T>
+ *            the type of the bean
+ */
+public abstract class LazyBean<T> extends BeanProvider<T> implements Lazy<T> {
+
+	private volatile T bean;
+
+	public LazyBean(Context context) {
+		super(context);
+	}
+
+	@Override
+	public T get() {
+		T result = bean;
+		if (result == null) {
+			synchronized (this) {
+				result = bean;
+				if (result == null) {
+					result = super.get();
+					bean = result;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+/**
+ * A resource injected in a {@link Lazy} field. The resource is loaded on the
+ * first {@link #get()} call, then kept until the configuration of the
+ * resources changes, for instance after a locale change or a rotation in a
+ * component which handles it.
+ *
+ * @param <T>
+ *            the type of the resource
+ */
+public abstract class LazyResource<T> implements Lazy<T> {
+
+	private final Context context;
+	private Configuration loadedConfiguration;
+	private T value;
+
+	public LazyResource(Context context) {
+		this.context = context;
+	}
+
+	@Override
+	public synchronized T get() {
+		Resources resources = context.getResources();
+		Configuration configuration = resources.getConfiguration();
+		if (loadedConfiguration == null || !loadedConfiguration.equals(configuration)) {
+			value = load(context, resources);
+			loadedConfiguration = new Configuration(configuration);
+		}
+		return value;
+	}
+
+	/**
+	 * Loads the resource for the current configuration.
+	 *
+	 * @param context
+	 *            the context of the component
+	 * @param resources
+	 *            the resources of the context
+	 * @return the resource
+	 */
+	protected abstract T load(Context context, Resources resources);
+}
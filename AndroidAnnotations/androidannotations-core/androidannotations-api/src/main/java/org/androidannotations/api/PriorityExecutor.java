@@ -0,0 +1,413 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size thread pool, which runs the queued tasks by decreasing priority
+ * (see {@link org.androidannotations.annotations.Background#priority()
+ * Background#priority()}), and in submission order for tasks having the same
+ * priority. Runnables which are not {@link BackgroundExecutor.Task} instances
+ * have the priority <code>0</code>.
+ * <p>
+ * The queue is bounded: when it is full, the {@link RejectionPolicy} given at
+ * construction decides what happens to the new task.
+ * <p>
+ * Delayed tasks are kept by a timer thread until their delay elapses, then they
+ * are queued like the other tasks. The ones still waiting when the executor is
+ * shut down are dropped. Periodic scheduling is not supported.
+ * <p>
+ * Install it with {@link BackgroundExecutor#setExecutor(java.util.concurrent.Executor)}:
+ *
+ * <pre>
+ * BackgroundExecutor.setExecutor(new PriorityExecutor(4, 128, PriorityExecutor.RejectionPolicy.DISCARD_OLDEST));
+ * </pre>
+ */
+public class PriorityExecutor extends ThreadPoolExecutor implements ScheduledExecutorService {
+
+	/**
+	 * What to do with a task submitted while the queue is full.
+	 */
+	public enum RejectionPolicy {
+		/**
+		 * Throw a {@link RejectedExecutionException}.
+		 */
+		ABORT,
+
+		/**
+		 * Run the task in the thread which submitted it. When the
+		 * {@link BackgroundExecutor} submits it while holding one of its locks, eg.
+		 * to start the next task of a serial, the task runs once the locks are
+		 * released.
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * Silently drop the new task.
+		 */
+		DISCARD,
+
+		/**
+		 * Drop the oldest queued task among the ones having the lowest priority, to
+		 * make room for the new task. If all the queued tasks have a higher priority
+		 * than the new one, the new task is dropped instead.
+		 */
+		DISCARD_OLDEST
+	}
+
+	private static final Comparator<Runnable> PRIORITY_ORDER = new Comparator<Runnable>() {
+		@Override
+		public int compare(Runnable left, Runnable right) {
+			PrioritizedTask<?> leftTask = (PrioritizedTask<?>) left;
+			PrioritizedTask<?> rightTask = (PrioritizedTask<?>) right;
+			if (leftTask.priority != rightTask.priority) {
+				return leftTask.priority > rightTask.priority ? -1 : 1;
+			}
+			return leftTask.sequence < rightTask.sequence ? -1 : leftTask.sequence == rightTask.sequence ? 0 : 1;
+		}
+	};
+
+	private final AtomicLong sequence = new AtomicLong();
+	private final ScheduledThreadPoolExecutor timer;
+	private final Set<DelayedStart> pendingStarts = Collections.newSetFromMap(new ConcurrentHashMap<DelayedStart, Boolean>());
+	private final Queue<BackgroundExecutor.Task> discardedTasks = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @param poolSize
+	 *            the number of threads running the tasks
+	 * @param capacity
+	 *            the maximum number of tasks waiting for a thread
+	 * @param rejectionPolicy
+	 *            what to do with a task submitted while the queue is full
+	 */
+	public PriorityExecutor(int poolSize, int capacity, RejectionPolicy rejectionPolicy) {
+		super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new BoundedPriorityQueue(capacity));
+		setRejectedExecutionHandler(new RejectionHandler(rejectionPolicy));
+		timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "PriorityExecutor-timer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		return new PrioritizedTask<>(runnable, value, priorityOf(runnable), sequence.getAndIncrement());
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		return new PrioritizedTask<>(callable, sequence.getAndIncrement());
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if (!(command instanceof PrioritizedTask)) {
+			command = newTaskFor(command, null);
+		}
+		super.execute(command);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return schedule(newTaskFor(command, null), delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return schedule(newTaskFor(callable), delay, unit);
+	}
+
+	private <V> ScheduledFuture<V> schedule(RunnableFuture<V> task, long delay, TimeUnit unit) {
+		DelayedStart start = new DelayedStart(task);
+		pendingStarts.add(start);
+		ScheduledFuture<?> timerFuture;
+		try {
+			timerFuture = timer.schedule(start, delay, unit);
+		} catch (RejectedExecutionException e) {
+			pendingStarts.remove(start);
+			throw e;
+		}
+		return new DelayedFuture<>(task, timerFuture);
+	}
+
+	/**
+	 * Not supported.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		throw new UnsupportedOperationException("Periodic tasks are not supported");
+	}
+
+	/**
+	 * Not supported.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		throw new UnsupportedOperationException("Periodic tasks are not supported");
+	}
+
+	@Override
+	public void shutdown() {
+		timer.shutdownNow();
+		super.shutdown();
+		discardPendingStarts();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		timer.shutdownNow();
+		List<Runnable> notStartedTasks = super.shutdownNow();
+		discardPendingStarts();
+		return notStartedTasks;
+	}
+
+	private void discardPendingStarts() {
+		for (DelayedStart start : pendingStarts) {
+			if (pendingStarts.remove(start)) {
+				discard(start.task);
+			}
+		}
+		releaseDiscardedTasks();
+	}
+
+	@Override
+	protected void afterExecute(Runnable runnable, Throwable throwable) {
+		super.afterExecute(runnable, throwable);
+		releaseDiscardedTasks();
+	}
+
+	private static int priorityOf(Runnable runnable) {
+		return runnable instanceof BackgroundExecutor.Task ? ((BackgroundExecutor.Task) runnable).getPriority() : 0;
+	}
+
+	/**
+	 * Drops a task without running it. A dropped background task still lets the
+	 * next tasks of its serial run, but not from here: this is called while the
+	 * queue is full, so the next task would be rejected in turn, and so on
+	 * recursively for the whole serial. The next task is submitted once a thread
+	 * has completed a task, see {@link #releaseDiscardedTasks()}.
+	 */
+	private void discard(Runnable runnable) {
+		if (runnable instanceof PrioritizedTask) {
+			PrioritizedTask<?> task = (PrioritizedTask<?>) runnable;
+			task.cancel(false);
+			if (task.runnable instanceof BackgroundExecutor.Task) {
+				discardedTasks.add((BackgroundExecutor.Task) task.runnable);
+				if (isShutdown()) {
+					releaseDiscardedTasks();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Submits the next tasks of the serials of the discarded tasks, as long as
+	 * the queue has room for them. Once the executor is shut down, they are all
+	 * discarded, in turn.
+	 * <p>
+	 * Their submission is deferred until the current thread has released the
+	 * locks of the {@link BackgroundExecutor}, so that a next task which is
+	 * discarded as well is released by the same loop instead of a nested call.
+	 */
+	private void releaseDiscardedTasks() {
+		while (isShutdown() || getQueue().remainingCapacity() > 0) {
+			final BackgroundExecutor.Task discardedTask = discardedTasks.poll();
+			if (discardedTask == null) {
+				return;
+			}
+			BackgroundExecutor.runOnCallerThread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						discardedTask.discard();
+					} catch (RejectedExecutionException e) {
+						/* the next task of the serial has been discarded in turn */
+					}
+				}
+			});
+			if (!isShutdown()) {
+				/* the next task may have taken the room left in the queue */
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Queues a delayed task once its delay has elapsed.
+	 */
+	private final class DelayedStart implements Runnable {
+
+		private final RunnableFuture<?> task;
+
+		DelayedStart(RunnableFuture<?> task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			if (!pendingStarts.remove(this)) {
+				/* already discarded by a shutdown */
+				return;
+			}
+			if (task.isCancelled()) {
+				return;
+			}
+			try {
+				execute(task);
+			} catch (RejectedExecutionException e) {
+				/* already discarded by the rejection handler */
+			}
+		}
+	}
+
+	private static final class PrioritizedTask<V> extends FutureTask<V> {
+
+		private final Runnable runnable;
+		private final int priority;
+		private final long sequence;
+
+		PrioritizedTask(Runnable runnable, V value, int priority, long sequence) {
+			super(runnable, value);
+			this.runnable = runnable;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		PrioritizedTask(Callable<V> callable, long sequence) {
+			super(callable);
+			this.runnable = null;
+			this.priority = 0;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * A priority queue refusing new elements once it holds <code>capacity</code>
+	 * elements, so that the pool applies its rejection policy.
+	 */
+	private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		BoundedPriorityQueue(int capacity) {
+			super(Math.min(capacity, 11), PRIORITY_ORDER);
+			if (capacity <= 0) {
+				throw new IllegalArgumentException("The capacity must be strictly positive");
+			}
+			this.capacity = capacity;
+		}
+
+		/*
+		 * Only the insertions are synchronized: the removals can only make room for
+		 * the next one.
+		 */
+		@Override
+		public synchronized boolean offer(Runnable runnable) {
+			return size() < capacity && super.offer(runnable);
+		}
+
+		@Override
+		public int remainingCapacity() {
+			return Math.max(0, capacity - size());
+		}
+
+		/**
+		 * Replaces the oldest of the lowest priority tasks by the given one, unless
+		 * they all have a higher priority.
+		 *
+		 * @return the dropped task
+		 */
+		synchronized Runnable replaceLowest(PrioritizedTask<?> task) {
+			PrioritizedTask<?> lowest = null;
+			for (Runnable runnable : this) {
+				PrioritizedTask<?> queued = (PrioritizedTask<?>) runnable;
+				if (lowest == null || queued.priority < lowest.priority || queued.priority == lowest.priority && queued.sequence < lowest.sequence) {
+					lowest = queued;
+				}
+			}
+			if (lowest == null || lowest.priority > task.priority || !remove(lowest)) {
+				return task;
+			}
+			super.offer(task);
+			return lowest;
+		}
+	}
+
+	private static final class RejectionHandler implements RejectedExecutionHandler {
+
+		private final RejectionPolicy policy;
+
+		RejectionHandler(RejectionPolicy policy) {
+			this.policy = policy;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+			PriorityExecutor priorityExecutor = (PriorityExecutor) executor;
+			if (executor.isShutdown()) {
+				priorityExecutor.discard(runnable);
+				throw new RejectedExecutionException("The executor has been shut down");
+			}
+
+			switch (policy) {
+			case CALLER_RUNS:
+				BackgroundExecutor.runOnCallerThread(runnable);
+				break;
+			case DISCARD:
+				priorityExecutor.discard(runnable);
+				break;
+			case DISCARD_OLDEST:
+				priorityExecutor.discard(((BoundedPriorityQueue) executor.getQueue()).replaceLowest((PrioritizedTask<?>) runnable));
+				break;
+			default:
+				priorityExecutor.discard(runnable);
+				throw new RejectedExecutionException("The queue of the executor is full");
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+/**
+ * Provides instances of a type on demand. Declare a
+ * {@link org.androidannotations.annotations.Bean Bean} field or parameter with
+ * this type to get a new instance of the bean on each {@link #get()} call, or
+ * the same one for a singleton bean.
+ *
+ * @param <T>
+ *            the type of the provided instances
+ */
+public interface Provider<T> {
+
+	/**
+	 * @return an instance
+	 */
+	T get();
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+/**
+ * A bounded stack of reusable runnables, used by the code generated with the
+ * <code>pooledUiThreadCalls</code> option so that calling a
+ * {@link org.androidannotations.annotations.UiThread UiThread} method does not
+ * allocate anything once enough runnables have been created. This class is
+ * used by AndroidAnnotations and not intended to be called by clients.
+ *
+ * @param <T>
+ *            the type of the pooled runnables
+ */
+public final class RunnablePool<T extends Runnable> {
+
+	/**
+	 * The number of runnables kept by default, which is enough for calls posted
+	 * faster than the main thread runs them during a frame.
+	 */
+	public static final int DEFAULT_CAPACITY = 8;
+
+	private final Object[] free;
+	private int size;
+
+	public RunnablePool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity
+	 *            the maximum number of runnables kept for reuse
+	 */
+	public RunnablePool(int capacity) {
+		free = new Object[capacity];
+	}
+
+	/**
+	 * Takes a runnable out of the pool.
+	 *
+	 * @return a recycled runnable, or <code>null</code> if the pool is empty and
+	 *         the caller has to create a new one
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized T obtain() {
+		if (size == 0) {
+			return null;
+		}
+		T runnable = (T) free[--size];
+		free[size] = null;
+		return runnable;
+	}
+
+	/**
+	 * Returns the number of runnables available for reuse.
+	 *
+	 * @return the number of runnables kept by the pool
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Gives back a runnable which is not used anymore. It is dropped if the pool
+	 * is full.
+	 *
+	 * @param runnable
+	 *            the runnable, which must not reference its previous arguments
+	 *            anymore
+	 */
+	public synchronized void recycle(T runnable) {
+		if (size < free.length) {
+			free[size++] = runnable;
+		}
+	}
+
+	/**
+	 * A pooled runnable, which gives itself back to its pool once it has run.
+	 * {@link UiThreadExecutor} also calls {@link #recycle()} for the ones it
+	 * removes without running them, when their calls are cancelled or coalesced.
+	 */
+	public interface Recyclable extends Runnable {
+
+		/**
+		 * Clears the arguments of the runnable and gives it back to its pool.
+		 */
+		void recycle();
+	}
+}
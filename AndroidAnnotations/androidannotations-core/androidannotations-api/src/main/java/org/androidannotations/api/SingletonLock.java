@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The lock held by the generated <code>getInstance_()</code> method of a
+ * {@link org.androidannotations.annotations.EBean.Scope#Singleton Singleton}
+ * bean while it builds its instance. Each singleton has its own lock, so
+ * building a singleton does not block the threads requesting other ones.
+ * <p>
+ * The lock is reentrant, and detects the cycles of singletons built from
+ * several threads: when the thread building a singleton waits, directly or
+ * not, for the current thread, {@link #lock()} returns <code>false</code>
+ * instead of deadlocking, and the current thread uses the instance being
+ * initialized, as it would if it had built the whole cycle itself. This class
+ * is used by AndroidAnnotations and not intended to be used by clients.
+ */
+public final class SingletonLock {
+
+	/*
+	 * Guards the owners and the waiting threads of all the locks. It is only
+	 * held to update them, never while a singleton is built.
+	 */
+	private static final Object STATE = new Object();
+	private static final Map<Thread, SingletonLock> WAITING = new HashMap<>();
+
+	private Thread owner;
+	private int holdCount;
+
+	/**
+	 * Acquires the lock, unless the thread holding it waits for the current
+	 * thread.
+	 *
+	 * @return <code>true</code> if the lock is acquired and must be released
+	 *         with {@link #unlock()}, <code>false</code> if waiting for it
+	 *         would deadlock
+	 */
+	public boolean lock() {
+		Thread currentThread = Thread.currentThread();
+		boolean interrupted = false;
+		synchronized (STATE) {
+			try {
+				while (owner != null && owner != currentThread) {
+					if (waitsFor(owner, currentThread)) {
+						return false;
+					}
+					WAITING.put(currentThread, this);
+					try {
+						STATE.wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					} finally {
+						WAITING.remove(currentThread);
+					}
+				}
+				owner = currentThread;
+				holdCount++;
+				return true;
+			} finally {
+				if (interrupted) {
+					currentThread.interrupt();
+				}
+			}
+		}
+	}
+
+	public void unlock() {
+		synchronized (STATE) {
+			if (--holdCount == 0) {
+				owner = null;
+				STATE.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Follows the locks the threads are waiting for, from the given thread.
+	 */
+	private static boolean waitsFor(Thread thread, Thread currentThread) {
+		while (thread != null) {
+			if (thread == currentThread) {
+				return true;
+			}
+			SingletonLock lock = WAITING.get(thread);
+			thread = lock != null ? lock.owner : null;
+		}
+		return false;
+	}
+}
@@ -15,7 +15,9 @@
  */
 package org.androidannotations.api;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import android.os.Handler;
@@ -31,13 +33,16 @@ public final class UiThreadExecutor {
 
 	private static final Handler HANDLER = new Handler(Looper.getMainLooper()) {
 		@Override
-		public void handleMessage(Message msg) {
+		public void dispatchMessage(Message msg) {
 			Runnable callback = msg.getCallback();
-			if (callback != null) {
-				callback.run();
-				decrementToken((Token) msg.obj);
+			if (callback != null && msg.obj instanceof Token) {
+				Token token = (Token) msg.obj;
+				if (claim(token, callback)) {
+					callback.run();
+				}
+				decrementToken(token);
 			} else {
-				super.handleMessage(msg);
+				super.dispatchMessage(msg);
 			}
 		}
 	};
@@ -61,14 +66,59 @@ public final class UiThreadExecutor {
 	 */
 	public static void runTask(String id, Runnable task, long delay) {
 		if ("".equals(id)) {
-			HANDLER.postDelayed(task, delay);
+			runTask(task, delay);
 			return;
 		}
 		long time = SystemClock.uptimeMillis() + delay;
-		HANDLER.postAtTime(task, nextToken(id), time);
+		HANDLER.postAtTime(task, nextToken(id, task), time);
+	}
+
+	/**
+	 * Post a task which cannot be cancelled, without any bookkeeping. This method
+	 * is used by AndroidAnnotations and not intended to be called by clients.
+	 * 
+	 * @param task
+	 *            the task itself
+	 * @param delay
+	 *            the delay or zero to run immediately
+	 */
+	public static void runTask(Runnable task, long delay) {
+		if (delay == 0) {
+			HANDLER.post(task);
+		} else {
+			HANDLER.postDelayed(task, delay);
+		}
 	}
 
-	private static Token nextToken(String id) {
+	/**
+	 * Remove the pending tasks having the same <code>id</code>, then store the new
+	 * task in the map for providing cancellation. This method is used by
+	 * AndroidAnnotations and not intended to be called by clients.
+	 * 
+	 * @param id
+	 *            the identifier of the task, which must not be empty
+	 * @param task
+	 *            the task itself
+	 * @param delay
+	 *            the delay or zero to run immediately
+	 */
+	public static void runLatestTask(String id, Runnable task, long delay) {
+		long time = SystemClock.uptimeMillis() + delay;
+		synchronized (TOKENS) {
+			/*
+			 * the old token is discarded as in cancelAll(), and the task is posted under
+			 * the lock so that concurrent calls cannot both keep their task
+			 */
+			Token old = TOKENS.remove(id);
+			if (old != null) {
+				HANDLER.removeCallbacksAndMessages(old);
+				recyclePending(old);
+			}
+			HANDLER.postAtTime(task, nextToken(id, task), time);
+		}
+	}
+
+	private static Token nextToken(String id, Runnable task) {
 		synchronized (TOKENS) {
 			Token token = TOKENS.get(id);
 			if (token == null) {
@@ -76,10 +126,58 @@ public final class UiThreadExecutor {
 				TOKENS.put(id, token);
 			}
 			token.runnablesCount++;
+			if (task instanceof RunnablePool.Recyclable) {
+				if (token.pendingRecyclables == null) {
+					token.pendingRecyclables = new ArrayList<>();
+				}
+				token.pendingRecyclables.add((RunnablePool.Recyclable) task);
+			}
 			return token;
 		}
 	}
 
+	/**
+	 * Takes a pooled runnable out of the pending ones of its token before running
+	 * it. Fails if the runnable has been recycled by a cancellation which removed
+	 * it after the main thread had dequeued it: it must not run anymore, since it
+	 * may already be reused by another call.
+	 */
+	private static boolean claim(Token token, Runnable callback) {
+		if (!(callback instanceof RunnablePool.Recyclable)) {
+			return true;
+		}
+		synchronized (TOKENS) {
+			return token.pendingRecyclables != null && removeInstance(token.pendingRecyclables, callback);
+		}
+	}
+
+	private static boolean removeInstance(List<RunnablePool.Recyclable> recyclables, Runnable runnable) {
+		for (int i = 0; i < recyclables.size(); i++) {
+			if (recyclables.get(i) == runnable) {
+				recyclables.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gives back the pooled runnables of a token whose messages have been
+	 * removed from the handler.
+	 */
+	private static void recyclePending(Token token) {
+		List<RunnablePool.Recyclable> recyclables;
+		synchronized (TOKENS) {
+			recyclables = token.pendingRecyclables;
+			token.pendingRecyclables = null;
+		}
+		if (recyclables != null) {
+			for (RunnablePool.Recyclable recyclable : recyclables) {
+				recyclable.recycle();
+			}
+		}
+	}
+
 	private static void decrementToken(Token token) {
 		synchronized (TOKENS) {
 			if (--token.runnablesCount == 0) {
@@ -110,12 +208,19 @@ public final class UiThreadExecutor {
 			return;
 		}
 		HANDLER.removeCallbacksAndMessages(token);
+		recyclePending(token);
 	}
 
 	private static final class Token {
 		int runnablesCount = 0;
 		final String id;
 
+		/**
+		 * The posted runnables coming from a {@link RunnablePool}, which have not
+		 * started yet, or <code>null</code> if there are none.
+		 */
+		List<RunnablePool.Recyclable> pendingRecyclables;
+
 		private Token(String id) {
 			this.id = id;
 		}
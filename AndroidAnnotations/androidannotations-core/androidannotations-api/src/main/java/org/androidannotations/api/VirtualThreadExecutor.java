@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor running each task on its own virtual thread, for
+ * {@link BackgroundExecutor} tasks blocking on I/O when the runtime is a JVM
+ * supporting virtual threads (Java 21 or later). Android does not support
+ * them.
+ * <p>
+ * Delayed tasks wait on a single timer thread, then start their own virtual
+ * thread. The delayed tasks which cannot start because the executor has been
+ * shut down are dropped, and a dropped background task still lets the next
+ * tasks of its serial run. Periodic scheduling is not supported.
+ * <p>
+ * Use {@link #create()}, which falls back to a scheduled thread pool similar
+ * to {@link BackgroundExecutor#DEFAULT_EXECUTOR} when virtual threads are not
+ * available:
+ *
+ * <pre>
+ * BackgroundExecutor.setExecutor(VirtualThreadExecutor.create());
+ * </pre>
+ */
+public final class VirtualThreadExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+	private final ExecutorService delegate;
+	private final ScheduledThreadPoolExecutor timer;
+	private final Set<DelayedStart> pendingStarts = Collections.newSetFromMap(new ConcurrentHashMap<DelayedStart, Boolean>());
+
+	/**
+	 * @param delegate
+	 *            the executor running the tasks, only a custom one in tests
+	 */
+	VirtualThreadExecutor(ExecutorService delegate) {
+		this.delegate = delegate;
+		timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "VirtualThreadExecutor-timer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * @return <code>true</code> if the runtime supports virtual threads
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Creates an executor using virtual threads if the runtime supports them, or
+	 * a scheduled thread pool having <code>2 * numberOfCpu</code> threads
+	 * otherwise.
+	 *
+	 * @return the new executor
+	 */
+	public static ScheduledExecutorService create() {
+		if (isSupported()) {
+			try {
+				return new VirtualThreadExecutor((ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null));
+			} catch (IllegalAccessException | InvocationTargetException ignored) {
+				// fall back to the thread pool
+			}
+		}
+		return Executors.newScheduledThreadPool(2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	private static Method findVirtualThreadFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		delegate.execute(command);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return schedule(newTaskFor(command, null), command, delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return schedule(newTaskFor(callable), null, delay, unit);
+	}
+
+	private <V> ScheduledFuture<V> schedule(RunnableFuture<V> task, Runnable command, long delay, TimeUnit unit) {
+		DelayedStart start = new DelayedStart(task, command);
+		pendingStarts.add(start);
+		ScheduledFuture<?> timerFuture;
+		try {
+			timerFuture = timer.schedule(start, delay, unit);
+		} catch (RejectedExecutionException e) {
+			pendingStarts.remove(start);
+			throw e;
+		}
+		return new DelayedFuture<>(task, timerFuture);
+	}
+
+	/**
+	 * Not supported.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		throw new UnsupportedOperationException("Periodic tasks are not supported");
+	}
+
+	/**
+	 * Not supported.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		throw new UnsupportedOperationException("Periodic tasks are not supported");
+	}
+
+	@Override
+	public void shutdown() {
+		timer.shutdownNow();
+		delegate.shutdown();
+		discardPendingStarts();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		timer.shutdownNow();
+		List<Runnable> notStartedTasks = delegate.shutdownNow();
+		discardPendingStarts();
+		return notStartedTasks;
+	}
+
+	private void discardPendingStarts() {
+		for (DelayedStart start : pendingStarts) {
+			if (pendingStarts.remove(start)) {
+				start.discard();
+			}
+		}
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Hands a delayed task to the executor once its delay has elapsed.
+	 */
+	private final class DelayedStart implements Runnable {
+
+		private final RunnableFuture<?> task;
+		private final Runnable command;
+
+		DelayedStart(RunnableFuture<?> task, Runnable command) {
+			this.task = task;
+			this.command = command;
+		}
+
+		@Override
+		public void run() {
+			if (!pendingStarts.remove(this)) {
+				/* already discarded by a shutdown */
+				return;
+			}
+			if (task.isCancelled()) {
+				return;
+			}
+			try {
+				execute(task);
+			} catch (RejectedExecutionException e) {
+				discard();
+			}
+		}
+
+		/**
+		 * Drops the task without running it. A dropped background task still lets
+		 * the next tasks of its serial run.
+		 */
+		void discard() {
+			task.cancel(false);
+			if (command instanceof BackgroundExecutor.Task) {
+				try {
+					((BackgroundExecutor.Task) command).discard();
+				} catch (RejectedExecutionException e) {
+					/* the next task of the serial was submitted to a shut down executor */
+				}
+			}
+		}
+	}
+}
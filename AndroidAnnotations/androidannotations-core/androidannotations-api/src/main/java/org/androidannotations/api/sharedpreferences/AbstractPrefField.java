@@ -17,14 +17,21 @@ package org.androidannotations.api.sharedpreferences;
 
 import android.content.SharedPreferences;
 import android.content.SharedPreferences.Editor;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 
 public abstract class AbstractPrefField<T> {
 
+	private static final Object NOT_CACHED = new Object();
+
 	protected final T defaultValue;
 
 	protected final SharedPreferences sharedPreferences;
 	protected final String key;
 
+	private volatile OnSharedPreferenceChangeListener cacheInvalidator;
+	private volatile Object cachedValue = NOT_CACHED;
+	private volatile int invalidationCount;
+
 	public AbstractPrefField(SharedPreferences sharedPreferences, String key, T defaultValue) {
 		this.sharedPreferences = sharedPreferences;
 		this.key = key;
@@ -39,24 +46,87 @@ public abstract class AbstractPrefField<T> {
 		return this.key;
 	}
 
+	@SuppressWarnings("unchecked")
 	public final T get() {
-		return getOr(defaultValue);
+		Object value = cachedValue;
+		if (value != NOT_CACHED) {
+			return (T) value;
+		}
+		if (cacheInvalidator == null) {
+			return getOr(defaultValue);
+		}
+		int count = invalidationCount;
+		T result = getOr(defaultValue);
+		synchronized (this) {
+			// do not cache a value read before a change
+			if (cacheInvalidator != null && count == invalidationCount) {
+				cachedValue = result;
+			}
+		}
+		return result;
 	}
 
 	public abstract T getOr(T defaultValue);
 
 	public final void put(T value) {
 		putInternal((value == null) ? defaultValue : value);
+		invalidateCache();
 	};
 
 	protected abstract void putInternal(T value);
 
 	public final void remove() {
 		apply(edit().remove(key));
+		invalidateCache();
+	}
+
+	/**
+	 * Keeps the value returned by {@link #get()} in memory, until the pref is
+	 * changed. The changes made by this field are seen immediately, the other
+	 * ones once the {@link OnSharedPreferenceChangeListener listeners} of the
+	 * {@link SharedPreferences} have been notified. Before Android 11, the
+	 * listeners are not notified of {@link Editor#clear()}: use
+	 * {@link SharedPreferencesHelper#clear()} instead, which removes the keys.
+	 */
+	public final synchronized void enableReadCache() {
+		if (cacheInvalidator == null) {
+			cacheInvalidator = new OnSharedPreferenceChangeListener() {
+				@Override
+				public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String changedKey) {
+					// the key is null when the preferences are cleared, from Android 11
+					if (changedKey == null || key.equals(changedKey)) {
+						invalidateCache();
+					}
+				}
+			};
+			sharedPreferences.registerOnSharedPreferenceChangeListener(cacheInvalidator);
+		}
+	}
+
+	/**
+	 * Stops keeping the value in memory.
+	 *
+	 * @see #enableReadCache()
+	 */
+	public final synchronized void disableReadCache() {
+		if (cacheInvalidator != null) {
+			sharedPreferences.unregisterOnSharedPreferenceChangeListener(cacheInvalidator);
+			cacheInvalidator = null;
+			invalidateCache();
+		}
+	}
+
+	private synchronized void invalidateCache() {
+		invalidationCount++;
+		cachedValue = NOT_CACHED;
 	}
 
+	/**
+	 * @return an editor of the preferences, or the one of the
+	 *         {@link SharedPreferencesTransaction} active on the current thread
+	 */
 	protected Editor edit() {
-		return sharedPreferences.edit();
+		return SharedPreferencesTransaction.edit(sharedPreferences);
 	}
 
 	protected final void apply(Editor editor) {
@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * The storage of the Android framework, which keeps each preferences file in
+ * memory and rewrites it entirely when it is changed.
+ */
+public class DefaultSharedPreferencesStorage implements SharedPreferencesStorage {
+
+	@Override
+	public SharedPreferences getSharedPreferences(Context context, String name, int mode) {
+		return context.getSharedPreferences(name, mode);
+	}
+}
@@ -23,7 +23,7 @@ public abstract class EditorHelper<T extends EditorHelper<T>> {
 	private final Editor editor;
 
 	public EditorHelper(SharedPreferences sharedPreferences) {
-		editor = sharedPreferences.edit();
+		editor = SharedPreferencesTransaction.edit(sharedPreferences);
 	}
 
 	protected Editor getEditor() {
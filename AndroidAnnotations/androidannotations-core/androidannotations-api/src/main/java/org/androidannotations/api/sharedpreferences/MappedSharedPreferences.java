@@ -0,0 +1,836 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.androidannotations.api.UiThreadExecutor;
+
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+/**
+ * A {@link SharedPreferences} implementation storing its changes in an append
+ * only log, which is memory mapped. Committing an edit only appends the
+ * changed entries to the log, instead of rewriting the whole file like the
+ * default implementation does, so the cost of a write to the storage does not
+ * depend on the number of stored preferences.
+ * <p>
+ * Each record carries its length and a checksum. When the log is loaded, it
+ * is truncated after the last valid record, so that a write interrupted by a
+ * crash only loses the changes of that write. A file which is not a
+ * preferences log is renamed with a <code>.corrupt</code> suffix and replaced
+ * by an empty log.
+ * <p>
+ * The log is compacted (rewritten with only the live entries) when it holds
+ * more overwritten entries than live ones, and it grows by doubling its size
+ * when it is full.
+ * <p>
+ * The values are kept in memory behind a read write lock: a commit only
+ * updates the changed entries, and reads never touch the file while always
+ * seeing the whole result of a commit. A {@link Editor#commit() commit()}
+ * appends the pending records and forces them to the storage device before
+ * returning, while an {@link Editor#apply() apply()} updates the memory and
+ * leaves the write to a background thread, which also runs the compactions.
+ * Listeners are notified on the main thread.
+ * <p>
+ * Use {@link #open(File)} to get the single instance of a given file.
+ */
+public final class MappedSharedPreferences implements SharedPreferences {
+
+	private static final int MAGIC = 0x41414b56;
+	private static final int FORMAT_VERSION = 2;
+	private static final int END_OFFSET = 8;
+	private static final int HEADER_SIZE = 12;
+	private static final int RECORD_HEADER_SIZE = 8;
+	private static final int INITIAL_SIZE = 16 * 1024;
+	private static final int MIN_GARBAGE_BEFORE_COMPACTION = 1024;
+
+	private static final byte OP_PUT = 1;
+	private static final byte OP_REMOVE = 2;
+	private static final byte OP_CLEAR = 3;
+
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_INT = 2;
+	private static final byte TYPE_LONG = 3;
+	private static final byte TYPE_FLOAT = 4;
+	private static final byte TYPE_BOOLEAN = 5;
+	private static final byte TYPE_STRING_SET = 6;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final Map<String, MappedSharedPreferences> INSTANCES = new HashMap<>();
+
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "MappedSharedPreferences-writer");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final File file;
+	private final Map<OnSharedPreferenceChangeListener, Boolean> listeners = new WeakHashMap<>();
+
+	/*
+	 * The values and the records which are applied to them but not appended
+	 * to the log yet, in the order of the commits. Both are only changed under
+	 * the write lock.
+	 */
+	private final Map<String, Object> values = new HashMap<>();
+	private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+	private final ReadWriteLock valuesLock = new ReentrantReadWriteLock();
+	private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+	/*
+	 * The fields below are guarded by this instance, which is never locked
+	 * while holding the values lock.
+	 */
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int end;
+	private int recordCount;
+
+	MappedSharedPreferences(File file) throws IOException {
+		this.file = file;
+		load();
+	}
+
+	/**
+	 * Opens the preferences stored in the given file, creating it if needed.
+	 * The same instance is returned for a given file as long as the process
+	 * lives.
+	 *
+	 * @param file
+	 *            the log file
+	 * @return the preferences stored in the file
+	 * @throws IOException
+	 *             if the file cannot be created or read
+	 */
+	public static MappedSharedPreferences open(File file) throws IOException {
+		String path = file.getCanonicalPath();
+		synchronized (INSTANCES) {
+			MappedSharedPreferences preferences = INSTANCES.get(path);
+			if (preferences == null) {
+				preferences = new MappedSharedPreferences(file);
+				INSTANCES.put(path, preferences);
+			}
+			return preferences;
+		}
+	}
+
+	private void load() throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create the directory " + directory);
+		}
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		try {
+			long length = channel.size();
+			if (length > Integer.MAX_VALUE || length > 0 && !hasHeader(length)) {
+				setAside();
+				length = 0;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(length, INITIAL_SIZE));
+			if (length == 0) {
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, FORMAT_VERSION);
+				setEnd(HEADER_SIZE);
+				return;
+			}
+			int storedEnd = buffer.getInt(END_OFFSET);
+			// the checksums tell where the records stop if the end is invalid
+			boolean validEnd = storedEnd >= HEADER_SIZE && storedEnd <= length;
+			end = readRecords(validEnd ? storedEnd : (int) length);
+			if (end != storedEnd) {
+				// drop the torn or corrupted tail
+				setEnd(end);
+				buffer.force();
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private boolean hasHeader(long length) throws IOException {
+		if (length < HEADER_SIZE) {
+			return false;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+			// read the whole header
+		}
+		return header.getInt(0) == MAGIC && header.getInt(4) == FORMAT_VERSION;
+	}
+
+	/**
+	 * Keeps a file which is not a preferences log as a <code>.corrupt</code>
+	 * file, and starts a new log in its place.
+	 */
+	private void setAside() throws IOException {
+		channel.close();
+		File corruptFile = new File(file.getPath() + ".corrupt");
+		corruptFile.delete();
+		if (!file.renameTo(corruptFile)) {
+			throw new IOException("Could not move " + file + " to " + corruptFile);
+		}
+		channel = new RandomAccessFile(file, "rw").getChannel();
+	}
+
+	/**
+	 * Reads the records until the first invalid one.
+	 *
+	 * @return the offset following the last valid record
+	 */
+	private int readRecords(int limit) {
+		CRC32 crc = new CRC32();
+		int position = HEADER_SIZE;
+		while (limit - position >= RECORD_HEADER_SIZE) {
+			int length = buffer.getInt(position);
+			int checksum = buffer.getInt(position + 4);
+			if (length <= 0 || length > limit - position - RECORD_HEADER_SIZE) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			ByteBuffer record = buffer.duplicate();
+			record.position(position + RECORD_HEADER_SIZE);
+			record.get(payload);
+			crc.reset();
+			crc.update(payload, 0, length);
+			if ((int) crc.getValue() != checksum || !readRecord(ByteBuffer.wrap(payload), values)) {
+				break;
+			}
+			position += RECORD_HEADER_SIZE + length;
+			recordCount++;
+		}
+		return position;
+	}
+
+	/**
+	 * @return <code>false</code> if the record is malformed, in which case
+	 *         nothing is changed
+	 */
+	private static boolean readRecord(ByteBuffer record, Map<String, Object> loadedValues) {
+		try {
+			byte operation = record.get();
+			switch (operation) {
+			case OP_PUT:
+				String key = readString(record);
+				Object value = readValue(record);
+				if (value == null || record.hasRemaining()) {
+					return false;
+				}
+				loadedValues.put(key, value);
+				return true;
+			case OP_REMOVE:
+				String removedKey = readString(record);
+				if (record.hasRemaining()) {
+					return false;
+				}
+				loadedValues.remove(removedKey);
+				return true;
+			case OP_CLEAR:
+				if (record.hasRemaining()) {
+					return false;
+				}
+				loadedValues.clear();
+				return true;
+			default:
+				return false;
+			}
+		} catch (BufferUnderflowException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the value, or <code>null</code> if its type is unknown
+	 */
+	private static Object readValue(ByteBuffer records) {
+		byte type = records.get();
+		switch (type) {
+		case TYPE_STRING:
+			return readString(records);
+		case TYPE_INT:
+			return records.getInt();
+		case TYPE_LONG:
+			return records.getLong();
+		case TYPE_FLOAT:
+			return records.getFloat();
+		case TYPE_BOOLEAN:
+			return records.get() != 0;
+		case TYPE_STRING_SET:
+			int size = records.getInt();
+			Set<String> set = new HashSet<>();
+			for (int i = 0; i < size; i++) {
+				set.add(readString(records));
+			}
+			return Collections.unmodifiableSet(set);
+		default:
+			return null;
+		}
+	}
+
+	private static String readString(ByteBuffer records) {
+		int length = records.getInt();
+		if (length < 0 || length > records.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		records.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * Frames each record with its length and checksum.
+	 */
+	private static final class RecordWriter {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream output = new DataOutputStream(bytes);
+		private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+		private final CRC32 crc = new CRC32();
+
+		/**
+		 * The output of the current record, which is ended by {@link #endRecord()}.
+		 */
+		final DataOutputStream record = new DataOutputStream(recordBytes);
+		int recordCount;
+
+		void endRecord() throws IOException {
+			byte[] payload = recordBytes.toByteArray();
+			recordBytes.reset();
+			crc.reset();
+			crc.update(payload, 0, payload.length);
+			output.writeInt(payload.length);
+			output.writeInt((int) crc.getValue());
+			output.write(payload);
+			recordCount++;
+		}
+
+		byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+	}
+
+	private static void writePut(DataOutputStream output, String key, Object value) throws IOException {
+		output.writeByte(OP_PUT);
+		writeString(output, key);
+		if (value instanceof String) {
+			output.writeByte(TYPE_STRING);
+			writeString(output, (String) value);
+		} else if (value instanceof Integer) {
+			output.writeByte(TYPE_INT);
+			output.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			output.writeByte(TYPE_LONG);
+			output.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			output.writeByte(TYPE_FLOAT);
+			output.writeFloat((Float) value);
+		} else if (value instanceof Boolean) {
+			output.writeByte(TYPE_BOOLEAN);
+			output.writeBoolean((Boolean) value);
+		} else {
+			Set<?> set = (Set<?>) value;
+			output.writeByte(TYPE_STRING_SET);
+			output.writeInt(set.size());
+			for (Object element : set) {
+				writeString(output, (String) element);
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream output, String string) throws IOException {
+		byte[] bytes = string.getBytes(UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * The records of a commit, waiting to be appended to the log.
+	 */
+	private static final class PendingWrite {
+
+		final byte[] data;
+		final int recordCount;
+
+		PendingWrite(byte[] data, int recordCount) {
+			this.data = data;
+			this.recordCount = recordCount;
+		}
+	}
+
+	private void setEnd(int end) {
+		buffer.putInt(END_OFFSET, end);
+		this.end = end;
+	}
+
+	/**
+	 * Rewrites the log with only the live entries. This is done automatically
+	 * in the background when the log holds more overwritten entries than live
+	 * ones.
+	 *
+	 * @throws IOException
+	 *             if the compacted log cannot be written
+	 */
+	public synchronized void compact() throws IOException {
+		compact(appendAllPending());
+	}
+
+	private void compact(Map<String, Object> currentValues) throws IOException {
+		RecordWriter writer = new RecordWriter();
+		for (Map.Entry<String, Object> entry : currentValues.entrySet()) {
+			writePut(writer.record, entry.getKey(), entry.getValue());
+			writer.endRecord();
+		}
+		byte[] records = writer.toByteArray();
+		int newEnd = HEADER_SIZE + records.length;
+
+		File tempFile = new File(file.getPath() + ".tmp");
+		FileChannel newChannel = new RandomAccessFile(tempFile, "rw").getChannel();
+		try {
+			newChannel.truncate(0);
+			MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, mappingSize(INITIAL_SIZE, 2L * newEnd));
+			newBuffer.putInt(0, MAGIC);
+			newBuffer.putInt(4, FORMAT_VERSION);
+			newBuffer.putInt(END_OFFSET, newEnd);
+			newBuffer.position(HEADER_SIZE);
+			newBuffer.put(records);
+			newBuffer.force();
+			if (!tempFile.renameTo(file)) {
+				throw new IOException("Could not replace " + file);
+			}
+			channel.close();
+			channel = newChannel;
+			buffer = newBuffer;
+			end = newEnd;
+			recordCount = currentValues.size();
+		} catch (IOException | RuntimeException e) {
+			newChannel.close();
+			tempFile.delete();
+			throw e;
+		}
+	}
+
+	private static long mappingSize(long size, long minimumSize) throws IOException {
+		while (size < minimumSize) {
+			size *= 2;
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The preferences log cannot grow beyond 2GB");
+		}
+		return size;
+	}
+
+	private boolean needsCompaction(int size) {
+		return recordCount - size > Math.max(size, MIN_GARBAGE_BEFORE_COMPACTION);
+	}
+
+	private boolean needsCompaction() {
+		valuesLock.readLock().lock();
+		try {
+			return needsCompaction(values.size());
+		} finally {
+			valuesLock.readLock().unlock();
+		}
+	}
+
+	private void ensureCapacity(int length) throws IOException {
+		if (end + length <= buffer.capacity()) {
+			return;
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappingSize(buffer.capacity(), (long) end + length));
+	}
+
+	/**
+	 * Appends the pending records, in the order of their commits. A write
+	 * which fails stays pending, so it is retried by the next one.
+	 */
+	private void appendPending() throws IOException {
+		PendingWrite write = pendingWrites.peek();
+		while (write != null) {
+			ensureCapacity(write.data.length);
+			buffer.position(end);
+			buffer.put(write.data);
+			setEnd(end + write.data.length);
+			recordCount += write.recordCount;
+			pendingWrites.poll();
+			write = pendingWrites.peek();
+		}
+	}
+
+	/**
+	 * Appends the pending records until the log holds all the values.
+	 *
+	 * @return a copy of the values stored in the log
+	 */
+	private Map<String, Object> appendAllPending() throws IOException {
+		while (true) {
+			appendPending();
+			valuesLock.readLock().lock();
+			try {
+				if (pendingWrites.isEmpty()) {
+					return new HashMap<>(values);
+				}
+			} finally {
+				valuesLock.readLock().unlock();
+			}
+		}
+	}
+
+	private void scheduleWrite() {
+		if (writeScheduled.compareAndSet(false, true)) {
+			WRITER.execute(new Runnable() {
+				@Override
+				public void run() {
+					writeScheduled.set(false);
+					writeInBackground();
+				}
+			});
+		}
+	}
+
+	private synchronized void writeInBackground() {
+		try {
+			appendPending();
+			if (needsCompaction()) {
+				Map<String, Object> currentValues = appendAllPending();
+				if (needsCompaction(currentValues.size())) {
+					compact(currentValues);
+				}
+			}
+		} catch (IOException ignored) {
+			// the records stay pending, and the compaction is retried on the next write
+		}
+	}
+
+	/**
+	 * Waits until the writes and the compactions scheduled so far are done.
+	 */
+	void awaitBackgroundWrites() throws InterruptedException, ExecutionException {
+		WRITER.submit(new Runnable() {
+			@Override
+			public void run() {
+				// the writer runs the tasks in order
+			}
+		}).get();
+	}
+
+	private boolean commit(MappedEditor editor, boolean force) {
+		List<String> changedKeys = new ArrayList<>();
+		valuesLock.writeLock().lock();
+		try {
+			Map<String, Object> changes = new LinkedHashMap<>();
+			RecordWriter writer = new RecordWriter();
+			try {
+				if (editor.clear) {
+					writer.record.writeByte(OP_CLEAR);
+					writer.endRecord();
+				}
+				for (Map.Entry<String, Object> change : editor.changes.entrySet()) {
+					String key = change.getKey();
+					Object value = change.getValue();
+					Object currentValue = editor.clear ? null : values.get(key);
+					if (value == null ? currentValue == null : value.equals(currentValue)) {
+						continue;
+					}
+					if (value == null) {
+						writer.record.writeByte(OP_REMOVE);
+						writeString(writer.record, key);
+					} else {
+						writePut(writer.record, key, value);
+					}
+					writer.endRecord();
+					changes.put(key, value);
+				}
+			} catch (IOException e) {
+				return false;
+			}
+
+			if (writer.recordCount > 0) {
+				if (editor.clear) {
+					values.clear();
+					changedKeys.add(null);
+				}
+				for (Map.Entry<String, Object> change : changes.entrySet()) {
+					if (change.getValue() == null) {
+						values.remove(change.getKey());
+					} else {
+						values.put(change.getKey(), change.getValue());
+					}
+				}
+				changedKeys.addAll(changes.keySet());
+				pendingWrites.add(new PendingWrite(writer.toByteArray(), writer.recordCount));
+			}
+		} finally {
+			valuesLock.writeLock().unlock();
+		}
+		notifyListeners(changedKeys);
+
+		if (!force) {
+			scheduleWrite();
+			return true;
+		}
+		synchronized (this) {
+			try {
+				appendPending();
+				buffer.force();
+			} catch (IOException e) {
+				return false;
+			}
+			if (needsCompaction()) {
+				scheduleWrite();
+			}
+		}
+		return true;
+	}
+
+	private void notifyListeners(final List<String> changedKeys) {
+		if (changedKeys.isEmpty()) {
+			return;
+		}
+		final List<OnSharedPreferenceChangeListener> currentListeners;
+		synchronized (listeners) {
+			if (listeners.isEmpty()) {
+				return;
+			}
+			currentListeners = new ArrayList<>(listeners.keySet());
+		}
+		Runnable notification = new Runnable() {
+			@Override
+			public void run() {
+				for (String key : changedKeys) {
+					for (OnSharedPreferenceChangeListener listener : currentListeners) {
+						listener.onSharedPreferenceChanged(MappedSharedPreferences.this, key);
+					}
+				}
+			}
+		};
+		if (Looper.myLooper() == Looper.getMainLooper()) {
+			notification.run();
+		} else {
+			UiThreadExecutor.runTask(notification, 0);
+		}
+	}
+
+	private Object get(String key) {
+		valuesLock.readLock().lock();
+		try {
+			return values.get(key);
+		} finally {
+			valuesLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Map<String, ?> getAll() {
+		valuesLock.readLock().lock();
+		try {
+			return new HashMap<>(values);
+		} finally {
+			valuesLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public String getString(String key, String defValue) {
+		String value = (String) get(key);
+		return value != null ? value : defValue;
+	}
+
+	/**
+	 * @param key
+	 *            the name of the preference
+	 * @param defValues
+	 *            the values returned if the preference does not exist
+	 * @return an unmodifiable set, or <code>defValues</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<String> getStringSet(String key, Set<String> defValues) {
+		Set<String> value = (Set<String>) get(key);
+		return value != null ? value : defValues;
+	}
+
+	@Override
+	public int getInt(String key, int defValue) {
+		Integer value = (Integer) get(key);
+		return value != null ? value : defValue;
+	}
+
+	@Override
+	public long getLong(String key, long defValue) {
+		Long value = (Long) get(key);
+		return value != null ? value : defValue;
+	}
+
+	@Override
+	public float getFloat(String key, float defValue) {
+		Float value = (Float) get(key);
+		return value != null ? value : defValue;
+	}
+
+	@Override
+	public boolean getBoolean(String key, boolean defValue) {
+		Boolean value = (Boolean) get(key);
+		return value != null ? value : defValue;
+	}
+
+	@Override
+	public boolean contains(String key) {
+		valuesLock.readLock().lock();
+		try {
+			return values.containsKey(key);
+		} finally {
+			valuesLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Editor edit() {
+		return new MappedEditor();
+	}
+
+	@Override
+	public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+		synchronized (listeners) {
+			listeners.put(listener, Boolean.TRUE);
+		}
+	}
+
+	@Override
+	public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Records the changes until they are committed. A <code>null</code> value
+	 * stands for a removal.
+	 */
+	private final class MappedEditor implements Editor {
+
+		private final Map<String, Object> changes = new LinkedHashMap<>();
+		private boolean clear;
+
+		private synchronized Editor put(String key, Object value) {
+			changes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public Editor putString(String key, String value) {
+			return put(key, value);
+		}
+
+		/**
+		 * @param key
+		 *            the name of the preference
+		 * @param values
+		 *            the new values, or <code>null</code> to remove the
+		 *            preference
+		 * @return this editor
+		 */
+		public Editor putStringSet(String key, Set<String> values) {
+			return put(key, values != null ? Collections.unmodifiableSet(new HashSet<>(values)) : null);
+		}
+
+		@Override
+		public Editor putInt(String key, int value) {
+			return put(key, value);
+		}
+
+		@Override
+		public Editor putLong(String key, long value) {
+			return put(key, value);
+		}
+
+		@Override
+		public Editor putFloat(String key, float value) {
+			return put(key, value);
+		}
+
+		@Override
+		public Editor putBoolean(String key, boolean value) {
+			return put(key, value);
+		}
+
+		@Override
+		public Editor remove(String key) {
+			return put(key, null);
+		}
+
+		@Override
+		public synchronized Editor clear() {
+			clear = true;
+			return this;
+		}
+
+		@Override
+		public synchronized boolean commit() {
+			try {
+				return MappedSharedPreferences.this.commit(this, true);
+			} finally {
+				reset();
+			}
+		}
+
+		@Override
+		public synchronized void apply() {
+			try {
+				MappedSharedPreferences.this.commit(this, false);
+			} finally {
+				reset();
+			}
+		}
+
+		private void reset() {
+			changes.clear();
+			clear = false;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import java.io.File;
+import java.io.IOException;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Stores each preferences file as a {@link MappedSharedPreferences} log in the
+ * <code>mapped_prefs</code> directory of the application files. The mode is
+ * ignored: the files are always private. A corrupted file does not prevent the
+ * preferences from opening, only a failure of the storage does.
+ */
+public class MappedSharedPreferencesStorage implements SharedPreferencesStorage {
+
+	static final String DIRECTORY_NAME = "mapped_prefs";
+	static final String FILE_EXTENSION = ".kv";
+
+	@Override
+	public SharedPreferences getSharedPreferences(Context context, String name, int mode) {
+		File directory = new File(context.getFilesDir(), DIRECTORY_NAME);
+		try {
+			return MappedSharedPreferences.open(new File(directory, name + FILE_EXTENSION));
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not open the preferences " + name, e);
+		}
+	}
+}
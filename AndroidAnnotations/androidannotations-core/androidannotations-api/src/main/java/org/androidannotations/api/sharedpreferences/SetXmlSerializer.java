@@ -29,6 +29,10 @@ import org.xmlpull.v1.XmlSerializer;
 import android.util.Log;
 import android.util.Xml;
 
+/**
+ * The XML format of the string sets stored by the previous versions. The sets
+ * are now written by {@link StringSetCodec}, which still reads this format.
+ */
 public final class SetXmlSerializer {
 
 	private static final String NAMESPACE = "";
@@ -18,6 +18,7 @@ package org.androidannotations.api.sharedpreferences;
 import java.util.Set;
 
 import android.content.SharedPreferences;
+import android.content.SharedPreferences.Editor;
 
 public abstract class SharedPreferencesHelper {
 
@@ -32,7 +33,15 @@ public abstract class SharedPreferencesHelper {
 	}
 
 	public final void clear() {
-		SharedPreferencesCompat.apply(sharedPreferences.edit().clear());
+		/*
+		 * Editor.clear() does not notify the listeners before Android 11, the keys
+		 * are removed one by one so that the read caches of the fields see it
+		 */
+		Editor editor = SharedPreferencesTransaction.edit(sharedPreferences);
+		for (String key : sharedPreferences.getAll().keySet()) {
+			editor.remove(key);
+		}
+		SharedPreferencesCompat.apply(editor);
 	}
 
 	protected IntPrefField intField(String key, int defaultValue) {
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Provides the {@link SharedPreferences} instances used by the classes
+ * generated for {@link org.androidannotations.annotations.sharedpreferences.SharedPref
+ * SharedPref} interfaces, see
+ * {@link org.androidannotations.annotations.sharedpreferences.SharedPref#storage()
+ * SharedPref#storage()}.
+ * <p>
+ * Implementations must have a public no argument constructor, and should
+ * return the same instance each time the same preferences are requested, as
+ * the generated classes are instantiated for each injection.
+ * </p>
+ */
+public interface SharedPreferencesStorage {
+
+	/**
+	 * @param context
+	 *            the context of the generated class
+	 * @param name
+	 *            the name of the preferences, depending on their scope
+	 * @param mode
+	 *            the operating mode
+	 * @return the preferences having the given name
+	 */
+	SharedPreferences getSharedPreferences(Context context, String name, int mode);
+}
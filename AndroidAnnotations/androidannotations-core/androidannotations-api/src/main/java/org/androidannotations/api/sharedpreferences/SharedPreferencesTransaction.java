@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import android.content.SharedPreferences;
+import android.content.SharedPreferences.Editor;
+
+/**
+ * Groups the changes made by the pref fields and editors of any number of
+ * {@link org.androidannotations.annotations.sharedpreferences.SharedPref
+ * SharedPref} classes, so that each preferences file is written once.
+ * <p>
+ * While a transaction is active on a thread, the changes made on this thread
+ * are kept in memory. When the transaction is applied, the last value written
+ * to each key is compared to the stored one, and only the changed values are
+ * written, with a single editor per {@link SharedPreferences} instance:
+ * </p>
+ * 
+ * <pre>
+ * SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+ * try {
+ * 	settings.theme().put(theme);
+ * 	account.edit().name().put(name).apply();
+ * 	transaction.apply();
+ * } finally {
+ * 	transaction.end();
+ * }
+ * </pre>
+ * <p>
+ * The pending changes are not visible to the reads made during the
+ * transaction. A transaction ended before being applied is discarded. The
+ * editors obtained during the transaction, such as the ones of the
+ * {@link EditorHelper} instances created in it, belong to it: using them
+ * after its end throws an {@link IllegalStateException} instead of losing the
+ * changes.
+ * </p>
+ */
+public final class SharedPreferencesTransaction {
+
+	private static final ThreadLocal<SharedPreferencesTransaction> CURRENT = new ThreadLocal<>();
+
+	private static final Object REMOVED = new Object();
+
+	private final Map<SharedPreferences, TransactionEditor> editors = new IdentityHashMap<>();
+	private boolean ended;
+
+	private SharedPreferencesTransaction() {
+	}
+
+	/**
+	 * Starts a transaction on the current thread.
+	 *
+	 * @return the new transaction
+	 * @throws IllegalStateException
+	 *             if a transaction is already active on the current thread
+	 */
+	public static SharedPreferencesTransaction begin() {
+		if (CURRENT.get() != null) {
+			throw new IllegalStateException("A transaction is already active on this thread");
+		}
+		SharedPreferencesTransaction transaction = new SharedPreferencesTransaction();
+		CURRENT.set(transaction);
+		return transaction;
+	}
+
+	/**
+	 * @return the transaction active on the current thread, or
+	 *         <code>null</code>
+	 */
+	public static SharedPreferencesTransaction current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Returns the editor recording the changes in the transaction active on the
+	 * current thread, or a new editor of the preferences if there is none.
+	 */
+	static Editor edit(SharedPreferences sharedPreferences) {
+		SharedPreferencesTransaction transaction = CURRENT.get();
+		if (transaction == null) {
+			return sharedPreferences.edit();
+		}
+		TransactionEditor editor = transaction.editors.get(sharedPreferences);
+		if (editor == null) {
+			editor = new TransactionEditor(transaction);
+			transaction.editors.put(sharedPreferences, editor);
+		}
+		return editor;
+	}
+
+	/**
+	 * Ends the transaction and writes the changed values asynchronously, with
+	 * one {@link Editor#apply()} per preferences file.
+	 */
+	public void apply() {
+		write(false);
+	}
+
+	/**
+	 * Ends the transaction and writes the changed values synchronously, with
+	 * one {@link Editor#commit()} per preferences file.
+	 *
+	 * @return <code>true</code> if all the files were written
+	 */
+	public boolean commit() {
+		return write(true);
+	}
+
+	/**
+	 * Ends the transaction, discarding the changes if it was not applied. Call
+	 * it in a <code>finally</code> block.
+	 */
+	public void end() {
+		if (CURRENT.get() == this) {
+			CURRENT.remove();
+		}
+		ended = true;
+		editors.clear();
+	}
+
+	private boolean write(boolean synchronous) {
+		if (ended) {
+			throw new IllegalStateException("The transaction has ended");
+		}
+		Map<SharedPreferences, TransactionEditor> pendingEditors = new IdentityHashMap<>(editors);
+		end();
+		boolean written = true;
+		for (Map.Entry<SharedPreferences, TransactionEditor> entry : pendingEditors.entrySet()) {
+			Editor editor = entry.getValue().createEditor(entry.getKey());
+			if (editor == null) {
+				continue;
+			}
+			if (synchronous) {
+				written &= editor.commit();
+			} else {
+				SharedPreferencesCompat.apply(editor);
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Records the last change of each key. Its {@link #apply()} and
+	 * {@link #commit()} methods do nothing: the changes are written when the
+	 * transaction is. Once the transaction has ended, all its methods throw an
+	 * {@link IllegalStateException}.
+	 */
+	private static final class TransactionEditor implements Editor {
+
+		private final SharedPreferencesTransaction transaction;
+		private final Map<String, Object> changes = new LinkedHashMap<>();
+		private boolean clear;
+
+		TransactionEditor(SharedPreferencesTransaction transaction) {
+			this.transaction = transaction;
+		}
+
+		private void checkActive() {
+			if (transaction.ended) {
+				throw new IllegalStateException("The transaction of this editor has ended");
+			}
+		}
+
+		/**
+		 * @return an editor of the given preferences holding the changed values,
+		 *         or <code>null</code> if nothing changed
+		 */
+		Editor createEditor(SharedPreferences sharedPreferences) {
+			Map<String, ?> currentValues = sharedPreferences.getAll();
+			Editor editor = null;
+			if (clear) {
+				if (!currentValues.isEmpty()) {
+					editor = sharedPreferences.edit().clear();
+				}
+				currentValues = Collections.emptyMap();
+			}
+			for (Map.Entry<String, Object> change : changes.entrySet()) {
+				String key = change.getKey();
+				Object value = change.getValue();
+				if (isUnchanged(currentValues, key, value)) {
+					continue;
+				}
+				if (editor == null) {
+					editor = sharedPreferences.edit();
+				}
+				put(editor, key, value);
+			}
+			return editor;
+		}
+
+		private static boolean isUnchanged(Map<String, ?> currentValues, String key, Object value) {
+			if (value == REMOVED) {
+				return !currentValues.containsKey(key);
+			}
+			Object currentValue = currentValues.get(key);
+			if (value instanceof Set && currentValue instanceof String) {
+				// stored by SharedPreferencesCompat before API 11
+				return StringSetCodec.encode(castSet(value)).equals(currentValue);
+			}
+			return value.equals(currentValue);
+		}
+
+		private static void put(Editor editor, String key, Object value) {
+			if (value == REMOVED) {
+				editor.remove(key);
+			} else if (value instanceof String) {
+				editor.putString(key, (String) value);
+			} else if (value instanceof Integer) {
+				editor.putInt(key, (Integer) value);
+			} else if (value instanceof Long) {
+				editor.putLong(key, (Long) value);
+			} else if (value instanceof Float) {
+				editor.putFloat(key, (Float) value);
+			} else if (value instanceof Boolean) {
+				editor.putBoolean(key, (Boolean) value);
+			} else {
+				SharedPreferencesCompat.putStringSet(editor, key, castSet(value));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Set<String> castSet(Object value) {
+			return (Set<String>) value;
+		}
+
+		private Editor record(String key, Object value) {
+			checkActive();
+			changes.put(key, value != null ? value : REMOVED);
+			return this;
+		}
+
+		@Override
+		public Editor putString(String key, String value) {
+			return record(key, value);
+		}
+
+		/**
+		 * Called by {@link SharedPreferencesCompat#putStringSet(Editor, String, Set)}
+		 * on API 11 and later.
+		 *
+		 * @param key
+		 *            the name of the preference
+		 * @param values
+		 *            the new values, or <code>null</code> to remove the
+		 *            preference
+		 * @return this editor
+		 */
+		public Editor putStringSet(String key, Set<String> values) {
+			return record(key, values != null ? new HashSet<>(values) : null);
+		}
+
+		@Override
+		public Editor putInt(String key, int value) {
+			return record(key, value);
+		}
+
+		@Override
+		public Editor putLong(String key, long value) {
+			return record(key, value);
+		}
+
+		@Override
+		public Editor putFloat(String key, float value) {
+			return record(key, value);
+		}
+
+		@Override
+		public Editor putBoolean(String key, boolean value) {
+			return record(key, value);
+		}
+
+		@Override
+		public Editor remove(String key) {
+			return record(key, null);
+		}
+
+		@Override
+		public Editor clear() {
+			checkActive();
+			clear = true;
+			return this;
+		}
+
+		@Override
+		public boolean commit() {
+			checkActive();
+			return true;
+		}
+
+		@Override
+		public void apply() {
+			checkActive();
+		}
+	}
+}
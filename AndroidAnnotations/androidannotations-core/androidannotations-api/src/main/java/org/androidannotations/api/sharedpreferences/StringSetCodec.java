@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import android.util.Log;
+
+/**
+ * Encodes a string set into a single string, to store it in the preferences
+ * which do not support string sets (before API 11).
+ * <p>
+ * The encoded value is the versioned header <code>AA_set:1:</code>, followed
+ * by the number of strings, then by each string prefixed by its length. The
+ * numbers are written in base 36 and terminated by a <code>:</code>, so the
+ * strings are copied as they are, without escaping: <code>{"a", "bc"}</code>
+ * is encoded as <code>AA_set:1:2:1:a2:bc</code>.
+ * <p>
+ * The values written by {@link SetXmlSerializer} are still decoded, they are
+ * written in this format the next time they are changed. Like the ones read
+ * from the XML format, the decoded sets are sorted.
+ */
+public final class StringSetCodec {
+
+	static final String HEADER = "AA_set:1:";
+
+	private static final char TERMINATOR = ':';
+	private static final int RADIX = Character.MAX_RADIX;
+
+	private StringSetCodec() {
+
+	}
+
+	public static String encode(Set<String> set) {
+		if (set == null) {
+			set = Collections.emptySet();
+		}
+
+		int capacity = HEADER.length() + 8;
+		for (String string : set) {
+			capacity += string.length() + 4;
+		}
+
+		StringBuilder builder = new StringBuilder(capacity);
+		builder.append(HEADER).append(Integer.toString(set.size(), RADIX)).append(TERMINATOR);
+		for (String string : set) {
+			builder.append(Integer.toString(string.length(), RADIX)).append(TERMINATOR).append(string);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @param data
+	 *            a value returned by {@link #encode(Set)} or by
+	 *            {@link SetXmlSerializer#serialize(Set)}
+	 * @return the decoded set, sorted, or <code>null</code> if the value is
+	 *         malformed
+	 */
+	public static Set<String> decode(String data) {
+		if (!data.startsWith(HEADER)) {
+			return SetXmlSerializer.deserialize(data);
+		}
+
+		try {
+			int position = HEADER.length();
+			int terminator = data.indexOf(TERMINATOR, position);
+			int size = parseNumber(data, position, terminator);
+			position = terminator + 1;
+
+			Set<String> set = new TreeSet<>();
+			for (int i = 0; i < size; i++) {
+				terminator = data.indexOf(TERMINATOR, position);
+				int length = parseNumber(data, position, terminator);
+				position = terminator + 1;
+				set.add(data.substring(position, position + length));
+				position += length;
+			}
+			if (position != data.length()) {
+				throw new IllegalArgumentException("Unexpected characters after the last string");
+			}
+			return set;
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			Log.w("getStringSet", e);
+			return null;
+		}
+	}
+
+	private static int parseNumber(String data, int start, int end) {
+		if (end <= start) {
+			throw new IllegalArgumentException("Missing number at " + start);
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = Character.digit(data.charAt(i), RADIX);
+			if (digit < 0 || value > (Integer.MAX_VALUE - digit) / RADIX) {
+				throw new IllegalArgumentException("Invalid number at " + start);
+			}
+			value = value * RADIX + digit;
+		}
+		return value;
+	}
+}
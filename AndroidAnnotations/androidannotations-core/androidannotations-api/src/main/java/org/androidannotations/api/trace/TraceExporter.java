@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.trace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the spans recorded by {@link TraceRecorder}, either as a Chrome trace
+ * event JSON file, which can be opened in <code>chrome://tracing</code> or
+ * Perfetto, or as a compact binary file which can be read back with
+ * {@link #readBinary(InputStream)}.
+ */
+public final class TraceExporter {
+
+	private static final int MAGIC = 0x41415452;
+	private static final int FORMAT_VERSION = 1;
+
+	private TraceExporter() {
+		// should not be instantiated
+	}
+
+	/**
+	 * Writes the spans as complete events of the Chrome trace event format. The
+	 * timestamps are in microseconds, relative to the first span. The writer is
+	 * not closed.
+	 *
+	 * @param spans
+	 *            the spans to write
+	 * @param writer
+	 *            the destination
+	 * @throws IOException
+	 *             if the writer fails
+	 */
+	public static void writeChromeTrace(List<TraceSpan> spans, Writer writer) throws IOException {
+		long origin = spans.isEmpty() ? 0 : spans.get(0).getStartNanos();
+		for (TraceSpan span : spans) {
+			origin = Math.min(origin, span.getStartNanos());
+		}
+
+		writer.write("{\"traceEvents\":[");
+		for (int i = 0; i < spans.size(); i++) {
+			TraceSpan span = spans.get(i);
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write("\n{\"name\":");
+			writeJsonString(writer, span.getName());
+			writer.write(",\"cat\":");
+			writeJsonString(writer, span.getCategory());
+			writer.write(",\"ph\":\"X\",\"pid\":0,\"tid\":");
+			writer.write(Long.toString(span.getThreadId()));
+			writer.write(",\"ts\":");
+			writeMicros(writer, span.getStartNanos() - origin);
+			writer.write(",\"dur\":");
+			writeMicros(writer, span.getDurationNanos());
+			writer.write('}');
+		}
+		writer.write("\n],\"displayTimeUnit\":\"ns\"}\n");
+		writer.flush();
+	}
+
+	/**
+	 * Writes the spans in a binary format: the category and name strings are
+	 * written once, and referenced by index from each span. The stream is not
+	 * closed.
+	 *
+	 * @param spans
+	 *            the spans to write
+	 * @param outputStream
+	 *            the destination
+	 * @throws IOException
+	 *             if the stream fails
+	 */
+	public static void writeBinary(List<TraceSpan> spans, OutputStream outputStream) throws IOException {
+		Map<String, Integer> indexes = new HashMap<>();
+		List<String> strings = new ArrayList<>();
+		for (TraceSpan span : spans) {
+			addString(indexes, strings, span.getCategory());
+			addString(indexes, strings, span.getName());
+		}
+
+		DataOutputStream output = new DataOutputStream(outputStream);
+		output.writeInt(MAGIC);
+		output.writeInt(FORMAT_VERSION);
+		output.writeInt(strings.size());
+		for (String string : strings) {
+			output.writeUTF(string);
+		}
+		output.writeInt(spans.size());
+		for (TraceSpan span : spans) {
+			output.writeInt(indexes.get(span.getCategory()));
+			output.writeInt(indexes.get(span.getName()));
+			output.writeLong(span.getThreadId());
+			output.writeLong(span.getStartNanos());
+			output.writeLong(span.getDurationNanos());
+		}
+		output.flush();
+	}
+
+	/**
+	 * Reads spans written by {@link #writeBinary(List, OutputStream)}. The stream
+	 * is not closed.
+	 *
+	 * @param inputStream
+	 *            the source
+	 * @return the spans, in the order they were written
+	 * @throws IOException
+	 *             if the stream fails or does not hold spans
+	 */
+	public static List<TraceSpan> readBinary(InputStream inputStream) throws IOException {
+		DataInputStream input = new DataInputStream(inputStream);
+		if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+			throw new IOException("Not a trace file, or written by another version");
+		}
+		String[] strings = new String[input.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = input.readUTF();
+		}
+		int count = input.readInt();
+		List<TraceSpan> spans = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String category = strings[input.readInt()];
+			String name = strings[input.readInt()];
+			spans.add(new TraceSpan(category, name, input.readLong(), input.readLong(), input.readLong()));
+		}
+		return spans;
+	}
+
+	private static void addString(Map<String, Integer> indexes, List<String> strings, String string) {
+		if (!indexes.containsKey(string)) {
+			indexes.put(string, strings.size());
+			strings.add(string);
+		}
+	}
+
+	private static void writeMicros(Writer writer, long nanos) throws IOException {
+		writer.write(Long.toString(nanos / 1000));
+		long fraction = Math.abs(nanos % 1000);
+		if (fraction != 0) {
+			writer.write('.');
+			writer.write(Long.toString(1000 + fraction).substring(1));
+		}
+	}
+
+	private static void writeJsonString(Writer writer, String string) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			switch (c) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					writer.write(String.format("\\u%04x", (int) c));
+				} else {
+					writer.write(c);
+				}
+			}
+		}
+		writer.write('"');
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the executions of the {@link org.androidannotations.annotations.Trace
+ * Trace} annotated methods when the code is generated with the
+ * <code>traceRecorder</code> annotation processor option.
+ * <p>
+ * The spans are kept in a fixed size ring buffer, which is written without
+ * lock nor allocation: when it is full, the oldest spans are overwritten.
+ * Nothing is recorded until {@link #start()} is called.
+ * </p>
+ *
+ * <pre>
+ * TraceRecorder.start();
+ * // ... use the application ...
+ * TraceExporter.writeChromeTrace(TraceRecorder.getSpans(), writer);
+ * </pre>
+ *
+ * @see TraceExporter
+ */
+public final class TraceRecorder {
+
+	/**
+	 * The number of spans kept by {@link #start()}.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 14;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private static final Comparator<TraceSpan> START_ORDER = new Comparator<TraceSpan>() {
+		@Override
+		public int compare(TraceSpan left, TraceSpan right) {
+			return left.getStartNanos() < right.getStartNanos() ? -1 : left.getStartNanos() == right.getStartNanos() ? 0 : 1;
+		}
+	};
+
+	private static volatile RingBuffer buffer;
+
+	private TraceRecorder() {
+		// should not be instantiated
+	}
+
+	/**
+	 * Starts recording with a buffer of {@link #DEFAULT_CAPACITY} spans.
+	 */
+	public static void start() {
+		start(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Starts recording, discarding the spans recorded so far.
+	 *
+	 * @param capacity
+	 *            the number of spans kept, rounded up to a power of two
+	 */
+	public static void start(int capacity) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("The capacity must be between 1 and " + MAX_CAPACITY);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		buffer = new RingBuffer(size);
+	}
+
+	/**
+	 * Stops recording and discards the recorded spans.
+	 */
+	public static void stop() {
+		buffer = null;
+	}
+
+	/**
+	 * @return <code>true</code> if the spans are recorded
+	 */
+	public static boolean isRecording() {
+		return buffer != null;
+	}
+
+	/**
+	 * Records a span ending now. This method is called by the generated code and
+	 * not intended to be called by clients.
+	 *
+	 * @param category
+	 *            the tag of the traced method
+	 * @param name
+	 *            the signature of the traced method
+	 * @param startNanos
+	 *            the {@link System#nanoTime()} value when the method was entered
+	 */
+	public static void record(String category, String name, long startNanos) {
+		RingBuffer currentBuffer = buffer;
+		if (currentBuffer != null) {
+			currentBuffer.add(category, name, Thread.currentThread().getId(), startNanos, System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Returns the spans currently held by the buffer, the ones being written
+	 * concurrently excepted.
+	 *
+	 * @return the spans, by increasing start time
+	 */
+	public static List<TraceSpan> getSpans() {
+		RingBuffer currentBuffer = buffer;
+		if (currentBuffer == null) {
+			return Collections.emptyList();
+		}
+		List<TraceSpan> spans = currentBuffer.snapshot();
+		Collections.sort(spans, START_ORDER);
+		return spans;
+	}
+
+	/**
+	 * The spans are stored in parallel arrays. Each slot carries the sequence
+	 * number of the span it holds, plus one: a writer first clears it, then
+	 * writes the span, then publishes the new sequence number, so that a reader
+	 * seeing the same sequence number before and after reading a slot knows it
+	 * read a whole span.
+	 */
+	private static final class RingBuffer {
+
+		private final int mask;
+		private final AtomicLong cursor = new AtomicLong();
+		private final AtomicLongArray sequences;
+		private final AtomicReferenceArray<String> categories;
+		private final AtomicReferenceArray<String> names;
+		private final AtomicLongArray threadIds;
+		private final AtomicLongArray starts;
+		private final AtomicLongArray durations;
+
+		RingBuffer(int capacity) {
+			mask = capacity - 1;
+			sequences = new AtomicLongArray(capacity);
+			categories = new AtomicReferenceArray<>(capacity);
+			names = new AtomicReferenceArray<>(capacity);
+			threadIds = new AtomicLongArray(capacity);
+			starts = new AtomicLongArray(capacity);
+			durations = new AtomicLongArray(capacity);
+		}
+
+		void add(String category, String name, long threadId, long startNanos, long durationNanos) {
+			long sequence = cursor.getAndIncrement();
+			int slot = (int) (sequence & mask);
+			sequences.set(slot, 0);
+			categories.lazySet(slot, category);
+			names.lazySet(slot, name);
+			threadIds.lazySet(slot, threadId);
+			starts.lazySet(slot, startNanos);
+			durations.lazySet(slot, durationNanos);
+			sequences.lazySet(slot, sequence + 1);
+		}
+
+		List<TraceSpan> snapshot() {
+			long end = cursor.get();
+			long begin = Math.max(0, end - (mask + 1));
+			List<TraceSpan> spans = new ArrayList<>((int) (end - begin));
+			for (long sequence = begin; sequence < end; sequence++) {
+				int slot = (int) (sequence & mask);
+				if (sequences.get(slot) != sequence + 1) {
+					// not written yet, or already overwritten
+					continue;
+				}
+				TraceSpan span = new TraceSpan(categories.get(slot), names.get(slot), threadIds.get(slot), starts.get(slot), durations.get(slot));
+				if (sequences.get(slot) == sequence + 1) {
+					spans.add(span);
+				}
+			}
+			return spans;
+		}
+	}
+}
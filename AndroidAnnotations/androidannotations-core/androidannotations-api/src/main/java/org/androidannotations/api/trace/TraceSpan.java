@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.trace;
+
+/**
+ * A method execution recorded by {@link TraceRecorder}.
+ */
+public final class TraceSpan {
+
+	private final String category;
+	private final String name;
+	private final long threadId;
+	private final long startNanos;
+	private final long durationNanos;
+
+	public TraceSpan(String category, String name, long threadId, long startNanos, long durationNanos) {
+		this.category = category;
+		this.name = name;
+		this.threadId = threadId;
+		this.startNanos = startNanos;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * @return the tag of the traced method
+	 */
+	public String getCategory() {
+		return category;
+	}
+
+	/**
+	 * @return the signature of the traced method
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the id of the thread which executed the method
+	 */
+	public long getThreadId() {
+		return threadId;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} value when the method was entered
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @return the execution time of the method, in nanoseconds
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	@Override
+	public String toString() {
+		return category + ": " + name + " [" + durationNanos + " ns]";
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.view;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Inflates the layouts of the components having the <code>asyncLayout</code>
+ * flag. The layouts are inflated one after the other on a dedicated thread, so
+ * they do not wait behind the tasks of the
+ * {@link org.androidannotations.api.BackgroundExecutor BackgroundExecutor}.
+ * Each layout is inflated by a clone of the given inflater, then the callback
+ * is called on the main thread with the inflated view.
+ * <p>
+ * Some views cannot be created outside of the main thread (for instance when
+ * they create a {@link Handler}): if the inflation fails in the background,
+ * the layout is inflated again on the main thread.
+ */
+public final class AsyncLayoutInflater {
+
+	private static final String TAG = "AsyncLayoutInflater";
+
+	private static final Executor INFLATER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, TAG);
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Receives the inflated layout, on the main thread.
+	 */
+	public interface Callback {
+
+		/**
+		 * @param view
+		 *            the root of the inflated layout, not attached to its parent
+		 * @param parent
+		 *            the parent given to
+		 *            {@link AsyncLayoutInflater#inflate(LayoutInflater, int, ViewGroup, Callback)}
+		 */
+		void onLayoutInflated(View view, ViewGroup parent);
+	}
+
+	private AsyncLayoutInflater() {
+	}
+
+	/**
+	 * Inflates a layout in the background. The layout root cannot be a
+	 * <code>&lt;merge /&gt;</code> tag, as it is not attached to the parent
+	 * during the inflation.
+	 *
+	 * @param inflater
+	 *            the inflater to use
+	 * @param layoutResId
+	 *            the id of the layout to inflate
+	 * @param parent
+	 *            the view group generating the layout params of the root, may be
+	 *            <code>null</code>
+	 * @param callback
+	 *            called on the main thread once the layout is inflated
+	 */
+	public static void inflate(final LayoutInflater inflater, final int layoutResId, final ViewGroup parent, final Callback callback) {
+		final Handler mainHandler = new Handler(Looper.getMainLooper());
+		/*
+		 * a LayoutInflater is not thread safe, the background thread gets its own
+		 * copy, with the same factories
+		 */
+		final LayoutInflater backgroundInflater = inflater.cloneInContext(inflater.getContext());
+		INFLATER.execute(new Runnable() {
+			@Override
+			public void run() {
+				View view = null;
+				try {
+					view = backgroundInflater.inflate(layoutResId, parent, false);
+				} catch (RuntimeException e) {
+					Log.w(TAG, "Failed to inflate the layout in the background, it will be inflated on the main thread", e);
+				}
+				final View inflatedView = view;
+				mainHandler.post(new Runnable() {
+					@Override
+					public void run() {
+						View view = inflatedView;
+						if (view == null) {
+							view = inflater.inflate(layoutResId, parent, false);
+						}
+						callback.onLayoutInflated(view, parent);
+					}
+				});
+			}
+		});
+	}
+}
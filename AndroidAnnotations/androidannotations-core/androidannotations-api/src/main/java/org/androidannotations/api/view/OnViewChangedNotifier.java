@@ -20,15 +20,22 @@ import java.util.Set;
 
 public class OnViewChangedNotifier {
 
-	private static OnViewChangedNotifier currentNotifier;
+	/*
+	 * The components register their listeners while they are initialized, on
+	 * the thread initializing them, so each thread has its own notifier. A
+	 * singleton bean built in the background then cannot replace the notifier
+	 * of an activity being created on the UI thread.
+	 */
+	private static final ThreadLocal<OnViewChangedNotifier> CURRENT_NOTIFIER = new ThreadLocal<>();
 
 	public static OnViewChangedNotifier replaceNotifier(OnViewChangedNotifier notifier) {
-		OnViewChangedNotifier previousNotifier = currentNotifier;
-		currentNotifier = notifier;
+		OnViewChangedNotifier previousNotifier = CURRENT_NOTIFIER.get();
+		CURRENT_NOTIFIER.set(notifier);
 		return previousNotifier;
 	}
 
 	public static void registerOnViewChangedListener(OnViewChangedListener listener) {
+		OnViewChangedNotifier currentNotifier = CURRENT_NOTIFIER.get();
 		if (currentNotifier != null) {
 			currentNotifier.listeners.add(listener);
 		}
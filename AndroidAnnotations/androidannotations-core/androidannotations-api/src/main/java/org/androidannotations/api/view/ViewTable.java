@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.view;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * The views having a given set of ids, found in a single traversal of the
+ * hierarchy instead of one {@link HasViews#internalFindViewById(int)} call per
+ * id.
+ * <p>
+ * Like {@link View#findViewById(int)}, the view kept for an id is the first
+ * one in depth-first order, and the traversal stops as soon as every id has
+ * been found. The ids are kept in an open addressing table of
+ * <code>int</code>, so the lookups do not box them. <code>0</code> is not a
+ * valid resource id and is never found.
+ */
+public final class ViewTable {
+
+	private final int[] ids;
+	private final View[] views;
+	private final int mask;
+	private int missing;
+
+	private ViewTable(int[] wantedIds) {
+		int capacity = 2;
+		while (capacity < wantedIds.length * 2) {
+			capacity <<= 1;
+		}
+		ids = new int[capacity];
+		views = new View[capacity];
+		mask = capacity - 1;
+		for (int id : wantedIds) {
+			if (id == 0) {
+				continue;
+			}
+			int slot = slot(id);
+			while (ids[slot] != 0 && ids[slot] != id) {
+				slot = (slot + 1) & mask;
+			}
+			if (ids[slot] == 0) {
+				ids[slot] = id;
+				missing++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the views having the given ids. If <code>hasViews</code> is a
+	 * {@link HasRootView} having a root view, its hierarchy is traversed once.
+	 * Otherwise each view is looked up with
+	 * {@link HasViews#internalFindViewById(int)}.
+	 *
+	 * @param hasViews
+	 *            the views to search
+	 * @param ids
+	 *            the ids of the views to find, duplicates are allowed
+	 * @return the table holding the found views
+	 */
+	public static ViewTable find(HasViews hasViews, int... ids) {
+		ViewTable table = new ViewTable(ids);
+		if (table.missing == 0) {
+			return table;
+		}
+		View root = hasViews instanceof HasRootView ? ((HasRootView) hasViews).internalGetRootView() : null;
+		if (root != null) {
+			table.collect(root);
+		} else {
+			for (int slot = 0; slot < table.ids.length; slot++) {
+				if (table.ids[slot] != 0) {
+					table.views[slot] = hasViews.internalFindViewById(table.ids[slot]);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * @param id
+	 *            one of the ids given to {@link #find(HasViews, int...)}
+	 * @return the view having this id, or <code>null</code> if none was found
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends View> T get(int id) {
+		if (id == 0) {
+			return null;
+		}
+		int slot = slot(id);
+		while (ids[slot] != 0) {
+			if (ids[slot] == id) {
+				return (T) views[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * @return <code>true</code> once every id has been found, to stop the
+	 *         traversal
+	 */
+	private boolean collect(View view) {
+		int id = view.getId();
+		if (id != 0 && id != View.NO_ID) {
+			int slot = slot(id);
+			while (ids[slot] != 0) {
+				if (ids[slot] == id) {
+					if (views[slot] == null) {
+						views[slot] = view;
+						if (--missing == 0) {
+							return true;
+						}
+					}
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		if (view instanceof ViewGroup) {
+			ViewGroup group = (ViewGroup) view;
+			for (int i = 0, count = group.getChildCount(); i < count; i++) {
+				if (collect(group.getChildAt(i))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private int slot(int id) {
+		int hash = id * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.androidannotations.api.BackgroundExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Several producers queue tasks on a few serials while a small pool runs them.
+ * The number of queued tasks is bounded so that both schedulers work with the
+ * same backlog. Every few tasks, a producer also cancels an id matching no
+ * task, which measures the lookup of the tasks to cancel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BackgroundExecutorBenchmark {
+
+	private static final int CANCEL_PERIOD = 16;
+
+	@State(Scope.Benchmark)
+	public static class Scheduling {
+
+		@Param({ "4", "64" })
+		int serials;
+
+		@Param("1024")
+		int backlog;
+
+		ExecutorService executorService;
+		Semaphore queuedTasks;
+
+		final AtomicInteger producers = new AtomicInteger();
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			executorService = Executors.newFixedThreadPool(4);
+			queuedTasks = new Semaphore(backlog);
+			BackgroundExecutor.setExecutor(executorService);
+			LegacyBackgroundExecutor.setExecutor(executorService);
+		}
+
+		@TearDown(Level.Iteration)
+		public void drain() throws InterruptedException {
+			queuedTasks.acquire(backlog);
+			queuedTasks.release(backlog);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			BackgroundExecutor.setExecutor(BackgroundExecutor.DEFAULT_EXECUTOR);
+			executorService.shutdown();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Producer {
+
+		String id;
+		String serial;
+		int count;
+
+		@Setup(Level.Trial)
+		public void setUp(Scheduling scheduling) {
+			int index = scheduling.producers.getAndIncrement();
+			id = "id" + index;
+			serial = "serial" + index % scheduling.serials;
+		}
+	}
+
+	@Benchmark
+	public void perSerialQueues(final Scheduling scheduling, Producer producer) throws InterruptedException {
+		scheduling.queuedTasks.acquire();
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(producer.id, 0L, producer.serial) {
+			@Override
+			public void execute() {
+				scheduling.queuedTasks.release();
+			}
+		});
+		if (++producer.count % CANCEL_PERIOD == 0) {
+			BackgroundExecutor.cancelAll("unknown", false);
+		}
+	}
+
+	@Benchmark
+	public void globalList(final Scheduling scheduling, Producer producer) throws InterruptedException {
+		scheduling.queuedTasks.acquire();
+		LegacyBackgroundExecutor.execute(new LegacyBackgroundExecutor.Task(producer.id, producer.serial) {
+			@Override
+			void execute() {
+				scheduling.queuedTasks.release();
+			}
+		});
+		if (++producer.count % CANCEL_PERIOD == 0) {
+			LegacyBackgroundExecutor.cancelAll("unknown", false);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.androidannotations.api.BackgroundExecutor;
+import org.androidannotations.api.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs many background tasks which block, as I/O bound tasks do, and measures
+ * the time until all of them completed. The <code>virtual</code> backend only
+ * uses virtual threads when the benchmark runs on Java 21 or later, otherwise it
+ * measures the same thread pool as the <code>pool</code> backend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingBackgroundTasksBenchmark {
+
+	@Param({ "pool", "virtual" })
+	String backend;
+
+	@Param("10000")
+	int tasks;
+
+	@Param("1")
+	int blockingMillis;
+
+	private ExecutorService executorService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if ("virtual".equals(backend)) {
+			executorService = VirtualThreadExecutor.create();
+		} else {
+			executorService = Executors.newScheduledThreadPool(2 * Runtime.getRuntime().availableProcessors());
+		}
+		BackgroundExecutor.setExecutor(executorService);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BackgroundExecutor.setExecutor(BackgroundExecutor.DEFAULT_EXECUTOR);
+		executorService.shutdown();
+	}
+
+	@Benchmark
+	public void blockingTasks() throws InterruptedException {
+		final CountDownLatch completed = new CountDownLatch(tasks);
+		Runnable blockingTask = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(blockingMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				completed.countDown();
+			}
+		};
+		for (int i = 0; i < tasks; i++) {
+			BackgroundExecutor.execute(blockingTask);
+		}
+		completed.await();
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The serial scheduling of {@link org.androidannotations.api.BackgroundExecutor}
+ * as it was before the per serial queues: every task having an id or a serial
+ * is kept in a single list, guarded by the class lock. Delays and thread checks
+ * are left out, they are not measured.
+ */
+final class LegacyBackgroundExecutor {
+
+	private static ExecutorService executor;
+
+	private static final List<Task> TASKS = new ArrayList<>();
+
+	private LegacyBackgroundExecutor() {
+	}
+
+	static void setExecutor(ExecutorService executor) {
+		LegacyBackgroundExecutor.executor = executor;
+	}
+
+	static synchronized void execute(Task task) {
+		if (task.id != null || task.serial != null) {
+			TASKS.add(task);
+		}
+		if (task.serial == null || !hasSerialRunning(task.serial)) {
+			task.executionAsked = true;
+			task.future = executor.submit(task);
+		}
+	}
+
+	static synchronized void cancelAll(String id, boolean mayInterruptIfRunning) {
+		for (int i = TASKS.size() - 1; i >= 0; i--) {
+			Task task = TASKS.get(i);
+			if (id.equals(task.id)) {
+				if (task.future != null) {
+					task.future.cancel(mayInterruptIfRunning);
+					if (!task.managed.getAndSet(true)) {
+						task.postExecute();
+					}
+				} else if (!task.executionAsked) {
+					TASKS.remove(i);
+				}
+			}
+		}
+	}
+
+	private static boolean hasSerialRunning(String serial) {
+		for (Task task : TASKS) {
+			if (task.executionAsked && serial.equals(task.serial)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Task take(String serial) {
+		int len = TASKS.size();
+		for (int i = 0; i < len; i++) {
+			if (serial.equals(TASKS.get(i).serial)) {
+				return TASKS.remove(i);
+			}
+		}
+		return null;
+	}
+
+	abstract static class Task implements Runnable {
+
+		private final String id;
+		private final String serial;
+		private boolean executionAsked;
+		private Future<?> future;
+		private final AtomicBoolean managed = new AtomicBoolean();
+
+		Task(String id, String serial) {
+			this.id = id;
+			this.serial = serial;
+		}
+
+		@Override
+		public void run() {
+			if (managed.getAndSet(true)) {
+				return;
+			}
+
+			try {
+				execute();
+			} finally {
+				postExecute();
+			}
+		}
+
+		abstract void execute();
+
+		private void postExecute() {
+			if (id == null && serial == null) {
+				return;
+			}
+			synchronized (LegacyBackgroundExecutor.class) {
+				TASKS.remove(this);
+
+				if (serial != null) {
+					Task next = take(serial);
+					if (next != null) {
+						LegacyBackgroundExecutor.execute(next);
+					}
+				}
+			}
+		}
+	}
+}
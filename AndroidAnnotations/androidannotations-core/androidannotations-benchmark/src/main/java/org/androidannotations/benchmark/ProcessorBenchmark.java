@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+
+/**
+ * Runs the whole <code>AndroidAnnotationProcessor</code> in-process, through
+ * <code>javax.tools</code> with <code>-proc:only</code>, on a project written
+ * by {@link SyntheticProjectGenerator}. Each invocation processes the project
+ * from scratch, in a new compilation. The iterations are as short as possible,
+ * so that each one runs a single invocation.
+ * <p>
+ * The number of components drives the lookups of the generated class holders
+ * made for each annotated element, and the inheritance depth the extraction of
+ * the ancestors annotations.
+ * <p>
+ * Besides the total time, the secondary results give the time spent in each
+ * phase, as reported by the <code>profilingReport</code> option. Run with the
+ * GC profiler to get the allocation rates:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ProcessorBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ProcessorBenchmark {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String PROFILING_REPORT = "androidannotations-profile.csv";
+
+	@State(Scope.Benchmark)
+	public static class Project {
+
+		@Param({ "100", "1000" })
+		int components;
+
+		@Param("8")
+		int viewsPerComponent;
+
+		@Param("4")
+		int listenersPerComponent;
+
+		@Param("3")
+		int beanDepth;
+
+		@Param("2")
+		int inheritanceDepth;
+
+		@Param("2000")
+		int extraResources;
+
+		@Param("false")
+		boolean parallelSourceGeneration;
+
+		File directory;
+		File generatedDirectory;
+		List<File> sources;
+		JavaCompiler compiler;
+		StandardJavaFileManager fileManager;
+		List<String> options;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			compiler = ToolProvider.getSystemJavaCompiler();
+			if (compiler == null) {
+				throw new IllegalStateException("The processor benchmark must run on a JDK");
+			}
+
+			directory = Files.createTempDirectory("androidannotations-benchmark").toFile();
+			/*
+			 * The processor writes its report in the parent of the generated
+			 * sources directory
+			 */
+			generatedDirectory = new File(directory, "generated");
+			sources = new SyntheticProjectGenerator() //
+					.components(components) //
+					.viewsPerComponent(viewsPerComponent) //
+					.listenersPerComponent(listenersPerComponent) //
+					.beanDepth(beanDepth) //
+					.inheritanceDepth(inheritanceDepth) //
+					.extraResources(extraResources) //
+					.generate(directory);
+
+			fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+			options = Arrays.asList("-proc:only", //
+					"-encoding", "UTF-8", //
+					"-classpath", System.getProperty("java.class.path"), //
+					"-s", generatedDirectory.getPath(), //
+					"-AandroidManifestFile=" + new File(directory, "AndroidManifest.xml").getPath(), //
+					"-AlogAppenderFile=false", //
+					"-AprofilingReport=csv", //
+					"-AparallelSourceGeneration=" + parallelSourceGeneration);
+		}
+
+		@Setup(Level.Invocation)
+		public void clean() throws IOException {
+			delete(generatedDirectory);
+			if (!generatedDirectory.mkdirs()) {
+				throw new IOException("Can't create " + generatedDirectory);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			fileManager.close();
+			delete(directory);
+		}
+	}
+
+	/**
+	 * The average time spent in each phase by an invocation, in milliseconds,
+	 * summed from the handler lines of the profiling report.
+	 * <p>
+	 * JMH sums the event counters of the iterations, so each iteration reports
+	 * its average divided by the number of iterations.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Phases {
+
+		private static final int PHASES = 4;
+
+		public double validateMs;
+		public double generateMs;
+		public double processMs;
+		public double emitMs;
+
+		private final long[] nanos = new long[PHASES];
+		private int invocations;
+		private int iterations;
+
+		@Setup(Level.Iteration)
+		public void reset(IterationParams iterationParams) {
+			Arrays.fill(nanos, 0L);
+			invocations = 0;
+			iterations = iterationParams.getCount();
+		}
+
+		@TearDown(Level.Invocation)
+		public void readReport(Project project) throws IOException {
+			for (String line : Files.readAllLines(new File(project.directory, PROFILING_REPORT).toPath(), UTF_8)) {
+				if (line.startsWith("handler,")) {
+					String[] columns = line.split(",");
+					for (int phase = 0; phase < PHASES; phase++) {
+						nanos[phase] += Long.parseLong(columns[columns.length - PHASES + phase]);
+					}
+				}
+			}
+			invocations++;
+
+			validateMs = averageMillis(0);
+			generateMs = averageMillis(1);
+			processMs = averageMillis(2);
+			emitMs = averageMillis(3);
+		}
+
+		private double averageMillis(int phase) {
+			return nanos[phase] / 1e6 / invocations / iterations;
+		}
+	}
+
+	@Benchmark
+	public void process(Project project, Phases phases) {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Iterable<? extends JavaFileObject> compilationUnits = project.fileManager.getJavaFileObjectsFromFiles(project.sources);
+		CompilationTask task = project.compiler.getTask(null, project.fileManager, diagnostics, project.options, null, compilationUnits);
+		task.setProcessors(Collections.singletonList(new AndroidAnnotationProcessor()));
+
+		if (!task.call()) {
+			StringBuilder errors = new StringBuilder("The processing failed:");
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					errors.append('\n').append(diagnostic);
+				}
+			}
+			throw new IllegalStateException(errors.toString());
+		}
+	}
+
+	static void delete(File directory) throws IOException {
+		if (!directory.exists()) {
+			return;
+		}
+		Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
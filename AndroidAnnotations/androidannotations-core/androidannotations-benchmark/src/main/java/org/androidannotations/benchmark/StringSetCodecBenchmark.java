@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.androidannotations.api.sharedpreferences.StringSetCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+import org.xmlpull.v1.XmlSerializer;
+
+/**
+ * Encodes and decodes a set of ids with {@link StringSetCodec} and with the
+ * XML format of {@link org.androidannotations.api.sharedpreferences.SetXmlSerializer
+ * SetXmlSerializer}. The XML path is reproduced with the xpp3 parser, as
+ * <code>android.util.Xml</code> is not available on the JVM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringSetCodecBenchmark {
+
+	private static final String NAMESPACE = "";
+	private static final String STRING_TAG = "AA_string";
+	private static final String SET_TAG = "AA_set";
+
+	@Param({ "16", "4096" })
+	int size;
+
+	Set<String> set;
+	String encoded;
+	String xml;
+
+	XmlPullParserFactory factory;
+
+	@Setup(Level.Trial)
+	public void setUp() throws XmlPullParserException, IOException {
+		factory = XmlPullParserFactory.newInstance();
+		// like the parser returned by android.util.Xml
+		factory.setNamespaceAware(true);
+		set = new HashSet<>();
+		for (int i = 0; i < size; i++) {
+			set.add("item-" + (i * 7919L));
+		}
+		encoded = StringSetCodec.encode(set);
+		xml = serializeXml(set);
+	}
+
+	@Benchmark
+	public String encodeCompact() {
+		return StringSetCodec.encode(set);
+	}
+
+	@Benchmark
+	public Set<String> decodeCompact() {
+		return StringSetCodec.decode(encoded);
+	}
+
+	@Benchmark
+	public String encodeXml() throws IOException, XmlPullParserException {
+		return serializeXml(set);
+	}
+
+	@Benchmark
+	public Set<String> decodeXml() throws IOException, XmlPullParserException {
+		return deserializeXml(xml);
+	}
+
+	private String serializeXml(Set<String> strings) throws IOException, XmlPullParserException {
+		StringWriter writer = new StringWriter();
+		XmlSerializer serializer = factory.newSerializer();
+		serializer.setOutput(writer);
+		serializer.startTag(NAMESPACE, SET_TAG);
+		for (String string : strings) {
+			serializer.startTag(NAMESPACE, STRING_TAG) //
+					.text(string) //
+					.endTag(NAMESPACE, STRING_TAG);
+		}
+		serializer.endTag(NAMESPACE, SET_TAG) //
+				.endDocument();
+		return writer.toString();
+	}
+
+	private Set<String> deserializeXml(String data) throws IOException, XmlPullParserException {
+		Set<String> stringSet = new TreeSet<>();
+		XmlPullParser parser = factory.newPullParser();
+		parser.setInput(new StringReader(data));
+		parser.next();
+		parser.require(XmlPullParser.START_TAG, NAMESPACE, SET_TAG);
+		while (parser.next() != XmlPullParser.END_TAG) {
+			parser.require(XmlPullParser.START_TAG, NAMESPACE, STRING_TAG);
+			parser.next();
+			parser.require(XmlPullParser.TEXT, null, null);
+			stringSet.add(parser.getText());
+			parser.next();
+			parser.require(XmlPullParser.END_TAG, null, STRING_TAG);
+		}
+		return stringSet;
+	}
+}
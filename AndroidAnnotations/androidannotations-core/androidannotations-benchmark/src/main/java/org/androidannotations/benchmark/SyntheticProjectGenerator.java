@@ -0,0 +1,279 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a synthetic Android project to process with AndroidAnnotations: an
+ * <code>AndroidManifest.xml</code>, a stub <code>R</code> class and
+ * <code>components</code> activities. Each activity has:
+ * <ul>
+ * <li><code>viewsPerComponent</code> <code>@ViewById</code> fields,</li>
+ * <li><code>listenersPerComponent</code> <code>@Click</code> methods,</li>
+ * <li>a <code>@Bean</code> starting a chain of <code>beanDepth</code> beans,
+ * each one injecting the next one,</li>
+ * <li>a chain of <code>inheritanceDepth</code> abstract activities as
+ * ancestors, shared by all the components, each one adding its own view and
+ * listener.</li>
+ * </ul>
+ * The <code>R</code> class also holds <code>extraResources</code> unused ids
+ * and strings, to simulate the resources of a large application.
+ */
+public class SyntheticProjectGenerator {
+
+	public static final String PACKAGE_NAME = "org.androidannotations.synthetic";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final int FIRST_ID = 0x7f060000;
+	private static final int FIRST_LAYOUT = 0x7f030000;
+	private static final int FIRST_STRING = 0x7f080000;
+
+	private int components = 10;
+	private int viewsPerComponent = 4;
+	private int listenersPerComponent = 2;
+	private int beanDepth = 2;
+	private int inheritanceDepth = 1;
+	private int extraResources;
+
+	public SyntheticProjectGenerator components(int components) {
+		this.components = components;
+		return this;
+	}
+
+	public SyntheticProjectGenerator viewsPerComponent(int viewsPerComponent) {
+		this.viewsPerComponent = viewsPerComponent;
+		return this;
+	}
+
+	public SyntheticProjectGenerator listenersPerComponent(int listenersPerComponent) {
+		this.listenersPerComponent = listenersPerComponent;
+		return this;
+	}
+
+	public SyntheticProjectGenerator beanDepth(int beanDepth) {
+		this.beanDepth = beanDepth;
+		return this;
+	}
+
+	public SyntheticProjectGenerator inheritanceDepth(int inheritanceDepth) {
+		this.inheritanceDepth = inheritanceDepth;
+		return this;
+	}
+
+	public SyntheticProjectGenerator extraResources(int extraResources) {
+		this.extraResources = extraResources;
+		return this;
+	}
+
+	/**
+	 * Writes the project in the given directory: the manifest at its root, and
+	 * the sources in <code>src</code>.
+	 *
+	 * @return the source files
+	 */
+	public List<File> generate(File projectDirectory) throws IOException {
+		File packageDirectory = new File(projectDirectory, "src/" + PACKAGE_NAME.replace('.', '/'));
+		if (!packageDirectory.isDirectory() && !packageDirectory.mkdirs()) {
+			throw new IOException("Can't create " + packageDirectory);
+		}
+
+		write(new File(projectDirectory, "AndroidManifest.xml"), manifest());
+
+		List<File> sources = new ArrayList<>();
+		sources.add(write(new File(packageDirectory, "R.java"), rClass()));
+		for (int level = 0; level < inheritanceDepth; level++) {
+			sources.add(write(new File(packageDirectory, baseActivityName(level) + ".java"), baseActivity(level)));
+		}
+		for (int component = 0; component < components; component++) {
+			sources.add(write(new File(packageDirectory, activityName(component) + ".java"), activity(component)));
+			for (int depth = 0; depth < beanDepth; depth++) {
+				sources.add(write(new File(packageDirectory, beanName(component, depth) + ".java"), bean(component, depth)));
+			}
+		}
+		return sources;
+	}
+
+	private String manifest() {
+		StringBuilder manifest = new StringBuilder();
+		manifest.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		manifest.append("<manifest xmlns:android=\"http://schemas.android.com/apk/res/android\" package=\"").append(PACKAGE_NAME).append("\">\n");
+		manifest.append("\t<application>\n");
+		for (int component = 0; component < components; component++) {
+			manifest.append("\t\t<activity android:name=\".").append(activityName(component)).append("_\" />\n");
+		}
+		manifest.append("\t</application>\n");
+		manifest.append("</manifest>\n");
+		return manifest.toString();
+	}
+
+	private String rClass() {
+		StringBuilder rClass = new StringBuilder();
+		rClass.append("package ").append(PACKAGE_NAME).append(";\n\n");
+		rClass.append("public final class R {\n\n");
+
+		rClass.append("\tpublic static final class id {\n");
+		int id = FIRST_ID;
+		for (int view = 0; view < viewsPerComponent; view++) {
+			appendResource(rClass, viewId(view), id++);
+		}
+		for (int listener = 0; listener < listenersPerComponent; listener++) {
+			appendResource(rClass, buttonId(listener), id++);
+		}
+		for (int level = 0; level < inheritanceDepth; level++) {
+			appendResource(rClass, baseViewId(level), id++);
+			appendResource(rClass, baseButtonId(level), id++);
+		}
+		for (int extra = 0; extra < extraResources; extra++) {
+			appendResource(rClass, "extra" + extra, id++);
+		}
+		rClass.append("\t}\n\n");
+
+		rClass.append("\tpublic static final class layout {\n");
+		for (int component = 0; component < components; component++) {
+			appendResource(rClass, layoutName(component), FIRST_LAYOUT + component);
+		}
+		rClass.append("\t}\n\n");
+
+		rClass.append("\tpublic static final class string {\n");
+		for (int extra = 0; extra < extraResources; extra++) {
+			appendResource(rClass, "extra" + extra, FIRST_STRING + extra);
+		}
+		rClass.append("\t}\n");
+
+		rClass.append("}\n");
+		return rClass.toString();
+	}
+
+	private void appendResource(StringBuilder rClass, String name, int value) {
+		rClass.append("\t\tpublic static final int ").append(name).append(" = 0x").append(Integer.toHexString(value)).append(";\n");
+	}
+
+	private String baseActivity(int level) {
+		StringBuilder activity = new StringBuilder();
+		activity.append("package ").append(PACKAGE_NAME).append(";\n\n");
+		activity.append("import org.androidannotations.annotations.Click;\n");
+		activity.append("import org.androidannotations.annotations.EActivity;\n");
+		activity.append("import org.androidannotations.annotations.ViewById;\n\n");
+		activity.append("import android.view.View;\n\n");
+		activity.append("@EActivity\n");
+		activity.append("public abstract class ").append(baseActivityName(level));
+		activity.append(" extends ").append(level == 0 ? "android.app.Activity" : baseActivityName(level - 1)).append(" {\n\n");
+		activity.append("\t@ViewById(R.id.").append(baseViewId(level)).append(")\n");
+		activity.append("\tView ").append(baseViewId(level)).append(";\n\n");
+		activity.append("\t@Click(R.id.").append(baseButtonId(level)).append(")\n");
+		activity.append("\tvoid ").append(baseButtonId(level)).append("Clicked() {\n\t}\n");
+		activity.append("}\n");
+		return activity.toString();
+	}
+
+	private String activity(int component) {
+		StringBuilder activity = new StringBuilder();
+		activity.append("package ").append(PACKAGE_NAME).append(";\n\n");
+		activity.append("import org.androidannotations.annotations.AfterViews;\n");
+		activity.append("import org.androidannotations.annotations.Bean;\n");
+		activity.append("import org.androidannotations.annotations.Click;\n");
+		activity.append("import org.androidannotations.annotations.EActivity;\n");
+		activity.append("import org.androidannotations.annotations.ViewById;\n\n");
+		activity.append("import android.widget.TextView;\n\n");
+		activity.append("@EActivity(R.layout.").append(layoutName(component)).append(")\n");
+		activity.append("public class ").append(activityName(component));
+		activity.append(" extends ").append(inheritanceDepth == 0 ? "android.app.Activity" : baseActivityName(inheritanceDepth - 1)).append(" {\n");
+
+		for (int view = 0; view < viewsPerComponent; view++) {
+			activity.append("\n\t@ViewById(R.id.").append(viewId(view)).append(")\n");
+			activity.append("\tTextView ").append(viewId(view)).append(";\n");
+		}
+		if (beanDepth > 0) {
+			activity.append("\n\t@Bean\n");
+			activity.append("\t").append(beanName(component, 0)).append(" bean;\n");
+		}
+		for (int listener = 0; listener < listenersPerComponent; listener++) {
+			activity.append("\n\t@Click(R.id.").append(buttonId(listener)).append(")\n");
+			activity.append("\tvoid ").append(buttonId(listener)).append("Clicked() {\n\t}\n");
+		}
+		activity.append("\n\t@AfterViews\n");
+		activity.append("\tvoid afterViews() {\n\t}\n");
+		activity.append("}\n");
+		return activity.toString();
+	}
+
+	private String bean(int component, int depth) {
+		StringBuilder bean = new StringBuilder();
+		bean.append("package ").append(PACKAGE_NAME).append(";\n\n");
+		bean.append("import org.androidannotations.annotations.AfterInject;\n");
+		if (depth + 1 < beanDepth) {
+			bean.append("import org.androidannotations.annotations.Bean;\n");
+		}
+		bean.append("import org.androidannotations.annotations.EBean;\n\n");
+		bean.append("@EBean\n");
+		bean.append("public class ").append(beanName(component, depth)).append(" {\n");
+		if (depth + 1 < beanDepth) {
+			bean.append("\n\t@Bean\n");
+			bean.append("\t").append(beanName(component, depth + 1)).append(" next;\n");
+		}
+		bean.append("\n\t@AfterInject\n");
+		bean.append("\tvoid afterInject() {\n\t}\n");
+		bean.append("}\n");
+		return bean.toString();
+	}
+
+	private static String activityName(int component) {
+		return "Component" + component + "Activity";
+	}
+
+	private static String baseActivityName(int level) {
+		return "Base" + level + "Activity";
+	}
+
+	private static String beanName(int component, int depth) {
+		return "Component" + component + "Bean" + depth;
+	}
+
+	private static String layoutName(int component) {
+		return "component" + component;
+	}
+
+	private static String viewId(int view) {
+		return "view" + view;
+	}
+
+	private static String buttonId(int listener) {
+		return "button" + listener;
+	}
+
+	private static String baseViewId(int level) {
+		return "baseView" + level;
+	}
+
+	private static String baseButtonId(int level) {
+		return "baseButton" + level;
+	}
+
+	private static File write(File file, String content) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+			writer.write(content);
+		}
+		return file;
+	}
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.androidannotations.api.view.HasRootView;
+import org.androidannotations.api.view.HasViews;
+import org.androidannotations.api.view.OnViewChangedListener;
+import org.androidannotations.api.view.ViewTable;
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * The <code>onViewChanged()</code> of a generated bean having
+ * <code>boundViews</code> <code>@ViewById</code> fields, called on a deep
+ * synthetic hierarchy. The bean is processed by AndroidAnnotations and
+ * compiled twice: by default, it calls <code>internalFindViewById()</code>
+ * once per id, and with the <code>singlePassViewBinding</code> option, it
+ * fills a {@link ViewTable} in a single traversal.
+ * <p>
+ * The <code>android.view</code> classes are only stubs outside of a device,
+ * so the hierarchy is made of subclasses overriding the methods read by
+ * {@link ViewTable}, allocated without running the stub constructors.
+ * {@link View#findViewById(int)} is final, so the {@link HasViews} given to
+ * the beans searches the hierarchy depth-first, as it does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewBindingBenchmark {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final int FIRST_ID = 0x7f060000;
+	private static final String BEAN_NAME = "BoundViews";
+
+	@State(Scope.Benchmark)
+	public static class Hierarchy {
+
+		@Param({ "8", "32" })
+		int depth;
+
+		@Param("4")
+		int width;
+
+		@Param({ "4", "16" })
+		int boundViews;
+
+		File directory;
+		HierarchyViews views;
+		OnViewChangedListener findEachViewBean;
+		OnViewChangedListener singlePassBean;
+
+		@Setup
+		public void setUp() throws Exception {
+			views = new HierarchyViews(createHierarchy());
+
+			directory = Files.createTempDirectory("androidannotations-benchmark").toFile();
+			List<File> sources = new SyntheticProjectGenerator() //
+					.components(0) //
+					.viewsPerComponent(boundViews) //
+					.listenersPerComponent(0) //
+					.beanDepth(0) //
+					.inheritanceDepth(0) //
+					.generate(directory);
+			sources.add(writeBean());
+			findEachViewBean = compileBean(sources, false);
+			singlePassBean = compileBean(sources, true);
+		}
+
+		@TearDown
+		public void tearDown() throws IOException {
+			ProcessorBenchmark.delete(directory);
+		}
+
+		/**
+		 * Builds <code>depth</code> levels of <code>width</code> views, the
+		 * first view of each level holding the next one. The bound ids, which
+		 * are the ones of the <code>R</code> class written by
+		 * {@link SyntheticProjectGenerator}, are spread over the whole
+		 * hierarchy, and the other views have unbound ids.
+		 */
+		private View createHierarchy() throws Exception {
+			int viewCount = depth * width;
+			int[] ids = new int[viewCount];
+			for (int view = 0; view < viewCount; view++) {
+				ids[view] = FIRST_ID + boundViews + view;
+			}
+			for (int bound = 0; bound < boundViews; bound++) {
+				ids[(int) ((long) bound * (viewCount - 1) / Math.max(1, boundViews - 1))] = FIRST_ID + bound;
+			}
+
+			BenchmarkViewGroup root = allocate(BenchmarkViewGroup.class);
+			BenchmarkViewGroup parent = root;
+			int view = 0;
+			for (int level = 0; level < depth; level++) {
+				BenchmarkViewGroup group = null;
+				for (int i = 0; i < width; i++) {
+					View child;
+					if (group == null && level + 1 < depth) {
+						group = allocate(BenchmarkViewGroup.class);
+						group.id = ids[view++];
+						child = group;
+					} else {
+						BenchmarkView leaf = allocate(BenchmarkView.class);
+						leaf.id = ids[view++];
+						child = leaf;
+					}
+					parent.add(child);
+				}
+				parent = group;
+			}
+			return root;
+		}
+
+		private File writeBean() throws IOException {
+			StringBuilder bean = new StringBuilder();
+			bean.append("package ").append(SyntheticProjectGenerator.PACKAGE_NAME).append(";\n\n");
+			bean.append("import org.androidannotations.annotations.EBean;\n");
+			bean.append("import org.androidannotations.annotations.ViewById;\n\n");
+			bean.append("import android.view.View;\n\n");
+			bean.append("@EBean\n");
+			bean.append("public class ").append(BEAN_NAME).append(" {\n");
+			for (int view = 0; view < boundViews; view++) {
+				bean.append("\n\t@ViewById\n");
+				bean.append("\tView view").append(view).append(";\n");
+			}
+			bean.append("}\n");
+
+			File file = new File(directory, "src/" + SyntheticProjectGenerator.PACKAGE_NAME.replace('.', '/') + "/" + BEAN_NAME + ".java");
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+				writer.write(bean.toString());
+			}
+			return file;
+		}
+
+		/**
+		 * Generates and compiles the bean, then loads it in its own class
+		 * loader.
+		 *
+		 * @return a new instance of the generated bean
+		 */
+		private OnViewChangedListener compileBean(List<File> sources, boolean singlePassViewBinding) throws Exception {
+			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+			if (compiler == null) {
+				throw new IllegalStateException("The view binding benchmark must run on a JDK");
+			}
+			File outputDirectory = new File(directory, singlePassViewBinding ? "singlePass" : "findEachView");
+			File generatedDirectory = new File(outputDirectory, "generated");
+			if (!generatedDirectory.mkdirs()) {
+				throw new IOException("Can't create " + generatedDirectory);
+			}
+
+			List<String> options = Arrays.asList("-encoding", "UTF-8", //
+					"-classpath", System.getProperty("java.class.path"), //
+					"-d", outputDirectory.getPath(), //
+					"-s", generatedDirectory.getPath(), //
+					"-AandroidManifestFile=" + new File(directory, "AndroidManifest.xml").getPath(), //
+					"-AlogAppenderFile=false", //
+					"-AsinglePassViewBinding=" + singlePassViewBinding);
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+				CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(sources));
+				task.setProcessors(Collections.singletonList(new AndroidAnnotationProcessor()));
+				if (!task.call()) {
+					StringBuilder errors = new StringBuilder("The compilation failed:");
+					for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+						if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+							errors.append('\n').append(diagnostic);
+						}
+					}
+					throw new IllegalStateException(errors.toString());
+				}
+			}
+
+			ClassLoader classLoader = new URLClassLoader(new URL[] { outputDirectory.toURI().toURL() }, ViewBindingBenchmark.class.getClassLoader());
+			Class<?> generatedClass = classLoader.loadClass(SyntheticProjectGenerator.PACKAGE_NAME + "." + BEAN_NAME + "_");
+			return (OnViewChangedListener) generatedClass.getMethod("getInstance_", Context.class).invoke(null, (Context) null);
+		}
+	}
+
+	@Benchmark
+	public void findEachView(Hierarchy hierarchy) {
+		hierarchy.findEachViewBean.onViewChanged(hierarchy.views);
+	}
+
+	@Benchmark
+	public void singlePass(Hierarchy hierarchy) {
+		hierarchy.singlePassBean.onViewChanged(hierarchy.views);
+	}
+
+	/**
+	 * The views of an inflated layout, searched like
+	 * {@link View#findViewById(int)} does.
+	 */
+	static final class HierarchyViews implements HasViews, HasRootView {
+
+		private final View root;
+
+		HierarchyViews(View root) {
+			this.root = root;
+		}
+
+		@Override
+		public View internalGetRootView() {
+			return root;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T extends View> T internalFindViewById(int id) {
+			return (T) find(root, id);
+		}
+
+		private static View find(View view, int id) {
+			if (view.getId() == id) {
+				return view;
+			}
+			if (view instanceof ViewGroup) {
+				ViewGroup group = (ViewGroup) view;
+				for (int i = 0, count = group.getChildCount(); i < count; i++) {
+					View found = find(group.getChildAt(i), id);
+					if (found != null) {
+						return found;
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	static final class BenchmarkView extends View {
+
+		int id;
+
+		private BenchmarkView() {
+			super(null);
+		}
+
+		@Override
+		public int getId() {
+			return id;
+		}
+	}
+
+	static final class BenchmarkViewGroup extends ViewGroup {
+
+		int id;
+		private List<View> children;
+
+		private BenchmarkViewGroup() {
+			super(null);
+		}
+
+		void add(View child) {
+			if (children == null) {
+				children = new ArrayList<>();
+			}
+			children.add(child);
+		}
+
+		@Override
+		public int getId() {
+			return id;
+		}
+
+		@Override
+		public int getChildCount() {
+			return children != null ? children.size() : 0;
+		}
+
+		@Override
+		public View getChildAt(int index) {
+			return children.get(index);
+		}
+
+		@Override
+		protected void onLayout(boolean changed, int l, int t, int r, int b) {
+		}
+	}
+
+	/**
+	 * Creates an instance without running the constructors, which are stubs.
+	 */
+	private static <T> T allocate(Class<T> type) throws Exception {
+		Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+		Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+		theUnsafe.setAccessible(true);
+		Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+		return type.cast(allocateInstance.invoke(theUnsafe.get(null), type));
+	}
+}
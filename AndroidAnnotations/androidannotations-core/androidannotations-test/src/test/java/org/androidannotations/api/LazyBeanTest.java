@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import android.content.Context;
+
+public class LazyBeanTest {
+
+	@Test
+	public void beanIsBuiltOnceOnFirstAccess() throws Exception {
+		final AtomicInteger creations = new AtomicInteger();
+		final LazyBean<Object> lazyBean = new LazyBean<Object>(null) {
+			@Override
+			protected Object create(Context context) {
+				creations.incrementAndGet();
+				return new Object();
+			}
+		};
+		assertEquals(0, creations.get());
+
+		int threadCount = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		try {
+			Future<?>[] futures = new Future<?>[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				futures[i] = executorService.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						start.await();
+						return lazyBean.get();
+					}
+				});
+			}
+			start.countDown();
+
+			Object bean = lazyBean.get();
+			for (Future<?> future : futures) {
+				assertSame(bean, future.get());
+			}
+		} finally {
+			executorService.shutdown();
+		}
+		assertEquals(1, creations.get());
+	}
+
+	@Test
+	public void providerBuildsABeanOnEachCall() {
+		BeanProvider<Object> provider = new BeanProvider<Object>(null) {
+			@Override
+			protected Object create(Context context) {
+				return new Object();
+			}
+		};
+
+		assertNotSame(provider.get(), provider.get());
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Runs the executor on platform threads, since the tests may run on a JVM
+ * which does not support virtual threads.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class VirtualThreadExecutorTest {
+
+	private static final int MAX_WAITING_TIME = 3000; /* milliseconds */
+
+	private final List<String> executionOrder = Collections.synchronizedList(new ArrayList<String>());
+
+	private ExecutorService delegate;
+	private VirtualThreadExecutor executor;
+	private ExecutorService otherExecutor;
+
+	@Before
+	public void setUp() {
+		delegate = Executors.newCachedThreadPool();
+		executor = new VirtualThreadExecutor(delegate);
+		otherExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		BackgroundExecutor.setExecutor(BackgroundExecutor.DEFAULT_EXECUTOR);
+		executor.shutdownNow();
+		otherExecutor.shutdownNow();
+		assertTrue("The executor could not terminate after the test", executor.awaitTermination(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void createReturnsAWorkingExecutor() throws Exception {
+		ExecutorService createdExecutor = VirtualThreadExecutor.create();
+		try {
+			assertEquals("done", createdExecutor.submit(new Runnable() {
+				@Override
+				public void run() {
+				}
+			}, "done").get(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+		} finally {
+			createdExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void delayedTaskRunsAfterItsDelay() throws Exception {
+		long start = System.nanoTime();
+
+		ScheduledFuture<String> future = executor.schedule(new Callable<String>() {
+			@Override
+			public String call() {
+				return "done";
+			}
+		}, 50, TimeUnit.MILLISECONDS);
+
+		assertEquals("done", future.get(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	public void cancelledDelayedTaskDoesNotRun() throws InterruptedException {
+		final AtomicBoolean ran = new AtomicBoolean();
+		ScheduledFuture<?> future = executor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				ran.set(true);
+			}
+		}, 50, TimeUnit.MILLISECONDS);
+
+		assertTrue(future.cancel(false));
+		Thread.sleep(200);
+
+		assertFalse(ran.get());
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void serialTasksKeepTheirOrder() throws InterruptedException {
+		BackgroundExecutor.setExecutor(executor);
+		CountDownLatch done = new CountDownLatch(3);
+
+		BackgroundExecutor.execute(recordingTask("first", 30, done));
+		BackgroundExecutor.execute(recordingTask("second", 0, done));
+		BackgroundExecutor.execute(recordingTask("third", 0, done));
+
+		await(done);
+		assertEquals(Arrays.asList("first", "second", "third"), executionOrder);
+	}
+
+	@Test
+	public void delayedTaskPendingAtShutdownLetsItsSerialContinue() throws InterruptedException {
+		BackgroundExecutor.setExecutor(executor);
+		CountDownLatch done = new CountDownLatch(1);
+		BackgroundExecutor.execute(recordingTask("delayed", 10 * MAX_WAITING_TIME, done));
+		BackgroundExecutor.execute(recordingTask("next", 0, done));
+
+		BackgroundExecutor.setExecutor(otherExecutor);
+		executor.shutdown();
+
+		await(done);
+		assertEquals(Collections.singletonList("next"), executionOrder);
+	}
+
+	@Test
+	public void delayedTaskRejectedOnStartLetsItsSerialContinue() throws InterruptedException {
+		BackgroundExecutor.setExecutor(executor);
+		CountDownLatch done = new CountDownLatch(1);
+		BackgroundExecutor.execute(recordingTask("delayed", 100, done));
+		BackgroundExecutor.execute(recordingTask("next", 0, done));
+
+		/* the timer is still running, but the tasks cannot start anymore */
+		BackgroundExecutor.setExecutor(otherExecutor);
+		delegate.shutdown();
+
+		await(done);
+		assertEquals(Collections.singletonList("next"), executionOrder);
+	}
+
+	private BackgroundExecutor.Task recordingTask(final String name, long delay, final CountDownLatch done) {
+		return new BackgroundExecutor.Task(null, delay, "serial") {
+			@Override
+			public void execute() {
+				executionOrder.add(name);
+				done.countDown();
+			}
+		};
+	}
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		assertTrue("Execution hanged up", latch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+}
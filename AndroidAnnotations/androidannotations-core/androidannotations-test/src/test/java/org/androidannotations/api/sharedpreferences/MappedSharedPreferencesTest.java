@@ -0,0 +1,354 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+@RunWith(RobolectricTestRunner.class)
+public class MappedSharedPreferencesTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = new File(temporaryFolder.newFolder("prefs"), "test.kv");
+	}
+
+	@Test
+	public void valuesAreReadBack() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		SharedPreferences.Editor editor = preferences.edit() //
+				.putString("string", "value") //
+				.putInt("int", 42) //
+				.putLong("long", 1L << 40) //
+				.putFloat("float", 1.5f) //
+				.putBoolean("boolean", true);
+		editor.putStringSet("set", new HashSet<>(Arrays.asList("a", "b")));
+		assertTrue(editor.commit());
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertEquals("value", reopened.getString("string", null));
+		assertEquals(42, reopened.getInt("int", 0));
+		assertEquals(1L << 40, reopened.getLong("long", 0));
+		assertEquals(1.5f, reopened.getFloat("float", 0), 0);
+		assertTrue(reopened.getBoolean("boolean", false));
+		assertEquals(new HashSet<>(Arrays.asList("a", "b")), reopened.getStringSet("set", null));
+		assertEquals(preferences.getAll(), reopened.getAll());
+	}
+
+	@Test
+	public void removalsAreReadBack() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putInt("first", 1).putInt("second", 2).putInt("third", 3).commit();
+		preferences.edit().remove("first").putString("second", null).commit();
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertFalse(reopened.contains("first"));
+		assertFalse(reopened.contains("second"));
+		assertEquals(3, reopened.getInt("third", 0));
+
+		reopened.edit().clear().putInt("fourth", 4).commit();
+		assertEquals(1, new MappedSharedPreferences(file).getAll().size());
+		assertEquals(4, new MappedSharedPreferences(file).getInt("fourth", 0));
+	}
+
+	@Test
+	public void overwrittenValuesAreCompacted() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		for (int i = 0; i < 10000; i++) {
+			preferences.edit().putInt("counter", i).apply();
+		}
+		preferences.awaitBackgroundWrites();
+
+		assertTrue(file.length() <= 16 * 1024);
+		assertEquals(9999, new MappedSharedPreferences(file).getInt("counter", 0));
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+	}
+
+	@Test
+	public void logGrowsWithLiveValues() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		char[] padding = new char[100];
+		Arrays.fill(padding, 'x');
+		for (int i = 0; i < 2000; i++) {
+			preferences.edit().putString("key" + i, i + new String(padding)).apply();
+		}
+		preferences.awaitBackgroundWrites();
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertEquals(2000, reopened.getAll().size());
+		assertEquals("1999" + new String(padding), reopened.getString("key1999", null));
+	}
+
+	@Test
+	public void listenersAreNotifiedOfChangedKeys() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putInt("unchanged", 1).commit();
+
+		final List<String> changedKeys = new ArrayList<>();
+		SharedPreferences.OnSharedPreferenceChangeListener listener = new SharedPreferences.OnSharedPreferenceChangeListener() {
+			@Override
+			public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+				changedKeys.add(key);
+			}
+		};
+		preferences.registerOnSharedPreferenceChangeListener(listener);
+
+		preferences.edit().putInt("unchanged", 1).putInt("changed", 2).commit();
+		preferences.edit().clear().commit();
+		preferences.unregisterOnSharedPreferenceChangeListener(listener);
+		preferences.edit().putInt("changed", 3).commit();
+
+		assertEquals(Arrays.asList("changed", null), changedKeys);
+	}
+
+	@Test
+	public void listenersAreNotifiedOnTheMainThread() throws Exception {
+		final MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		final List<Thread> notifiedThreads = new ArrayList<>();
+		preferences.registerOnSharedPreferenceChangeListener(new SharedPreferences.OnSharedPreferenceChangeListener() {
+			@Override
+			public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+				notifiedThreads.add(Thread.currentThread());
+			}
+		});
+
+		Thread committer = new Thread() {
+			@Override
+			public void run() {
+				preferences.edit().putInt("key", 1).commit();
+			}
+		};
+		committer.start();
+		committer.join();
+		ShadowLooper.runUiThreadTasks();
+
+		assertEquals(Arrays.asList(Looper.getMainLooper().getThread()), notifiedThreads);
+	}
+
+	@Test(timeout = 10000)
+	public void applyDoesNotWaitForTheLog() throws Exception {
+		final MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		final CountDownLatch locked = new CountDownLatch(1);
+		final CountDownLatch applied = new CountDownLatch(1);
+		// holds the log while the value is applied
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				synchronized (preferences) {
+					locked.countDown();
+					try {
+						applied.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		writer.start();
+		locked.await();
+
+		preferences.edit().putInt("key", 1).apply();
+		assertEquals(1, preferences.getInt("key", 0));
+		applied.countDown();
+		writer.join();
+		preferences.awaitBackgroundWrites();
+
+		assertEquals(1, new MappedSharedPreferences(file).getInt("key", 0));
+	}
+
+	@Test
+	public void commitWritesThePendingApplies() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		synchronized (preferences) {
+			// keeps the background writer from writing them
+			preferences.edit().putInt("first", 1).apply();
+			preferences.edit().putInt("second", 2).apply();
+			assertTrue(preferences.edit().commit());
+		}
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertEquals(1, reopened.getInt("first", 0));
+		assertEquals(2, reopened.getInt("second", 0));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void wrongTypeThrows() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putString("key", "value").commit();
+		preferences.getInt("key", 0);
+	}
+
+	@Test
+	public void otherFilesAreSetAside() throws Exception {
+		byte[] content = "<map />\n<!-- not a preferences log -->".getBytes(StandardCharsets.UTF_8);
+		Files.write(file.toPath(), content);
+
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		assertTrue(preferences.getAll().isEmpty());
+		assertTrue(preferences.edit().putInt("key", 1).commit());
+		assertEquals(1, new MappedSharedPreferences(file).getInt("key", 0));
+		assertArrayEquals(content, Files.readAllBytes(new File(file.getPath() + ".corrupt").toPath()));
+	}
+
+	@Test
+	public void corruptedRecordsAreTruncated() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putString("first", "value").commit();
+		preferences.edit().putString("second", "value").commit();
+		preferences.edit().putString("third", "value").commit();
+
+		int end = readEnd();
+		// the last byte of the third record
+		writeByte(end - 1, 'X');
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertEquals("value", reopened.getString("first", null));
+		assertEquals("value", reopened.getString("second", null));
+		assertFalse(reopened.contains("third"));
+		assertTrue(readEnd() < end);
+
+		reopened.edit().putString("fourth", "value").commit();
+		MappedSharedPreferences reopenedAgain = new MappedSharedPreferences(file);
+		assertEquals(3, reopenedAgain.getAll().size());
+		assertEquals("value", reopenedAgain.getString("fourth", null));
+	}
+
+	@Test
+	public void tornRecordsAreTruncated() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putString("first", "value").commit();
+
+		int end = readEnd();
+		// a record whose end was not written before a crash
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(end);
+			randomAccessFile.writeInt(100);
+			randomAccessFile.writeInt(0);
+			randomAccessFile.writeByte(1);
+			randomAccessFile.seek(8);
+			randomAccessFile.writeInt(end + 20);
+		}
+
+		MappedSharedPreferences reopened = new MappedSharedPreferences(file);
+		assertEquals(1, reopened.getAll().size());
+		assertEquals(end, readEnd());
+	}
+
+	@Test
+	public void invalidEndIsIgnored() throws Exception {
+		MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putString("first", "value").commit();
+		int end = readEnd();
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(8);
+			randomAccessFile.writeInt(-1);
+		}
+		assertEquals("value", new MappedSharedPreferences(file).getString("first", null));
+		assertEquals(end, readEnd());
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(8);
+			randomAccessFile.writeInt(Integer.MAX_VALUE);
+		}
+		assertEquals("value", new MappedSharedPreferences(file).getString("first", null));
+		assertEquals(end, readEnd());
+	}
+
+	@Test
+	public void readersSeeWholeCommits() throws Exception {
+		final MappedSharedPreferences preferences = new MappedSharedPreferences(file);
+		preferences.edit().putInt("first", 0).putInt("second", 0).commit();
+
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicInteger partialReads = new AtomicInteger();
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				while (running.get()) {
+					Map<String, ?> values = preferences.getAll();
+					if (!values.get("first").equals(values.get("second"))) {
+						partialReads.incrementAndGet();
+					}
+				}
+			}
+		};
+		reader.start();
+		try {
+			for (int i = 1; i < 5000; i++) {
+				preferences.edit().clear().putInt("first", i).putInt("second", i).apply();
+			}
+		} finally {
+			running.set(false);
+			reader.join();
+		}
+
+		assertEquals(0, partialReads.get());
+	}
+
+	@Test
+	public void openReturnsTheSameInstance() throws Exception {
+		assertTrue(MappedSharedPreferences.open(file) == MappedSharedPreferences.open(new File(file.getParentFile(), "../prefs/test.kv")));
+		assertNull(MappedSharedPreferences.open(file).getString("missing", null));
+	}
+
+	private int readEnd() throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			randomAccessFile.seek(8);
+			return randomAccessFile.readInt();
+		}
+	}
+
+	private void writeByte(int position, int value) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(position);
+			randomAccessFile.writeByte(value);
+		}
+	}
+}
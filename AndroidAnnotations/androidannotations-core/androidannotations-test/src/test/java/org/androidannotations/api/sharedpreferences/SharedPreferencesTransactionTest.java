@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import android.content.SharedPreferences;
+
+public class SharedPreferencesTransactionTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private CountingSharedPreferences settings;
+	private CountingSharedPreferences account;
+
+	@Before
+	public void setUp() throws IOException {
+		settings = new CountingSharedPreferences(new MappedSharedPreferences(new File(temporaryFolder.getRoot(), "settings.kv")));
+		account = new CountingSharedPreferences(new MappedSharedPreferences(new File(temporaryFolder.getRoot(), "account.kv")));
+	}
+
+	@After
+	public void tearDown() {
+		SharedPreferencesTransaction current = SharedPreferencesTransaction.current();
+		if (current != null) {
+			current.end();
+		}
+	}
+
+	@Test
+	public void changesAreWrittenOncePerFile() {
+		IntPrefField volume = new IntPrefField(settings, "volume", 0);
+		BooleanPrefField sound = new BooleanPrefField(settings, "sound", false);
+		StringPrefField name = new StringPrefField(account, "name", "");
+
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		try {
+			for (int i = 1; i <= 100; i++) {
+				volume.put(i);
+			}
+			sound.put(true);
+			name.put("John");
+			assertEquals(0, (int) volume.get());
+			assertTrue(transaction.commit());
+		} finally {
+			transaction.end();
+		}
+
+		assertEquals(1, settings.editCount);
+		assertEquals(1, account.editCount);
+		assertEquals(100, (int) volume.get());
+		assertTrue(sound.get());
+		assertEquals("John", name.get());
+	}
+
+	@Test
+	public void unchangedValuesAreNotWritten() {
+		IntPrefField volume = new IntPrefField(settings, "volume", 0);
+		volume.put(5);
+		settings.editCount = 0;
+
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		volume.put(7);
+		volume.put(5);
+		new IntPrefField(settings, "missing", 0).remove();
+		transaction.commit();
+
+		assertEquals(0, settings.editCount);
+	}
+
+	@Test
+	public void removalsAndClearAreWritten() {
+		IntPrefField volume = new IntPrefField(settings, "volume", 0);
+		IntPrefField brightness = new IntPrefField(settings, "brightness", 0);
+		volume.put(5);
+		brightness.put(3);
+
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		volume.remove();
+		transaction.commit();
+		assertFalse(volume.exists());
+		assertTrue(brightness.exists());
+
+		transaction = SharedPreferencesTransaction.begin();
+		volume.put(1);
+		SharedPreferencesTransaction.edit(settings).clear();
+		transaction.commit();
+		assertEquals(1, settings.getAll().size());
+		assertEquals(1, (int) volume.get());
+	}
+
+	@Test
+	public void endedTransactionIsDiscarded() {
+		IntPrefField volume = new IntPrefField(settings, "volume", 0);
+
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		volume.put(5);
+		transaction.end();
+
+		assertNull(SharedPreferencesTransaction.current());
+		assertFalse(volume.exists());
+		volume.put(6);
+		assertEquals(6, (int) volume.get());
+	}
+
+	@Test
+	public void editorsCannotBeUsedAfterTheirTransaction() {
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		SharedPreferences.Editor editor = SharedPreferencesTransaction.edit(settings);
+		editor.putInt("volume", 5);
+		transaction.commit();
+
+		try {
+			editor.apply();
+			fail("apply() was accepted after the end of the transaction");
+		} catch (IllegalStateException expected) {
+			// the editor belongs to the transaction
+		}
+		try {
+			editor.putInt("volume", 6);
+			fail("putInt() was accepted after the end of the transaction");
+		} catch (IllegalStateException expected) {
+			// the editor belongs to the transaction
+		}
+		assertEquals(5, settings.getInt("volume", 0));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void helperEditorCannotBeAppliedAfterTheTransaction() {
+		SharedPreferencesTransaction transaction = SharedPreferencesTransaction.begin();
+		SettingsEditor editor = new SettingsEditor(settings);
+		editor.volume().put(5);
+		transaction.end();
+
+		editor.apply();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void transactionsCannotBeNested() {
+		SharedPreferencesTransaction.begin();
+		SharedPreferencesTransaction.begin();
+	}
+
+	private static final class SettingsEditor extends EditorHelper<SettingsEditor> {
+
+		SettingsEditor(SharedPreferences sharedPreferences) {
+			super(sharedPreferences);
+		}
+
+		IntPrefEditorField<SettingsEditor> volume() {
+			return intField("volume");
+		}
+	}
+
+	private static final class CountingSharedPreferences implements SharedPreferences {
+
+		private final SharedPreferences delegate;
+		int editCount;
+
+		CountingSharedPreferences(SharedPreferences delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Editor edit() {
+			editCount++;
+			return delegate.edit();
+		}
+
+		@Override
+		public Map<String, ?> getAll() {
+			return delegate.getAll();
+		}
+
+		@Override
+		public String getString(String key, String defValue) {
+			return delegate.getString(key, defValue);
+		}
+
+		@Override
+		public Set<String> getStringSet(String key, Set<String> defValues) {
+			return delegate.getStringSet(key, defValues);
+		}
+
+		@Override
+		public int getInt(String key, int defValue) {
+			return delegate.getInt(key, defValue);
+		}
+
+		@Override
+		public long getLong(String key, long defValue) {
+			return delegate.getLong(key, defValue);
+		}
+
+		@Override
+		public float getFloat(String key, float defValue) {
+			return delegate.getFloat(key, defValue);
+		}
+
+		@Override
+		public boolean getBoolean(String key, boolean defValue) {
+			return delegate.getBoolean(key, defValue);
+		}
+
+		@Override
+		public boolean contains(String key) {
+			return delegate.contains(key);
+		}
+
+		@Override
+		public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+			delegate.registerOnSharedPreferenceChangeListener(listener);
+		}
+
+		@Override
+		public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+			delegate.unregisterOnSharedPreferenceChangeListener(listener);
+		}
+	}
+}
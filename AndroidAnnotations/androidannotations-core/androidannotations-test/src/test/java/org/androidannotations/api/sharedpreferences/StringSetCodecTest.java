@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.sharedpreferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.robolectric.RobolectricTestRunner;
+
+import android.content.SharedPreferences;
+
+@RunWith(RobolectricTestRunner.class)
+public class StringSetCodecTest {
+
+	@Test
+	public void stringsAreLengthPrefixed() {
+		Set<String> set = new LinkedHashSet<>(Arrays.asList("a", "bc"));
+
+		assertEquals("AA_set:1:2:1:a2:bc", StringSetCodec.encode(set));
+	}
+
+	@Test
+	public void decodedSetEqualsEncodedSet() {
+		char[] longString = new char[100];
+		Arrays.fill(longString, 'x');
+		Set<String> set = new HashSet<>(Arrays.asList("", ":", "1:a", "<AA_string>", "\u00e9t\u00e9 \ud83d\ude00", new String(longString)));
+
+		assertEquals(set, StringSetCodec.decode(StringSetCodec.encode(set)));
+	}
+
+	@Test
+	public void nullIsEncodedAsEmptySet() {
+		assertTrue(StringSetCodec.decode(StringSetCodec.encode(null)).isEmpty());
+		assertEquals(StringSetCodec.encode(Collections.<String> emptySet()), StringSetCodec.encode(null));
+	}
+
+	@Test
+	public void largeSetsAreDecoded() {
+		Set<String> set = new HashSet<>();
+		for (int i = 0; i < 5000; i++) {
+			set.add("id" + i);
+		}
+
+		assertEquals(set, StringSetCodec.decode(StringSetCodec.encode(set)));
+	}
+
+	@Test
+	public void decodedSetsAreSorted() {
+		Set<String> set = new LinkedHashSet<>(Arrays.asList("c", "a", "b"));
+
+		assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(StringSetCodec.decode(StringSetCodec.encode(set))));
+	}
+
+	@Test
+	public void legacyXmlValuesAreDecoded() {
+		String legacyValue = "<AA_set><AA_string>b</AA_string><AA_string>a:1</AA_string></AA_set>";
+
+		Set<String> set = StringSetCodec.decode(legacyValue);
+
+		assertEquals(Arrays.asList("a:1", "b"), new ArrayList<>(set));
+		assertEquals(set, StringSetCodec.decode(SetXmlSerializer.serialize(set)));
+	}
+
+	@Test
+	public void legacyXmlValuesAreRewrittenInTheNewFormat() {
+		// the preferences of a device without string sets
+		SharedPreferences preferences = mock(SharedPreferences.class);
+		SharedPreferences.Editor editor = mock(SharedPreferences.Editor.class);
+		when(preferences.getStringSet(anyString(), ArgumentMatchers.<Set<String>> any())).thenThrow(new UnsupportedOperationException());
+		when(editor.putStringSet(anyString(), ArgumentMatchers.<Set<String>> any())).thenThrow(new UnsupportedOperationException());
+		when(preferences.getString("key", null)).thenReturn("<AA_set><AA_string>b</AA_string><AA_string>a</AA_string></AA_set>");
+
+		Set<String> set = SharedPreferencesCompat.getStringSet(preferences, "key", null);
+		SharedPreferencesCompat.putStringSet(editor, "key", set);
+
+		assertEquals(new HashSet<>(Arrays.asList("a", "b")), set);
+		verify(editor).putString("key", "AA_set:1:2:1:a1:b");
+	}
+
+	@Test
+	public void malformedValuesAreNotDecoded() {
+		// an invalid count
+		assertNull(StringSetCodec.decode("AA_set:1:!:1:a"));
+		assertNull(StringSetCodec.decode("AA_set:1::"));
+		assertNull(StringSetCodec.decode("AA_set:1:zzzzzzzzzz:"));
+		// a truncated count or length
+		assertNull(StringSetCodec.decode("AA_set:1:2"));
+		assertNull(StringSetCodec.decode("AA_set:1:1:1"));
+		// a length past the end
+		assertNull(StringSetCodec.decode("AA_set:1:1:5:ab"));
+		assertNull(StringSetCodec.decode("AA_set:1:2:1:a"));
+		// characters after the last string
+		assertNull(StringSetCodec.decode("AA_set:1:1:1:ab"));
+		// an XML value which is not a set
+		assertNull(StringSetCodec.decode("<AA_string>a</AA_string>"));
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.api.view;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import org.junit.Test;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+public class ViewTableTest {
+
+	@Test
+	public void findsTheFirstViewInDepthFirstOrder() {
+		View first = view(2);
+		View second = view(2);
+		ViewGroup inner = group(1, first);
+		ViewGroup root = group(View.NO_ID, inner, second, view(3));
+
+		ViewTable table = ViewTable.find(hasRootView(root), 1, 2, 3, 4);
+
+		assertSame(inner, table.get(1));
+		assertSame(first, table.get(2));
+		assertNull(table.get(4));
+		assertNull(table.get(5));
+	}
+
+	@Test
+	public void stopsOnceEveryIdIsFound() {
+		ViewGroup last = group(2);
+		ViewGroup root = group(View.NO_ID, view(1), last);
+
+		ViewTable.find(hasRootView(root), 1);
+
+		verify(root, never()).getChildAt(1);
+	}
+
+	@Test
+	public void findsEachViewWithoutRootView() {
+		View view = view(1);
+		HasViews hasViews = mock(HasViews.class);
+		when(hasViews.internalFindViewById(1)).thenReturn(view);
+
+		ViewTable table = ViewTable.find(hasViews, 1, 1, 2);
+
+		assertSame(view, table.get(1));
+		assertNull(table.get(2));
+		verify(hasViews).internalFindViewById(1);
+	}
+
+	private View view(int id) {
+		View view = mock(View.class);
+		when(view.getId()).thenReturn(id);
+		return view;
+	}
+
+	private ViewGroup group(int id, View... children) {
+		ViewGroup group = mock(ViewGroup.class);
+		when(group.getId()).thenReturn(id);
+		when(group.getChildCount()).thenReturn(children.length);
+		for (int i = 0; i < children.length; i++) {
+			when(group.getChildAt(i)).thenReturn(children[i]);
+		}
+		return group;
+	}
+
+	private HasViews hasRootView(View root) {
+		HasViews hasViews = mock(HasViews.class, withSettings().extraInterfaces(HasRootView.class));
+		when(((HasRootView) hasViews).internalGetRootView()).thenReturn(root);
+		return hasViews;
+	}
+}
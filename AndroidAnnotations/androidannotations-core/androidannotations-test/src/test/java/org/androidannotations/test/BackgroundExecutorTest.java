@@ -0,0 +1,332 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.androidannotations.api.BackgroundExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundExecutorTest {
+
+	private static final int MAX_WAITING_TIME = 3000; /* milliseconds */
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+		BackgroundExecutor.setExecutor(executor);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		BackgroundExecutor.setExecutor(BackgroundExecutor.DEFAULT_EXECUTOR);
+		executor.shutdownNow();
+		assertTrue("The executor could not terminate after the test", executor.awaitTermination(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void serialTasksRunOneAfterTheOtherInSubmissionOrder() throws InterruptedException {
+		final int taskCount = 50;
+		final List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<Integer>());
+		final AtomicInteger runningTasks = new AtomicInteger();
+		final AtomicBoolean overlapped = new AtomicBoolean();
+		final CountDownLatch done = new CountDownLatch(taskCount);
+
+		for (int i = 0; i < taskCount; i++) {
+			final int index = i;
+			BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "serial") {
+				@Override
+				public void execute() {
+					if (runningTasks.incrementAndGet() != 1) {
+						overlapped.set(true);
+					}
+					Thread.yield();
+					executionOrder.add(index);
+					runningTasks.decrementAndGet();
+					done.countDown();
+				}
+			});
+		}
+
+		await(done);
+		assertFalse("Tasks of the same serial should not run concurrently", overlapped.get());
+		for (int i = 0; i < taskCount; i++) {
+			assertEquals(i, (int) executionOrder.get(i));
+		}
+	}
+
+	@Test
+	public void tasksOfDifferentSerialsDoNotWaitForEachOther() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch otherSerialDone = new CountDownLatch(1);
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "blocked") {
+			@Override
+			public void execute() {
+				awaitQuietly(release);
+			}
+		});
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "free") {
+			@Override
+			public void execute() {
+				otherSerialDone.countDown();
+			}
+		});
+
+		await(otherSerialDone);
+		release.countDown();
+	}
+
+	@Test
+	public void cancelAllRemovesQueuedTasksAndRunsTheNextOnes() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch nextDone = new CountDownLatch(1);
+		final AtomicInteger cancelledRuns = new AtomicInteger();
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "cancel-queued") {
+			@Override
+			public void execute() {
+				started.countDown();
+				awaitQuietly(release);
+			}
+		});
+		await(started);
+		for (int i = 0; i < 3; i++) {
+			BackgroundExecutor.execute(new BackgroundExecutor.Task("queued", 0, "cancel-queued") {
+				@Override
+				public void execute() {
+					cancelledRuns.incrementAndGet();
+				}
+			});
+		}
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "cancel-queued") {
+			@Override
+			public void execute() {
+				nextDone.countDown();
+			}
+		});
+
+		BackgroundExecutor.cancelAll("queued", false);
+		release.countDown();
+
+		await(nextDone);
+		assertEquals(0, cancelledRuns.get());
+	}
+
+	@Test
+	public void cancelAllInterruptsTheRunningTask() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final CountDownLatch nextDone = new CountDownLatch(1);
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task("running", 0, "cancel-running") {
+			@Override
+			public void execute() {
+				started.countDown();
+				try {
+					Thread.sleep(10 * MAX_WAITING_TIME);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+			}
+		});
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "cancel-running") {
+			@Override
+			public void execute() {
+				nextDone.countDown();
+			}
+		});
+		await(started);
+
+		BackgroundExecutor.cancelAll("running", true);
+
+		await(interrupted);
+		await(nextDone);
+	}
+
+	@Test
+	public void cancelAllDoesNotInterruptTheRunningTaskIfNotAllowed() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final AtomicBoolean interrupted = new AtomicBoolean();
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task("not-interrupted", 0, null) {
+			@Override
+			public void execute() {
+				started.countDown();
+				try {
+					release.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				done.countDown();
+			}
+		});
+		await(started);
+
+		BackgroundExecutor.cancelAll("not-interrupted", false);
+		release.countDown();
+
+		await(done);
+		assertFalse(interrupted.get());
+	}
+
+	@Test
+	public void executeLatestCancelsTheQueuedTasksHavingTheSameId() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final List<Integer> executions = Collections.synchronizedList(new ArrayList<Integer>());
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "latest") {
+			@Override
+			public void execute() {
+				started.countDown();
+				awaitQuietly(release);
+			}
+		});
+		await(started);
+		for (int i = 0; i < 5; i++) {
+			final int index = i;
+			BackgroundExecutor.executeLatest(new BackgroundExecutor.Task("refresh", 0, "latest") {
+				@Override
+				public void execute() {
+					executions.add(index);
+					done.countDown();
+				}
+			});
+		}
+		release.countDown();
+
+		await(done);
+		awaitSerialCompletion("latest");
+		assertEquals(Collections.singletonList(4), executions);
+	}
+
+	@Test
+	public void executeLatestDoesNotCancelTheRunningTask() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(2);
+		final List<String> executions = Collections.synchronizedList(new ArrayList<String>());
+
+		BackgroundExecutor.executeLatest(new BackgroundExecutor.Task("running", 0, null) {
+			@Override
+			public void execute() {
+				started.countDown();
+				awaitQuietly(release);
+				executions.add("running");
+				done.countDown();
+			}
+		});
+		await(started);
+		BackgroundExecutor.executeLatest(new BackgroundExecutor.Task("running", 0, null) {
+			@Override
+			public void execute() {
+				executions.add("latest");
+				done.countDown();
+			}
+		});
+		release.countDown();
+
+		await(done);
+		assertTrue(executions.contains("running"));
+		assertTrue(executions.contains("latest"));
+	}
+
+	@Test
+	public void executeLatestDoesNotCancelTasksHavingAnotherId() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(2);
+		final List<String> executions = Collections.synchronizedList(new ArrayList<String>());
+
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "other-ids") {
+			@Override
+			public void execute() {
+				started.countDown();
+				awaitQuietly(release);
+			}
+		});
+		await(started);
+		BackgroundExecutor.executeLatest(new BackgroundExecutor.Task("first", 0, "other-ids") {
+			@Override
+			public void execute() {
+				executions.add("first");
+				done.countDown();
+			}
+		});
+		BackgroundExecutor.executeLatest(new BackgroundExecutor.Task("second", 0, "other-ids") {
+			@Override
+			public void execute() {
+				executions.add("second");
+				done.countDown();
+			}
+		});
+		release.countDown();
+
+		await(done);
+		assertEquals(Arrays.asList("first", "second"), executions);
+	}
+
+	/**
+	 * Waits for the tasks previously added to the serial to complete.
+	 */
+	private static void awaitSerialCompletion(String serial) throws InterruptedException {
+		final CountDownLatch completed = new CountDownLatch(1);
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, serial) {
+			@Override
+			public void execute() {
+				completed.countDown();
+			}
+		});
+		await(completed);
+	}
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		assertTrue("Execution hanged up", latch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.androidannotations.api.BackgroundExecutor;
+import org.androidannotations.api.PriorityExecutor;
+import org.androidannotations.api.PriorityExecutor.RejectionPolicy;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class PriorityExecutorTest {
+
+	private static final int MAX_WAITING_TIME = 3000; /* milliseconds */
+
+	private final List<String> executionOrder = Collections.synchronizedList(new ArrayList<String>());
+	private final CountDownLatch blockerStarted = new CountDownLatch(1);
+	private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+
+	private PriorityExecutor executor;
+
+	@After
+	public void tearDown() throws InterruptedException {
+		releaseBlocker.countDown();
+		BackgroundExecutor.setExecutor(BackgroundExecutor.DEFAULT_EXECUTOR);
+		executor.shutdownNow();
+		assertTrue("The executor could not terminate after the test", executor.awaitTermination(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void queuedTasksRunByDecreasingPriorityThenInSubmissionOrder() throws InterruptedException {
+		createBlockedExecutor(16, RejectionPolicy.ABORT);
+		CountDownLatch done = new CountDownLatch(5);
+
+		executor.execute(recordingTask("low1", 0, done));
+		executor.execute(recordingTask("high1", 5, done));
+		executor.execute(recordingTask("medium", 1, done));
+		executor.execute(recordingTask("high2", 5, done));
+		executor.execute(recordingTask("low2", 0, done));
+		releaseBlocker.countDown();
+
+		await(done);
+		assertEquals(Arrays.asList("high1", "high2", "medium", "low1", "low2"), executionOrder);
+	}
+
+	@Test
+	public void abortPolicyThrowsWhenTheQueueIsFull() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.ABORT);
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute(recordingTask("queued", 0, done));
+
+		try {
+			executor.execute(recordingTask("rejected", 0, done));
+			fail("The task should have been rejected");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+		releaseBlocker.countDown();
+
+		await(done);
+		assertEquals(Collections.singletonList("queued"), executionOrder);
+	}
+
+	@Test
+	public void discardPolicyDropsTheNewTask() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.DISCARD);
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute(recordingTask("queued", 0, done));
+		executor.execute(recordingTask("dropped", 10, done));
+		releaseBlocker.countDown();
+
+		await(done);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+		assertEquals(Collections.singletonList("queued"), executionOrder);
+	}
+
+	@Test
+	public void discardOldestPolicyDropsTheOldestLowestPriorityTask() throws InterruptedException {
+		createBlockedExecutor(2, RejectionPolicy.DISCARD_OLDEST);
+		CountDownLatch done = new CountDownLatch(2);
+		executor.execute(recordingTask("low", 0, done));
+		executor.execute(recordingTask("high", 5, done));
+		executor.execute(recordingTask("medium", 1, done));
+		/* lower than every queued task: dropped */
+		executor.execute(recordingTask("lowest", -1, done));
+		releaseBlocker.countDown();
+
+		await(done);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+		assertEquals(Arrays.asList("high", "medium"), executionOrder);
+	}
+
+	@Test
+	public void droppedSerialTaskDoesNotBlockItsSerial() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.DISCARD);
+		BackgroundExecutor.setExecutor(executor);
+		CountDownLatch fillerDone = new CountDownLatch(1);
+		executor.execute(recordingTask("filler", 0, fillerDone));
+
+		BackgroundExecutor.execute(recordingTask("dropped", 0, "serial", fillerDone));
+		releaseBlocker.countDown();
+		await(fillerDone);
+
+		CountDownLatch nextDone = new CountDownLatch(1);
+		BackgroundExecutor.execute(recordingTask("next", 0, "serial", nextDone));
+
+		await(nextDone);
+		assertEquals(Arrays.asList("filler", "next"), executionOrder);
+	}
+
+	/*
+	 * The next task of a dropped serial task must wait for room in the queue:
+	 * submitting it right away would have it rejected in turn, and so on for the
+	 * whole serial, in nested calls.
+	 */
+	@Test
+	public void droppedSerialTaskLetsALongSerialRunOnceTheQueueHasRoom() throws InterruptedException {
+		executor = new PriorityExecutor(1, 1, RejectionPolicy.DISCARD);
+		BackgroundExecutor.setExecutor(executor);
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "serial") {
+			@Override
+			public void execute() {
+				blockerStarted.countDown();
+				awaitQuietly(releaseBlocker);
+			}
+		});
+		await(blockerStarted);
+
+		int chainLength = 10000;
+		CountDownLatch done = new CountDownLatch(chainLength - 1);
+		List<String> expectedOrder = new ArrayList<>();
+		for (int i = 0; i < chainLength; i++) {
+			BackgroundExecutor.execute(recordingTask("chain" + i, 0, "serial", done));
+			if (i > 0) {
+				expectedOrder.add("chain" + i);
+			}
+		}
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				executionOrder.add("filler");
+			}
+		});
+		expectedOrder.add(0, "filler");
+		releaseBlocker.countDown();
+
+		await(done);
+		assertEquals(expectedOrder, executionOrder);
+	}
+
+	@Test
+	public void delayedTaskPendingAtShutdownLetsItsSerialContinue() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.ABORT);
+		BackgroundExecutor.setExecutor(executor);
+		CountDownLatch done = new CountDownLatch(1);
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 10 * MAX_WAITING_TIME, "serial") {
+			@Override
+			public void execute() {
+				executionOrder.add("delayed");
+			}
+		});
+		BackgroundExecutor.execute(recordingTask("next", 0, "serial", done));
+
+		ExecutorService otherExecutor = Executors.newSingleThreadExecutor();
+		try {
+			BackgroundExecutor.setExecutor(otherExecutor);
+			executor.shutdown();
+
+			await(done);
+			assertEquals(Collections.singletonList("next"), executionOrder);
+		} finally {
+			otherExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void callerRunsPolicyRunsTheTaskOnTheSubmittingThread() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.CALLER_RUNS);
+		CountDownLatch done = new CountDownLatch(1);
+		final AtomicReference<Thread> callerRunsThread = new AtomicReference<>();
+		executor.execute(recordingTask("queued", 0, done));
+
+		executor.execute(new BackgroundExecutor.Task(null, 0, null) {
+			@Override
+			public void execute() {
+				callerRunsThread.set(Thread.currentThread());
+				executionOrder.add("callerRuns");
+			}
+		});
+		assertSame(Thread.currentThread(), callerRunsThread.get());
+		releaseBlocker.countDown();
+
+		await(done);
+		assertEquals(Arrays.asList("callerRuns", "queued"), executionOrder);
+	}
+
+	/*
+	 * The BackgroundExecutor submits a serial task while holding the lock of its
+	 * serial queue: the caller must not run it before releasing the lock, or a
+	 * thread adding a task to the same serial would wait for it.
+	 */
+	@Test
+	public void callerRunsPolicyRunsSerialTasksOutsideOfTheSerialLock() throws InterruptedException {
+		createBlockedExecutor(1, RejectionPolicy.CALLER_RUNS);
+		BackgroundExecutor.setExecutor(executor);
+		final CountDownLatch done = new CountDownLatch(3);
+		executor.execute(recordingTask("filler", 0, done));
+
+		final AtomicReference<Thread> serialThread = new AtomicReference<>();
+		final CountDownLatch otherThreadSubmitted = new CountDownLatch(1);
+		BackgroundExecutor.execute(new BackgroundExecutor.Task(null, 0, "serial") {
+			@Override
+			public void execute() {
+				BackgroundExecutor.checkBgThread("serial");
+				serialThread.set(Thread.currentThread());
+				executionOrder.add("first");
+				new Thread() {
+					@Override
+					public void run() {
+						BackgroundExecutor.execute(recordingTask("second", 0, "serial", done));
+						otherThreadSubmitted.countDown();
+					}
+				}.start();
+				awaitQuietly(otherThreadSubmitted);
+				done.countDown();
+			}
+		});
+
+		assertSame(Thread.currentThread(), serialThread.get());
+		assertTrue("Adding a task to the serial should not wait for the task run by the caller", otherThreadSubmitted.getCount() == 0);
+		assertCurrentThreadHasNoSerial();
+		releaseBlocker.countDown();
+
+		await(done);
+		/* the second task was rejected too, and run by the caller after the first one */
+		assertEquals(Arrays.asList("first", "second", "filler"), executionOrder);
+	}
+
+	private void createBlockedExecutor(int capacity, RejectionPolicy rejectionPolicy) throws InterruptedException {
+		executor = new PriorityExecutor(1, capacity, rejectionPolicy);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				blockerStarted.countDown();
+				awaitQuietly(releaseBlocker);
+			}
+		});
+		await(blockerStarted);
+	}
+
+	private BackgroundExecutor.Task recordingTask(String name, int priority, CountDownLatch done) {
+		return recordingTask(name, priority, null, done);
+	}
+
+	private BackgroundExecutor.Task recordingTask(final String name, int priority, String serial, final CountDownLatch done) {
+		return new BackgroundExecutor.Task(null, 0, serial, priority) {
+			@Override
+			public void execute() {
+				executionOrder.add(name);
+				done.countDown();
+			}
+		};
+	}
+
+	private static void assertCurrentThreadHasNoSerial() {
+		try {
+			BackgroundExecutor.checkBgThread("serial");
+			fail("The serial of the task run by the caller should not leak to the caller");
+		} catch (IllegalStateException e) {
+			assertFalse(e.getMessage().contains("called from serial serial"));
+		}
+	}
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		assertTrue("Execution hanged up", latch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
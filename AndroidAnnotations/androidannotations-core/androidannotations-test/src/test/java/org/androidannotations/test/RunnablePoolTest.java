@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.androidannotations.api.RunnablePool;
+import org.junit.Test;
+
+public class RunnablePoolTest {
+
+	private static final int MAX_WAITING_TIME = 3000;
+
+	private static class PooledRunnable implements Runnable {
+
+		@Override
+		public void run() {
+		}
+	}
+
+	@Test
+	public void obtainReturnsNullWhenEmpty() {
+		RunnablePool<PooledRunnable> pool = new RunnablePool<>();
+		assertNull(pool.obtain());
+	}
+
+	@Test
+	public void obtainReturnsTheLastRecycledRunnable() {
+		RunnablePool<PooledRunnable> pool = new RunnablePool<>();
+		PooledRunnable first = new PooledRunnable();
+		PooledRunnable second = new PooledRunnable();
+		pool.recycle(first);
+		pool.recycle(second);
+
+		assertSame(second, pool.obtain());
+		assertSame(first, pool.obtain());
+		assertNull(pool.obtain());
+	}
+
+	@Test
+	public void recycleDropsTheRunnablesOverTheCapacity() {
+		RunnablePool<PooledRunnable> pool = new RunnablePool<>(2);
+		PooledRunnable first = new PooledRunnable();
+		PooledRunnable second = new PooledRunnable();
+		pool.recycle(first);
+		pool.recycle(second);
+		pool.recycle(new PooledRunnable());
+
+		assertSame(second, pool.obtain());
+		assertSame(first, pool.obtain());
+		assertNull(pool.obtain());
+	}
+
+	@Test
+	public void concurrentCallersNeverShareARunnable() throws Exception {
+		final RunnablePool<PooledRunnable> pool = new RunnablePool<>(4);
+		final Set<PooledRunnable> inUse = Collections.newSetFromMap(new IdentityHashMap<PooledRunnable, Boolean>());
+		final AtomicInteger sharedRunnables = new AtomicInteger();
+		final int threadCount = 4;
+		final CountDownLatch done = new CountDownLatch(threadCount);
+
+		for (int i = 0; i < threadCount; i++) {
+			new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						PooledRunnable runnable = pool.obtain();
+						if (runnable == null) {
+							runnable = new PooledRunnable();
+						}
+						synchronized (inUse) {
+							if (!inUse.add(runnable)) {
+								sharedRunnables.incrementAndGet();
+							}
+						}
+						synchronized (inUse) {
+							inUse.remove(runnable);
+						}
+						pool.recycle(runnable);
+					}
+					done.countDown();
+				}
+			}.start();
+		}
+
+		assertTrue("Callers did not finish", done.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+		assertEquals(0, sharedRunnables.get());
+	}
+
+}
@@ -23,7 +23,9 @@ import static org.mockito.Mockito.verify;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -63,13 +65,21 @@ public class ThreadActivityTest {
 	public void after() throws InterruptedException {
 		Thread.setDefaultUncaughtExceptionHandler(defaultExceptionHandler);
 
-		List<String> tasks = staticField("TASKS") //
-				.ofType(new TypeRef<List<String>>() {
+		Map<String, ?> serialQueues = staticField("SERIAL_QUEUES") //
+				.ofType(new TypeRef<ConcurrentMap<String, ?>>() {
 				}) //
 				.in(BackgroundExecutor.class) //
 				.get();
 
-		tasks.clear();
+		serialQueues.clear();
+
+		Map<String, ?> tasksById = staticField("TASKS_BY_ID") //
+				.ofType(new TypeRef<ConcurrentMap<String, ?>>() {
+				}) //
+				.in(BackgroundExecutor.class) //
+				.get();
+
+		tasksById.clear();
 
 		ThreadLocal<String> currentSerial = staticField("CURRENT_SERIAL") //
 				.ofType(new TypeRef<ThreadLocal<String>>() {
@@ -16,13 +16,19 @@
  */
 package org.androidannotations.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.androidannotations.api.RunnablePool;
 import org.androidannotations.api.UiThreadExecutor;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -59,6 +65,93 @@ public class UiThreadExecutorTest {
 		assertFalse("Task is not cancelled", done.get());
 	}
 
+	@Test
+	public void taskWithoutIdTest() throws Exception {
+		final List<Long> executions = new ArrayList<>();
+		UiThreadExecutor.runTask(new Runnable() {
+			@Override
+			public void run() {
+				executions.add(10L);
+			}
+		}, 10);
+		UiThreadExecutor.runTask(new Runnable() {
+			@Override
+			public void run() {
+				executions.add(0L);
+			}
+		}, 0);
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		assertEquals(Arrays.asList(0L, 10L), executions);
+	}
+
+	@Test
+	public void latestTaskReplacesPendingTasksTest() throws Exception {
+		final List<Integer> executions = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			final int index = i;
+			UiThreadExecutor.runLatestTask("latest", new Runnable() {
+				@Override
+				public void run() {
+					executions.add(index);
+				}
+			}, 10);
+		}
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		assertEquals(Collections.singletonList(2), executions);
+	}
+
+	@Test
+	public void latestTaskKeepsTasksOfOtherIdsTest() throws Exception {
+		final AtomicBoolean otherDone = new AtomicBoolean(false);
+		final AtomicBoolean latestDone = new AtomicBoolean(false);
+		UiThreadExecutor.runTask("other", new Runnable() {
+			@Override
+			public void run() {
+				otherDone.set(true);
+			}
+		}, 10);
+		UiThreadExecutor.runLatestTask("latest", new Runnable() {
+			@Override
+			public void run() {
+				latestDone.set(true);
+			}
+		}, 10);
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		assertTrue("Task of another id is cancelled", otherDone.get());
+		assertTrue("Latest task is not executed", latestDone.get());
+	}
+
+	@Test
+	public void pooledTasksAreRecycledWhenCancelledTest() throws Exception {
+		RunnablePool<PooledTask> pool = new RunnablePool<>();
+		List<String> executions = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			UiThreadExecutor.runTask("pooled", new PooledTask(pool, executions, "task" + i), 10);
+		}
+		assertEquals(0, pool.size());
+
+		UiThreadExecutor.cancelAll("pooled");
+		assertEquals(3, pool.size());
+
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		assertEquals(Collections.<String> emptyList(), executions);
+		assertEquals(3, pool.size());
+	}
+
+	@Test
+	public void pooledTasksAreRecycledWhenCoalescedTest() throws Exception {
+		RunnablePool<PooledTask> pool = new RunnablePool<>();
+		List<String> executions = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			UiThreadExecutor.runLatestTask("pooledLatest", new PooledTask(pool, executions, "task" + i), 10);
+		}
+		assertEquals(2, pool.size());
+
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		assertEquals(Collections.singletonList("task2"), executions);
+		assertEquals(3, pool.size());
+	}
+
 	@Test
 	public void oneTaskInThreadTest() throws Exception {
 		final CountDownLatch taskStartedLatch = new CountDownLatch(1);
@@ -80,6 +173,34 @@ public class UiThreadExecutorTest {
 		await(taskFinishedLatch);
 	}
 
+	private static final class PooledTask implements RunnablePool.Recyclable {
+
+		private final RunnablePool<PooledTask> pool;
+		private final List<String> executions;
+		private String name;
+
+		PooledTask(RunnablePool<PooledTask> pool, List<String> executions, String name) {
+			this.pool = pool;
+			this.executions = executions;
+			this.name = name;
+		}
+
+		@Override
+		public void run() {
+			try {
+				executions.add(name);
+			} finally {
+				recycle();
+			}
+		}
+
+		@Override
+		public void recycle() {
+			name = null;
+			pool.recycle(this);
+		}
+	}
+
 	private void await(CountDownLatch latch) {
 		try {
 			if (!latch.await(5, TimeUnit.SECONDS)) {
@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test.asynclayout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.androidannotations.api.view.AsyncLayoutInflater;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+@RunWith(RobolectricTestRunner.class)
+public class AsyncLayoutInflaterTest {
+
+	private static final int MAX_WAITING_TIME = 3000;
+	private static final int LAYOUT = android.R.layout.simple_list_item_1;
+
+	private static class RecordingCallback implements AsyncLayoutInflater.Callback {
+
+		View view;
+		ViewGroup parent;
+		Thread thread;
+
+		@Override
+		public void onLayoutInflated(View view, ViewGroup parent) {
+			this.view = view;
+			this.parent = parent;
+			thread = Thread.currentThread();
+		}
+	}
+
+	@Test
+	public void layoutIsDeliveredOnTheMainThread() throws Exception {
+		Context context = RuntimeEnvironment.application;
+		ViewGroup parent = new FrameLayout(context);
+		RecordingCallback callback = new RecordingCallback();
+
+		AsyncLayoutInflater.inflate(LayoutInflater.from(context), LAYOUT, parent, callback);
+		awaitCallback(callback);
+
+		assertTrue(callback.view instanceof TextView);
+		assertNotNull(callback.view.getLayoutParams());
+		assertNull(callback.view.getParent());
+		assertSame(parent, callback.parent);
+		assertSame(Looper.getMainLooper().getThread(), callback.thread);
+	}
+
+	@Test
+	public void backgroundInflationUsesAClone() throws Exception {
+		Context context = RuntimeEnvironment.application;
+		View view = new View(context);
+		LayoutInflater inflater = mock(LayoutInflater.class);
+		LayoutInflater clone = mock(LayoutInflater.class);
+		when(inflater.getContext()).thenReturn(context);
+		when(inflater.cloneInContext(context)).thenReturn(clone);
+		when(clone.inflate(LAYOUT, null, false)).thenReturn(view);
+		RecordingCallback callback = new RecordingCallback();
+
+		AsyncLayoutInflater.inflate(inflater, LAYOUT, null, callback);
+		awaitCallback(callback);
+
+		assertSame(view, callback.view);
+		verify(inflater, never()).inflate(anyInt(), any(ViewGroup.class), anyBoolean());
+	}
+
+	@Test
+	public void layoutsAreInflatedOnADedicatedThread() throws Exception {
+		Context context = RuntimeEnvironment.application;
+		final Thread[] inflatingThreads = new Thread[2];
+		LayoutInflater inflater = mock(LayoutInflater.class);
+		LayoutInflater clone = mock(LayoutInflater.class);
+		when(inflater.getContext()).thenReturn(context);
+		when(inflater.cloneInContext(context)).thenReturn(clone);
+		when(clone.inflate(LAYOUT, null, false)).thenAnswer(new Answer<View>() {
+
+			private int inflations;
+
+			@Override
+			public View answer(InvocationOnMock invocation) {
+				inflatingThreads[inflations++] = Thread.currentThread();
+				return new View(RuntimeEnvironment.application);
+			}
+		});
+		RecordingCallback first = new RecordingCallback();
+		RecordingCallback second = new RecordingCallback();
+
+		AsyncLayoutInflater.inflate(inflater, LAYOUT, null, first);
+		AsyncLayoutInflater.inflate(inflater, LAYOUT, null, second);
+		awaitCallback(first);
+		awaitCallback(second);
+
+		assertEquals("AsyncLayoutInflater", inflatingThreads[0].getName());
+		assertSame(inflatingThreads[0], inflatingThreads[1]);
+	}
+
+	@Test
+	public void failedBackgroundInflationIsRetriedOnTheMainThread() throws Exception {
+		Context context = RuntimeEnvironment.application;
+		View view = new View(context);
+		LayoutInflater inflater = mock(LayoutInflater.class);
+		LayoutInflater clone = mock(LayoutInflater.class);
+		when(inflater.getContext()).thenReturn(context);
+		when(inflater.cloneInContext(context)).thenReturn(clone);
+		when(clone.inflate(LAYOUT, null, false)).thenThrow(new IllegalStateException("Needs the main thread"));
+		when(inflater.inflate(LAYOUT, null, false)).thenReturn(view);
+		RecordingCallback callback = new RecordingCallback();
+
+		AsyncLayoutInflater.inflate(inflater, LAYOUT, null, callback);
+		awaitCallback(callback);
+
+		assertSame(view, callback.view);
+		assertSame(Looper.getMainLooper().getThread(), callback.thread);
+	}
+
+	/**
+	 * Runs the main looper until the background inflation is delivered.
+	 */
+	private static void awaitCallback(RecordingCallback callback) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + MAX_WAITING_TIME;
+		while (callback.thread == null && System.currentTimeMillis() < deadline) {
+			ShadowLooper.runUiThreadTasks();
+			Thread.sleep(10);
+		}
+		assertNotNull("The layout was not delivered", callback.thread);
+	}
+
+}
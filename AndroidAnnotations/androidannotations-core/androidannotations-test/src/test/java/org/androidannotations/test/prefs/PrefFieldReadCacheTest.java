@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test.prefs;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.androidannotations.api.sharedpreferences.SharedPreferencesHelper;
+import org.androidannotations.api.sharedpreferences.StringPrefField;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrefFieldReadCacheTest {
+
+	private SharedPreferences sharedPreferences;
+	private CountingSharedPreferences countingSharedPreferences;
+	private CachedPrefs cachedPrefs;
+	private StringPrefField name;
+
+	@Before
+	public void setUp() {
+		sharedPreferences = RuntimeEnvironment.application.getSharedPreferences("readCache", Context.MODE_PRIVATE);
+		sharedPreferences.edit().clear().commit();
+		countingSharedPreferences = new CountingSharedPreferences(sharedPreferences);
+		cachedPrefs = new CachedPrefs(countingSharedPreferences);
+		name = cachedPrefs.name;
+	}
+
+	@Test
+	public void readsThePreferencesEachTimeWithoutCache() {
+		sharedPreferences.edit().putString("name", "John").commit();
+
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(countingSharedPreferences.reads).isEqualTo(2);
+	}
+
+	@Test
+	public void readsThePreferencesOnceWithCache() {
+		sharedPreferences.edit().putString("name", "John").commit();
+		name.enableReadCache();
+
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(countingSharedPreferences.reads).isEqualTo(1);
+	}
+
+	@Test
+	public void cachesTheDefaultValue() {
+		name.enableReadCache();
+
+		assertThat(name.get()).isEqualTo("default");
+		assertThat(name.get()).isEqualTo("default");
+		assertThat(countingSharedPreferences.reads).isEqualTo(1);
+	}
+
+	@Test
+	public void putAndRemoveInvalidateTheCache() {
+		name.enableReadCache();
+		assertThat(name.get()).isEqualTo("default");
+
+		name.put("John");
+		assertThat(name.get()).isEqualTo("John");
+
+		name.remove();
+		assertThat(name.get()).isEqualTo("default");
+	}
+
+	@Test
+	public void externalWritesInvalidateTheCache() {
+		name.enableReadCache();
+		assertThat(name.get()).isEqualTo("default");
+
+		sharedPreferences.edit().putString("name", "John").commit();
+		assertThat(name.get()).isEqualTo("John");
+
+		sharedPreferences.edit().putString("name", "Jane").apply();
+		assertThat(name.get()).isEqualTo("Jane");
+	}
+
+	@Test
+	public void externalWritesOfOtherKeysKeepTheCache() {
+		name.enableReadCache();
+		assertThat(name.get()).isEqualTo("default");
+
+		sharedPreferences.edit().putString("other", "value").commit();
+		assertThat(name.get()).isEqualTo("default");
+		assertThat(countingSharedPreferences.reads).isEqualTo(1);
+	}
+
+	@Test
+	public void clearInvalidatesTheCache() {
+		sharedPreferences.edit().putString("name", "John").putString("other", "value").commit();
+		name.enableReadCache();
+		assertThat(name.get()).isEqualTo("John");
+
+		cachedPrefs.clear();
+		assertThat(sharedPreferences.getAll()).isEmpty();
+		assertThat(name.get()).isEqualTo("default");
+	}
+
+	@Test
+	public void disableReadCacheReadsThePreferencesAgain() {
+		name.enableReadCache();
+		assertThat(name.get()).isEqualTo("default");
+		name.disableReadCache();
+
+		sharedPreferences.edit().putString("name", "John").commit();
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(name.get()).isEqualTo("John");
+		assertThat(countingSharedPreferences.reads).isEqualTo(3);
+	}
+
+	private static class CachedPrefs extends SharedPreferencesHelper {
+
+		final StringPrefField name;
+
+		CachedPrefs(SharedPreferences sharedPreferences) {
+			super(sharedPreferences);
+			name = stringField("name", "default");
+		}
+	}
+
+	/**
+	 * Counts the string reads, to tell the values read from the cache.
+	 */
+	private static class CountingSharedPreferences implements SharedPreferences {
+
+		private final SharedPreferences delegate;
+		int reads;
+
+		CountingSharedPreferences(SharedPreferences delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Map<String, ?> getAll() {
+			return delegate.getAll();
+		}
+
+		@Override
+		public String getString(String key, String defValue) {
+			reads++;
+			return delegate.getString(key, defValue);
+		}
+
+		@Override
+		public Set<String> getStringSet(String key, Set<String> defValues) {
+			return delegate.getStringSet(key, defValues);
+		}
+
+		@Override
+		public int getInt(String key, int defValue) {
+			return delegate.getInt(key, defValue);
+		}
+
+		@Override
+		public long getLong(String key, long defValue) {
+			return delegate.getLong(key, defValue);
+		}
+
+		@Override
+		public float getFloat(String key, float defValue) {
+			return delegate.getFloat(key, defValue);
+		}
+
+		@Override
+		public boolean getBoolean(String key, boolean defValue) {
+			return delegate.getBoolean(key, defValue);
+		}
+
+		@Override
+		public boolean contains(String key) {
+			return delegate.contains(key);
+		}
+
+		@Override
+		public Editor edit() {
+			return delegate.edit();
+		}
+
+		@Override
+		public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+			delegate.registerOnSharedPreferenceChangeListener(listener);
+		}
+
+		@Override
+		public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+			delegate.unregisterOnSharedPreferenceChangeListener(listener);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.androidannotations.api.trace.TraceExporter;
+import org.androidannotations.api.trace.TraceSpan;
+import org.junit.Test;
+
+public class TraceExporterTest {
+
+	@Test
+	public void writesChromeTraceCompleteEvents() throws IOException {
+		List<TraceSpan> spans = Arrays.asList( //
+				new TraceSpan("tag", "void first()", 1, 5000, 2500), //
+				new TraceSpan("tag", "void \"quoted\"\n()", 2, 7000, 1000));
+
+		StringWriter writer = new StringWriter();
+		TraceExporter.writeChromeTrace(spans, writer);
+
+		assertEquals("{\"traceEvents\":[" //
+				+ "\n{\"name\":\"void first()\",\"cat\":\"tag\",\"ph\":\"X\",\"pid\":0,\"tid\":1,\"ts\":0,\"dur\":2.500}," //
+				+ "\n{\"name\":\"void \\\"quoted\\\"\\n()\",\"cat\":\"tag\",\"ph\":\"X\",\"pid\":0,\"tid\":2,\"ts\":2,\"dur\":1}" //
+				+ "\n],\"displayTimeUnit\":\"ns\"}\n", writer.toString());
+	}
+
+	@Test
+	public void writesAnEmptyChromeTrace() throws IOException {
+		StringWriter writer = new StringWriter();
+		TraceExporter.writeChromeTrace(Collections.<TraceSpan> emptyList(), writer);
+
+		assertEquals("{\"traceEvents\":[\n],\"displayTimeUnit\":\"ns\"}\n", writer.toString());
+	}
+
+	@Test
+	public void readsBackTheBinaryFormat() throws IOException {
+		List<TraceSpan> spans = Arrays.asList( //
+				new TraceSpan("tag", "void first()", 1, 5000, 2500), //
+				new TraceSpan("other", "void first()", 2, 7000, 1000), //
+				new TraceSpan("tag", "int second(int)", 1, 9000, 10));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		TraceExporter.writeBinary(spans, output);
+		List<TraceSpan> readSpans = TraceExporter.readBinary(new ByteArrayInputStream(output.toByteArray()));
+
+		assertEquals(spans.size(), readSpans.size());
+		for (int i = 0; i < spans.size(); i++) {
+			TraceSpan span = spans.get(i);
+			TraceSpan readSpan = readSpans.get(i);
+			assertEquals(span.getCategory(), readSpan.getCategory());
+			assertEquals(span.getName(), readSpan.getName());
+			assertEquals(span.getThreadId(), readSpan.getThreadId());
+			assertEquals(span.getStartNanos(), readSpan.getStartNanos());
+			assertEquals(span.getDurationNanos(), readSpan.getDurationNanos());
+		}
+	}
+
+	@Test
+	public void rejectsAnotherBinaryFormat() {
+		try {
+			TraceExporter.readBinary(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+			fail("An invalid file was read");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.test.trace;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.androidannotations.api.trace.TraceRecorder;
+import org.androidannotations.api.trace.TraceSpan;
+import org.junit.After;
+import org.junit.Test;
+
+public class TraceRecorderTest {
+
+	private static final int MAX_WAITING_TIME = 3000;
+
+	@After
+	public void tearDown() {
+		TraceRecorder.stop();
+	}
+
+	@Test
+	public void nothingIsRecordedBeforeStart() {
+		assertFalse(TraceRecorder.isRecording());
+		TraceRecorder.record("tag", "void method()", System.nanoTime());
+
+		assertThat(TraceRecorder.getSpans()).isEmpty();
+	}
+
+	@Test
+	public void recordsTheSpansByStartTime() {
+		TraceRecorder.start();
+		assertTrue(TraceRecorder.isRecording());
+
+		long start = System.nanoTime();
+		TraceRecorder.record("tag", "void second()", start + 10);
+		TraceRecorder.record("tag", "void first()", start);
+
+		List<TraceSpan> spans = TraceRecorder.getSpans();
+		assertEquals(2, spans.size());
+		assertEquals("void first()", spans.get(0).getName());
+		assertEquals("tag", spans.get(0).getCategory());
+		assertEquals(start, spans.get(0).getStartNanos());
+		assertEquals(Thread.currentThread().getId(), spans.get(0).getThreadId());
+		assertTrue(spans.get(0).getDurationNanos() >= 0);
+		assertEquals("void second()", spans.get(1).getName());
+	}
+
+	@Test
+	public void keepsTheLatestSpansWhenFull() {
+		TraceRecorder.start(3);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			TraceRecorder.record("tag", "span" + i, start + i);
+		}
+
+		List<TraceSpan> spans = TraceRecorder.getSpans();
+		// the capacity is rounded up to 4
+		assertEquals(4, spans.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals("span" + (6 + i), spans.get(i).getName());
+		}
+	}
+
+	@Test
+	public void startAndStopDiscardTheSpans() {
+		TraceRecorder.start();
+		TraceRecorder.record("tag", "void method()", System.nanoTime());
+		TraceRecorder.start();
+		assertThat(TraceRecorder.getSpans()).isEmpty();
+
+		TraceRecorder.record("tag", "void method()", System.nanoTime());
+		TraceRecorder.stop();
+		assertFalse(TraceRecorder.isRecording());
+		assertThat(TraceRecorder.getSpans()).isEmpty();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsAnEmptyCapacity() {
+		TraceRecorder.start(0);
+	}
+
+	@Test
+	public void concurrentWritersDoNotLoseSpans() throws Exception {
+		final int threadCount = 4;
+		final int spansPerThread = 1000;
+		TraceRecorder.start(threadCount * spansPerThread);
+
+		final CountDownLatch done = new CountDownLatch(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			final String name = "thread" + i;
+			new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < spansPerThread; j++) {
+						TraceRecorder.record(name, name + "/" + j, System.nanoTime());
+					}
+					done.countDown();
+				}
+			}.start();
+		}
+		assertTrue("Writers did not finish", done.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+
+		List<TraceSpan> spans = TraceRecorder.getSpans();
+		assertEquals(threadCount * spansPerThread, spans.size());
+		Set<String> names = new HashSet<>();
+		for (TraceSpan span : spans) {
+			assertTrue(span.getName().startsWith(span.getCategory() + "/"));
+			names.add(span.getName());
+		}
+		assertEquals(threadCount * spansPerThread, names.size());
+	}
+
+}
@@ -54,6 +54,10 @@ public class ProcessorTestHelper {
 		public CompileResult(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
 			this.diagnostics = diagnostics;
 		}
+
+		public List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+			return diagnostics;
+		}
 	}
 
 	private static final String TEST_SOURCE_FOLDER = "src/test/java";
@@ -74,6 +74,8 @@ public interface AndroidAnnotationsEnvironment {
 
 	JDefinedClass getDefinedClass(String fullyQualifiedName);
 
+	JDefinedClass getDefinedClass(String fullyQualifiedName, Element originatingElement);
+
 	GeneratedClassHolder getGeneratedClassHolder(Element element);
 
 	ProcessHolder.Classes getClasses();
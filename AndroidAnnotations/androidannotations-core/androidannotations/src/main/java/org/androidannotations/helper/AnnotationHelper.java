@@ -35,6 +35,7 @@ import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
@@ -89,6 +90,25 @@ public class AnnotationHelper {
 		return getTypeUtils().directSupertypes(typeMirror);
 	}
 
+	/**
+	 * Returns the type argument of a type declared with the given generic
+	 * class, for instance <code>Drawable</code> for <code>Lazy&lt;Drawable&gt;</code>.
+	 *
+	 * @return the type argument, or <code>null</code> if the type is not a
+	 *         parameterization of <code>genericClass</code>
+	 */
+	public TypeMirror extractTypeArgument(TypeMirror type, Class<?> genericClass) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		DeclaredType declaredType = (DeclaredType) type;
+		String typeName = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+		if (!genericClass.getCanonicalName().equals(typeName) || declaredType.getTypeArguments().size() != 1) {
+			return null;
+		}
+		return declaredType.getTypeArguments().get(0);
+	}
+
 	/**
 	 * This method may return null if the {@link TypeElement} cannot be found in the
 	 * processor classpath
@@ -83,6 +83,7 @@ public final class CanonicalNameConstants {
 	public static final String VIEW_ON_FOCUS_CHANGE_LISTENER = "android.view.View.OnFocusChangeListener";
 	public static final String VIEW_GROUP_LAYOUT_PARAMS = "android.view.ViewGroup.LayoutParams";
 	public static final String VIEW_GROUP = "android.view.ViewGroup";
+	public static final String FRAME_LAYOUT = "android.widget.FrameLayout";
 	public static final String CONTEXT = "android.content.Context";
 	public static final String KEY_EVENT = "android.view.KeyEvent";
 	public static final String KEY_EVENT_CALLBACK = "android.view.KeyEvent.Callback";
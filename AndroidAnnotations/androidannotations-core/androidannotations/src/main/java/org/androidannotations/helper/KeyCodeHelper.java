@@ -63,7 +63,7 @@ public class KeyCodeHelper extends TargetAnnotationHelper {
 		return value;
 	}
 
-	public int getKeyCodeForName(String fieldName) {
+	public synchronized int getKeyCodeForName(String fieldName) {
 		if (keyCodesByName == null) {
 			keyCodesByName = new HashMap<>();
 			List<VariableElement> keyEventEnclosedFieldElements = getKeyEventEnclosedFieldElements();
@@ -77,7 +77,7 @@ public class KeyCodeHelper extends TargetAnnotationHelper {
 		return keyCode != null ? keyCode : KEYCODE_NOT_FOUND;
 	}
 
-	public String getFieldNameForKeyCode(int keyCode) {
+	public synchronized String getFieldNameForKeyCode(int keyCode) {
 		if (keyNamesByCode == null) {
 			keyNamesByCode = new HashMap<>();
 			List<VariableElement> keyEventEnclosedFieldElements = getKeyEventEnclosedFieldElements();
@@ -17,9 +17,11 @@ package org.androidannotations.holder;
 
 import static com.helger.jcodemodel.JExpr._new;
 import static com.helger.jcodemodel.JExpr._null;
+import static com.helger.jcodemodel.JMod.FINAL;
 import static com.helger.jcodemodel.JMod.PRIVATE;
 import static com.helger.jcodemodel.JMod.PUBLIC;
 import static com.helger.jcodemodel.JMod.STATIC;
+import static com.helger.jcodemodel.JMod.VOLATILE;
 import static org.androidannotations.helper.ModelConstants.generationSuffix;
 
 import java.util.List;
@@ -29,11 +31,13 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.ElementFilter;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.api.SingletonLock;
 
 import com.helger.jcodemodel.AbstractJClass;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JFieldVar;
 import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JTryBlock;
 import com.helger.jcodemodel.JVar;
 
 public class EBeanHolder extends EComponentWithViewSupportHolder {
@@ -99,17 +103,40 @@ public class EBeanHolder extends EComponentWithViewSupportHolder {
 		 */
 		if (hasSingletonScope) {
 
-			JFieldVar instanceField = generatedClass.field(PRIVATE | STATIC, generatedClass, "instance" + generationSuffix());
+			JFieldVar instanceField = generatedClass.field(PRIVATE | STATIC | VOLATILE, generatedClass, "instance" + generationSuffix());
+			JFieldVar initializingInstanceField = generatedClass.field(PRIVATE | STATIC, generatedClass, "initializingInstance" + generationSuffix());
+
+			JFieldVar lockField = generatedClass.field(PRIVATE | STATIC | FINAL, getJClass(SingletonLock.class), "lock" + generationSuffix(), _new(getJClass(SingletonLock.class)));
+
+			/*
+			 * Double-checked locking: the instance is only published once
+			 * initialized, so the read path does not lock. The initializing
+			 * instance is only returned to the thread holding the lock, which
+			 * lets init_() inject the singleton in its own dependencies, or to
+			 * a thread building a singleton which the holder of the lock waits
+			 * for, so that a cycle of singletons built from two threads cannot
+			 * deadlock.
+			 */
+			JVar instance = factoryMethodBody.decl(generatedClass, "instance", instanceField);
+			JBlock notPublishedBlock = factoryMethodBody._if(instance.eq(_null()))._then();
+			notPublishedBlock._if(lockField.invoke("lock").not())._then()._return(initializingInstanceField);
+			JTryBlock lockTryBlock = notPublishedBlock._try();
+			lockTryBlock._finally().invoke(lockField, "unlock");
+			JBlock lockedBlock = lockTryBlock.body();
+			lockedBlock.assign(instance, instanceField);
+			JBlock creationBlock = lockedBlock._if(instance.eq(_null()))._then();
+			creationBlock._if(initializingInstanceField.ne(_null()))._then()._return(initializingInstanceField);
 
-			JBlock creationBlock = factoryMethodBody //
-					._if(instanceField.eq(_null())) //
-					._then();
 			JVar previousNotifier = viewNotifierHelper.replacePreviousNotifierWithNull(creationBlock);
-			creationBlock.assign(instanceField, _new(narrowedGeneratedClass).arg(factoryMethodContextParam.invoke("getApplicationContext")));
-			creationBlock.invoke(instanceField, getInit());
-			viewNotifierHelper.resetPreviousNotifier(creationBlock, previousNotifier);
-
-			factoryMethodBody._return(instanceField);
+			creationBlock.assign(instance, _new(narrowedGeneratedClass).arg(factoryMethodContextParam.invoke("getApplicationContext")));
+			creationBlock.assign(initializingInstanceField, instance);
+			JTryBlock tryBlock = creationBlock._try();
+			tryBlock.body().invoke(instance, getInit());
+			tryBlock._finally().assign(initializingInstanceField, _null());
+			viewNotifierHelper.resetPreviousNotifier(tryBlock._finally(), previousNotifier);
+			creationBlock.assign(instanceField, instance);
+
+			factoryMethodBody._return(instance);
 		} else {
 			factoryMethodBody._return(_new(narrowedGeneratedClass).arg(factoryMethodContextParam));
 		}
@@ -24,18 +24,25 @@ import static com.helger.jcodemodel.JExpr.invoke;
 import static com.helger.jcodemodel.JMod.FINAL;
 import static com.helger.jcodemodel.JMod.PRIVATE;
 import static com.helger.jcodemodel.JMod.PUBLIC;
+import static org.androidannotations.helper.ModelConstants.generationSuffix;
 
+import java.io.StringWriter;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.Option;
+import org.androidannotations.api.view.AsyncLayoutInflater;
 import org.androidannotations.api.view.HasViews;
 import org.androidannotations.api.view.OnViewChangedListener;
 import org.androidannotations.api.view.OnViewChangedNotifier;
+import org.androidannotations.api.view.ViewTable;
 import org.androidannotations.helper.CanonicalNameConstants;
 import org.androidannotations.internal.helper.ViewNotifierHelper;
 
@@ -47,6 +54,7 @@ import com.helger.jcodemodel.JDefinedClass;
 import com.helger.jcodemodel.JExpr;
 import com.helger.jcodemodel.JFieldRef;
 import com.helger.jcodemodel.JFieldVar;
+import com.helger.jcodemodel.JFormatter;
 import com.helger.jcodemodel.JInvocation;
 import com.helger.jcodemodel.JMethod;
 import com.helger.jcodemodel.JSwitch;
@@ -54,6 +62,8 @@ import com.helger.jcodemodel.JVar;
 
 public abstract class EComponentWithViewSupportHolder extends EComponentHolder implements HasKeyEventCallbackMethods {
 
+	public static final Option OPTION_SINGLE_PASS_VIEW_BINDING = new Option("singlePassViewBinding", "false");
+
 	protected ViewNotifierHelper viewNotifierHelper;
 	private JMethod onViewChanged;
 	private JBlock onViewChangedBody;
@@ -62,6 +72,12 @@ public abstract class EComponentWithViewSupportHolder extends EComponentHolder i
 	private JBlock onViewChangedBodyAfterInjectionBlock;
 	private JBlock onViewChangedBodyBeforeInjectionBlock;
 	private JVar onViewChangedHasViewsParam;
+	private JBlock onViewChangedBodyViewTableBlock;
+	private JVar onViewChangedViewTable;
+	private JInvocation onViewChangedViewTableFind;
+	private Set<String> onViewChangedViewTableIds = new HashSet<>();
+	private JMethod onLayoutInflated;
+	private JFieldVar asyncLayoutPending;
 	protected Map<String, FoundHolder> foundHolders = new HashMap<>();
 	protected DataBindingDelegate dataBindingDelegate;
 	protected JMethod findNativeFragmentById;
@@ -84,6 +100,63 @@ public abstract class EComponentWithViewSupportHolder extends EComponentHolder i
 		return _null();
 	}
 
+	/**
+	 * @return the view searched by {@link #getFindViewByIdExpression(JVar)}, or
+	 *         <code>null</code> if the component has no view of its own
+	 */
+	public IJExpression getRootViewExpression() {
+		return _null();
+	}
+
+	public boolean isSinglePassViewBinding() {
+		return getEnvironment().getOptionBooleanValue(OPTION_SINGLE_PASS_VIEW_BINDING);
+	}
+
+	/**
+	 * Inflates a layout with the {@link AsyncLayoutInflater}, which passes the
+	 * inflated view and the parent to {@link #getOnLayoutInflated()} on the main
+	 * thread.
+	 */
+	public void inflateLayoutAsync(JBlock block, IJExpression inflater, IJExpression layoutId, IJExpression parent) {
+		JDefinedClass callback = getCodeModel().anonymousClass(getJClass(AsyncLayoutInflater.Callback.class));
+		JMethod callbackMethod = callback.method(PUBLIC, getCodeModel().VOID, "onLayoutInflated");
+		callbackMethod.annotate(Override.class);
+		JVar view = callbackMethod.param(getClasses().VIEW, "view");
+		JVar parentParam = callbackMethod.param(getClasses().VIEW_GROUP, "parent");
+		callbackMethod.body().invoke(getOnLayoutInflated()).arg(view).arg(parentParam);
+
+		block.staticInvoke(getJClass(AsyncLayoutInflater.class), "inflate").arg(inflater).arg(layoutId).arg(parent).arg(_new(callback));
+	}
+
+	public JMethod getOnLayoutInflated() {
+		if (onLayoutInflated == null) {
+			onLayoutInflated = generatedClass.method(PRIVATE, getCodeModel().VOID, "onLayoutInflated" + generationSuffix());
+			onLayoutInflated.param(getClasses().VIEW, "view");
+			onLayoutInflated.param(getClasses().VIEW_GROUP, "parent");
+		}
+		return onLayoutInflated;
+	}
+
+	/**
+	 * Generates the end of an asynchronous inflation, once the layout is
+	 * attached: the views are injected and the AfterViews methods are called.
+	 */
+	public void notifyAsyncLayoutAttached(JBlock block) {
+		block.assign(getAsyncLayoutPendingField(), JExpr.FALSE);
+		viewNotifierHelper.invokeViewChanged(block);
+	}
+
+	/**
+	 * @return the field telling that the layout is being inflated
+	 *         asynchronously, while the views must not be injected yet
+	 */
+	public JFieldVar getAsyncLayoutPendingField() {
+		if (asyncLayoutPending == null) {
+			asyncLayoutPending = generatedClass.field(PRIVATE, getCodeModel().BOOLEAN, "asyncLayoutPending" + generationSuffix());
+		}
+		return asyncLayoutPending;
+	}
+
 	public JBlock getOnViewChangedBody() {
 		if (onViewChangedBody == null) {
 			setOnViewChanged();
@@ -131,6 +204,7 @@ public abstract class EComponentWithViewSupportHolder extends EComponentHolder i
 		onViewChanged = getGeneratedClass().method(PUBLIC, getCodeModel().VOID, "onViewChanged");
 		onViewChanged.annotate(Override.class);
 		onViewChangedBody = onViewChanged.body();
+		onViewChangedBodyViewTableBlock = onViewChangedBody.blockVirtual();
 		onViewChangedBodyBeforeInjectionBlock = onViewChangedBody.blockVirtual();
 		onViewChangedBodyViewHolderBlock = onViewChangedBody.blockVirtual();
 		onViewChangedBodyInjectionBlock = onViewChangedBody.blockVirtual();
@@ -141,11 +215,33 @@ public abstract class EComponentWithViewSupportHolder extends EComponentHolder i
 	}
 
 	public JInvocation findViewById(JFieldRef idRef) {
+		if (isSinglePassViewBinding()) {
+			return getOnViewChangedViewTable(idRef).invoke("get").arg(idRef);
+		}
 		JInvocation findViewById = invoke(getOnViewChangedHasViewsParam(), "internalFindViewById");
 		findViewById.arg(idRef);
 		return findViewById;
 	}
 
+	/**
+	 * Adds the id to the ones found by the {@link ViewTable} declared at the
+	 * beginning of <code>onViewChanged()</code>, so that all the views get found
+	 * in one traversal.
+	 */
+	private JVar getOnViewChangedViewTable(JFieldRef idRef) {
+		if (onViewChangedViewTable == null) {
+			AbstractJClass viewTableClass = getJClass(ViewTable.class);
+			onViewChangedViewTableFind = viewTableClass.staticInvoke("find").arg(getOnViewChangedHasViewsParam());
+			onViewChangedViewTable = onViewChangedBodyViewTableBlock.decl(viewTableClass, "viewTable" + generationSuffix(), onViewChangedViewTableFind);
+		}
+		StringWriter idRefCode = new StringWriter();
+		new JFormatter(idRefCode).generable(idRef);
+		if (onViewChangedViewTableIds.add(idRefCode.toString())) {
+			onViewChangedViewTableFind.arg(idRef);
+		}
+		return onViewChangedViewTable;
+	}
+
 	public FoundViewHolder getFoundViewHolder(JFieldRef idRef, AbstractJClass viewClass) {
 		return getFoundViewHolder(idRef, viewClass, null);
 	}
@@ -117,6 +117,9 @@ public class EFragmentHolder extends EComponentWithViewSupportHolder
 		JVar savedInstanceState = onViewCreated.param(getClasses().BUNDLE, "savedInstanceState");
 		JBlock onViewCreatedBody = onViewCreated.body();
 		onViewCreatedBody.invoke(_super(), onViewCreated).arg(view).arg(savedInstanceState);
+		if (getAnnotatedElement().getAnnotation(EFragment.class).asyncLayout()) {
+			onViewCreatedBody = onViewCreatedBody._if(getAsyncLayoutPendingField().not())._then();
+		}
 		viewNotifierHelper.invokeViewChanged(onViewCreatedBody);
 	}
 
@@ -127,6 +130,11 @@ public class EFragmentHolder extends EComponentWithViewSupportHolder
 		return cond(contentView.eq(_null()), _null(), invocation);
 	}
 
+	@Override
+	public IJExpression getRootViewExpression() {
+		return getContentView();
+	}
+
 	private void setFragmentBuilder() throws JClassAlreadyExistsException {
 		fragmentBuilderClass = generatedClass._class(PUBLIC | STATIC, "FragmentBuilder" + generationSuffix());
 
@@ -20,6 +20,7 @@ import static com.helger.jcodemodel.JMod.PUBLIC;
 import javax.lang.model.element.TypeElement;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.annotations.EViewGroup;
 
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JExpr;
@@ -43,6 +44,9 @@ public class EViewGroupHolder extends EViewHolder {
 		setContentViewBlock = ifNotInflated.blockSimple();
 
 		getInit();
+		if (getAnnotatedElement().getAnnotation(EViewGroup.class).asyncLayout()) {
+			ifNotInflated = ifNotInflated._if(getAsyncLayoutPendingField().not())._then();
+		}
 		viewNotifierHelper.invokeViewChanged(ifNotInflated);
 
 		onFinishInflate.body().invoke(JExpr._super(), "onFinishInflate");
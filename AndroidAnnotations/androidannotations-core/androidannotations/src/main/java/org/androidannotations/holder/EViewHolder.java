@@ -183,6 +183,11 @@ public class EViewHolder extends EComponentWithViewSupportHolder implements HasI
 		return JExpr._this().invoke("findViewById").arg(idParam);
 	}
 
+	@Override
+	public IJExpression getRootViewExpression() {
+		return JExpr._this();
+	}
+
 	@Override
 	public JFieldVar getIntentFilterField(ReceiverRegistrationDelegate.IntentFilterData intentFilterData) {
 		return receiverRegistrationDelegate.getIntentFilterField(intentFilterData);
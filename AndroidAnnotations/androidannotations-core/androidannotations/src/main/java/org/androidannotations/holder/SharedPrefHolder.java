@@ -135,7 +135,21 @@ public class SharedPrefHolder extends BaseGeneratedClassHolder {
 		}
 		codeModelHelper.addTrimmedDocComment(fieldMethod, docComment);
 		fieldMethod.javadoc().addReturn().append("a {@link " + prefFieldHelperClass.getSimpleName() + "} instance to retrieve or write the pref value");
-		fieldMethod.body()._return(JExpr.invoke(fieldHelperMethodName).arg(keyExpression).arg(defaultValue));
+
+		// the field is created once, so that the resources backing its key or its
+		// default value are only read once, and reading the pref does not allocate.
+		// It is created under the lock of the helper, so that all the callers get
+		// the same instance, and the state set on it, such as its read cache, is
+		// never lost
+		JFieldVar prefField = generatedClass.field(JMod.PRIVATE | JMod.VOLATILE, prefFieldHelperClass, fieldName + "Field" + generationSuffix());
+		JBlock body = fieldMethod.body();
+		JVar field = body.decl(getJClass(prefFieldHelperClass), "field", prefField);
+		JBlock synchronizedBlock = body._if(field.eq(JExpr._null()))._then().synchronizedBlock(JExpr._this()).body();
+		synchronizedBlock.assign(field, prefField);
+		JBlock createFieldBlock = synchronizedBlock._if(field.eq(JExpr._null()))._then();
+		createFieldBlock.assign(field, JExpr.invoke(fieldHelperMethodName).arg(keyExpression).arg(defaultValue));
+		createFieldBlock.assign(prefField, field);
+		body._return(field);
 	}
 
 	public void createEditorFieldMethods(ExecutableElement method, IJExpression keyExpression) {
@@ -16,10 +16,12 @@
  */
 package org.androidannotations.internal;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -32,6 +34,7 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 
+import org.androidannotations.Option;
 import org.androidannotations.helper.AndroidManifest;
 import org.androidannotations.helper.ModelConstants;
 import org.androidannotations.internal.core.CorePlugin;
@@ -43,11 +46,13 @@ import org.androidannotations.internal.exception.VersionNotFoundException;
 import org.androidannotations.internal.generation.CodeModelGenerator;
 import org.androidannotations.internal.helper.AndroidManifestFinder;
 import org.androidannotations.internal.helper.ErrorHelper;
+import org.androidannotations.internal.helper.FileHelper;
 import org.androidannotations.internal.model.AnnotationElements;
 import org.androidannotations.internal.model.AnnotationElementsHolder;
 import org.androidannotations.internal.model.ModelExtractor;
 import org.androidannotations.internal.process.ModelProcessor;
 import org.androidannotations.internal.process.ModelValidator;
+import org.androidannotations.internal.process.ProcessingProfiler;
 import org.androidannotations.internal.process.TimeStats;
 import org.androidannotations.internal.rclass.AndroidRClassFinder;
 import org.androidannotations.internal.rclass.CompoundRClass;
@@ -61,12 +66,24 @@ import org.androidannotations.rclass.IRClass;
 
 public class AndroidAnnotationProcessor extends AbstractProcessor {
 
+	public static final Option OPTION_INCREMENTAL = new Option("incremental", "true");
+
+	/*
+	 * Gradle reads this option from the supported options of processors
+	 * registered as dynamic, see META-INF/gradle/incremental.annotation.processors.
+	 * Only the Java sources are tracked: the AndroidManifest.xml file read by
+	 * AndroidManifestFinder must be declared as an input of the compile task by
+	 * the build itself.
+	 */
+	private static final String GRADLE_AGGREGATING_OPTION = "org.gradle.annotation.processing.aggregating";
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(AndroidAnnotationProcessor.class);
 
 	private String coreVersion;
 
 	private final TimeStats timeStats = new TimeStats();
 	private final ErrorHelper errorHelper = new ErrorHelper();
+	private final ModelExtractor modelExtractor = new ModelExtractor();
 	private InternalAndroidAnnotationsEnvironment androidAnnotationsEnv;
 
 	@Override
@@ -80,6 +97,8 @@ public class AndroidAnnotationProcessor extends AbstractProcessor {
 		LoggerContext loggerContext = LoggerContext.getInstance();
 		loggerContext.setEnvironment(androidAnnotationsEnv);
 
+		androidAnnotationsEnv.setProfiler(new ProcessingProfiler(androidAnnotationsEnv));
+
 		try {
 			AndroidAnnotationsPlugin corePlugin = new CorePlugin();
 			corePlugin.loadVersion();
@@ -132,6 +151,10 @@ public class AndroidAnnotationProcessor extends AbstractProcessor {
 		timeStats.stop("Whole Processing");
 		timeStats.logStats();
 
+		if (roundEnv.processingOver()) {
+			writeProfilingReport();
+		}
+
 		LOGGER.info("Finish processing");
 
 		LoggerContext.getInstance().close(roundEnv.processingOver());
@@ -184,7 +207,6 @@ public class AndroidAnnotationProcessor extends AbstractProcessor {
 
 	private AnnotationElementsHolder extractAnnotations(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 		timeStats.start("Extract Annotations");
-		ModelExtractor modelExtractor = new ModelExtractor();
 		AnnotationElementsHolder extractedModel = modelExtractor.extract(annotations, getSupportedAnnotationTypes(), roundEnv);
 		timeStats.stop("Extract Annotations");
 		return extractedModel;
@@ -229,11 +251,25 @@ public class AndroidAnnotationProcessor extends AbstractProcessor {
 	private void generateSources(ModelProcessor.ProcessResult processResult) throws IOException {
 		timeStats.start("Generate Sources");
 		LOGGER.info("Number of files generated by AndroidAnnotations: {}", processResult.codeModel.countArtifacts());
-		CodeModelGenerator modelGenerator = new CodeModelGenerator(processingEnv.getFiler(), coreVersion, androidAnnotationsEnv.getOptionValue(CodeModelGenerator.OPTION_ENCODING));
+		CodeModelGenerator modelGenerator = new CodeModelGenerator(processingEnv.getFiler(), coreVersion, androidAnnotationsEnv.getOptionValue(CodeModelGenerator.OPTION_ENCODING),
+				androidAnnotationsEnv.getProfiler(), CodeModelGenerator.resolveGenerationThreads(androidAnnotationsEnv));
 		modelGenerator.generate(processResult);
 		timeStats.stop("Generate Sources");
 	}
 
+	private void writeProfilingReport() {
+		ProcessingProfiler profiler = androidAnnotationsEnv.getProfiler();
+		if (!profiler.isEnabled()) {
+			return;
+		}
+		try {
+			File reportFile = profiler.writeReport(FileHelper.resolveOutputDirectory(processingEnv));
+			LOGGER.info("Profiling report written to {}", reportFile.getAbsolutePath());
+		} catch (IOException e) {
+			LOGGER.warn("Can't write the profiling report: {}", e.getMessage());
+		}
+	}
+
 	private void handleException(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv, ProcessingException e) {
 		String errorMessage = errorHelper.getErrorMessage(processingEnv, e, coreVersion);
 
@@ -258,7 +294,25 @@ public class AndroidAnnotationProcessor extends AbstractProcessor {
 
 	@Override
 	public Set<String> getSupportedOptions() {
-		return androidAnnotationsEnv.getSupportedOptions();
+		Set<String> supportedOptions = new HashSet<>(androidAnnotationsEnv.getSupportedOptions());
+		if (isIncrementalProcessingSupported()) {
+			supportedOptions.add(GRADLE_AGGREGATING_OPTION);
+		}
+		return supportedOptions;
+	}
+
+	private boolean isIncrementalProcessingSupported() {
+		if (!androidAnnotationsEnv.getOptionBooleanValue(OPTION_INCREMENTAL) || androidAnnotationsEnv.getPlugins() == null) {
+			return false;
+		}
+
+		for (AndroidAnnotationsPlugin plugin : androidAnnotationsEnv.getPlugins()) {
+			if (!plugin.supportsIncrementalProcessing()) {
+				LOGGER.info("Incremental processing disabled by plugin {}", plugin.getName());
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
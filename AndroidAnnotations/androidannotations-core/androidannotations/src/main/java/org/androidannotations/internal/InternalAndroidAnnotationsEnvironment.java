@@ -31,6 +31,7 @@ import org.androidannotations.helper.AndroidManifest;
 import org.androidannotations.holder.GeneratedClassHolder;
 import org.androidannotations.internal.model.AnnotationElements;
 import org.androidannotations.internal.process.ProcessHolder;
+import org.androidannotations.internal.process.ProcessingProfiler;
 import org.androidannotations.plugin.AndroidAnnotationsPlugin;
 import org.androidannotations.rclass.IRClass;
 
@@ -41,6 +42,7 @@ import com.helger.jcodemodel.JDefinedClass;
 public class InternalAndroidAnnotationsEnvironment implements AndroidAnnotationsEnvironment {
 
 	private final ProcessingEnvironment processingEnvironment;
+	private ProcessingEnvironment processingEnvironmentOverride;
 	private final Options options;
 	private final AnnotationHandlers annotationHandlers;
 
@@ -55,6 +57,8 @@ public class InternalAndroidAnnotationsEnvironment implements AndroidAnnotations
 
 	private ProcessHolder processHolder;
 
+	private ProcessingProfiler profiler;
+
 	InternalAndroidAnnotationsEnvironment(ProcessingEnvironment processingEnvironment) {
 		this.processingEnvironment = processingEnvironment;
 		options = new Options(processingEnvironment);
@@ -88,8 +92,30 @@ public class InternalAndroidAnnotationsEnvironment implements AndroidAnnotations
 		this.processHolder = processHolder;
 	}
 
+	public void setProfiler(ProcessingProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	public ProcessingProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Replaces the {@link ProcessingEnvironment} handed to handlers and helpers,
+	 * until it is reset with <code>null</code>.
+	 *
+	 * @param processingEnvironmentOverride
+	 *            the environment to use instead of the one of the compiler
+	 */
+	public void setProcessingEnvironmentOverride(ProcessingEnvironment processingEnvironmentOverride) {
+		this.processingEnvironmentOverride = processingEnvironmentOverride;
+	}
+
 	@Override
 	public ProcessingEnvironment getProcessingEnvironment() {
+		if (processingEnvironmentOverride != null) {
+			return processingEnvironmentOverride;
+		}
 		return processingEnvironment;
 	}
 
@@ -178,6 +204,11 @@ public class InternalAndroidAnnotationsEnvironment implements AndroidAnnotations
 		return processHolder.definedClass(fullyQualifiedName);
 	}
 
+	@Override
+	public JDefinedClass getDefinedClass(String fullyQualifiedName, Element originatingElement) {
+		return processHolder.definedClass(fullyQualifiedName, originatingElement);
+	}
+
 	@Override
 	public GeneratedClassHolder getGeneratedClassHolder(Element element) {
 		return processHolder.getGeneratedClassHolder(element);
@@ -26,8 +26,11 @@ import javax.annotation.processing.ProcessingEnvironment;
 import org.androidannotations.Option;
 import org.androidannotations.helper.ModelConstants;
 import org.androidannotations.holder.BaseGeneratedClassHolder;
+import org.androidannotations.holder.EComponentWithViewSupportHolder;
 import org.androidannotations.internal.generation.CodeModelGenerator;
 import org.androidannotations.internal.helper.AndroidManifestFinder;
+import org.androidannotations.internal.process.ModelValidator;
+import org.androidannotations.internal.process.ProcessingProfiler;
 import org.androidannotations.internal.rclass.ProjectRClassFinder;
 import org.androidannotations.logger.LoggerContext;
 import org.androidannotations.logger.appender.FileAppender;
@@ -49,8 +52,18 @@ public class Options {
 		addSupportedOption(LoggerContext.OPTION_LOG_LEVEL);
 		addSupportedOption(LoggerContext.OPTION_LOG_APPENDER_CONSOLE);
 		addSupportedOption(LoggerContext.OPTION_LOG_APPENDER_FILE);
+		addSupportedOption(LoggerContext.OPTION_LOG_APPENDER_ASYNC);
+		addSupportedOption(LoggerContext.OPTION_LOG_CALLER_LINE_NUMBER);
 		addSupportedOption(BaseGeneratedClassHolder.OPTION_GENERATE_FINAL_CLASSES);
+		addSupportedOption(EComponentWithViewSupportHolder.OPTION_SINGLE_PASS_VIEW_BINDING);
 		addSupportedOption(CodeModelGenerator.OPTION_ENCODING);
+		addSupportedOption(CodeModelGenerator.OPTION_PARALLEL_SOURCE_GENERATION);
+		addSupportedOption(CodeModelGenerator.OPTION_SOURCE_GENERATION_THREADS);
+		addSupportedOption(AndroidAnnotationProcessor.OPTION_INCREMENTAL);
+		addSupportedOption(ModelValidator.OPTION_PARALLEL_VALIDATION);
+		addSupportedOption(ModelValidator.OPTION_VALIDATION_THREADS);
+		addSupportedOption(ProcessingProfiler.OPTION_PROFILING_REPORT);
+		addSupportedOption(ProcessingProfiler.OPTION_PROFILING_REPORT_TOP_ELEMENTS);
 	}
 
 	public void addAllSupportedOptions(List<Option> options) {
@@ -23,6 +23,7 @@ import java.util.List;
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.Option;
 import org.androidannotations.handler.AnnotationHandler;
+import org.androidannotations.internal.core.handler.AbstractViewListenerHandler;
 import org.androidannotations.internal.core.handler.AfterExtrasHandler;
 import org.androidannotations.internal.core.handler.AfterInjectHandler;
 import org.androidannotations.internal.core.handler.AfterPreferencesHandler;
@@ -121,9 +122,15 @@ public class CorePlugin extends AndroidAnnotationsPlugin {
 		return NAME;
 	}
 
+	@Override
+	public boolean supportsIncrementalProcessing() {
+		return true;
+	}
+
 	@Override
 	public List<Option> getSupportedOptions() {
-		return Arrays.asList(TraceHandler.OPTION_TRACE, SupposeThreadHandler.OPTION_THREAD_CONTROL);
+		return Arrays.asList(TraceHandler.OPTION_TRACE, TraceHandler.OPTION_TRACE_RECORDER, SupposeThreadHandler.OPTION_THREAD_CONTROL, UiThreadHandler.OPTION_POOLED_UI_THREAD_CALLS,
+				AbstractViewListenerHandler.OPTION_DISPATCH_VIEW_LISTENERS);
 	}
 
 	@Override
@@ -15,12 +15,20 @@
  */
 package org.androidannotations.internal.core.handler;
 
+import static com.helger.jcodemodel.JExpr._new;
+import static com.helger.jcodemodel.JMod.PROTECTED;
+
+import java.util.List;
+
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.ElementValidation;
+import org.androidannotations.api.Lazy;
+import org.androidannotations.api.LazyResource;
 import org.androidannotations.handler.BaseAnnotationHandler;
 import org.androidannotations.handler.MethodInjectionHandler;
 import org.androidannotations.helper.IdValidatorHelper;
@@ -29,10 +37,14 @@ import org.androidannotations.holder.EComponentHolder;
 import org.androidannotations.internal.core.model.AndroidRes;
 import org.androidannotations.rclass.IRClass;
 
+import com.helger.jcodemodel.AbstractJClass;
 import com.helger.jcodemodel.IJAssignmentTarget;
 import com.helger.jcodemodel.IJExpression;
+import com.helger.jcodemodel.JAnonymousClass;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JFieldRef;
+import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JVar;
 
 public abstract class AbstractResHandler extends BaseAnnotationHandler<EComponentHolder> implements MethodInjectionHandler<EComponentHolder> {
 
@@ -52,7 +64,15 @@ public abstract class AbstractResHandler extends BaseAnnotationHandler<EComponen
 			return;
 		}
 
-		validatorHelper.allowedType(element, androidRes.getAllowedTypes(), validation);
+		TypeMirror lazyResourceType = getLazyResourceType(getInjectedElement(element));
+		if (lazyResourceType == null) {
+			validatorHelper.allowedType(element, androidRes.getAllowedTypes(), validation);
+		} else {
+			List<String> allowedTypes = androidRes.getAllowedTypes();
+			if (!allowedTypes.contains(lazyResourceType.toString())) {
+				validation.addError("%s can only be used on a Lazy of " + allowedTypes.toString() + ", not " + lazyResourceType.toString());
+			}
+		}
 
 		validatorHelper.resIdsExist(element, androidRes.getRInnerClass(), IdValidatorHelper.FallbackStrategy.USE_ELEMENT_NAME, validation);
 
@@ -79,16 +99,104 @@ public abstract class AbstractResHandler extends BaseAnnotationHandler<EComponen
 		IRClass.Res resInnerClass = androidRes.getRInnerClass();
 
 		JFieldRef idRef = annotationHelper.extractOneAnnotationFieldRef(element, resInnerClass, true);
-		IJExpression resourceInstance = getInstanceInvocation(holder, idRef, fieldRef, targetBlock);
+		TypeMirror lazyResourceType = getLazyResourceType(param);
+		if (lazyResourceType != null) {
+			targetBlock.add(fieldRef.assign(createLazyResource(holder, idRef, lazyResourceType)));
+			return;
+		}
+
+		IJExpression resourceInstance = getInstanceInvocation(holderRefs(holder), idRef, fieldRef, targetBlock);
 		if (resourceInstance != null) {
 			targetBlock.add(fieldRef.assign(resourceInstance));
 		}
 	}
 
+	/**
+	 * Creates a {@link LazyResource} loading the resource with the context and
+	 * resources given to its <code>load()</code> method, so that the anonymous
+	 * class does not refer to the generated class.
+	 */
+	private IJExpression createLazyResource(EComponentHolder holder, JFieldRef idRef, TypeMirror resourceType) {
+		AbstractJClass resourceClass = codeModelHelper.typeMirrorToJClass(resourceType);
+		AbstractJClass lazyResourceClass = getJClass(LazyResource.class).narrow(resourceClass);
+		JAnonymousClass lazyResource = getCodeModel().anonymousClass(lazyResourceClass);
+
+		JMethod load = lazyResource.method(PROTECTED, resourceClass, "load");
+		load.annotate(Override.class);
+		final JVar contextParam = load.param(getClasses().CONTEXT, "context");
+		final JVar resourcesParam = load.param(getClasses().RESOURCES, "resources");
+		JBlock body = load.body();
+
+		JBlock resourceDeclarationBlock = body.blockVirtual();
+		JVar resource = resourceDeclarationBlock.decl(resourceClass, "resource");
+		ResourceRefs loadRefs = new ResourceRefs() {
+			@Override
+			public IJExpression getContextRef() {
+				return contextParam;
+			}
+
+			@Override
+			public IJExpression getResourcesRef() {
+				return resourcesParam;
+			}
+		};
+		IJExpression resourceInstance = getInstanceInvocation(loadRefs, idRef, resource, body);
+		if (resourceInstance != null) {
+			body._return(resourceInstance);
+			body.remove(resourceDeclarationBlock);
+		} else {
+			body._return(resource);
+		}
+
+		return _new(lazyResource).arg(holder.getContextRef());
+	}
+
+	private ResourceRefs holderRefs(final EComponentHolder holder) {
+		return new ResourceRefs() {
+			@Override
+			public IJExpression getContextRef() {
+				return holder.getContextRef();
+			}
+
+			@Override
+			public IJExpression getResourcesRef() {
+				return holder.getResourcesRef();
+			}
+		};
+	}
+
+	private Element getInjectedElement(Element element) {
+		if (element instanceof ExecutableElement) {
+			return ((ExecutableElement) element).getParameters().get(0);
+		}
+		return element;
+	}
+
+	private TypeMirror getLazyResourceType(Element element) {
+		return annotationHelper.extractTypeArgument(element.asType(), Lazy.class);
+	}
+
 	@Override
 	public void validateEnclosingElement(Element element, ElementValidation valid) {
 		validatorHelper.enclosingElementHasEnhancedComponentAnnotation(element, valid);
 	}
 
-	protected abstract IJExpression getInstanceInvocation(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock);
+	/**
+	 * @return the expression loading the resource, or <code>null</code> if the
+	 *         resource has been assigned to <code>fieldRef</code> in
+	 *         <code>targetBlock</code>
+	 */
+	protected abstract IJExpression getInstanceInvocation(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock);
+
+	/**
+	 * The context and resources to load a resource with: the ones of the
+	 * generated class, or the parameters of {@link LazyResource}
+	 * <code>load()</code>. The references are only created when needed.
+	 */
+	protected interface ResourceRefs {
+
+		IJExpression getContextRef();
+
+		IJExpression getResourcesRef();
+	}
 }
@@ -16,23 +16,51 @@
 package org.androidannotations.internal.core.handler;
 
 import static com.helger.jcodemodel.JExpr._new;
+import static com.helger.jcodemodel.JMod.FINAL;
+import static com.helger.jcodemodel.JMod.PRIVATE;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.lang.model.element.Element;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.ElementValidation;
+import org.androidannotations.Option;
 import org.androidannotations.holder.EComponentWithViewSupportHolder;
 import org.androidannotations.holder.FoundViewHolder;
 import org.androidannotations.rclass.IRClass.Res;
 
 import com.helger.jcodemodel.AbstractJClass;
+import com.helger.jcodemodel.IJExpression;
+import com.helger.jcodemodel.IJObject;
+import com.helger.jcodemodel.IJStatement;
+import com.helger.jcodemodel.JAnnotationUse;
+import com.helger.jcodemodel.JBlock;
+import com.helger.jcodemodel.JCase;
+import com.helger.jcodemodel.JConditional;
 import com.helger.jcodemodel.JDefinedClass;
+import com.helger.jcodemodel.JExpr;
 import com.helger.jcodemodel.JFieldRef;
+import com.helger.jcodemodel.JFieldVar;
+import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JMod;
+import com.helger.jcodemodel.JSwitch;
+import com.helger.jcodemodel.JVar;
 
 public abstract class AbstractViewListenerHandler extends AbstractListenerHandler<EComponentWithViewSupportHolder> {
 
+	/**
+	 * When enabled, each generated component uses a single listener instance per
+	 * listener type, which calls the annotated method matching the id of the
+	 * view, instead of an anonymous listener class per annotated method.
+	 */
+	public static final Option OPTION_DISPATCH_VIEW_LISTENERS = new Option("dispatchViewListeners", "false");
+
 	public AbstractViewListenerHandler(Class<?> targetClass, AndroidAnnotationsEnvironment environment) {
 		super(targetClass, environment);
 	}
@@ -49,6 +77,10 @@ public abstract class AbstractViewListenerHandler extends AbstractListenerHandle
 
 	@Override
 	protected final void assignListeners(EComponentWithViewSupportHolder holder, List<JFieldRef> idsRefs, JDefinedClass listenerAnonymousClass) {
+		if (isDispatchSupported() && getEnvironment().getOptionBooleanValue(OPTION_DISPATCH_VIEW_LISTENERS)) {
+			assignDispatcher(holder, idsRefs, listenerAnonymousClass);
+			return;
+		}
 		for (JFieldRef idRef : idsRefs) {
 			AbstractJClass listenerTargetClass = getListenerTargetClass(holder);
 			FoundViewHolder foundViewHolder = holder.getFoundViewHolder(idRef, listenerTargetClass);
@@ -56,6 +88,178 @@ public abstract class AbstractViewListenerHandler extends AbstractListenerHandle
 		}
 	}
 
+	/**
+	 * Moves the body of the listener method built for the annotated method into
+	 * the dispatcher of the holder, in a branch matching the given ids.
+	 */
+	private void assignDispatcher(EComponentWithViewSupportHolder holder, List<JFieldRef> idsRefs, JDefinedClass listenerAnonymousClass) {
+		JMethod listenerMethod = listenerAnonymousClass.methods().iterator().next();
+		Map<String, Dispatcher> dispatchers = holder.getPluginHolder(new Dispatchers()).dispatchers;
+		Dispatcher dispatcher = dispatchers.get(getSetterName());
+		if (dispatcher == null) {
+			dispatcher = new Dispatcher(holder, listenerMethod);
+			dispatchers.put(getSetterName(), dispatcher);
+		}
+		for (JAnnotationUse annotation : listenerMethod.annotations()) {
+			if (annotation.getAnnotationClass().fullName().equals(SuppressWarnings.class.getName())) {
+				// the casts of the adapter items
+				codeModelHelper.addSuppressWarnings(dispatcher.method, "unchecked");
+			}
+		}
+
+		Map<String, JFieldRef> newIdsRefs = dispatcher.newIdsRefs(idsRefs);
+		JBlock branch = new JBlock();
+		for (IJObject content : listenerMethod.body().getContents()) {
+			branch.add((IJStatement) content);
+		}
+		if (dispatcher.useSwitch && dispatcher.method.type() == getCodeModel().VOID) {
+			branch._break();
+		}
+		dispatcher.addBranch(idsRefs, branch);
+
+		AbstractJClass listenerTargetClass = getListenerTargetClass(holder);
+		for (JFieldRef idRef : newIdsRefs.values()) {
+			FoundViewHolder foundViewHolder = holder.getFoundViewHolder(idRef, listenerTargetClass);
+			foundViewHolder.getIfNotNullBlock().invoke(foundViewHolder.getOrCastRef(listenerTargetClass), getSetterName()).arg(dispatcher.field);
+		}
+	}
+
+	/**
+	 * Whether the listeners can be grouped in a single dispatcher per component,
+	 * which requires a listener interface having a single method whose first
+	 * parameter is the view.
+	 */
+	protected boolean isDispatchSupported() {
+		return true;
+	}
+
+	/**
+	 * The dispatchers of a generated component, by listener setter name.
+	 */
+	private static final class Dispatchers {
+
+		private final Map<String, Dispatcher> dispatchers = new HashMap<>();
+	}
+
+	/**
+	 * The listener instance shared by the annotated methods of a component. It
+	 * switches on the id of the view, unless the ids are not constant
+	 * expressions, which is the case in library projects: an
+	 * <code>if</code> chain is used instead.
+	 * <p>
+	 * An id handled by several methods, for example by an inherited one and
+	 * by one of the component, is only dispatched to the last processed
+	 * method, which is the one a listener per method would end up calling.
+	 * The branches are rebuilt each time one is added, so that the ids moved
+	 * to a later branch are not repeated.
+	 */
+	private final class Dispatcher {
+
+		private final JMethod method;
+		private final JFieldVar field;
+		private final boolean useSwitch;
+		private final JBlock branches;
+		private final IJExpression getId;
+		private final List<Branch> branchList = new ArrayList<>();
+
+		Dispatcher(EComponentWithViewSupportHolder holder, JMethod listenerMethod) {
+			JDefinedClass dispatcherClass = getCodeModel().anonymousClass(getListenerClass(holder));
+			method = dispatcherClass.method(JMod.PUBLIC, listenerMethod.type(), listenerMethod.name());
+			method.annotate(Override.class);
+			for (JVar param : listenerMethod.params()) {
+				method.param(param.type(), param.name());
+			}
+
+			String setterName = getSetterName();
+			String fieldName = Character.toLowerCase(setterName.charAt(3)) + setterName.substring(4) + "_";
+			field = holder.getGeneratedClass().field(PRIVATE | FINAL, getListenerClass(holder), fieldName, _new(dispatcherClass));
+
+			useSwitch = !getEnvironment().getAndroidManifest().isLibraryProject();
+			branches = method.body().blockVirtual();
+			getId = method.params().get(0).invoke("getId");
+			if (method.type() != getCodeModel().VOID) {
+				// the event is not consumed
+				method.body()._return(JExpr.FALSE);
+			}
+		}
+
+		/**
+		 * @return the given ids which were not dispatched yet, by name
+		 */
+		Map<String, JFieldRef> newIdsRefs(List<JFieldRef> idsRefs) {
+			Map<String, JFieldRef> newIdsRefs = distinctIdsRefs(idsRefs);
+			for (Branch branch : branchList) {
+				newIdsRefs.keySet().removeAll(branch.idsRefs.keySet());
+			}
+			return newIdsRefs;
+		}
+
+		void addBranch(List<JFieldRef> idsRefs, JBlock body) {
+			Branch newBranch = new Branch(distinctIdsRefs(idsRefs), body);
+			for (Iterator<Branch> iterator = branchList.iterator(); iterator.hasNext();) {
+				Branch branch = iterator.next();
+				branch.idsRefs.keySet().removeAll(newBranch.idsRefs.keySet());
+				if (branch.idsRefs.isEmpty()) {
+					iterator.remove();
+				}
+			}
+			branchList.add(newBranch);
+
+			branches.removeAll();
+			if (useSwitch) {
+				JSwitch idSwitch = branches._switch(getId);
+				for (Branch branch : branchList) {
+					JCase idCase = null;
+					for (JFieldRef idRef : branch.idsRefs.values()) {
+						idCase = idSwitch._case(idRef);
+					}
+					branch.addTo(idCase.body());
+				}
+				return;
+			}
+
+			IJExpression viewId = branches.decl(getCodeModel().INT, "viewId", getId);
+			JConditional lastCondition = null;
+			for (Branch branch : branchList) {
+				IJExpression condition = null;
+				for (JFieldRef idRef : branch.idsRefs.values()) {
+					IJExpression idMatches = viewId.eq(idRef);
+					condition = condition == null ? idMatches : condition.cor(idMatches);
+				}
+				lastCondition = lastCondition == null ? branches._if(condition) : lastCondition._elseif(condition);
+				branch.addTo(lastCondition._then());
+			}
+		}
+
+		private Map<String, JFieldRef> distinctIdsRefs(List<JFieldRef> idsRefs) {
+			Map<String, JFieldRef> distinctIdsRefs = new LinkedHashMap<>();
+			for (JFieldRef idRef : idsRefs) {
+				distinctIdsRefs.put(idRef.name(), idRef);
+			}
+			return distinctIdsRefs;
+		}
+	}
+
+	/**
+	 * The body of an annotated method in a dispatcher, and the ids it handles.
+	 */
+	private static final class Branch {
+
+		private final Map<String, JFieldRef> idsRefs;
+		private final JBlock body;
+
+		Branch(Map<String, JFieldRef> idsRefs, JBlock body) {
+			this.idsRefs = idsRefs;
+			this.body = body;
+		}
+
+		void addTo(JBlock block) {
+			for (IJObject content : body.getContents()) {
+				block.add((IJStatement) content);
+			}
+		}
+	}
+
 	@Override
 	protected AbstractJClass getListenerTargetClass(EComponentWithViewSupportHolder holder) {
 		return getClasses().VIEW;
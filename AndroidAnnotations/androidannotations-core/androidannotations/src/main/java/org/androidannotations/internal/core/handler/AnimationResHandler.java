@@ -16,7 +16,6 @@
 package org.androidannotations.internal.core.handler;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
-import org.androidannotations.holder.EComponentHolder;
 import org.androidannotations.internal.core.model.AndroidRes;
 
 import com.helger.jcodemodel.IJAssignmentTarget;
@@ -31,7 +30,7 @@ public class AnimationResHandler extends AbstractResHandler {
 	}
 
 	@Override
-	protected IJExpression getInstanceInvocation(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
-		return getClasses().ANIMATION_UTILS.staticInvoke("loadAnimation").arg(holder.getContextRef()).arg(idRef);
+	protected IJExpression getInstanceInvocation(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
+		return getClasses().ANIMATION_UTILS.staticInvoke("loadAnimation").arg(refs.getContextRef()).arg(idRef);
 	}
 }
@@ -22,6 +22,7 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.ElementValidation;
 import org.androidannotations.annotations.Background;
 import org.androidannotations.api.BackgroundExecutor;
 import org.androidannotations.holder.EComponentHolder;
@@ -43,6 +44,16 @@ public class BackgroundHandler extends AbstractRunnableHandler {
 		super(Background.class, environment);
 	}
 
+	@Override
+	public void validate(Element element, ElementValidation valid) {
+		super.validate(element, valid);
+
+		Background annotation = element.getAnnotation(Background.class);
+		if (annotation.coalesce() != Background.Coalesce.NONE && "".equals(annotation.id())) {
+			valid.addError("An id must be set to coalesce the tasks");
+		}
+	}
+
 	@Override
 	public void process(Element element, EComponentHolder holder) throws Exception {
 		ExecutableElement executableElement = (ExecutableElement) element;
@@ -72,10 +83,15 @@ public class BackgroundHandler extends AbstractRunnableHandler {
 		String id = annotation.id();
 		long delay = annotation.delay();
 		String serial = annotation.serial();
+		int priority = annotation.priority();
 
 		AbstractJClass backgroundExecutorClass = getJClass(BackgroundExecutor.class);
 		JInvocation newTask = _new(anonymousTaskClass).arg(lit(id)).arg(lit(delay)).arg(lit(serial));
-		JInvocation executeCall = backgroundExecutorClass.staticInvoke("execute").arg(newTask);
+		if (priority != 0) {
+			newTask.arg(lit(priority));
+		}
+		String executeMethodName = annotation.coalesce() == Background.Coalesce.LATEST ? "executeLatest" : "execute";
+		JInvocation executeCall = backgroundExecutorClass.staticInvoke(executeMethodName).arg(newTask);
 
 		delegatingMethod.body().add(executeCall);
 	}
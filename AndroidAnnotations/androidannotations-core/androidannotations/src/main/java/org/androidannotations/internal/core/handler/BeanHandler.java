@@ -15,10 +15,14 @@
  */
 package org.androidannotations.internal.core.handler;
 
+import static com.helger.jcodemodel.JExpr._new;
 import static com.helger.jcodemodel.JExpr._null;
+import static com.helger.jcodemodel.JMod.PROTECTED;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
@@ -26,6 +30,10 @@ import org.androidannotations.ElementValidation;
 import org.androidannotations.annotations.Bean;
 import org.androidannotations.annotations.EBean;
 import org.androidannotations.annotations.NonConfigurationInstance;
+import org.androidannotations.api.BeanProvider;
+import org.androidannotations.api.Lazy;
+import org.androidannotations.api.LazyBean;
+import org.androidannotations.api.Provider;
 import org.androidannotations.handler.BaseAnnotationHandler;
 import org.androidannotations.handler.MethodInjectionHandler;
 import org.androidannotations.helper.InjectHelper;
@@ -34,10 +42,14 @@ import org.androidannotations.holder.EComponentHolder;
 
 import com.helger.jcodemodel.AbstractJClass;
 import com.helger.jcodemodel.IJAssignmentTarget;
+import com.helger.jcodemodel.IJExpression;
 import com.helger.jcodemodel.IJStatement;
+import com.helger.jcodemodel.JAnonymousClass;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JConditional;
 import com.helger.jcodemodel.JInvocation;
+import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JVar;
 
 public class BeanHandler extends BaseAnnotationHandler<EComponentHolder> implements MethodInjectionHandler<EComponentHolder> {
 
@@ -55,11 +67,39 @@ public class BeanHandler extends BaseAnnotationHandler<EComponentHolder> impleme
 			return;
 		}
 
-		validatorHelper.typeOrTargetValueHasAnnotation(EBean.class, element, validation);
+		Element injectedElement = element instanceof ExecutableElement ? ((ExecutableElement) element).getParameters().get(0) : element;
+		TypeMirror providedType = getProvidedBeanType(injectedElement.asType());
+		if (providedType == null) {
+			validatorHelper.typeOrTargetValueHasAnnotation(EBean.class, element, validation);
+		} else {
+			validateProvidedBean(element, providedType, validation);
+		}
 
 		validatorHelper.isNotPrivate(element, validation);
 	}
 
+	private void validateProvidedBean(Element element, TypeMirror providedType, ElementValidation validation) {
+		if (element.getAnnotation(NonConfigurationInstance.class) != null) {
+			validation.addError("%s cannot inject a Lazy or a Provider in a @NonConfigurationInstance field");
+			return;
+		}
+
+		TypeMirror beanType = providedType;
+		DeclaredType targetAnnotationClassValue = annotationHelper.extractAnnotationClassParameter(element);
+		if (targetAnnotationClassValue != null) {
+			beanType = targetAnnotationClassValue;
+			if (!annotationHelper.getTypeUtils().isAssignable(beanType, providedType)) {
+				validation.addError("The value of %s must be assignable to the type argument of the annotated field");
+				return;
+			}
+		}
+
+		validatorHelper.typeHasAnnotation(EBean.class, beanType, validation);
+		if (validation.isValid()) {
+			validatorHelper.typeIsValid(EBean.class, beanType, validation);
+		}
+	}
+
 	@Override
 	public void process(Element element, EComponentHolder holder) {
 		injectHelper.process(element, holder);
@@ -72,14 +112,22 @@ public class BeanHandler extends BaseAnnotationHandler<EComponentHolder> impleme
 
 	@Override
 	public void assignValue(JBlock targetBlock, IJAssignmentTarget fieldRef, EComponentHolder holder, Element element, Element param) {
+		TypeMirror providedType = getProvidedBeanType(param.asType());
 		TypeMirror typeMirror = annotationHelper.extractAnnotationClassParameter(element);
 		if (typeMirror == null) {
-			typeMirror = param.asType();
+			typeMirror = providedType != null ? providedType : param.asType();
 			typeMirror = getProcessingEnvironment().getTypeUtils().erasure(typeMirror);
 		}
 		String typeQualifiedName = typeMirror.toString();
 		AbstractJClass injectedClass = getJClass(annotationHelper.generatedClassQualifiedNameFromQualifiedName(typeQualifiedName));
-		JInvocation beanInstance = injectedClass.staticInvoke(EBeanHolder.GET_INSTANCE_METHOD_NAME).arg(holder.getContextRef());
+
+		IJExpression beanInstance;
+		if (providedType == null) {
+			beanInstance = injectedClass.staticInvoke(EBeanHolder.GET_INSTANCE_METHOD_NAME).arg(holder.getContextRef());
+		} else {
+			boolean lazy = annotationHelper.extractTypeArgument(param.asType(), Lazy.class) != null;
+			beanInstance = createBeanProvider(holder, injectedClass, providedType, lazy);
+		}
 
 		IJStatement assignment = fieldRef.assign(beanInstance);
 		if (param.getKind() == ElementKind.FIELD) {
@@ -94,6 +142,37 @@ public class BeanHandler extends BaseAnnotationHandler<EComponentHolder> impleme
 		targetBlock.add(assignment);
 	}
 
+	/**
+	 * Creates a {@link LazyBean} or a {@link BeanProvider} building the bean with
+	 * the context given to its <code>create()</code> method, so that the
+	 * anonymous class does not refer to the generated class.
+	 */
+	private IJExpression createBeanProvider(EComponentHolder holder, AbstractJClass injectedClass, TypeMirror providedType, boolean lazy) {
+		AbstractJClass providedClass = codeModelHelper.typeMirrorToJClass(providedType);
+		AbstractJClass providerClass = getJClass(lazy ? LazyBean.class : BeanProvider.class).narrow(providedClass);
+		JAnonymousClass provider = getCodeModel().anonymousClass(providerClass);
+
+		JMethod create = provider.method(PROTECTED, providedClass, "create");
+		create.annotate(Override.class);
+		JVar contextParam = create.param(getClasses().CONTEXT, "context");
+		JInvocation beanInstance = injectedClass.staticInvoke(EBeanHolder.GET_INSTANCE_METHOD_NAME).arg(contextParam);
+		create.body()._return(beanInstance);
+
+		return _new(provider).arg(holder.getContextRef());
+	}
+
+	/**
+	 * @return the bean type of a {@link Lazy} or a {@link Provider}, or
+	 *         <code>null</code> if the bean is injected directly
+	 */
+	private TypeMirror getProvidedBeanType(TypeMirror type) {
+		TypeMirror providedType = annotationHelper.extractTypeArgument(type, Lazy.class);
+		if (providedType == null) {
+			providedType = annotationHelper.extractTypeArgument(type, Provider.class);
+		}
+		return providedType;
+	}
+
 	@Override
 	public void validateEnclosingElement(Element element, ElementValidation valid) {
 		validatorHelper.enclosingElementHasEnhancedComponentAnnotation(element, valid);
@@ -21,7 +21,6 @@ import javax.lang.model.element.TypeElement;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.helper.CanonicalNameConstants;
-import org.androidannotations.holder.EComponentHolder;
 import org.androidannotations.internal.core.model.AndroidRes;
 
 import com.helger.jcodemodel.IJAssignmentTarget;
@@ -29,7 +28,6 @@ import com.helger.jcodemodel.IJExpression;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JConditional;
 import com.helger.jcodemodel.JFieldRef;
-import com.helger.jcodemodel.JVar;
 
 abstract class ContextCompatAwareResHandler extends AbstractResHandler {
 
@@ -44,17 +42,17 @@ abstract class ContextCompatAwareResHandler extends AbstractResHandler {
 	}
 
 	@Override
-	protected IJExpression getInstanceInvocation(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
+	protected IJExpression getInstanceInvocation(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
 		if (hasTargetMethodInAndroidxContextCompat()) {
-			return getClasses().ANDROIDX_CONTEXT_COMPAT.staticInvoke(androidRes.getResourceMethodName()).arg(holder.getContextRef()).arg(idRef);
+			return getClasses().ANDROIDX_CONTEXT_COMPAT.staticInvoke(androidRes.getResourceMethodName()).arg(refs.getContextRef()).arg(idRef);
 		} else if (hasTargetMethodInContextCompat()) {
-			return getClasses().CONTEXT_COMPAT.staticInvoke(androidRes.getResourceMethodName()).arg(holder.getContextRef()).arg(idRef);
+			return getClasses().CONTEXT_COMPAT.staticInvoke(androidRes.getResourceMethodName()).arg(refs.getContextRef()).arg(idRef);
 		} else if (shouldUseContextMethod()) {
-			return holder.getContextRef().invoke(androidRes.getResourceMethodName()).arg(idRef);
+			return refs.getContextRef().invoke(androidRes.getResourceMethodName()).arg(idRef);
 		} else if (!shouldUseContextMethod() && hasTargetMethodInContext()) {
-			return createCallWithIfGuard(holder, idRef, fieldRef, targetBlock);
+			return createCallWithIfGuard(refs, idRef, fieldRef, targetBlock);
 		} else {
-			return invoke(holder.getResourcesRef(), androidRes.getResourceMethodName()).arg(idRef);
+			return invoke(refs.getResourcesRef(), androidRes.getResourceMethodName()).arg(idRef);
 		}
 	}
 
@@ -80,13 +78,12 @@ abstract class ContextCompatAwareResHandler extends AbstractResHandler {
 		return hasTargetMethod(contextCompat, androidRes.getResourceMethodName());
 	}
 
-	private IJExpression createCallWithIfGuard(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
-		JVar resourcesRef = holder.getResourcesRef();
+	private IJExpression createCallWithIfGuard(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
 		IJExpression buildVersionCondition = getClasses().BUILD_VERSION.staticRef("SDK_INT").gte(getClasses().BUILD_VERSION_CODES.staticRef(minSdkPlatformName));
 
 		JConditional conditional = targetBlock._if(buildVersionCondition);
-		conditional._then().add(fieldRef.assign(holder.getContextRef().invoke(androidRes.getResourceMethodName()).arg(idRef)));
-		conditional._else().add(fieldRef.assign(resourcesRef.invoke(androidRes.getResourceMethodName()).arg(idRef)));
+		conditional._then().add(fieldRef.assign(refs.getContextRef().invoke(androidRes.getResourceMethodName()).arg(idRef)));
+		conditional._else().add(fieldRef.assign(refs.getResourcesRef().invoke(androidRes.getResourceMethodName()).arg(idRef)));
 
 		return null;
 	}
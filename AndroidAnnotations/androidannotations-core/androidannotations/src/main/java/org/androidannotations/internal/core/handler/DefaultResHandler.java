@@ -18,7 +18,6 @@ package org.androidannotations.internal.core.handler;
 import static com.helger.jcodemodel.JExpr.invoke;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
-import org.androidannotations.holder.EComponentHolder;
 import org.androidannotations.internal.core.model.AndroidRes;
 
 import com.helger.jcodemodel.IJAssignmentTarget;
@@ -33,7 +32,7 @@ public class DefaultResHandler extends AbstractResHandler {
 	}
 
 	@Override
-	protected IJExpression getInstanceInvocation(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
-		return invoke(holder.getResourcesRef(), androidRes.getResourceMethodName()).arg(idRef);
+	protected IJExpression getInstanceInvocation(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
+		return invoke(refs.getResourcesRef(), androidRes.getResourceMethodName()).arg(idRef);
 	}
 }
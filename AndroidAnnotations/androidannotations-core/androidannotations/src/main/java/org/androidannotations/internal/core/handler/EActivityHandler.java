@@ -29,6 +29,7 @@ import org.androidannotations.helper.IdValidatorHelper;
 import org.androidannotations.holder.EActivityHolder;
 import org.androidannotations.rclass.IRClass;
 
+import com.helger.jcodemodel.IJExpression;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JExpr;
 import com.helger.jcodemodel.JFieldRef;
@@ -58,6 +59,8 @@ public class EActivityHandler extends CoreBaseGeneratingAnnotationHandler<EActiv
 		validatorHelper.componentRegistered(element, getEnvironment().getAndroidManifest(), valid);
 
 		coreValidatorHelper.checkDataBoundAnnotation(element, valid);
+
+		coreValidatorHelper.asyncLayoutIsNotDataBound(element, element.getAnnotation(EActivity.class).asyncLayout(), valid);
 	}
 
 	@Override
@@ -84,6 +87,20 @@ public class EActivityHandler extends CoreBaseGeneratingAnnotationHandler<EActiv
 			onCreateBody.assign(bindingField, holder.getDataBindingInflationExpression(contentViewId, contentView, false));
 			onCreateBody.invoke(setContentView).arg(bindingField.invoke("getRoot")).arg(bindingField.invoke("getRoot").invoke("getLayoutParams"));
 			holder.getOnDestroyBeforeSuperBlock().invoke(bindingField, "unbind");
+		} else if (element.getAnnotation(EActivity.class).asyncLayout()) {
+			JFieldRef androidContentResId = getEnvironment().getRClass().get(IRClass.Res.ID).getIdStaticRef(android.R.id.content, getEnvironment());
+			IJExpression contentParent = JExpr.cast(getClasses().VIEW_GROUP, JExpr.invoke("findViewById").arg(androidContentResId));
+			JFieldVar asyncLayoutPending = holder.getAsyncLayoutPendingField();
+			onCreateBody.assign(asyncLayoutPending, JExpr.TRUE);
+			holder.inflateLayoutAsync(onCreateBody, JExpr.invoke("getLayoutInflater"), contentViewId, contentParent);
+			holder.getOnDestroyBeforeSuperBlock().assign(asyncLayoutPending, JExpr.FALSE);
+
+			JMethod onLayoutInflated = holder.getOnLayoutInflated();
+			JVar view = onLayoutInflated.params().get(0);
+			JBlock body = onLayoutInflated.body();
+			body._if(asyncLayoutPending.not().cor(JExpr.invoke("isFinishing")))._then()._return();
+			body.assign(asyncLayoutPending, JExpr.FALSE);
+			body.invoke(setContentView.name()).arg(view).arg(view.invoke("getLayoutParams"));
 		} else {
 			onCreateBody.invoke(setContentView).arg(contentViewId);
 		}
@@ -17,6 +17,8 @@
 package org.androidannotations.internal.core.handler;
 
 import static com.helger.jcodemodel.JExpr.FALSE;
+import static com.helger.jcodemodel.JExpr.TRUE;
+import static com.helger.jcodemodel.JExpr._new;
 import static com.helger.jcodemodel.JExpr._null;
 
 import javax.lang.model.element.Element;
@@ -33,6 +35,7 @@ import org.androidannotations.rclass.IRClass;
 import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JFieldRef;
 import com.helger.jcodemodel.JFieldVar;
+import com.helger.jcodemodel.JMethod;
 import com.helger.jcodemodel.JVar;
 
 public class EFragmentHandler extends CoreBaseGeneratingAnnotationHandler<EFragmentHolder> {
@@ -59,6 +62,8 @@ public class EFragmentHandler extends CoreBaseGeneratingAnnotationHandler<EFragm
 		validatorHelper.extendsFragment(element, validation);
 
 		coreValidatorHelper.checkDataBoundAnnotation(element, validation);
+
+		coreValidatorHelper.asyncLayoutIsNotDataBound(element, element.getAnnotation(EFragment.class).asyncLayout(), validation);
 	}
 
 	@Override
@@ -93,6 +98,19 @@ public class EFragmentHandler extends CoreBaseGeneratingAnnotationHandler<EFragm
 			inflationBlock.assign(contentView, bindingField.invoke("getRoot"));
 			holder.getOnDestroyViewAfterSuperBlock().invoke(bindingField, "unbind");
 			holder.clearInjectedView(bindingField);
+		} else if (element.getAnnotation(EFragment.class).asyncLayout()) {
+			JVar asyncLayoutParent = inflationBlock.decl(getClasses().FRAME_LAYOUT, "asyncLayoutParent", _new(getClasses().FRAME_LAYOUT).arg(inflater.invoke("getContext")));
+			inflationBlock.assign(contentView, asyncLayoutParent);
+			inflationBlock.assign(holder.getAsyncLayoutPendingField(), TRUE);
+			holder.inflateLayoutAsync(inflationBlock, inflater, contentViewId, asyncLayoutParent);
+
+			JMethod onLayoutInflated = holder.getOnLayoutInflated();
+			JVar view = onLayoutInflated.params().get(0);
+			JVar parent = onLayoutInflated.params().get(1);
+			JBlock body = onLayoutInflated.body();
+			body._if(parent.ne(contentView))._then()._return();
+			body.invoke(parent, "addView").arg(view);
+			holder.notifyAsyncLayoutAttached(body);
 		} else {
 			inflationBlock.assign(contentView, inflater.invoke("inflate").arg(contentViewId).arg(container).arg(FALSE));
 		}
@@ -27,8 +27,11 @@ import org.androidannotations.helper.IdValidatorHelper;
 import org.androidannotations.holder.EViewGroupHolder;
 import org.androidannotations.rclass.IRClass;
 
+import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JExpr;
 import com.helger.jcodemodel.JFieldRef;
+import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JVar;
 
 public class EViewGroupHandler extends CoreBaseGeneratingAnnotationHandler<EViewGroupHolder> {
 
@@ -50,6 +53,8 @@ public class EViewGroupHandler extends CoreBaseGeneratingAnnotationHandler<EView
 		validatorHelper.resIdsExist(element, IRClass.Res.LAYOUT, IdValidatorHelper.FallbackStrategy.ALLOW_NO_RES_ID, validation);
 
 		coreValidatorHelper.checkDataBoundAnnotation(element, validation);
+
+		coreValidatorHelper.asyncLayoutIsNotDataBound(element, element.getAnnotation(EViewGroup.class).asyncLayout(), validation);
 	}
 
 	@Override
@@ -61,6 +66,15 @@ public class EViewGroupHandler extends CoreBaseGeneratingAnnotationHandler<EView
 
 		if (element.getAnnotation(DataBound.class) != null) {
 			holder.getSetContentViewBlock().assign(holder.getDataBindingField(), holder.getDataBindingInflationExpression(contentViewId, JExpr._this(), true));
+		} else if (element.getAnnotation(EViewGroup.class).asyncLayout()) {
+			JBlock block = holder.getSetContentViewBlock();
+			block.assign(holder.getAsyncLayoutPendingField(), JExpr.TRUE);
+			holder.inflateLayoutAsync(block, getClasses().LAYOUT_INFLATER.staticInvoke("from").arg(holder.getContextRef()), contentViewId, JExpr._this());
+
+			JMethod onLayoutInflated = holder.getOnLayoutInflated();
+			JVar view = onLayoutInflated.params().get(0);
+			onLayoutInflated.body().invoke("addView").arg(view);
+			holder.notifyAsyncLayoutAttached(onLayoutInflated.body());
 		} else {
 			holder.getSetContentViewBlock().invoke("inflate").arg(holder.getContextRef()).arg(contentViewId).arg(JExpr._this());
 		}
@@ -16,7 +16,6 @@
 package org.androidannotations.internal.core.handler;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
-import org.androidannotations.holder.EComponentHolder;
 import org.androidannotations.internal.core.model.AndroidRes;
 
 import com.helger.jcodemodel.IJAssignmentTarget;
@@ -31,7 +30,7 @@ public class HtmlResHandler extends AbstractResHandler {
 	}
 
 	@Override
-	protected IJExpression getInstanceInvocation(EComponentHolder holder, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
-		return getClasses().HTML.staticInvoke("fromHtml").arg(holder.getResourcesRef().invoke(AndroidRes.HTML.getResourceMethodName()).arg(idRef));
+	protected IJExpression getInstanceInvocation(ResourceRefs refs, JFieldRef idRef, IJAssignmentTarget fieldRef, JBlock targetBlock) {
+		return getClasses().HTML.staticInvoke("fromHtml").arg(refs.getResourcesRef().invoke(AndroidRes.HTML.getResourceMethodName()).arg(idRef));
 	}
 }
@@ -119,6 +119,12 @@ public class ItemSelectHandler extends AbstractViewListenerHandler {
 		return listenerAnonymousClass.method(JMod.PUBLIC, getCodeModel().VOID, "onItemSelected");
 	}
 
+	@Override
+	protected boolean isDispatchSupported() {
+		// OnItemSelectedListener has two methods
+		return false;
+	}
+
 	@Override
 	protected String getSetterName() {
 		return "setOnItemSelectedListener";
@@ -16,6 +16,7 @@
  */
 package org.androidannotations.internal.core.handler;
 
+import static com.helger.jcodemodel.JExpr._new;
 import static com.helger.jcodemodel.JExpr.invoke;
 import static com.helger.jcodemodel.JExpr.lit;
 import static com.helger.jcodemodel.JMod.PRIVATE;
@@ -32,8 +33,11 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.util.ElementFilter;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
@@ -154,6 +158,26 @@ public class SharedPrefHandler extends CoreBaseGeneratingAnnotationHandler<Share
 		if (hasCustomName && !allowedScopes.contains(scope)) {
 			validation.addError("SharedPref#name() is only supported for Scope.ACTIVITY and Scope.UNIQUE.");
 		}
+
+		validateStorage(element, validation);
+	}
+
+	private void validateStorage(Element element, ElementValidation validation) {
+		DeclaredType storageType = annotationHelper.extractAnnotationClassParameter(element, SharedPref.class, "storage");
+		if (storageType == null) {
+			return;
+		}
+		TypeElement storageElement = (TypeElement) storageType.asElement();
+		if (annotationHelper.isAbstract(storageElement) || storageElement.getKind() == ElementKind.INTERFACE) {
+			validation.addError("SharedPref#storage() must be a concrete class.");
+			return;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(storageElement.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return;
+			}
+		}
+		validation.addError("SharedPref#storage() must have a public no argument constructor.");
 	}
 
 	@Override
@@ -174,39 +198,42 @@ public class SharedPrefHandler extends CoreBaseGeneratingAnnotationHandler<Share
 		JBlock constructorSuperBlock = holder.getConstructorSuperBlock();
 		JVar contextParam = holder.getConstructorContextParam();
 
+		IJExpression nameExpression;
+		IJExpression modeExpression = lit(mode);
 		switch (scope) {
-		case ACTIVITY_DEFAULT: {
-			JMethod getLocalClassName = getLocalClassName(holder);
-			constructorSuperBlock.invoke("super") //
-					.arg(contextParam.invoke("getSharedPreferences") //
-							.arg(invoke(getLocalClassName).arg(contextParam)) //
-							.arg(lit(mode)));
+		case ACTIVITY_DEFAULT:
+			nameExpression = invoke(getLocalClassName(holder)).arg(contextParam);
 			break;
-		}
-		case ACTIVITY: {
-			JMethod getLocalClassName = getLocalClassName(holder);
-			constructorSuperBlock.invoke("super") //
-					.arg(contextParam.invoke("getSharedPreferences") //
-							.arg(invoke(getLocalClassName).arg(contextParam) //
-									.plus(lit("_" + name))) //
-							.arg(lit(mode)));
+		case ACTIVITY:
+			nameExpression = invoke(getLocalClassName(holder)).arg(contextParam).plus(lit("_" + name));
 			break;
-		}
-		case UNIQUE: {
-			constructorSuperBlock.invoke("super") //
-					.arg(contextParam.invoke("getSharedPreferences") //
-							.arg(lit(name)) //
-							.arg(lit(mode)));
+		case UNIQUE:
+			nameExpression = lit(name);
 			break;
-		}
-		case APPLICATION_DEFAULT: {
-			AbstractJClass preferenceManagerClass = getJClass("android.preference.PreferenceManager");
-			constructorSuperBlock.invoke("super") //
-					.arg(preferenceManagerClass.staticInvoke("getDefaultSharedPreferences") //
-							.arg(contextParam));
+		default:
+			// the name and mode used by PreferenceManager.getDefaultSharedPreferences()
+			nameExpression = contextParam.invoke("getPackageName").plus(lit("_preferences"));
+			modeExpression = lit(0);
 			break;
 		}
+
+		IJExpression sharedPreferences;
+		DeclaredType storageType = annotationHelper.extractAnnotationClassParameter(element, SharedPref.class, "storage");
+		if (storageType != null) {
+			sharedPreferences = _new(codeModelHelper.typeMirrorToJClass(storageType)).invoke("getSharedPreferences") //
+					.arg(contextParam) //
+					.arg(nameExpression) //
+					.arg(modeExpression);
+		} else if (scope == SharedPref.Scope.APPLICATION_DEFAULT) {
+			AbstractJClass preferenceManagerClass = getJClass("android.preference.PreferenceManager");
+			sharedPreferences = preferenceManagerClass.staticInvoke("getDefaultSharedPreferences") //
+					.arg(contextParam);
+		} else {
+			sharedPreferences = contextParam.invoke("getSharedPreferences") //
+					.arg(nameExpression) //
+					.arg(modeExpression);
 		}
+		constructorSuperBlock.invoke("super").arg(sharedPreferences);
 	}
 
 	private JMethod getLocalClassName(SharedPrefHolder holder) {
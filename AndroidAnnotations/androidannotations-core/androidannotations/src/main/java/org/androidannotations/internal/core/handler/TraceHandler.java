@@ -35,6 +35,7 @@ import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.ElementValidation;
 import org.androidannotations.Option;
 import org.androidannotations.annotations.Trace;
+import org.androidannotations.api.trace.TraceRecorder;
 import org.androidannotations.handler.BaseAnnotationHandler;
 import org.androidannotations.holder.EComponentHolder;
 
@@ -53,6 +54,7 @@ import com.helger.jcodemodel.JVar;
 public class TraceHandler extends BaseAnnotationHandler<EComponentHolder> {
 
 	public static final Option OPTION_TRACE = new Option("trace", "false");
+	public static final Option OPTION_TRACE_RECORDER = new Option("traceRecorder", "false");
 
 	public TraceHandler(AndroidAnnotationsEnvironment environment) {
 		super(Trace.class, environment);
@@ -85,6 +87,17 @@ public class TraceHandler extends BaseAnnotationHandler<EComponentHolder> {
 
 		JBlock methodBody = method.body();
 
+		if (getEnvironment().getOptionBooleanValue(OPTION_TRACE_RECORDER)) {
+			JVar startDeclaration = methodBody.decl(getCodeModel().LONG, "traceStart" + generationSuffix(), getClasses().SYSTEM.staticInvoke("nanoTime"));
+			JTryBlock tryBlock = methodBody._try();
+			tryBlock.body().add(previousMethodBody);
+			tryBlock._finally().add(getJClass(TraceRecorder.class).staticInvoke("record") //
+					.arg(tag) //
+					.arg(getMethodSignature(executableElement, method)) //
+					.arg(startDeclaration));
+			return;
+		}
+
 		JInvocation isLoggableInvocation = getClasses().LOG.staticInvoke("isLoggable");
 		isLoggableInvocation.arg(tag).arg(logLevelFromInt(level, getClasses().LOG));
 
@@ -136,19 +149,7 @@ public class TraceHandler extends BaseAnnotationHandler<EComponentHolder> {
 	}
 
 	private IJExpression getExitMessage(ExecutableElement element, JMethod method, JVar result, JVar duration) throws ClassNotFoundException {
-		String methodName = getMethodName(element);
-
-		List<JVar> params = method.params();
-		StringBuilder paramStr = new StringBuilder();
-		for (int i = 0; i < params.size(); i++) {
-			if (i > 0) {
-				paramStr.append(", ");
-			}
-			JVar var = params.get(i);
-			paramStr.append(var.type().name());
-		}
-
-		methodName += "(" + paramStr.toString() + ")";
+		String methodName = getMethodSignature(element, method);
 
 		JInvocation format = getJClass(String.class).staticInvoke("format");
 		if (result == null) {
@@ -200,6 +201,20 @@ public class TraceHandler extends BaseAnnotationHandler<EComponentHolder> {
 		return format;
 	}
 
+	private String getMethodSignature(ExecutableElement element, JMethod method) {
+		List<JVar> params = method.params();
+		StringBuilder paramStr = new StringBuilder();
+		for (int i = 0; i < params.size(); i++) {
+			if (i > 0) {
+				paramStr.append(", ");
+			}
+			JVar var = params.get(i);
+			paramStr.append(var.type().name());
+		}
+
+		return getMethodName(element) + "(" + paramStr.toString() + ")";
+	}
+
 	private String getMethodName(ExecutableElement element) {
 		String returnType = element.getReturnType().toString();
 		String simpleName = element.getSimpleName().toString();
@@ -16,15 +16,25 @@
 package org.androidannotations.internal.core.handler;
 
 import static com.helger.jcodemodel.JExpr._new;
+import static com.helger.jcodemodel.JExpr._null;
+import static com.helger.jcodemodel.JExpr._this;
 import static com.helger.jcodemodel.JExpr.lit;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.ElementValidation;
+import org.androidannotations.Option;
 import org.androidannotations.annotations.UiThread;
+import org.androidannotations.api.RunnablePool;
 import org.androidannotations.api.UiThreadExecutor;
+import org.androidannotations.helper.CaseHelper;
 import org.androidannotations.holder.EComponentHolder;
 
 import com.helger.jcodemodel.AbstractJClass;
@@ -33,15 +43,23 @@ import com.helger.jcodemodel.JBlock;
 import com.helger.jcodemodel.JClassAlreadyExistsException;
 import com.helger.jcodemodel.JConditional;
 import com.helger.jcodemodel.JDefinedClass;
+import com.helger.jcodemodel.JFieldVar;
+import com.helger.jcodemodel.JInvocation;
 import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JMod;
 import com.helger.jcodemodel.JOp;
+import com.helger.jcodemodel.JTryBlock;
+import com.helger.jcodemodel.JVar;
 
 public class UiThreadHandler extends AbstractRunnableHandler {
 
+	public static final Option OPTION_POOLED_UI_THREAD_CALLS = new Option("pooledUiThreadCalls", "false");
+
 	private static final String METHOD_CUR_THREAD = "currentThread";
 	private static final String METHOD_MAIN_LOOPER = "getMainLooper";
 	private static final String METHOD_GET_THREAD = "getThread";
 	private static final String METHOD_RUN_TASK = "runTask";
+	private static final String METHOD_RUN_LATEST_TASK = "runLatestTask";
 
 	public UiThreadHandler(AndroidAnnotationsEnvironment environment) {
 		super(UiThread.class, environment);
@@ -59,6 +77,10 @@ public class UiThreadHandler extends AbstractRunnableHandler {
 		if (delay != 0 && propagation == UiThread.Propagation.REUSE) {
 			valid.addWarning("propagation=REUSE is ignored when using a delay");
 		}
+
+		if (annotation.coalesce() != UiThread.Coalesce.NONE && "".equals(annotation.id())) {
+			valid.addError("An id must be set to coalesce the calls");
+		}
 	}
 
 	@Override
@@ -66,7 +88,6 @@ public class UiThreadHandler extends AbstractRunnableHandler {
 		ExecutableElement executableElement = (ExecutableElement) element;
 		JMethod delegatingMethod = codeModelHelper.overrideAnnotatedMethod(executableElement, holder);
 		JBlock previousBody = codeModelHelper.removeBody(delegatingMethod);
-		JDefinedClass anonymousRunnableClass = codeModelHelper.createDelegatingAnonymousRunnableClass(previousBody);
 
 		UiThread annotation = element.getAnnotation(UiThread.class);
 		long delay = annotation.delay();
@@ -76,12 +97,108 @@ public class UiThreadHandler extends AbstractRunnableHandler {
 			// Put in the check for the UI thread.
 			addUIThreadCheck(delegatingMethod, previousBody, holder);
 		}
-		delegatingMethod.body().add(getJClass(UiThreadExecutor.class).staticInvoke(METHOD_RUN_TASK) //
-				.arg(annotation.id()) //
-				.arg(_new(anonymousRunnableClass)) //
+
+		IJExpression task;
+		if (getEnvironment().getOptionBooleanValue(OPTION_POOLED_UI_THREAD_CALLS) && executableElement.getTypeParameters().isEmpty()) {
+			task = createReusableTask(executableElement, delegatingMethod, previousBody, holder);
+		} else {
+			task = _new(codeModelHelper.createDelegatingAnonymousRunnableClass(previousBody));
+		}
+
+		AbstractJClass uiThreadExecutorClass = getJClass(UiThreadExecutor.class);
+		JInvocation runTaskCall;
+		if (annotation.coalesce() == UiThread.Coalesce.LATEST) {
+			runTaskCall = uiThreadExecutorClass.staticInvoke(METHOD_RUN_LATEST_TASK).arg(annotation.id());
+		} else if ("".equals(annotation.id())) {
+			runTaskCall = uiThreadExecutorClass.staticInvoke(METHOD_RUN_TASK);
+		} else {
+			runTaskCall = uiThreadExecutorClass.staticInvoke(METHOD_RUN_TASK).arg(annotation.id());
+		}
+		delegatingMethod.body().add(runTaskCall //
+				.arg(task) //
 				.arg(lit(delay)));
 	}
 
+	/**
+	 * Creates the runnable posted by the method without allocating it on each
+	 * call: a single runnable field if the method has no parameter, otherwise an
+	 * inner class holding the arguments, whose instances are recycled through a
+	 * {@link RunnablePool} once they have run, or once {@link UiThreadExecutor}
+	 * has removed them because their call was cancelled or coalesced.
+	 */
+	private IJExpression createReusableTask(ExecutableElement executableElement, JMethod delegatingMethod, JBlock previousBody, EComponentHolder holder) throws JClassAlreadyExistsException {
+		JDefinedClass generatedClass = holder.getGeneratedClass();
+		String taskName = uniqueTaskName(generatedClass, delegatingMethod.name());
+
+		List<JVar> params = new ArrayList<>(delegatingMethod.params());
+		if (delegatingMethod.hasVarArgs()) {
+			params.add(delegatingMethod.varParam());
+		}
+
+		if (params.isEmpty()) {
+			JDefinedClass anonymousRunnableClass = codeModelHelper.createDelegatingAnonymousRunnableClass(previousBody);
+			return generatedClass.field(JMod.PRIVATE | JMod.FINAL, getJClass(Runnable.class), taskName, _new(anonymousRunnableClass));
+		}
+
+		JDefinedClass taskClass = generatedClass._class(JMod.FINAL, CaseHelper.upperCaseFirst(taskName));
+		taskClass._implements(getJClass(RunnablePool.Recyclable.class));
+		AbstractJClass poolClass = getJClass(RunnablePool.class).narrow(taskClass);
+		JFieldVar pool = generatedClass.field(JMod.PRIVATE | JMod.FINAL, poolClass, taskName + "Pool", _new(poolClass));
+
+		// the arguments are read from fields having the same names as the
+		// parameters, so that the previous body is left untouched
+		JMethod runMethod = taskClass.method(JMod.PUBLIC, getCodeModel().VOID, "run");
+		runMethod.annotate(Override.class);
+		JTryBlock tryBlock = runMethod.body()._try();
+		tryBlock.body().add(previousBody);
+
+		JMethod recycleMethod = taskClass.method(JMod.PUBLIC, getCodeModel().VOID, "recycle");
+		recycleMethod.annotate(Override.class);
+		tryBlock._finally().invoke(recycleMethod);
+		JBlock recycleBody = recycleMethod.body();
+
+		Set<String> paramNames = new HashSet<>();
+		List<JFieldVar> argumentFields = new ArrayList<>();
+		for (int i = 0; i < params.size(); i++) {
+			JVar param = params.get(i);
+			paramNames.add(param.name());
+			JFieldVar argumentField = taskClass.field(JMod.NONE, param.type(), param.name());
+			argumentFields.add(argumentField);
+			if (!executableElement.getParameters().get(i).asType().getKind().isPrimitive()) {
+				recycleBody.assign(argumentField, _null());
+			}
+		}
+		recycleBody.add(pool.invoke("recycle").arg(_this()));
+
+		String taskVariableName = "task";
+		while (paramNames.contains(taskVariableName)) {
+			taskVariableName = "_" + taskVariableName;
+		}
+		JBlock body = delegatingMethod.body();
+		JVar taskVariable = body.decl(taskClass, taskVariableName, pool.invoke("obtain"));
+		body._if(taskVariable.eq(_null()))._then().assign(taskVariable, _new(taskClass));
+		for (int i = 0; i < params.size(); i++) {
+			body.assign(taskVariable.ref(argumentFields.get(i)), params.get(i));
+		}
+		return taskVariable;
+	}
+
+	/**
+	 * Returns the name of the runnable field, or of the runnable class once
+	 * capitalized, numbered after the method name when it is overloaded.
+	 */
+	private String uniqueTaskName(JDefinedClass generatedClass, String methodName) {
+		Set<String> classNames = new HashSet<>();
+		for (JDefinedClass innerClass : generatedClass.classes()) {
+			classNames.add(innerClass.name());
+		}
+		String prefix = methodName;
+		for (int i = 1; generatedClass.fields().containsKey(prefix + "UiThreadCall") || classNames.contains(CaseHelper.upperCaseFirst(prefix) + "UiThreadCall"); i++) {
+			prefix = methodName + i;
+		}
+		return prefix + "UiThreadCall";
+	}
+
 	/**
 	 * Add the pre-check to see if we are already in the UI thread.
 	 *
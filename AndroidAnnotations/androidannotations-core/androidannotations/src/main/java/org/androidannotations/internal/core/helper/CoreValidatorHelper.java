@@ -491,6 +491,12 @@ public class CoreValidatorHelper extends IdValidatorHelper {
 		}
 	}
 
+	public void asyncLayoutIsNotDataBound(Element element, boolean asyncLayout, ElementValidation validation) {
+		if (asyncLayout && element.getAnnotation(DataBound.class) != null) {
+			validation.addError("%s cannot inflate its layout asynchronously when it is annotated with @DataBound");
+		}
+	}
+
 	public void hasDataBindingOnClasspath(ElementValidation validation) {
 		if (!isClassPresent(CanonicalNameConstants.DATA_BINDING_UTIL) && !isClassPresent(CanonicalNameConstants.ANDROIDX_DATA_BINDING_UTIL)) {
 			validation.addError("Data binding is not found on classpath, be sure to enable data binding for the project.");
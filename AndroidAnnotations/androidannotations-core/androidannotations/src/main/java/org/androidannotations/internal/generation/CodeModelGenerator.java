@@ -21,8 +21,10 @@ import java.nio.charset.UnsupportedCharsetException;
 
 import javax.annotation.processing.Filer;
 
+import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.Option;
 import org.androidannotations.internal.process.ModelProcessor;
+import org.androidannotations.internal.process.ProcessingProfiler;
 import org.androidannotations.logger.Logger;
 import org.androidannotations.logger.LoggerFactory;
 
@@ -31,27 +33,65 @@ import com.helger.jcodemodel.writer.PrologCodeWriter;
 public class CodeModelGenerator {
 
 	public static final Option OPTION_ENCODING = new Option("encoding", "UTF-8");
+	public static final Option OPTION_PARALLEL_SOURCE_GENERATION = new Option("parallelSourceGeneration", "false");
+	public static final Option OPTION_SOURCE_GENERATION_THREADS = new Option("sourceGenerationThreads", null);
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CodeModelGenerator.class);
 
 	private final Filer filer;
 	private final String header;
 	private final String encoding;
-
-	public CodeModelGenerator(Filer filer, String aaVersion, String encoding) {
+	private final ProcessingProfiler profiler;
+	private final int generationThreads;
+
+	/**
+	 * @param generationThreads
+	 *            the number of threads formatting the generated classes, or
+	 *            <code>1</code> to generate them sequentially
+	 */
+	public CodeModelGenerator(Filer filer, String aaVersion, String encoding, ProcessingProfiler profiler, int generationThreads) {
 		this.filer = filer;
 		this.header = "DO NOT EDIT THIS FILE.\n" + "Generated using AndroidAnnotations " + aaVersion + ".\n\n"
 				+ "You can create a larger work that contains this file and distribute that work under terms of your choice.\n";
 		this.encoding = encoding;
+		this.profiler = profiler;
+		this.generationThreads = generationThreads;
+	}
+
+	/**
+	 * @return the number of threads set by the
+	 *         <code>sourceGenerationThreads</code> option, or the number of
+	 *         processors if it is not set, when the
+	 *         <code>parallelSourceGeneration</code> option is enabled; otherwise
+	 *         <code>1</code>
+	 */
+	public static int resolveGenerationThreads(AndroidAnnotationsEnvironment environment) {
+		if (!environment.getOptionBooleanValue(OPTION_PARALLEL_SOURCE_GENERATION)) {
+			return 1;
+		}
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		String threadCountValue = environment.getOptionValue(OPTION_SOURCE_GENERATION_THREADS);
+		if (threadCountValue != null) {
+			try {
+				threadCount = Integer.parseInt(threadCountValue);
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid value for {}: {}, using {} threads", OPTION_SOURCE_GENERATION_THREADS.getName(), threadCountValue, threadCount);
+			}
+		}
+		return Math.max(1, threadCount);
 	}
 
 	public void generate(ModelProcessor.ProcessResult processResult) throws IOException {
 		Charset charset = getCharset();
 
-		SourceCodeWriter sourceCodeWriter = new SourceCodeWriter(filer, processResult.originatingElements, charset);
+		SourceCodeWriter sourceCodeWriter = new SourceCodeWriter(filer, processResult.originatingElements, charset, profiler);
 
 		PrologCodeWriter prologCodeWriter = new PrologCodeWriter(sourceCodeWriter, header);
 
+		if (generationThreads > 1) {
+			new ParallelSourceGenerator(generationThreads, header).generate(processResult.codeModel, sourceCodeWriter);
+		}
+
 		processResult.codeModel.build(prologCodeWriter, new ResourceCodeWriter(filer, charset));
 	}
 
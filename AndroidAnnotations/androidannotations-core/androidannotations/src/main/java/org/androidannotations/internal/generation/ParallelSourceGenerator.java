@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.generation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.androidannotations.logger.Logger;
+import org.androidannotations.logger.LoggerFactory;
+
+import com.helger.jcodemodel.AbstractCodeWriter;
+import com.helger.jcodemodel.AbstractJClass;
+import com.helger.jcodemodel.JCodeModel;
+import com.helger.jcodemodel.JDefinedClass;
+import com.helger.jcodemodel.JFormatter;
+import com.helger.jcodemodel.JPackage;
+import com.helger.jcodemodel.writer.PrologCodeWriter;
+
+/**
+ * Formats the classes of a code model on a pool of threads, each one in its own
+ * memory buffer, then writes the buffers through the source writer on the
+ * calling thread, in the order used by {@link JCodeModel#build}. A buffer is
+ * written as soon as it and all the previous ones are ready.
+ * <p>
+ * The buffers are filled by the same code as {@link JCodeModel#build}, so the
+ * generated files are identical to the sequential ones. The written classes are
+ * then hidden, so that building the code model only writes the remaining
+ * package-info and resource files.
+ * <p>
+ * Formatting a class only reads the code model, except for a few lazily
+ * initialized values: the ones of the defined classes, and the outer classes
+ * and packages of the referenced classes, which the code model adds to its maps
+ * on first access. They are all initialized on the calling thread before
+ * formatting, so the workers only read these maps.
+ */
+class ParallelSourceGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSourceGenerator.class);
+
+	private static final Field CODE_MODEL_REFERENCED_CLASSES = findCodeModelReferencedClassesField();
+	private static final Method FORMATTER_WRITE = findFormatterWriteMethod();
+
+	private final int threadCount;
+	private final String header;
+
+	ParallelSourceGenerator(int threadCount, String header) {
+		this.threadCount = threadCount;
+		this.header = header;
+	}
+
+	/**
+	 * Writes the classes of the code model, and hides them. Nothing is written if
+	 * the code model cannot be formatted concurrently.
+	 */
+	void generate(final JCodeModel codeModel, AbstractCodeWriter sourceWriter) throws IOException {
+		if (FORMATTER_WRITE == null || CODE_MODEL_REFERENCED_CLASSES == null || !initializeReferencedClasses(codeModel)) {
+			LOGGER.warn("This version of the code model cannot be generated in parallel, falling back to sequential generation");
+			return;
+		}
+
+		List<JPackage> packages = new ArrayList<>();
+		List<JDefinedClass> definedClasses = new ArrayList<>();
+		for (JPackage jPackage : listPackages(codeModel)) {
+			for (JDefinedClass definedClass : jPackage.classes()) {
+				if (!definedClass.isHidden()) {
+					initializeLazyValues(definedClass);
+					packages.add(jPackage);
+					definedClasses.add(definedClass);
+				}
+			}
+		}
+
+		final Charset charset = sourceWriter.encoding();
+		final String newLine = sourceWriter.getNewLine();
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(1, definedClasses.size())), new GenerationThreadFactory());
+		try {
+			List<Future<byte[]>> futures = new ArrayList<>(definedClasses.size());
+			for (int i = 0; i < definedClasses.size(); i++) {
+				final JPackage jPackage = packages.get(i);
+				final JDefinedClass definedClass = definedClasses.get(i);
+				futures.add(executorService.submit(new Callable<byte[]>() {
+					@Override
+					public byte[] call() throws IOException {
+						return format(codeModel, new BufferCodeWriter(charset, newLine), jPackage, definedClass);
+					}
+				}));
+			}
+
+			for (int i = 0; i < definedClasses.size(); i++) {
+				byte[] source = getSource(futures.get(i), definedClasses.get(i));
+				JDefinedClass definedClass = definedClasses.get(i);
+				try (OutputStream outputStream = sourceWriter.openBinary(packages.get(i), definedClass.name() + ".java")) {
+					outputStream.write(source);
+				}
+				definedClass.hide();
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Same as the formatting of a class by {@link JPackage}.
+	 */
+	private byte[] format(JCodeModel codeModel, BufferCodeWriter bufferWriter, JPackage jPackage, JDefinedClass definedClass) throws IOException {
+		try (JFormatter formatter = new JFormatter(new PrologCodeWriter(bufferWriter, header).openSource(jPackage, definedClass.name() + ".java"))) {
+			formatter.addDontImportClasses(codeModel.getAllDontImportClasses());
+			FORMATTER_WRITE.invoke(formatter, definedClass);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+		return bufferWriter.buffer.toByteArray();
+	}
+
+	private byte[] getSource(Future<byte[]> future, JDefinedClass definedClass) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating " + definedClass.fullName(), e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private List<JPackage> listPackages(JCodeModel codeModel) {
+		List<JPackage> packages = new ArrayList<>();
+		for (Iterator<JPackage> iterator = codeModel.packages(); iterator.hasNext();) {
+			packages.add(iterator.next());
+		}
+		return packages;
+	}
+
+	/**
+	 * Initializes the values computed on first access, which the formatting of
+	 * the class or of the classes referencing it would set.
+	 */
+	private void initializeLazyValues(JDefinedClass definedClass) {
+		definedClass._extends();
+		for (JDefinedClass innerClass : definedClass.classes()) {
+			initializeLazyValues(innerClass);
+		}
+	}
+
+	/**
+	 * Adds to the code model the outer classes and packages of the referenced
+	 * classes, which the formatting looks up. The referenced classes are listed
+	 * from a copy of the map of the code model, which is only read.
+	 */
+	@SuppressWarnings("unchecked")
+	boolean initializeReferencedClasses(JCodeModel codeModel) {
+		List<AbstractJClass> referencedClasses;
+		try {
+			referencedClasses = new ArrayList<>(((Map<?, ? extends AbstractJClass>) CODE_MODEL_REFERENCED_CLASSES.get(codeModel)).values());
+		} catch (IllegalAccessException | RuntimeException e) {
+			LOGGER.debug("Can't list the referenced classes of the code model: {}", e.toString());
+			return false;
+		}
+
+		// the formatter looks up java.lang for the implicitly imported classes
+		codeModel._package("java.lang");
+		for (AbstractJClass referencedClass : referencedClasses) {
+			for (AbstractJClass outerClass = referencedClass; outerClass != null; outerClass = outerClass.outer()) {
+				outerClass._package();
+			}
+		}
+		return true;
+	}
+
+	private static Field findCodeModelReferencedClassesField() {
+		try {
+			Field field = JCodeModel.class.getDeclaredField("m_aRefClasses");
+			field.setAccessible(true);
+			return Map.class.isAssignableFrom(field.getType()) ? field : null;
+		} catch (NoSuchFieldException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Method findFormatterWriteMethod() {
+		try {
+			Method method = JFormatter.class.getDeclaredMethod("write", JDefinedClass.class);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a formatted class in memory, with the encoding and new line of the
+	 * source writer.
+	 */
+	private static class BufferCodeWriter extends AbstractCodeWriter {
+
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		BufferCodeWriter(Charset charset, String newLine) {
+			super(charset, newLine);
+		}
+
+		@Override
+		public OutputStream openBinary(JPackage pkg, String fileName) {
+			return buffer;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static class GenerationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "androidannotations-generation-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -16,6 +16,7 @@
  */
 package org.androidannotations.internal.generation;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
@@ -26,6 +27,7 @@ import javax.lang.model.element.Element;
 import javax.tools.JavaFileObject;
 
 import org.androidannotations.internal.process.OriginatingElements;
+import org.androidannotations.internal.process.ProcessingProfiler;
 import org.androidannotations.logger.Logger;
 import org.androidannotations.logger.LoggerFactory;
 
@@ -38,6 +40,7 @@ public class SourceCodeWriter extends AbstractCodeWriter {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SourceCodeWriter.class);
 	private final Filer filer;
 	private OriginatingElements originatingElements;
+	private final ProcessingProfiler profiler;
 
 	private static class VoidOutputStream extends OutputStream {
 		@Override
@@ -46,10 +49,11 @@ public class SourceCodeWriter extends AbstractCodeWriter {
 		}
 	}
 
-	public SourceCodeWriter(Filer filer, OriginatingElements originatingElements, Charset charset) {
+	public SourceCodeWriter(Filer filer, OriginatingElements originatingElements, Charset charset, ProcessingProfiler profiler) {
 		super(charset, getDefaultNewLine());
 		this.filer = filer;
 		this.originatingElements = originatingElements;
+		this.profiler = profiler;
 	}
 
 	@Override
@@ -66,9 +70,14 @@ public class SourceCodeWriter extends AbstractCodeWriter {
 				LOGGER.info("Generating class with no originating element: {}", qualifiedClassName);
 			}
 
+			long start = profiler.start();
 			sourceFile = filer.createSourceFile(qualifiedClassName, classOriginatingElements);
 
-			return sourceFile.openOutputStream();
+			OutputStream outputStream = sourceFile.openOutputStream();
+			if (profiler.isEnabled()) {
+				outputStream = new ProfiledOutputStream(outputStream, qualifiedClassName, classOriginatingElements, start);
+			}
+			return outputStream;
 		} catch (FilerException e) {
 			LOGGER.error("Could not generate source file for {} due to error: {}", qualifiedClassName, e.getMessage());
 			/*
@@ -94,4 +103,33 @@ public class SourceCodeWriter extends AbstractCodeWriter {
 	@Override
 	public void close() throws IOException {
 	}
+
+	/**
+	 * Records the time spent writing a generated class, from the creation of its
+	 * file until the code model closes it.
+	 */
+	private class ProfiledOutputStream extends FilterOutputStream {
+
+		private final String qualifiedClassName;
+		private final Element[] originatingElements;
+		private final long start;
+
+		ProfiledOutputStream(OutputStream outputStream, String qualifiedClassName, Element[] originatingElements, long start) {
+			super(outputStream);
+			this.qualifiedClassName = qualifiedClassName;
+			this.originatingElements = originatingElements;
+			this.start = start;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			out.write(bytes, offset, length);
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			profiler.stopEmit(SourceCodeWriter.this, qualifiedClassName, originatingElements, start);
+		}
+	}
 }
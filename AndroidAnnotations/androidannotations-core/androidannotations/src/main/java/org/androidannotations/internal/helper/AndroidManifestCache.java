@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.androidannotations.logger.Logger;
+import org.androidannotations.logger.LoggerFactory;
+
+/**
+ * Keeps the raw content of the last parsed AndroidManifest.xml file in the
+ * build output directory, so that subsequent compilations can skip the XML
+ * parsing when the file did not change.
+ * <p>
+ * Only the attributes read from the file are stored. Resolving the declared
+ * class names needs the current compile path, so it is still done on every
+ * compilation. The cached data is used only if the path, the modification
+ * time and the size of the manifest file are the same as when it was stored.
+ * Any I/O error simply disables the cache.
+ */
+final class AndroidManifestCache {
+
+	static final String CACHE_FILE_NAME = "androidannotations-manifest.cache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AndroidManifestCache.class);
+
+	private static final int MAGIC = 0x41414d46;
+	private static final int FORMAT_VERSION = 2;
+
+	private final File cacheFile;
+
+	private String manifestPath;
+	private long manifestLastModified;
+	private long manifestLength;
+	private ManifestData manifestData;
+
+	private boolean dirty;
+
+	private AndroidManifestCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+	static AndroidManifestCache disabled() {
+		return new AndroidManifestCache(null);
+	}
+
+	static AndroidManifestCache load(File outputDirectory) {
+		AndroidManifestCache cache = new AndroidManifestCache(new File(outputDirectory, CACHE_FILE_NAME));
+		cache.read();
+		return cache;
+	}
+
+	/**
+	 * Returns the data stored for the given manifest file, or <code>null</code>
+	 * if the file changed since it was stored.
+	 */
+	ManifestData get(File manifestFile) {
+		if (manifestData != null && manifestFile.getAbsolutePath().equals(manifestPath) && manifestFile.lastModified() == manifestLastModified && manifestFile.length() == manifestLength) {
+			return manifestData;
+		}
+		return null;
+	}
+
+	void put(File manifestFile, ManifestData data) {
+		if (cacheFile == null) {
+			return;
+		}
+		manifestPath = manifestFile.getAbsolutePath();
+		manifestLastModified = manifestFile.lastModified();
+		manifestLength = manifestFile.length();
+		manifestData = data;
+		dirty = true;
+	}
+
+	void save() {
+		if (cacheFile == null || !dirty) {
+			return;
+		}
+		File tempFile = new File(cacheFile.getPath() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			writeNullableString(output, manifestPath);
+			output.writeLong(manifestLastModified);
+			output.writeLong(manifestLength);
+			output.writeBoolean(manifestData != null);
+			if (manifestData != null) {
+				manifestData.write(output);
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Could not write the AndroidManifest.xml cache file {}: {}", cacheFile, e.getMessage());
+			tempFile.delete();
+			return;
+		}
+		if (!tempFile.renameTo(cacheFile) && !(cacheFile.delete() && tempFile.renameTo(cacheFile))) {
+			LOGGER.debug("Could not replace the AndroidManifest.xml cache file {}", cacheFile);
+			tempFile.delete();
+		}
+		dirty = false;
+	}
+
+	private void read() {
+		if (!cacheFile.isFile()) {
+			return;
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+				return;
+			}
+			manifestPath = readNullableString(input);
+			manifestLastModified = input.readLong();
+			manifestLength = input.readLong();
+			manifestData = input.readBoolean() ? ManifestData.read(input) : null;
+		} catch (IOException e) {
+			LOGGER.debug("Ignoring unreadable AndroidManifest.xml cache file {}: {}", cacheFile, e.getMessage());
+			manifestPath = null;
+			manifestData = null;
+		}
+	}
+
+	/**
+	 * The attributes of an AndroidManifest.xml file, as they are written in the
+	 * file.
+	 */
+	static final class ManifestData {
+
+		String applicationPackage;
+		int minSdkVersion = -1;
+		int maxSdkVersion = -1;
+		int targetSdkVersion = -1;
+
+		boolean hasApplication;
+		String applicationName;
+		boolean applicationDebuggable;
+
+		final List<String> activityNames = new ArrayList<>();
+		final List<String> serviceNames = new ArrayList<>();
+		final List<String> receiverNames = new ArrayList<>();
+		final List<String> providerNames = new ArrayList<>();
+
+		/**
+		 * Triples of name, value and resource attributes, any of them may be
+		 * <code>null</code>.
+		 */
+		final List<String[]> metaData = new ArrayList<>();
+
+		/**
+		 * <code>null</code> if a <code>uses-permission</code> node has no name.
+		 */
+		List<String> usesPermissionNames = new ArrayList<>();
+
+		private void write(DataOutputStream output) throws IOException {
+			writeNullableString(output, applicationPackage);
+			output.writeInt(minSdkVersion);
+			output.writeInt(maxSdkVersion);
+			output.writeInt(targetSdkVersion);
+			output.writeBoolean(hasApplication);
+			writeNullableString(output, applicationName);
+			output.writeBoolean(applicationDebuggable);
+			writeStrings(output, activityNames);
+			writeStrings(output, serviceNames);
+			writeStrings(output, receiverNames);
+			writeStrings(output, providerNames);
+			output.writeInt(metaData.size());
+			for (String[] attributes : metaData) {
+				for (String attribute : attributes) {
+					writeNullableString(output, attribute);
+				}
+			}
+			writeStrings(output, usesPermissionNames);
+		}
+
+		private static ManifestData read(DataInputStream input) throws IOException {
+			ManifestData data = new ManifestData();
+			data.applicationPackage = readNullableString(input);
+			data.minSdkVersion = input.readInt();
+			data.maxSdkVersion = input.readInt();
+			data.targetSdkVersion = input.readInt();
+			data.hasApplication = input.readBoolean();
+			data.applicationName = readNullableString(input);
+			data.applicationDebuggable = input.readBoolean();
+			readStrings(input, data.activityNames);
+			readStrings(input, data.serviceNames);
+			readStrings(input, data.receiverNames);
+			readStrings(input, data.providerNames);
+			int metaDataCount = input.readInt();
+			for (int i = 0; i < metaDataCount; i++) {
+				data.metaData.add(new String[] { readNullableString(input), readNullableString(input), readNullableString(input) });
+			}
+			if (!readStrings(input, data.usesPermissionNames)) {
+				data.usesPermissionNames = null;
+			}
+			return data;
+		}
+	}
+
+	private static void writeStrings(DataOutputStream output, List<String> strings) throws IOException {
+		if (strings == null) {
+			output.writeInt(-1);
+			return;
+		}
+		output.writeInt(strings.size());
+		for (String string : strings) {
+			writeNullableString(output, string);
+		}
+	}
+
+	private static boolean readStrings(DataInputStream input, List<String> strings) throws IOException {
+		int size = input.readInt();
+		for (int i = 0; i < size; i++) {
+			strings.add(readNullableString(input));
+		}
+		return size >= 0;
+	}
+
+	private static void writeNullableString(DataOutputStream output, String string) throws IOException {
+		output.writeBoolean(string != null);
+		if (string != null) {
+			output.writeUTF(string);
+		}
+	}
+
+	private static String readNullableString(DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+}
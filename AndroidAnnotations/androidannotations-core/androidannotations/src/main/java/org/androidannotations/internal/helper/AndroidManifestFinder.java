@@ -60,15 +60,69 @@ public class AndroidManifestFinder {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AndroidManifestFinder.class);
 
+	/**
+	 * The build output directories of Maven, Gradle and Eclipse, as resolved by
+	 * {@link FileHelper#resolveOutputDirectory(File)}.
+	 */
+	private static final List<String> OUTPUT_DIRECTORY_NAMES = Arrays.asList("target", "build", "bin");
+
 	private final AndroidAnnotationsEnvironment environment;
 
+	private FileHelper.FileHolder rootProjectHolder;
+	private AndroidManifestCache manifestCache = AndroidManifestCache.disabled();
+
 	public AndroidManifestFinder(AndroidAnnotationsEnvironment environment) {
 		this.environment = environment;
 	}
 
 	public AndroidManifest extractAndroidManifest() throws AndroidManifestNotFoundException {
+		try {
+			return extractAndroidManifestFromFile();
+		} finally {
+			manifestCache.save();
+		}
+	}
+
+	/*
+	 * The cache goes to the output directory of the project root found by the
+	 * manifest discovery. When the manifest is specified with the
+	 * androidManifestFile option, the discovery does not run and the output
+	 * directory is looked up from the manifest location instead.
+	 */
+	private void loadManifestCache(File androidManifestFile) {
+		File outputDirectory;
+		if (rootProjectHolder != null) {
+			outputDirectory = FileHelper.resolveOutputDirectory(rootProjectHolder.projectRoot);
+		} else {
+			outputDirectory = findOutputDirectoryAbove(androidManifestFile);
+		}
+
+		if (outputDirectory != null) {
+			manifestCache = AndroidManifestCache.load(outputDirectory);
+		} else {
+			LOGGER.debug("Could not find an output directory above {}, the AndroidManifest.xml file will not be cached", androidManifestFile);
+		}
+	}
+
+	private File findOutputDirectoryAbove(File androidManifestFile) {
+		for (File directory = androidManifestFile.getAbsoluteFile().getParentFile(); directory != null; directory = directory.getParentFile()) {
+			if (OUTPUT_DIRECTORY_NAMES.contains(directory.getName()) && directory.canWrite()) {
+				return directory;
+			}
+			for (String outputDirectoryName : OUTPUT_DIRECTORY_NAMES) {
+				File outputDirectory = new File(directory, outputDirectoryName);
+				if (outputDirectory.isDirectory() && outputDirectory.canWrite()) {
+					return outputDirectory;
+				}
+			}
+		}
+		return null;
+	}
+
+	private AndroidManifest extractAndroidManifestFromFile() throws AndroidManifestNotFoundException {
 		try {
 			File androidManifestFile = findManifestFile();
+			loadManifestCache(androidManifestFile);
 			String projectDirectory = androidManifestFile.getParent();
 
 			boolean libraryOption = environment.getOptionBooleanValue(OPTION_LIBRARY);
@@ -106,6 +160,19 @@ public class AndroidManifestFinder {
 		if (androidManifestFile != null) {
 			return findManifestInSpecifiedPath(androidManifestFile);
 		} else {
+			/*
+			 * The manifest cannot be registered as an input of an incremental
+			 * build from here: the Gradle incremental API only tracks the
+			 * originating source elements of the generated files, and a
+			 * processor of the aggregating category is not allowed to read
+			 * resources through the Filer. A build that needs the changes of the
+			 * manifest to trigger a recompilation has to declare it as an input
+			 * file of the compile task, for example with a
+			 * CommandLineArgumentProvider passing the androidManifestFile option.
+			 * The R class is not concerned: it is resolved through the compiler
+			 * model, so Gradle already tracks it as a source or classpath input.
+			 */
+			LOGGER.debug("AndroidManifest.xml not specified with the {} option, its changes will not be tracked by incremental builds", OPTION_MANIFEST.getName());
 			return findManifestInKnownPaths();
 		}
 	}
@@ -121,9 +188,16 @@ public class AndroidManifestFinder {
 		return androidManifestFile;
 	}
 
+	/*
+	 * The discovery is not cached: a manifest of a higher priority location can
+	 * appear in a later build, and probing the locations only costs a few file
+	 * system lookups.
+	 */
 	private File findManifestInKnownPaths() throws FileNotFoundException {
-		FileHelper.FileHolder holder = FileHelper.findRootProjectHolder(environment.getProcessingEnvironment());
-		return findManifestInKnownPathsStartingFromGenFolder(holder.sourcesGenerationFolder.getAbsolutePath());
+		if (rootProjectHolder == null) {
+			rootProjectHolder = FileHelper.findRootProjectHolder(environment.getProcessingEnvironment());
+		}
+		return findManifestInKnownPathsStartingFromGenFolder(rootProjectHolder.sourcesGenerationFolder.getAbsolutePath());
 	}
 
 	File findManifestInKnownPathsStartingFromGenFolder(String sourcesGenerationFolder) throws FileNotFoundException {
@@ -366,6 +440,17 @@ public class AndroidManifestFinder {
 	}
 
 	private AndroidManifest parse(File androidManifestFile, boolean libraryProject) throws AndroidManifestNotFoundException {
+		AndroidManifestCache.ManifestData manifestData = manifestCache.get(androidManifestFile);
+		if (manifestData != null) {
+			LOGGER.debug("Using cached content of AndroidManifest.xml file {}", androidManifestFile);
+		} else {
+			manifestData = readManifestData(androidManifestFile);
+			manifestCache.put(androidManifestFile, manifestData);
+		}
+		return createManifest(manifestData, libraryProject);
+	}
+
+	private AndroidManifestCache.ManifestData readManifestData(File androidManifestFile) throws AndroidManifestNotFoundException {
 		DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
 
 		Document doc;
@@ -380,75 +465,79 @@ public class AndroidManifestFinder {
 		Element documentElement = doc.getDocumentElement();
 		documentElement.normalize();
 
-		String applicationPackage = documentElement.getAttribute("package");
+		AndroidManifestCache.ManifestData manifestData = new AndroidManifestCache.ManifestData();
+		manifestData.applicationPackage = documentElement.getAttribute("package");
 
-		int minSdkVersion = -1;
-		int maxSdkVersion = -1;
-		int targetSdkVersion = -1;
 		NodeList sdkNodes = documentElement.getElementsByTagName("uses-sdk");
 		if (sdkNodes.getLength() > 0) {
 			Node sdkNode = sdkNodes.item(0);
-			minSdkVersion = extractAttributeIntValue(sdkNode, "android:minSdkVersion", -1);
-			maxSdkVersion = extractAttributeIntValue(sdkNode, "android:maxSdkVersion", -1);
-			targetSdkVersion = extractAttributeIntValue(sdkNode, "android:targetSdkVersion", -1);
+			manifestData.minSdkVersion = extractAttributeIntValue(sdkNode, "android:minSdkVersion", -1);
+			manifestData.maxSdkVersion = extractAttributeIntValue(sdkNode, "android:maxSdkVersion", -1);
+			manifestData.targetSdkVersion = extractAttributeIntValue(sdkNode, "android:targetSdkVersion", -1);
 		}
 
-		if (libraryProject) {
-			return AndroidManifest.createLibraryManifest(applicationPackage, minSdkVersion, maxSdkVersion, targetSdkVersion);
+		NodeList applicationNodes = documentElement.getElementsByTagName("application");
+
+		if (applicationNodes.getLength() > 0) {
+			Node applicationNode = applicationNodes.item(0);
+			manifestData.hasApplication = true;
+			manifestData.applicationName = extractAttributeValue(applicationNode, "android:name");
+
+			String debuggableAttribute = extractAttributeValue(applicationNode, "android:debuggable");
+			manifestData.applicationDebuggable = debuggableAttribute != null && debuggableAttribute.equalsIgnoreCase("true");
 		}
 
-		NodeList applicationNodes = documentElement.getElementsByTagName("application");
+		extractComponentNames(documentElement.getElementsByTagName("activity"), manifestData.activityNames);
+		extractComponentNames(documentElement.getElementsByTagName("service"), manifestData.serviceNames);
+		extractComponentNames(documentElement.getElementsByTagName("receiver"), manifestData.receiverNames);
+		extractComponentNames(documentElement.getElementsByTagName("provider"), manifestData.providerNames);
+
+		NodeList metaDataNodes = documentElement.getElementsByTagName("meta-data");
+		for (int i = 0; i < metaDataNodes.getLength(); i++) {
+			Node node = metaDataNodes.item(i);
+			manifestData.metaData.add(new String[] { extractAttributeValue(node, "android:name"), extractAttributeValue(node, "android:value"), extractAttributeValue(node, "android:resource") });
+		}
+
+		NodeList usesPermissionNodes = documentElement.getElementsByTagName("uses-permission");
+		manifestData.usesPermissionNames = extractUsesPermissionNames(usesPermissionNodes);
+
+		return manifestData;
+	}
+
+	private AndroidManifest createManifest(AndroidManifestCache.ManifestData manifestData, boolean libraryProject) {
+		String applicationPackage = manifestData.applicationPackage;
+
+		if (libraryProject) {
+			return AndroidManifest.createLibraryManifest(applicationPackage, manifestData.minSdkVersion, manifestData.maxSdkVersion, manifestData.targetSdkVersion);
+		}
 
 		String applicationClassQualifiedName = null;
-		boolean applicationDebuggableMode = false;
 
-		if (applicationNodes.getLength() > 0) {
-			Node applicationNode = applicationNodes.item(0);
-			Node nameAttribute = applicationNode.getAttributes().getNamedItem("android:name");
+		if (manifestData.hasApplication) {
+			String nameAttribute = manifestData.applicationName;
 
 			applicationClassQualifiedName = manifestNameToValidQualifiedName(applicationPackage, nameAttribute);
 
 			if (applicationClassQualifiedName == null) {
 				if (nameAttribute != null) {
-					LOGGER.warn("The class application declared in the AndroidManifest.xml cannot be found in the compile path: [{}]", nameAttribute.getNodeValue());
+					LOGGER.warn("The class application declared in the AndroidManifest.xml cannot be found in the compile path: [{}]", nameAttribute);
 				}
 			}
-
-			Node debuggableAttribute = applicationNode.getAttributes().getNamedItem("android:debuggable");
-			if (debuggableAttribute != null) {
-				applicationDebuggableMode = debuggableAttribute.getNodeValue().equalsIgnoreCase("true");
-			}
 		}
 
-		NodeList activityNodes = documentElement.getElementsByTagName("activity");
-		List<String> activityQualifiedNames = extractComponentNames(applicationPackage, activityNodes);
-
-		NodeList serviceNodes = documentElement.getElementsByTagName("service");
-		List<String> serviceQualifiedNames = extractComponentNames(applicationPackage, serviceNodes);
-
-		NodeList receiverNodes = documentElement.getElementsByTagName("receiver");
-		List<String> receiverQualifiedNames = extractComponentNames(applicationPackage, receiverNodes);
-
-		NodeList providerNodes = documentElement.getElementsByTagName("provider");
-		List<String> providerQualifiedNames = extractComponentNames(applicationPackage, providerNodes);
-
 		List<String> componentQualifiedNames = new ArrayList<>();
-		componentQualifiedNames.addAll(activityQualifiedNames);
-		componentQualifiedNames.addAll(serviceQualifiedNames);
-		componentQualifiedNames.addAll(receiverQualifiedNames);
-		componentQualifiedNames.addAll(providerQualifiedNames);
-
-		NodeList metaDataNodes = documentElement.getElementsByTagName("meta-data");
-		Map<String, AndroidManifest.MetaDataInfo> metaDataQualifiedNames = extractMetaDataQualifiedNames(metaDataNodes);
+		componentQualifiedNames.addAll(resolveComponentNames(applicationPackage, manifestData.activityNames));
+		componentQualifiedNames.addAll(resolveComponentNames(applicationPackage, manifestData.serviceNames));
+		componentQualifiedNames.addAll(resolveComponentNames(applicationPackage, manifestData.receiverNames));
+		componentQualifiedNames.addAll(resolveComponentNames(applicationPackage, manifestData.providerNames));
 
-		NodeList usesPermissionNodes = documentElement.getElementsByTagName("uses-permission");
-		List<String> usesPermissionQualifiedNames = extractUsesPermissionNames(usesPermissionNodes);
+		Map<String, AndroidManifest.MetaDataInfo> metaDataQualifiedNames = extractMetaDataQualifiedNames(manifestData.metaData);
 
 		List<String> permissionQualifiedNames = new ArrayList<>();
-		permissionQualifiedNames.addAll(usesPermissionQualifiedNames);
+		permissionQualifiedNames.addAll(manifestData.usesPermissionNames);
 
-		return AndroidManifest.createManifest(applicationPackage, applicationClassQualifiedName, componentQualifiedNames, metaDataQualifiedNames, permissionQualifiedNames, minSdkVersion,
-				maxSdkVersion, targetSdkVersion, applicationDebuggableMode);
+		return AndroidManifest.createManifest(applicationPackage, applicationClassQualifiedName, componentQualifiedNames, metaDataQualifiedNames, permissionQualifiedNames,
+				manifestData.minSdkVersion, manifestData.maxSdkVersion, manifestData.targetSdkVersion, manifestData.applicationDebuggable);
 	}
 
 	private int extractAttributeIntValue(Node node, String attribute, int defaultValue) {
@@ -466,12 +555,22 @@ public class AndroidManifestFinder {
 		return defaultValue;
 	}
 
-	private List<String> extractComponentNames(String applicationPackage, NodeList componentNodes) {
-		List<String> componentQualifiedNames = new ArrayList<>();
+	private String extractAttributeValue(Node node, String attribute) {
+		Node attributeNode = node.getAttributes().getNamedItem(attribute);
+		return attributeNode != null ? attributeNode.getNodeValue() : null;
+	}
 
+	private void extractComponentNames(NodeList componentNodes, List<String> componentNames) {
 		for (int i = 0; i < componentNodes.getLength(); i++) {
-			Node activityNode = componentNodes.item(i);
-			Node nameAttribute = activityNode.getAttributes().getNamedItem("android:name");
+			componentNames.add(extractAttributeValue(componentNodes.item(i), "android:name"));
+		}
+	}
+
+	private List<String> resolveComponentNames(String applicationPackage, List<String> componentNames) {
+		List<String> componentQualifiedNames = new ArrayList<>();
+
+		for (int i = 0; i < componentNames.size(); i++) {
+			String nameAttribute = componentNames.get(i);
 
 			String qualifiedName = manifestNameToValidQualifiedName(applicationPackage, nameAttribute);
 
@@ -479,7 +578,7 @@ public class AndroidManifestFinder {
 				componentQualifiedNames.add(qualifiedName);
 			} else {
 				if (nameAttribute != null) {
-					LOGGER.warn("A class activity declared in the AndroidManifest.xml cannot be found in the compile path: [{}]", nameAttribute.getNodeValue());
+					LOGGER.warn("A class activity declared in the AndroidManifest.xml cannot be found in the compile path: [{}]", nameAttribute);
 				} else {
 					LOGGER.warn("The {} activity node in the AndroidManifest.xml has no android:name attribute", i);
 				}
@@ -488,25 +587,21 @@ public class AndroidManifestFinder {
 		return componentQualifiedNames;
 	}
 
-	private Map<String, AndroidManifest.MetaDataInfo> extractMetaDataQualifiedNames(NodeList metaDataNodes) {
+	private Map<String, AndroidManifest.MetaDataInfo> extractMetaDataQualifiedNames(List<String[]> metaDataAttributes) {
 		Map<String, AndroidManifest.MetaDataInfo> metaDataQualifiedNames = new HashMap<String, AndroidManifest.MetaDataInfo>();
 
-		for (int i = 0; i < metaDataNodes.getLength(); i++) {
-			Node node = metaDataNodes.item(i);
-			Node nameAttribute = node.getAttributes().getNamedItem("android:name");
-			Node valueAttribute = node.getAttributes().getNamedItem("android:value");
-			Node resourceAttribute = node.getAttributes().getNamedItem("android:resource");
+		for (String[] attributes : metaDataAttributes) {
+			String name = attributes[0];
+			String value = attributes[1];
+			String resource = attributes[2];
 
-			if (nameAttribute == null || (valueAttribute == null && resourceAttribute == null)) {
-				if (nameAttribute != null) {
-					LOGGER.warn("A malformed <meta-data> has been found in the manifest with name {}", nameAttribute.getNodeValue());
+			if (name == null || (value == null && resource == null)) {
+				if (name != null) {
+					LOGGER.warn("A malformed <meta-data> has been found in the manifest with name {}", name);
 				} else {
 					LOGGER.warn("A malformed <meta-data> has been found in the manifest");
 				}
 			} else {
-				String name = nameAttribute.getNodeValue();
-				String value = valueAttribute != null ? valueAttribute.getNodeValue() : null;
-				String resource = resourceAttribute != null ? resourceAttribute.getNodeValue() : null;
 				metaDataQualifiedNames.put(name, new AndroidManifest.MetaDataInfo(name, value, resource));
 			}
 		}
@@ -514,9 +609,9 @@ public class AndroidManifestFinder {
 		return metaDataQualifiedNames;
 	}
 
-	private String manifestNameToValidQualifiedName(String applicationPackage, Node nameAttribute) {
+	private String manifestNameToValidQualifiedName(String applicationPackage, String nameAttribute) {
 		if (nameAttribute != null) {
-			String activityName = nameAttribute.getNodeValue();
+			String activityName = nameAttribute;
 			if (activityName.startsWith(applicationPackage)) {
 				return returnClassIfExistsOrNull(activityName);
 			} else {
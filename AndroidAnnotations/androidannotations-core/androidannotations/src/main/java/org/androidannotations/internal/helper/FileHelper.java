@@ -77,7 +77,10 @@ public final class FileHelper {
 
 	public static File resolveOutputDirectory(ProcessingEnvironment processingEnv) throws FileNotFoundException {
 		File rootProject = FileHelper.findRootProject(processingEnv);
+		return resolveOutputDirectory(rootProject);
+	}
 
+	public static File resolveOutputDirectory(File rootProject) {
 		// Target folder - Maven
 		File targetFolder = new File(rootProject, "target");
 		if (targetFolder.isDirectory() && targetFolder.canWrite()) {
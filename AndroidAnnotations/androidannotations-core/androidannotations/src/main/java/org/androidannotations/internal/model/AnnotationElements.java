@@ -26,7 +26,7 @@ public interface AnnotationElements {
 		public final Element annotatedElement;
 		public final TypeElement rootTypeElement;
 
-		AnnotatedAndRootElements(Element annotatedElement, TypeElement rootTypeElement) {
+		public AnnotatedAndRootElements(Element annotatedElement, TypeElement rootTypeElement) {
 			this.annotatedElement = annotatedElement;
 			this.rootTypeElement = rootTypeElement;
 		}
@@ -15,15 +15,19 @@
  */
 package org.androidannotations.internal.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
@@ -31,6 +35,31 @@ import javax.lang.model.type.TypeMirror;
 
 public class ModelExtractor {
 
+	private static final String ANDROID_PACKAGE_PREFIX = "android.";
+
+	/**
+	 * An annotation found on an ancestor, or on one of its fields or methods.
+	 */
+	private static final class AncestorAnnotation {
+
+		final String annotationName;
+		final Element annotatedElement;
+
+		AncestorAnnotation(String annotationName, Element annotatedElement) {
+			this.annotationName = annotationName;
+			this.annotatedElement = annotatedElement;
+		}
+	}
+
+	/*
+	 * Many root types usually share the same ancestors, which are only scanned
+	 * once per round. The caches are cleared when a round starts, because the
+	 * compiler may create new elements for each round, and the elements of a
+	 * previous round must not be handed to the handlers.
+	 */
+	private final Map<TypeElement, List<TypeElement>> ancestorsCache = new HashMap<>();
+	private final Map<TypeElement, List<AncestorAnnotation>> ancestorAnnotationsCache = new HashMap<>();
+
 	/**
 	 * Extracts annotated elements on elements given to the annotation processor as
 	 * well as annotations in their superclasses
@@ -43,6 +72,8 @@ public class ModelExtractor {
 
 		Set<TypeElement> rootTypeElements = findRootTypeElements(rootElements);
 
+		startRound();
+
 		extractAncestorsAnnotations(extractedModel, annotationTypesToCheck, rootTypeElements);
 
 		extractRootElementsAnnotations(annotations, roundEnv, extractedModel);
@@ -50,6 +81,11 @@ public class ModelExtractor {
 		return extractedModel;
 	}
 
+	private void startRound() {
+		ancestorsCache.clear();
+		ancestorAnnotationsCache.clear();
+	}
+
 	/**
 	 * Adds all root elements that are type element, and adds their enclosing type
 	 * if they are not type elements (for annotated elements such as fields and
@@ -72,67 +108,104 @@ public class ModelExtractor {
 
 	private void extractAncestorsAnnotations(AnnotationElementsHolder extractedModel, Set<String> annotationTypesToCheck, Set<TypeElement> rootTypeElements) {
 		for (TypeElement rootTypeElement : rootTypeElements) {
-			Set<TypeElement> ancestors = new LinkedHashSet<>();
-			addAncestorsElements(ancestors, rootTypeElement);
-			if (!ancestors.isEmpty()) {
-
-				for (TypeElement ancestor : ancestors) {
-					extractAnnotations(extractedModel, annotationTypesToCheck, rootTypeElement, ancestor);
-
-					for (Element ancestorEnclosedElement : ancestor.getEnclosedElements()) {
-						ElementKind enclosedKind = ancestorEnclosedElement.getKind();
-						if (enclosedKind == ElementKind.FIELD || enclosedKind == ElementKind.METHOD) {
-							extractAnnotations(extractedModel, annotationTypesToCheck, rootTypeElement, ancestorEnclosedElement);
-						}
-					}
+			for (TypeElement ancestor : getAncestors(rootTypeElement)) {
+				for (AncestorAnnotation ancestorAnnotation : getAncestorAnnotations(annotationTypesToCheck, ancestor)) {
+
+					/*
+					 * rootTypeElement is one of the types that are being compiled
+					 *
+					 * annotatedElement is the annotated element in an ancestor of
+					 * rootTypeElement
+					 *
+					 * annotationName is the name of the annotation on annotatedElement
+					 */
+
+					extractedModel.putAncestorAnnotatedElement(ancestorAnnotation.annotationName, ancestorAnnotation.annotatedElement, rootTypeElement);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the annotations of the given ancestor and of its fields and methods,
+	 * in declaration order.
+	 */
+	private List<AncestorAnnotation> getAncestorAnnotations(Set<String> annotationTypesToCheck, TypeElement ancestor) {
+		List<AncestorAnnotation> ancestorAnnotations = ancestorAnnotationsCache.get(ancestor);
+		if (ancestorAnnotations == null) {
+			ancestorAnnotations = new ArrayList<>();
+			extractAnnotations(ancestorAnnotations, annotationTypesToCheck, ancestor);
+
+			for (Element ancestorEnclosedElement : ancestor.getEnclosedElements()) {
+				ElementKind enclosedKind = ancestorEnclosedElement.getKind();
+				if (enclosedKind == ElementKind.FIELD || enclosedKind == ElementKind.METHOD) {
+					extractAnnotations(ancestorAnnotations, annotationTypesToCheck, ancestorEnclosedElement);
 				}
 			}
+			ancestorAnnotationsCache.put(ancestor, ancestorAnnotations);
 		}
+		return ancestorAnnotations;
 	}
 
-	private void extractAnnotations(AnnotationElementsHolder extractedModel, Set<String> annotationTypesToCheck, TypeElement rootTypeElement, Element ancestorEnclosedElement) {
+	private void extractAnnotations(List<AncestorAnnotation> ancestorAnnotations, Set<String> annotationTypesToCheck, Element ancestorEnclosedElement) {
 		List<? extends AnnotationMirror> ancestorEnclosedElementAnnotations = ancestorEnclosedElement.getAnnotationMirrors();
 		for (AnnotationMirror annotationMirror : ancestorEnclosedElementAnnotations) {
 			DeclaredType annotationType = annotationMirror.getAnnotationType();
 			if (annotationTypesToCheck.contains(annotationType.toString())) {
 				TypeElement annotation = (TypeElement) annotationType.asElement();
-
-				/*
-				 * rootTypeElement is one of the types that are being compiled
-				 *
-				 * ancestorEnclosedElement is the annotated element in an ancestor of
-				 * rootTypeElement
-				 *
-				 * annotation is a type representing the annotation on ancestorEnclosedElement
-				 */
-
-				extractedModel.putAncestorAnnotatedElement(annotation.getQualifiedName().toString(), ancestorEnclosedElement, rootTypeElement);
+				ancestorAnnotations.add(new AncestorAnnotation(annotation.getQualifiedName().toString(), ancestorEnclosedElement));
 			}
 		}
 	}
 
 	/**
-	 * Finds superclasses until reaching the Object class
+	 * Finds superclasses until reaching the Object class or an Android class,
+	 * starting from the highest one
 	 */
-	private void addAncestorsElements(Set<TypeElement> elements, TypeElement typeElement) {
+	private List<TypeElement> getAncestors(TypeElement typeElement) {
+		List<TypeElement> ancestors = ancestorsCache.get(typeElement);
+		if (ancestors == null) {
+			TypeElement superclassElement = getSuperclassElement(typeElement);
+			if (superclassElement == null) {
+				ancestors = Collections.emptyList();
+			} else {
+				List<TypeElement> superclassAncestors = getAncestors(superclassElement);
+				ancestors = new ArrayList<>(superclassAncestors.size() + 1);
+				ancestors.addAll(superclassAncestors);
+				ancestors.add(superclassElement);
+			}
+			ancestorsCache.put(typeElement, ancestors);
+		}
+		return ancestors;
+	}
+
+	private TypeElement getSuperclassElement(TypeElement typeElement) {
 		TypeMirror ancestorTypeMirror = typeElement.getSuperclass();
 
-		if (!isRootObjectClass(ancestorTypeMirror) && !isAndroidClass(ancestorTypeMirror) && ancestorTypeMirror instanceof DeclaredType) {
-			DeclaredType ancestorDeclaredType = (DeclaredType) ancestorTypeMirror;
-			Element ancestorElement = ancestorDeclaredType.asElement();
-			if (ancestorElement instanceof TypeElement) {
-				addAncestorsElements(elements, (TypeElement) ancestorElement);
-				elements.add((TypeElement) ancestorElement);
+		if (!isRootObjectClass(ancestorTypeMirror) && ancestorTypeMirror instanceof DeclaredType) {
+			Element ancestorElement = ((DeclaredType) ancestorTypeMirror).asElement();
+			if (ancestorElement instanceof TypeElement && !isAndroidClass((TypeElement) ancestorElement)) {
+				return (TypeElement) ancestorElement;
 			}
 		}
+		return null;
 	}
 
 	private boolean isRootObjectClass(TypeMirror typeMirror) {
 		return typeMirror.getKind() == TypeKind.NONE;
 	}
 
-	private boolean isAndroidClass(TypeMirror typeMirror) {
-		return typeMirror.toString().startsWith("android.");
+	private boolean isAndroidClass(TypeElement typeElement) {
+		Name qualifiedName = typeElement.getQualifiedName();
+		if (qualifiedName.length() < ANDROID_PACKAGE_PREFIX.length()) {
+			return false;
+		}
+		for (int i = 0; i < ANDROID_PACKAGE_PREFIX.length(); i++) {
+			if (qualifiedName.charAt(i) != ANDROID_PACKAGE_PREFIX.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	private void extractRootElementsAnnotations(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv, AnnotationElementsHolder extractedModel) {
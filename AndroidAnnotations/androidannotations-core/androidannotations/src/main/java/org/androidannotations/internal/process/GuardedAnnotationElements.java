@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.process;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+
+import org.androidannotations.internal.model.AnnotationElements;
+
+/**
+ * A view of {@link AnnotationElements} which returns the guarded views of the
+ * elements, so that other threads only access them through the lock of a
+ * {@link GuardedProcessingEnvironment}.
+ */
+class GuardedAnnotationElements implements AnnotationElements {
+
+	private final AnnotationElements delegate;
+	private final GuardedProcessingEnvironment guardedEnvironment;
+
+	GuardedAnnotationElements(AnnotationElements delegate, GuardedProcessingEnvironment guardedEnvironment) {
+		this.delegate = delegate;
+		this.guardedEnvironment = guardedEnvironment;
+	}
+
+	@Override
+	public Set<? extends Element> getAllElements() {
+		return new GuardedSet(delegate.getAllElements());
+	}
+
+	@Override
+	public Set<? extends Element> getRootAnnotatedElements(String annotationName) {
+		return new GuardedSet(delegate.getRootAnnotatedElements(annotationName));
+	}
+
+	@Override
+	public Set<AnnotatedAndRootElements> getAncestorAnnotatedElements(String annotationName) {
+		Set<AnnotatedAndRootElements> ancestorAnnotatedElements = new LinkedHashSet<>();
+		for (AnnotatedAndRootElements elements : delegate.getAncestorAnnotatedElements(annotationName)) {
+			ancestorAnnotatedElements.add(new AnnotatedAndRootElements(guardedEnvironment.guard(elements.annotatedElement), guardedEnvironment.guard(elements.rootTypeElement)));
+		}
+		return ancestorAnnotatedElements;
+	}
+
+	private class GuardedSet extends AbstractSet<Element> {
+
+		private final Set<? extends Element> elements;
+
+		GuardedSet(Set<? extends Element> elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public boolean contains(Object element) {
+			return elements.contains(GuardedProcessingEnvironment.unguard(element));
+		}
+
+		@Override
+		public Iterator<Element> iterator() {
+			final Iterator<? extends Element> iterator = elements.iterator();
+			return new Iterator<Element>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Element next() {
+					return guardedEnvironment.guard(iterator.next());
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+	}
+}
@@ -0,0 +1,408 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.process;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.AnnotationValueVisitor;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementVisitor;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ErrorType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.NoType;
+import javax.lang.model.type.NullType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.TypeVisitor;
+import javax.lang.model.type.UnionType;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * A {@link ProcessingEnvironment} which serializes every access to the compiler
+ * model through a single lock.
+ * <p>
+ * The compiler implementations of the utilities and of the element model are
+ * not thread-safe: the model is completed lazily, on first access. The
+ * {@link Elements}, {@link Types}, {@link Messager} and {@link Filer} of this
+ * environment, and the elements, types, annotation mirrors, annotation values
+ * and names they return, are guarded views of the compiler ones. Each call to a
+ * guarded view takes the lock, calls the compiler object, and returns guarded
+ * views of the model objects in its result. The arguments are given to the
+ * compiler unwrapped.
+ * <p>
+ * A compiler object always has the same guarded view, so views can be compared
+ * by identity, and they are equal to the compiler objects they wrap. The
+ * visitors given to the views are called outside of the lock, with guarded
+ * views.
+ */
+public class GuardedProcessingEnvironment implements ProcessingEnvironment {
+
+	private static final String MODEL_PACKAGE_PREFIX = "javax.lang.model.";
+
+	private final ProcessingEnvironment delegate;
+	private final Object lock = new Object();
+	private final Map<Object, Object> guardedViews = new IdentityHashMap<>();
+	private final Map<Class<?>, Class<?>[]> modelInterfaces = new HashMap<>();
+
+	private final Elements elementUtils;
+	private final Types typeUtils;
+	private final Messager messager;
+	private final Filer filer;
+
+	public GuardedProcessingEnvironment(ProcessingEnvironment delegate) {
+		this.delegate = delegate;
+		elementUtils = newGuardedView(Elements.class, delegate.getElementUtils());
+		typeUtils = newGuardedView(Types.class, delegate.getTypeUtils());
+		messager = newGuardedView(Messager.class, delegate.getMessager());
+		filer = newGuardedView(Filer.class, delegate.getFiler());
+	}
+
+	/**
+	 * @return the guarded view of a compiler element, type, or collection of
+	 *         them, to hand to another thread
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T guard(T value) {
+		synchronized (lock) {
+			return (T) wrap(value);
+		}
+	}
+
+	/**
+	 * @return the compiler object of a guarded view, or the given value if it is
+	 *         not a guarded view
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T unguard(T value) {
+		if (value != null && Proxy.isProxyClass(value.getClass())) {
+			InvocationHandler handler = Proxy.getInvocationHandler(value);
+			if (handler instanceof GuardedHandler) {
+				return (T) ((GuardedHandler) handler).target;
+			}
+		}
+		return value;
+	}
+
+	private <T> T newGuardedView(Class<T> type, T target) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new GuardedHandler(target)));
+	}
+
+	/**
+	 * Must be called under the lock.
+	 */
+	private Object wrap(Object value) {
+		if (value == null || value != unguard(value)) {
+			return value;
+		} else if (value instanceof List) {
+			List<Object> list = new ArrayList<>(((List<?>) value).size());
+			for (Object item : (List<?>) value) {
+				list.add(wrap(item));
+			}
+			return Collections.unmodifiableList(list);
+		} else if (value instanceof Set) {
+			Set<Object> set = new LinkedHashSet<>();
+			for (Object item : (Set<?>) value) {
+				set.add(wrap(item));
+			}
+			return Collections.unmodifiableSet(set);
+		} else if (value instanceof Map) {
+			Map<Object, Object> map = new LinkedHashMap<>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				map.put(wrap(entry.getKey()), wrap(entry.getValue()));
+			}
+			return Collections.unmodifiableMap(map);
+		} else if (value instanceof Object[]) {
+			Object[] array = (Object[]) Array.newInstance(value.getClass().getComponentType(), ((Object[]) value).length);
+			for (int i = 0; i < array.length; i++) {
+				array[i] = wrap(((Object[]) value)[i]);
+			}
+			return array;
+		} else if (value instanceof Annotation) {
+			/*
+			 * The annotations are read eagerly by the compiler, but their class values
+			 * are thrown as mirrored types, which must be guarded too.
+			 */
+			Class<? extends Annotation> annotationType = ((Annotation) value).annotationType();
+			return Proxy.newProxyInstance(annotationType.getClassLoader(), new Class<?>[] { annotationType }, new GuardedHandler(value));
+		}
+
+		Class<?>[] interfaces = getModelInterfaces(value.getClass());
+		if (interfaces.length == 0) {
+			return value;
+		}
+		Object guardedView = guardedViews.get(value);
+		if (guardedView == null) {
+			guardedView = Proxy.newProxyInstance(GuardedProcessingEnvironment.class.getClassLoader(), interfaces, new GuardedHandler(value));
+			guardedViews.put(value, guardedView);
+		}
+		return guardedView;
+	}
+
+	private Class<?>[] getModelInterfaces(Class<?> type) {
+		Class<?>[] interfaces = modelInterfaces.get(type);
+		if (interfaces == null) {
+			Set<Class<?>> found = new LinkedHashSet<>();
+			for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+				addModelInterfaces(superclass.getInterfaces(), found);
+			}
+			interfaces = found.toArray(new Class<?>[found.size()]);
+			modelInterfaces.put(type, interfaces);
+		}
+		return interfaces;
+	}
+
+	private void addModelInterfaces(Class<?>[] interfaces, Set<Class<?>> found) {
+		for (Class<?> anInterface : interfaces) {
+			if (anInterface.getName().startsWith(MODEL_PACKAGE_PREFIX)) {
+				found.add(anInterface);
+			}
+			addModelInterfaces(anInterface.getInterfaces(), found);
+		}
+	}
+
+	private static Object[] unwrapArguments(Object[] arguments) {
+		if (arguments == null) {
+			return null;
+		}
+		Object[] unwrapped = new Object[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			Object argument = arguments[i];
+			if (argument instanceof Object[]) {
+				Object[] array = (Object[]) Array.newInstance(argument.getClass().getComponentType(), ((Object[]) argument).length);
+				for (int j = 0; j < array.length; j++) {
+					array[j] = unguard(((Object[]) argument)[j]);
+				}
+				argument = array;
+			}
+			unwrapped[i] = unguard(argument);
+		}
+		return unwrapped;
+	}
+
+	/**
+	 * Must be called under the lock.
+	 */
+	private Throwable wrapException(Throwable exception) {
+		if (exception instanceof MirroredTypeException) {
+			return new MirroredTypeException((TypeMirror) wrap(((MirroredTypeException) exception).getTypeMirror()));
+		} else if (exception instanceof MirroredTypesException) {
+			@SuppressWarnings("unchecked")
+			List<? extends TypeMirror> typeMirrors = (List<? extends TypeMirror>) wrap(((MirroredTypesException) exception).getTypeMirrors());
+			return new MirroredTypesException(typeMirrors);
+		}
+		return exception;
+	}
+
+	private class GuardedHandler implements InvocationHandler {
+
+		private final Object target;
+
+		GuardedHandler(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				switch (method.getName()) {
+				case "equals":
+					return target.equals(unguard(args[0]));
+				case "hashCode":
+					return target.hashCode();
+				default:
+					break;
+				}
+			} else if (method.getName().equals("accept") && args != null && args.length == 2) {
+				return accept(proxy, args[0], args[1]);
+			}
+
+			synchronized (lock) {
+				try {
+					return wrap(method.invoke(target, unwrapArguments(args)));
+				} catch (InvocationTargetException e) {
+					throw wrapException(e.getCause());
+				}
+			}
+		}
+	}
+
+	/*
+	 * The visitors are called outside of the lock, so that they can use the
+	 * guarded views.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object accept(Object proxy, Object visitor, Object parameter) {
+		if (visitor instanceof ElementVisitor) {
+			return visitElement((Element) proxy, (ElementVisitor<?, Object>) visitor, parameter);
+		} else if (visitor instanceof TypeVisitor) {
+			return visitType((TypeMirror) proxy, (TypeVisitor<?, Object>) visitor, parameter);
+		} else if (visitor instanceof AnnotationValueVisitor) {
+			return visitAnnotationValue((AnnotationValue) proxy, (AnnotationValueVisitor<?, Object>) visitor, parameter);
+		}
+		throw new IllegalArgumentException("Unknown visitor: " + visitor);
+	}
+
+	private Object visitElement(Element element, ElementVisitor<?, Object> visitor, Object parameter) {
+		if (element instanceof TypeElement) {
+			return visitor.visitType((TypeElement) element, parameter);
+		} else if (element instanceof ExecutableElement) {
+			return visitor.visitExecutable((ExecutableElement) element, parameter);
+		} else if (element instanceof VariableElement) {
+			return visitor.visitVariable((VariableElement) element, parameter);
+		} else if (element instanceof PackageElement) {
+			return visitor.visitPackage((PackageElement) element, parameter);
+		} else if (element instanceof TypeParameterElement) {
+			return visitor.visitTypeParameter((TypeParameterElement) element, parameter);
+		}
+		return visitor.visitUnknown(element, parameter);
+	}
+
+	private Object visitType(TypeMirror type, TypeVisitor<?, Object> visitor, Object parameter) {
+		TypeKind kind = type.getKind();
+		switch (kind) {
+		case ARRAY:
+			return visitor.visitArray((ArrayType) type, parameter);
+		case DECLARED:
+			return visitor.visitDeclared((DeclaredType) type, parameter);
+		case ERROR:
+			return visitor.visitError((ErrorType) type, parameter);
+		case EXECUTABLE:
+			return visitor.visitExecutable((ExecutableType) type, parameter);
+		case INTERSECTION:
+			return visitor.visitIntersection((IntersectionType) type, parameter);
+		case NONE:
+		case PACKAGE:
+		case VOID:
+			return visitor.visitNoType((NoType) type, parameter);
+		case NULL:
+			return visitor.visitNull((NullType) type, parameter);
+		case TYPEVAR:
+			return visitor.visitTypeVariable((TypeVariable) type, parameter);
+		case UNION:
+			return visitor.visitUnion((UnionType) type, parameter);
+		case WILDCARD:
+			return visitor.visitWildcard((WildcardType) type, parameter);
+		default:
+			if (kind.isPrimitive()) {
+				return visitor.visitPrimitive((PrimitiveType) type, parameter);
+			}
+			return visitor.visitUnknown(type, parameter);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object visitAnnotationValue(AnnotationValue annotationValue, AnnotationValueVisitor<?, Object> visitor, Object parameter) {
+		Object value = annotationValue.getValue();
+		if (value instanceof Boolean) {
+			return visitor.visitBoolean((Boolean) value, parameter);
+		} else if (value instanceof Byte) {
+			return visitor.visitByte((Byte) value, parameter);
+		} else if (value instanceof Character) {
+			return visitor.visitChar((Character) value, parameter);
+		} else if (value instanceof Double) {
+			return visitor.visitDouble((Double) value, parameter);
+		} else if (value instanceof Float) {
+			return visitor.visitFloat((Float) value, parameter);
+		} else if (value instanceof Integer) {
+			return visitor.visitInt((Integer) value, parameter);
+		} else if (value instanceof Long) {
+			return visitor.visitLong((Long) value, parameter);
+		} else if (value instanceof Short) {
+			return visitor.visitShort((Short) value, parameter);
+		} else if (value instanceof String) {
+			return visitor.visitString((String) value, parameter);
+		} else if (value instanceof TypeMirror) {
+			return visitor.visitType((TypeMirror) value, parameter);
+		} else if (value instanceof VariableElement) {
+			return visitor.visitEnumConstant((VariableElement) value, parameter);
+		} else if (value instanceof AnnotationMirror) {
+			return visitor.visitAnnotation((AnnotationMirror) value, parameter);
+		} else if (value instanceof List) {
+			return visitor.visitArray((List<? extends AnnotationValue>) value, parameter);
+		}
+		return visitor.visitUnknown(annotationValue, parameter);
+	}
+
+	@Override
+	public Map<String, String> getOptions() {
+		return delegate.getOptions();
+	}
+
+	@Override
+	public Messager getMessager() {
+		return messager;
+	}
+
+	@Override
+	public Filer getFiler() {
+		return filer;
+	}
+
+	@Override
+	public Elements getElementUtils() {
+		return elementUtils;
+	}
+
+	@Override
+	public Types getTypeUtils() {
+		return typeUtils;
+	}
+
+	@Override
+	public SourceVersion getSourceVersion() {
+		return delegate.getSourceVersion();
+	}
+
+	@Override
+	public Locale getLocale() {
+		return delegate.getLocale();
+	}
+}
@@ -54,9 +54,11 @@ public class ModelProcessor {
 	}
 
 	private final InternalAndroidAnnotationsEnvironment environment;
+	private final ProcessingProfiler profiler;
 
 	public ModelProcessor(InternalAndroidAnnotationsEnvironment environment) {
 		this.environment = environment;
+		profiler = environment.getProfiler();
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -148,10 +150,13 @@ public class ModelProcessor {
 	}
 
 	private <T extends GeneratedClassHolder> void processThrowing(AnnotationHandler<T> handler, Element element, T generatedClassHolder) throws ProcessingException {
+		long start = profiler.start();
 		try {
 			handler.process(element, generatedClassHolder);
 		} catch (Exception e) {
 			throw new ProcessingException(e, element);
+		} finally {
+			profiler.stop(ProcessingProfiler.Phase.PROCESS, handler, element, start);
 		}
 	}
 
@@ -197,9 +202,11 @@ public class ModelProcessor {
 								LOGGER.error(annotatedElement, "Enclosing element {} has not been successfully validated", enclosingElement);
 							}
 						} else {
+							long start = profiler.start();
 							GeneratedClassHolder generatedClassHolder = generatingAnnotationHandler.createGeneratedClassHolder(environment, typeElement);
 							processHolder.put(annotatedElement, generatedClassHolder);
 							generatingAnnotationHandler.process(annotatedElement, generatedClassHolder);
+							profiler.stop(ProcessingProfiler.Phase.GENERATE, generatingAnnotationHandler, annotatedElement, start);
 						}
 					}
 				} else {
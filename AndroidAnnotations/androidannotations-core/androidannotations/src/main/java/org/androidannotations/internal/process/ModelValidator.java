@@ -16,27 +16,51 @@
  */
 package org.androidannotations.internal.process;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
 
-import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.ElementValidation;
+import org.androidannotations.Option;
 import org.androidannotations.handler.AnnotationHandler;
+import org.androidannotations.internal.InternalAndroidAnnotationsEnvironment;
 import org.androidannotations.internal.model.AnnotationElements;
 import org.androidannotations.internal.model.AnnotationElementsHolder;
 import org.androidannotations.logger.Logger;
+import org.androidannotations.logger.LoggerContext;
+import org.androidannotations.logger.LoggerContext.BufferedLog;
 import org.androidannotations.logger.LoggerFactory;
+import org.androidannotations.rclass.IRClass;
+import org.androidannotations.rclass.IRClass.Res;
 
 public class ModelValidator {
 
+	public static final Option OPTION_PARALLEL_VALIDATION = new Option("parallelValidation", "false");
+	public static final Option OPTION_VALIDATION_THREADS = new Option("validationThreads", null);
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(ModelValidator.class);
-	private AndroidAnnotationsEnvironment environment;
+	private InternalAndroidAnnotationsEnvironment environment;
+	private final ProcessingProfiler profiler;
 
-	public ModelValidator(AndroidAnnotationsEnvironment environment) {
+	public ModelValidator(InternalAndroidAnnotationsEnvironment environment) {
 		this.environment = environment;
+		profiler = environment.getProfiler();
 	}
 
 	public AnnotationElements validate(AnnotationElements extractedModel, AnnotationElementsHolder validatingHolder) {
@@ -49,6 +73,16 @@ public class ModelValidator {
 		 * not be check all situations.
 		 */
 
+		if (environment.getOptionBooleanValue(OPTION_PARALLEL_VALIDATION)) {
+			validateConcurrently(extractedModel, validatingHolder);
+		} else {
+			validateSequentially(extractedModel, validatingHolder);
+		}
+
+		return validatingHolder;
+	}
+
+	private void validateSequentially(AnnotationElements extractedModel, AnnotationElementsHolder validatingHolder) {
 		for (AnnotationHandler annotationHandler : environment.getHandlers()) {
 			if (!annotationHandler.isEnabled()) {
 				continue;
@@ -67,25 +101,218 @@ public class ModelValidator {
 			}
 
 			for (Element annotatedElement : annotatedElements) {
+				long start = profiler.start();
 				ElementValidation elementValidation = annotationHandler.validate(annotatedElement);
+				profiler.stop(ProcessingProfiler.Phase.VALIDATE, annotationHandler, annotatedElement, start);
 
-				AnnotationMirror annotationMirror = elementValidation.getAnnotationMirror();
-				for (ElementValidation.Error error : elementValidation.getErrors()) {
-					LOGGER.error(error.getElement(), annotationMirror, error.getMessage());
+				if (report(elementValidation, validatorSimpleName)) {
+					validatedAnnotatedElements.add(annotatedElement);
 				}
+			}
+		}
+	}
 
-				for (String warning : elementValidation.getWarnings()) {
-					LOGGER.warn(elementValidation.getElement(), annotationMirror, warning);
+	/*
+	 * Handlers are still run one after the other, because a handler may depend on
+	 * the elements validated by the previous ones. The elements of a handler are
+	 * validated concurrently, grouped by top level type: elements of the same type
+	 * are validated in order, on the same thread, because checks like unique ids
+	 * depend on the elements validated before them in their enclosing type.
+	 *
+	 * The compiler model is not thread-safe: the workers only get guarded views of
+	 * the elements, the compiler utilities and the extracted and validated models,
+	 * which access the compiler under a single lock. The logs written while
+	 * validating an element are kept, then written on the processor thread with
+	 * the validation results, in the same order as the sequential validation.
+	 */
+	private void validateConcurrently(AnnotationElements extractedModel, AnnotationElementsHolder validatingHolder) {
+		materializeRClass();
+		ExecutorService executorService = Executors.newFixedThreadPool(resolveThreadCount(), new ValidationThreadFactory());
+		GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(environment.getProcessingEnvironment());
+		AnnotationElements extractedElements = environment.getExtractedElements();
+		AnnotationElements validatedElements = environment.getValidatedElements();
+		environment.setProcessingEnvironmentOverride(guardedEnvironment);
+		environment.setExtractedElements(new GuardedAnnotationElements(extractedElements, guardedEnvironment));
+		environment.setValidatedElements(new GuardedAnnotationElements(validatedElements, guardedEnvironment));
+
+		try {
+			for (AnnotationHandler<?> annotationHandler : environment.getHandlers()) {
+				if (!annotationHandler.isEnabled()) {
+					continue;
 				}
+				String validatorSimpleName = annotationHandler.getClass().getSimpleName();
+				String annotationName = annotationHandler.getTarget();
 
-				if (elementValidation.isValid()) {
-					validatedAnnotatedElements.add(annotatedElement);
-				} else {
-					LOGGER.warn(annotatedElement, "Element {} invalidated by {}", annotatedElement, validatorSimpleName);
+				Set<? extends Element> annotatedElements = extractedModel.getRootAnnotatedElements(annotationName);
+
+				Set<Element> validatingElements = Collections.newSetFromMap(new ConcurrentHashMap<Element, Boolean>());
+
+				validatingHolder.putRootAnnotatedElements(annotationName, validatingElements);
+
+				if (!annotatedElements.isEmpty()) {
+					LOGGER.debug("Validating with {}: {}", validatorSimpleName, annotatedElements);
 				}
+
+				Map<Element, List<Element>> elementsByRootType = groupByRootType(annotatedElements);
+
+				Map<Element, ConcurrentValidation> validations = validateGroups(executorService, guardedEnvironment, annotationHandler, elementsByRootType, validatingElements);
+
+				Set<Element> validatedAnnotatedElements = new LinkedHashSet<>();
+				for (Element annotatedElement : annotatedElements) {
+					ConcurrentValidation validation = validations.get(annotatedElement);
+					for (BufferedLog log : validation.logs) {
+						LoggerContext.getInstance().writeBufferedLog(log, GuardedProcessingEnvironment.unguard(log.getElement()), GuardedProcessingEnvironment.unguard(log.getAnnotationMirror()));
+					}
+					if (report(validation.elementValidation, validatorSimpleName)) {
+						validatedAnnotatedElements.add(annotatedElement);
+					}
+				}
+
+				validatingHolder.putRootAnnotatedElements(annotationName, validatedAnnotatedElements);
 			}
+		} finally {
+			environment.setProcessingEnvironmentOverride(null);
+			environment.setExtractedElements(extractedElements);
+			environment.setValidatedElements(validatedElements);
+			executorService.shutdownNow();
 		}
+	}
 
-		return validatingHolder;
+	private Map<Element, ConcurrentValidation> validateGroups(ExecutorService executorService, final GuardedProcessingEnvironment guardedEnvironment, final AnnotationHandler<?> annotationHandler,
+			Map<Element, List<Element>> elementsByRootType, final Set<Element> validatingElements) {
+		final Map<Element, ConcurrentValidation> validations = new ConcurrentHashMap<>();
+
+		List<Future<Void>> futures = new ArrayList<>(elementsByRootType.size());
+		for (final List<Element> elements : elementsByRootType.values()) {
+			futures.add(executorService.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					LoggerContext loggerContext = LoggerContext.getInstance();
+					for (Element element : elements) {
+						Element guardedElement = guardedEnvironment.guard(element);
+						ElementValidation elementValidation;
+						List<BufferedLog> logs;
+						loggerContext.startBuffering();
+						try {
+							long start = profiler.start();
+							elementValidation = annotationHandler.validate(guardedElement);
+							profiler.stop(ProcessingProfiler.Phase.VALIDATE, annotationHandler, guardedElement, start);
+						} finally {
+							logs = loggerContext.stopBuffering();
+						}
+						validations.put(element, new ConcurrentValidation(elementValidation, logs));
+						if (elementValidation.isValid()) {
+							validatingElements.add(element);
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while validating with " + annotationHandler.getClass().getSimpleName(), e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+
+		return validations;
+	}
+
+	private Map<Element, List<Element>> groupByRootType(Set<? extends Element> annotatedElements) {
+		Map<Element, List<Element>> elementsByRootType = new LinkedHashMap<>();
+		for (Element annotatedElement : annotatedElements) {
+			Element rootType = annotatedElement;
+			while (rootType.getEnclosingElement() != null && !(rootType.getEnclosingElement() instanceof PackageElement)) {
+				rootType = rootType.getEnclosingElement();
+			}
+
+			List<Element> elements = elementsByRootType.get(rootType);
+			if (elements == null) {
+				elements = new ArrayList<>();
+				elementsByRootType.put(rootType, elements);
+			}
+			elements.add(annotatedElement);
+		}
+		return elementsByRootType;
+	}
+
+	/*
+	 * The R inner classes read their fields on first lookup, which must not happen
+	 * on a worker thread.
+	 */
+	private void materializeRClass() {
+		IRClass rClass = environment.getRClass();
+		if (rClass != null) {
+			for (Res res : Res.values()) {
+				rClass.get(res).index();
+			}
+		}
+	}
+
+	private boolean report(ElementValidation elementValidation, String validatorSimpleName) {
+		AnnotationMirror annotationMirror = GuardedProcessingEnvironment.unguard(elementValidation.getAnnotationMirror());
+		Element element = GuardedProcessingEnvironment.unguard(elementValidation.getElement());
+		for (ElementValidation.Error error : elementValidation.getErrors()) {
+			LOGGER.error(GuardedProcessingEnvironment.unguard(error.getElement()), annotationMirror, error.getMessage());
+		}
+
+		for (String warning : elementValidation.getWarnings()) {
+			LOGGER.warn(element, annotationMirror, warning);
+		}
+
+		if (elementValidation.isValid()) {
+			return true;
+		} else {
+			LOGGER.warn(element, "Element {} invalidated by {}", element, validatorSimpleName);
+			return false;
+		}
+	}
+
+	private int resolveThreadCount() {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		String threadCountValue = environment.getOptionValue(OPTION_VALIDATION_THREADS);
+		if (threadCountValue != null) {
+			try {
+				threadCount = Integer.parseInt(threadCountValue);
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid value for {}: {}, using {} threads", OPTION_VALIDATION_THREADS.getName(), threadCountValue, threadCount);
+			}
+		}
+		return Math.max(1, threadCount);
+	}
+
+	private static class ConcurrentValidation {
+
+		private final ElementValidation elementValidation;
+		private final List<BufferedLog> logs;
+
+		ConcurrentValidation(ElementValidation elementValidation, List<BufferedLog> logs) {
+			this.elementValidation = elementValidation;
+			this.logs = logs;
+		}
+	}
+
+	private static class ValidationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "androidannotations-validation-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
 }
@@ -94,6 +94,7 @@ public class ProcessHolder {
 		public final AbstractJClass LOCAL_BROADCAST_MANAGER = refClass(CanonicalNameConstants.LOCAL_BROADCAST_MANAGER);
 		public final AbstractJClass COMPONENT_NAME = refClass(CanonicalNameConstants.COMPONENT_NAME);
 		public final AbstractJClass VIEW_GROUP = refClass(CanonicalNameConstants.VIEW_GROUP);
+		public final AbstractJClass FRAME_LAYOUT = refClass(CanonicalNameConstants.FRAME_LAYOUT);
 		public final AbstractJClass LAYOUT_INFLATER = refClass(CanonicalNameConstants.LAYOUT_INFLATER);
 		public final AbstractJClass FRAGMENT_ACTIVITY = refClass(CanonicalNameConstants.FRAGMENT_ACTIVITY);
 		public final AbstractJClass FRAGMENT = refClass(CanonicalNameConstants.FRAGMENT);
@@ -168,7 +169,12 @@ public class ProcessHolder {
 
 	// CHECKSTYLE:ON
 
-	private final Map<Element, GeneratedClassHolder> generatedClassHolders = new HashMap<>();
+	/*
+	 * Holders are indexed by the string form of their element type, because the
+	 * elements we are queried with may be different instances (eg. coming from a
+	 * previous round) than the ones the holders have been registered with.
+	 */
+	private final Map<String, GeneratedClassHolder> generatedClassHolders = new HashMap<>();
 
 	private final ProcessingEnvironment processingEnvironment;
 
@@ -191,20 +197,26 @@ public class ProcessHolder {
 
 		JDefinedClass generatedClass = generatedClassHolder.getGeneratedClass();
 
-		String qualifiedName = generatedClass.fullName();
+		/*
+		 * Inner generated classes are written in the source file of their top level
+		 * class, so this is the file the element originates.
+		 */
+		AbstractJClass topLevelClass = generatedClass;
+		while (topLevelClass.outer() != null) {
+			topLevelClass = topLevelClass.outer();
+		}
 
-		originatingElements.add(qualifiedName, element);
+		originatingElements.add(topLevelClass.fullName(), element);
 
-		generatedClassHolders.put(element, generatedClassHolder);
+		generatedClassHolders.put(typeKey(element), generatedClassHolder);
 	}
 
 	public GeneratedClassHolder getGeneratedClassHolder(Element element) {
-		for (Element key : generatedClassHolders.keySet()) {
-			if (key.asType().toString().equals(element.asType().toString())) {
-				return generatedClassHolders.get(key);
-			}
-		}
-		return null;
+		return generatedClassHolders.get(typeKey(element));
+	}
+
+	private static String typeKey(Element element) {
+		return element.asType().toString();
 	}
 
 	public AbstractJClass refClass(Class<?> clazz) {
@@ -235,6 +247,12 @@ public class ProcessHolder {
 		return refClass;
 	}
 
+	public JDefinedClass definedClass(String fullyQualifiedClassName, Element originatingElement) {
+		JDefinedClass definedClass = definedClass(fullyQualifiedClassName);
+		originatingElements.add(fullyQualifiedClassName, originatingElement);
+		return definedClass;
+	}
+
 	public JDefinedClass definedClass(String fullyQualifiedClassName) {
 		JDefinedClass refClass = (JDefinedClass) loadedClasses.get(fullyQualifiedClassName);
 		if (refClass == null) {
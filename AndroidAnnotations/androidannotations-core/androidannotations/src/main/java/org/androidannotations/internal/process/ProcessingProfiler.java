@@ -0,0 +1,288 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.process;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+
+import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.Option;
+import org.androidannotations.logger.Logger;
+import org.androidannotations.logger.LoggerFactory;
+
+/**
+ * Measures the time spent by each annotation handler and on each root element,
+ * when the <code>profilingReport</code> option is set to <code>json</code> or
+ * <code>csv</code>. The measures are summed over the rounds, and the report is
+ * written to the output directory at the end of the processing. It lists the
+ * handlers by decreasing time, then the slowest root elements.
+ */
+public class ProcessingProfiler {
+
+	public static final Option OPTION_PROFILING_REPORT = new Option("profilingReport", null);
+	public static final Option OPTION_PROFILING_REPORT_TOP_ELEMENTS = new Option("profilingReportTopElements", "20");
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProcessingProfiler.class);
+
+	private static final String REPORT_FILE_NAME = "androidannotations-profile";
+	private static final int DEFAULT_TOP_ELEMENTS = 20;
+
+	public enum Phase {
+		VALIDATE, GENERATE, PROCESS, EMIT;
+
+		String label() {
+			return name().toLowerCase(Locale.ENGLISH);
+		}
+	}
+
+	enum Format {
+		JSON, CSV
+	}
+
+	private static class Measure {
+
+		final String name;
+		final long[] nanos = new long[Phase.values().length];
+		final int[] invocations = new int[Phase.values().length];
+
+		Measure(String name) {
+			this.name = name;
+		}
+
+		long totalNanos() {
+			long total = 0;
+			for (long phaseNanos : nanos) {
+				total += phaseNanos;
+			}
+			return total;
+		}
+
+		int totalInvocations() {
+			int total = 0;
+			for (int phaseInvocations : invocations) {
+				total += phaseInvocations;
+			}
+			return total;
+		}
+	}
+
+	private static final Comparator<Measure> SLOWEST_FIRST = new Comparator<Measure>() {
+		@Override
+		public int compare(Measure left, Measure right) {
+			long leftNanos = left.totalNanos();
+			long rightNanos = right.totalNanos();
+			if (leftNanos != rightNanos) {
+				return leftNanos > rightNanos ? -1 : 1;
+			}
+			return left.name.compareTo(right.name);
+		}
+	};
+
+	private final Format format;
+	private final int topElements;
+	private final Map<String, Measure> handlerMeasures = new HashMap<>();
+	private final Map<String, Measure> elementMeasures = new HashMap<>();
+
+	public ProcessingProfiler(AndroidAnnotationsEnvironment environment) {
+		this(resolveFormat(environment.getOptionValue(OPTION_PROFILING_REPORT)), resolveTopElements(environment.getOptionValue(OPTION_PROFILING_REPORT_TOP_ELEMENTS)));
+	}
+
+	ProcessingProfiler(Format format, int topElements) {
+		this.format = format;
+		this.topElements = topElements;
+	}
+
+	public boolean isEnabled() {
+		return format != null;
+	}
+
+	/**
+	 * @return the start time to give to the stop methods, or <code>0</code> if
+	 *         the profiling is disabled
+	 */
+	public long start() {
+		return isEnabled() ? System.nanoTime() : 0L;
+	}
+
+	public void stop(Phase phase, Object handler, Element element, long start) {
+		if (isEnabled()) {
+			record(phase, handler.getClass().getName(), getRootElementName(element), System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records the time spent writing a generated class, on the root of its first
+	 * originating element.
+	 */
+	public void stopEmit(Object generator, String qualifiedClassName, Element[] originatingElements, long start) {
+		if (isEnabled()) {
+			String elementName = originatingElements.length == 0 ? qualifiedClassName : getRootElementName(originatingElements[0]);
+			record(Phase.EMIT, generator.getClass().getName(), elementName, System.nanoTime() - start);
+		}
+	}
+
+	synchronized void record(Phase phase, String handlerName, String elementName, long nanos) {
+		add(handlerMeasures, handlerName, phase, nanos);
+		add(elementMeasures, elementName, phase, nanos);
+	}
+
+	private static void add(Map<String, Measure> measures, String name, Phase phase, long nanos) {
+		Measure measure = measures.get(name);
+		if (measure == null) {
+			measure = new Measure(name);
+			measures.put(name, measure);
+		}
+		measure.nanos[phase.ordinal()] += nanos;
+		measure.invocations[phase.ordinal()]++;
+	}
+
+	private static String getRootElementName(Element element) {
+		Element rootElement = element;
+		while (rootElement.getEnclosingElement() != null && !(rootElement.getEnclosingElement() instanceof PackageElement)) {
+			rootElement = rootElement.getEnclosingElement();
+		}
+		if (rootElement instanceof TypeElement) {
+			return ((TypeElement) rootElement).getQualifiedName().toString();
+		}
+		return rootElement.toString();
+	}
+
+	/**
+	 * Writes the report in the given directory.
+	 *
+	 * @return the report file
+	 */
+	public synchronized File writeReport(File directory) throws IOException {
+		File reportFile = new File(directory, REPORT_FILE_NAME + "." + format.name().toLowerCase(Locale.ENGLISH));
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), Charset.forName("UTF-8")))) {
+			writeReport(writer);
+		}
+		return reportFile;
+	}
+
+	synchronized void writeReport(Writer writer) throws IOException {
+		List<Measure> handlers = sortedMeasures(handlerMeasures);
+		List<Measure> elements = sortedMeasures(elementMeasures);
+		elements = elements.subList(0, Math.min(topElements, elements.size()));
+
+		if (format == Format.JSON) {
+			writer.write("{\n  \"handlers\": [");
+			writeJsonMeasures(writer, handlers);
+			writer.write("],\n  \"elementCount\": " + elementMeasures.size() + ",\n  \"slowestElements\": [");
+			writeJsonMeasures(writer, elements);
+			writer.write("]\n}\n");
+		} else {
+			writer.write("section,name,invocations,totalNanos");
+			for (Phase phase : Phase.values()) {
+				writer.write("," + phase.label() + "Nanos");
+			}
+			writer.write('\n');
+			writeCsvMeasures(writer, "handler", handlers);
+			writeCsvMeasures(writer, "element", elements);
+		}
+	}
+
+	private static List<Measure> sortedMeasures(Map<String, Measure> measures) {
+		List<Measure> sortedMeasures = new ArrayList<>(measures.values());
+		Collections.sort(sortedMeasures, SLOWEST_FIRST);
+		return sortedMeasures;
+	}
+
+	private static void writeJsonMeasures(Writer writer, List<Measure> measures) throws IOException {
+		String separator = "\n    ";
+		for (Measure measure : measures) {
+			writer.write(separator);
+			writer.write("{\"name\": \"" + escapeJson(measure.name) + "\", \"invocations\": " + measure.totalInvocations() + ", \"totalNanos\": " + measure.totalNanos());
+			for (Phase phase : Phase.values()) {
+				writer.write(", \"" + phase.label() + "Nanos\": " + measure.nanos[phase.ordinal()]);
+			}
+			writer.write('}');
+			separator = ",\n    ";
+		}
+		if (!measures.isEmpty()) {
+			writer.write("\n  ");
+		}
+	}
+
+	private static void writeCsvMeasures(Writer writer, String section, List<Measure> measures) throws IOException {
+		for (Measure measure : measures) {
+			writer.write(section + "," + escapeCsv(measure.name) + "," + measure.totalInvocations() + "," + measure.totalNanos());
+			for (Phase phase : Phase.values()) {
+				writer.write("," + measure.nanos[phase.ordinal()]);
+			}
+			writer.write('\n');
+		}
+	}
+
+	private static String escapeJson(String value) {
+		StringBuilder escaped = new StringBuilder(value.length());
+		for (char character : value.toCharArray()) {
+			if (character == '"' || character == '\\') {
+				escaped.append('\\').append(character);
+			} else if (character < ' ') {
+				escaped.append(String.format("\\u%04x", (int) character));
+			} else {
+				escaped.append(character);
+			}
+		}
+		return escaped.toString();
+	}
+
+	private static String escapeCsv(String value) {
+		if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+			return value;
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	private static Format resolveFormat(String value) {
+		if (value == null) {
+			return null;
+		}
+		for (Format format : Format.values()) {
+			if (format.name().equalsIgnoreCase(value)) {
+				return format;
+			}
+		}
+		LOGGER.warn("Invalid value for {}: {}, expected json or csv", OPTION_PROFILING_REPORT.getName(), value);
+		return null;
+	}
+
+	private static int resolveTopElements(String value) {
+		try {
+			return Math.max(0, Integer.parseInt(value));
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid value for {}: {}, using {}", OPTION_PROFILING_REPORT_TOP_ELEMENTS.getName(), value, DEFAULT_TOP_ELEMENTS);
+			return DEFAULT_TOP_ELEMENTS;
+		}
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.androidannotations.logger.Logger;
 import org.androidannotations.logger.LoggerFactory;
@@ -47,15 +48,15 @@ public class TimeStats {
 	}
 
 	public void start(String key) {
-		long start = System.currentTimeMillis();
+		long start = System.nanoTime();
 		measures.put(key, start);
 	}
 
 	public void stop(String key) {
 		Long start = measures.remove(key);
 		if (start != null) {
-			long end = System.currentTimeMillis();
-			long duration = end - start;
+			long end = System.nanoTime();
+			long duration = TimeUnit.NANOSECONDS.toMillis(end - start);
 			durations.add(new Duration(key, duration));
 		}
 	}
@@ -30,6 +30,12 @@ public class CompoundInnerClass implements IRInnerClass {
 		this.androidRInnerClass = androidRInnerClass;
 	}
 
+	@Override
+	public void index() {
+		rInnerClass.index();
+		androidRInnerClass.index();
+	}
+
 	@Override
 	public boolean containsIdValue(Integer idValue) {
 		return rInnerClass.containsIdValue(idValue) || androidRInnerClass.containsIdValue(idValue);
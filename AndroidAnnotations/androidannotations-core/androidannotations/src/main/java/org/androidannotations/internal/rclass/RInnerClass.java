@@ -44,43 +44,71 @@ public class RInnerClass implements IRInnerClass {
 
 	private final String rInnerQualifiedName;
 
+	/**
+	 * The fields are only read on first use: the R classes, and especially the
+	 * android.R ones, may declare thousands of fields while only a few inner
+	 * classes are ever looked up.
+	 */
+	private TypeElement rInnerTypeElement;
+	private volatile boolean indexed;
+
 	public RInnerClass(TypeElement rInnerTypeElement) {
 		if (rInnerTypeElement != null) {
-
 			rInnerQualifiedName = rInnerTypeElement.getQualifiedName().toString();
+			this.rInnerTypeElement = rInnerTypeElement;
+		} else {
+			rInnerQualifiedName = "";
+			indexed = true;
+		}
+	}
 
-			List<? extends Element> idEnclosedElements = rInnerTypeElement.getEnclosedElements();
+	private void ensureIndexed() {
+		if (!indexed) {
+			index();
+		}
+	}
 
-			List<VariableElement> idFields = ElementFilter.fieldsIn(idEnclosedElements);
+	@Override
+	public synchronized void index() {
+		if (indexed) {
+			return;
+		}
+
+		List<? extends Element> idEnclosedElements = rInnerTypeElement.getEnclosedElements();
+
+		List<VariableElement> idFields = ElementFilter.fieldsIn(idEnclosedElements);
 
-			for (VariableElement idField : idFields) {
-				TypeKind fieldType = idField.asType().getKind();
-				if (fieldType.isPrimitive() && fieldType.equals(TypeKind.INT)) {
-					String idQualifiedName = rInnerQualifiedName + "." + idField.getSimpleName();
-					idQualifiedNames.add(idQualifiedName);
-					Integer idFieldId = (Integer) idField.getConstantValue();
-					if (idFieldId != null) {
-						idQualifiedNamesByIdValues.put(idFieldId, idQualifiedName);
-					}
+		for (VariableElement idField : idFields) {
+			TypeKind fieldType = idField.asType().getKind();
+			if (fieldType.isPrimitive() && fieldType.equals(TypeKind.INT)) {
+				String idQualifiedName = rInnerQualifiedName + "." + idField.getSimpleName();
+				idQualifiedNames.add(idQualifiedName);
+				Integer idFieldId = (Integer) idField.getConstantValue();
+				if (idFieldId != null) {
+					idQualifiedNamesByIdValues.put(idFieldId, idQualifiedName);
 				}
 			}
-		} else {
-			rInnerQualifiedName = "";
 		}
+
+		rInnerTypeElement = null;
+		indexed = true;
 	}
 
 	@Override
 	public boolean containsIdValue(Integer idValue) {
+		ensureIndexed();
 		return idQualifiedNamesByIdValues.containsKey(idValue);
 	}
 
 	@Override
 	public String getIdQualifiedName(Integer idValue) {
+		ensureIndexed();
 		return idQualifiedNamesByIdValues.get(idValue);
 	}
 
 	@Override
 	public boolean containsField(String name) {
+		ensureIndexed();
 		boolean containsField = idQualifiedNames.contains(rInnerQualifiedName + "." + name);
 
 		if (!containsField) {
@@ -93,6 +121,7 @@ public class RInnerClass implements IRInnerClass {
 
 	@Override
 	public String getIdQualifiedName(String name) {
+		ensureIndexed();
 		String idQualifiedName = rInnerQualifiedName + "." + name;
 
 		if (idQualifiedNames.contains(idQualifiedName)) {
@@ -25,6 +25,7 @@ import javax.lang.model.element.Element;
 import org.androidannotations.AndroidAnnotationsEnvironment;
 import org.androidannotations.Option;
 import org.androidannotations.logger.appender.Appender;
+import org.androidannotations.logger.appender.AsyncAppender;
 import org.androidannotations.logger.appender.ConsoleAppender;
 import org.androidannotations.logger.appender.FileAppender;
 import org.androidannotations.logger.appender.MessagerAppender;
@@ -35,12 +36,15 @@ public final class LoggerContext {
 	public static final Option OPTION_LOG_LEVEL = new Option("logLevel", "WARN");
 	public static final Option OPTION_LOG_APPENDER_CONSOLE = new Option("logAppenderConsole", "false");
 	public static final Option OPTION_LOG_APPENDER_FILE = new Option("logAppenderFile", "true");
+	public static final Option OPTION_LOG_APPENDER_ASYNC = new Option("logAppenderAsync", "false");
+	public static final Option OPTION_LOG_CALLER_LINE_NUMBER = new Option("logCallerLineNumber", "true");
 
 	private static LoggerContext instance = null;
 	private static final Level DEFAULT_LEVEL = Level.WARN;
 
 	private Level currentLevel = DEFAULT_LEVEL;
 	private List<Appender> appenders = new ArrayList<>();
+	private final ThreadLocal<List<BufferedLog>> logBuffers = new ThreadLocal<>();
 
 	private LoggerContext() {
 
@@ -58,10 +62,92 @@ public final class LoggerContext {
 	}
 
 	public void writeLog(Level level, String loggerName, String message, Element element, AnnotationMirror annotationMirror, Throwable thr, Object... args) {
-		for (Appender appender : appenders) {
-			Formatter formatter = appender.getFormatter();
-			String log = formatter.buildLog(level, loggerName, message, thr, args);
-			appender.append(level, element, annotationMirror, log);
+		List<BufferedLog> logBuffer = logBuffers.get();
+		if (logBuffer != null) {
+			logBuffer.add(new BufferedLog(level, element, annotationMirror, buildLogs(level, loggerName, message, thr, args)));
+		} else {
+			append(level, element, annotationMirror, buildLogs(level, loggerName, message, thr, args));
+		}
+	}
+
+	/**
+	 * Keeps the logs written by the current thread until {@link #stopBuffering()}
+	 * is called, instead of appending them. The logs are formatted when they are
+	 * written, so they keep their caller, thread and time.
+	 */
+	public void startBuffering() {
+		logBuffers.set(new ArrayList<BufferedLog>());
+	}
+
+	/**
+	 * @return the logs written by the current thread since
+	 *         {@link #startBuffering()}, in order
+	 */
+	public List<BufferedLog> stopBuffering() {
+		List<BufferedLog> logBuffer = logBuffers.get();
+		logBuffers.remove();
+		return logBuffer;
+	}
+
+	/**
+	 * Appends a log kept by {@link #startBuffering()}, on the given element
+	 * instead of the one it was written with.
+	 */
+	public void writeBufferedLog(BufferedLog log, Element element, AnnotationMirror annotationMirror) {
+		append(log.level, element, annotationMirror, log.logs);
+	}
+
+	private synchronized String[] buildLogs(Level level, String loggerName, String message, Throwable thr, Object... args) {
+		String[] logs = new String[appenders.size()];
+		for (int i = 0; i < logs.length; i++) {
+			logs[i] = findFormattedLog(i, logs);
+			if (logs[i] == null) {
+				logs[i] = appenders.get(i).getFormatter().buildLog(level, loggerName, message, thr, args);
+			}
+		}
+		return logs;
+	}
+
+	private synchronized void append(Level level, Element element, AnnotationMirror annotationMirror, String[] logs) {
+		for (int i = 0; i < logs.length; i++) {
+			appenders.get(i).append(level, element, annotationMirror, logs[i]);
+		}
+	}
+
+	/*
+	 * The appenders having the same kind of formatter share their logs, so that
+	 * a message is formatted once per kind of formatter.
+	 */
+	private String findFormattedLog(int appenderIndex, String[] logs) {
+		Class<? extends Formatter> formatterClass = appenders.get(appenderIndex).getFormatter().getClass();
+		for (int i = 0; i < appenderIndex; i++) {
+			if (appenders.get(i).getFormatter().getClass() == formatterClass) {
+				return logs[i];
+			}
+		}
+		return null;
+	}
+
+	public static final class BufferedLog {
+
+		private final Level level;
+		private final Element element;
+		private final AnnotationMirror annotationMirror;
+		private final String[] logs;
+
+		BufferedLog(Level level, Element element, AnnotationMirror annotationMirror, String[] logs) {
+			this.level = level;
+			this.element = element;
+			this.annotationMirror = annotationMirror;
+			this.logs = logs;
+		}
+
+		public Element getElement() {
+			return element;
+		}
+
+		public AnnotationMirror getAnnotationMirror() {
+			return annotationMirror;
 		}
 	}
 
@@ -80,7 +166,9 @@ public final class LoggerContext {
 		addFileAppender(environment);
 		appenders.add(new MessagerAppender());
 
+		boolean callerLineNumberEnabled = environment.getOptionBooleanValue(OPTION_LOG_CALLER_LINE_NUMBER);
 		for (Appender appender : appenders) {
+			appender.getFormatter().setCallerLineNumberEnabled(callerLineNumberEnabled);
 			appender.setEnvironment(environment);
 			appender.open();
 		}
@@ -109,7 +197,12 @@ public final class LoggerContext {
 	}
 
 	private void addFileAppender(AndroidAnnotationsEnvironment environment) {
-		if (environment.getOptionBooleanValue(OPTION_LOG_APPENDER_FILE)) {
+		if (!environment.getOptionBooleanValue(OPTION_LOG_APPENDER_FILE)) {
+			return;
+		}
+		if (environment.getOptionBooleanValue(OPTION_LOG_APPENDER_ASYNC)) {
+			appenders.add(new AsyncAppender(new FileAppender(true)));
+		} else {
 			appenders.add(new FileAppender());
 		}
 	}
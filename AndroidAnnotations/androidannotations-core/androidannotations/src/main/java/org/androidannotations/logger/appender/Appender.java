@@ -45,6 +45,12 @@ public abstract class Appender {
 
 	public abstract void append(Level level, Element element, AnnotationMirror annotationMirror, String message);
 
+	/**
+	 * Writes the messages which are buffered by this appender, if any.
+	 */
+	public void flush() {
+	}
+
 	public abstract void close(boolean lastRound);
 
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.logger.appender;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+
+import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.androidannotations.logger.Level;
+
+/**
+ * Decorates an appender so that its messages are written by a background
+ * thread. The messages wait in a bounded queue: when it is full, the logging
+ * thread waits for the writer. The decorated appender is flushed whenever the
+ * queue becomes empty, and {@link #close(boolean)} returns once all the queued
+ * messages are written.
+ */
+public class AsyncAppender extends Appender {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final Runnable STOP = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	private final Appender delegate;
+	private final BlockingQueue<Runnable> queue;
+	private volatile Thread writerThread;
+
+	public AsyncAppender(Appender delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+
+	public AsyncAppender(Appender delegate, int capacity) {
+		super(delegate.getFormatter());
+		this.delegate = delegate;
+		queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	@Override
+	public void setEnvironment(AndroidAnnotationsEnvironment environment) {
+		super.setEnvironment(environment);
+		delegate.setEnvironment(environment);
+	}
+
+	@Override
+	public synchronized void open() {
+		delegate.open();
+		if (writerThread == null) {
+			writerThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					writeMessages();
+				}
+			}, "androidannotations-log-writer");
+			writerThread.setDaemon(true);
+			writerThread.start();
+		}
+	}
+
+	@Override
+	public void append(final Level level, final Element element, final AnnotationMirror annotationMirror, final String message) {
+		enqueue(new Runnable() {
+			@Override
+			public void run() {
+				delegate.append(level, element, annotationMirror, message);
+			}
+		});
+	}
+
+	@Override
+	public void flush() {
+		runAndWait(new Runnable() {
+			@Override
+			public void run() {
+				delegate.flush();
+			}
+		});
+	}
+
+	@Override
+	public synchronized void close(final boolean lastRound) {
+		runAndWait(new Runnable() {
+			@Override
+			public void run() {
+				delegate.close(lastRound);
+			}
+		});
+		if (lastRound && writerThread != null) {
+			enqueue(STOP);
+			writerThread = null;
+		}
+	}
+
+	private void writeMessages() {
+		try {
+			while (true) {
+				Runnable task = queue.take();
+				if (task == STOP) {
+					return;
+				}
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+				if (queue.isEmpty()) {
+					delegate.flush();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Queues the task for the writer thread, or runs it right away if the writer
+	 * is not started or already stopped.
+	 */
+	private void enqueue(Runnable task) {
+		if (writerThread == null) {
+			task.run();
+			return;
+		}
+		try {
+			queue.put(task);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void runAndWait(final Runnable task) {
+		final CountDownLatch done = new CountDownLatch(1);
+		enqueue(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				} finally {
+					done.countDown();
+				}
+			}
+		});
+		try {
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
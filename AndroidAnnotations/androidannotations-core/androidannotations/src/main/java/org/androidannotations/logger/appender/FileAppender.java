@@ -16,10 +16,13 @@
  */
 package org.androidannotations.logger.appender;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import javax.annotation.processing.Messager;
 import javax.lang.model.element.AnnotationMirror;
@@ -39,18 +42,31 @@ public class FileAppender extends Appender {
 
 	private static final String DEFAULT_FILENAME = "androidannotations.log";
 
+	private final boolean buffered;
+
 	private File file;
-	private FileOutputStream outputStream;
+	private Writer writer;
 
 	public FileAppender() {
+		this(false);
+	}
+
+	/**
+	 * @param buffered
+	 *            if <code>true</code>, the messages are only written to the file
+	 *            when {@link #flush()} or {@link #close(boolean)} is called,
+	 *            otherwise each message is written as soon as it is appended
+	 */
+	public FileAppender(boolean buffered) {
 		super(new FormatterFull());
+		this.buffered = buffered;
 	}
 
 	@Override
 	public synchronized void open() {
 		if (!isStreamOpened()) {
 			try {
-				outputStream = new FileOutputStream(file, true);
+				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true)));
 			} catch (FileNotFoundException e) {
 				e.printStackTrace();
 			}
@@ -61,11 +77,11 @@ public class FileAppender extends Appender {
 	public synchronized void close(boolean lastRound) {
 		if (isStreamOpened()) {
 			try {
-				outputStream.close();
+				writer.close();
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
-			outputStream = null;
+			writer = null;
 		}
 	}
 
@@ -73,9 +89,22 @@ public class FileAppender extends Appender {
 	public synchronized void append(Level level, Element element, AnnotationMirror annotationMirror, String message) {
 		if (isStreamOpened()) {
 			try {
-				message += "\n";
-				outputStream.write(message.getBytes());
-				outputStream.flush();
+				writer.write(message);
+				writer.write('\n');
+				if (!buffered) {
+					writer.flush();
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		if (isStreamOpened()) {
+			try {
+				writer.flush();
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -123,7 +152,7 @@ public class FileAppender extends Appender {
 	}
 
 	private boolean isStreamOpened() {
-		return outputStream != null;
+		return writer != null;
 	}
 
 }
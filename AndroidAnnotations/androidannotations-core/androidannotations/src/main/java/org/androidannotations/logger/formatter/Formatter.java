@@ -31,6 +31,8 @@ public abstract class Formatter {
 	private static final String ARGS_PATTERN = "{}";
 	private static final int ARGS_PATTERN_LENGTH = ARGS_PATTERN.length();
 
+	private boolean callerLineNumberEnabled = true;
+
 	public abstract String buildLog(Level level, String loggerName, String message, Throwable thr, Object... args);
 
 	protected String getCurrentThread() {
@@ -82,6 +84,18 @@ public abstract class Formatter {
 		return writer.toString();
 	}
 
+	public boolean isCallerLineNumberEnabled() {
+		return callerLineNumberEnabled;
+	}
+
+	/**
+	 * The caller line number is found by walking the stack of the current
+	 * thread, which is slow when there are many logs.
+	 */
+	public void setCallerLineNumberEnabled(boolean callerLineNumberEnabled) {
+		this.callerLineNumberEnabled = callerLineNumberEnabled;
+	}
+
 	protected int getCallerLineNumber() {
 		boolean previousWasLogger = false;
 		String loggerClassName = Logger.class.getCanonicalName();
@@ -26,9 +26,13 @@ public class FormatterFull extends Formatter {
 		stringBuilder.append(getTime()) //
 				.append(" [").append(getCurrentThread()).append("]") //
 				.append(" ").append(level.name) //
-				.append(" ").append(loggerName) //
-				.append(":").append(getCallerLineNumber()) //
-				.append(" - ").append(buildFullMessage(message, args));
+				.append(" ").append(loggerName);
+
+		if (isCallerLineNumberEnabled()) {
+			stringBuilder.append(":").append(getCallerLineNumber());
+		}
+
+		stringBuilder.append(" - ").append(buildFullMessage(message, args));
 
 		// Stacktrace
 		if (thr != null) {
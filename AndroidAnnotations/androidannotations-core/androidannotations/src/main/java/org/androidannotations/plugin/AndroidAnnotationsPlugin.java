@@ -52,6 +52,18 @@ public abstract class AndroidAnnotationsPlugin {
 		return true;
 	}
 
+	/**
+	 * Whether the handlers of this plugin can run in an incremental aggregating
+	 * compilation: they must only read their inputs from the processed elements
+	 * and the classpath, and every generated class must be tracked by an
+	 * originating element.
+	 *
+	 * @return <code>true</code> if this plugin supports incremental processing
+	 */
+	public boolean supportsIncrementalProcessing() {
+		return false;
+	}
+
 	public final void loadVersion() throws FileNotFoundException, VersionNotFoundException {
 		version = getVersionFromPropertyFile(getName().toLowerCase());
 		apiVersion = getVersionFromPropertyFile(getName().toLowerCase() + "-api");
@@ -21,6 +21,13 @@ import com.helger.jcodemodel.JFieldRef;
 
 public interface IRInnerClass {
 
+	/**
+	 * Reads the fields of the inner class if they were not read yet. The other
+	 * methods do it on first use, this allows to do it up front from the
+	 * thread owning the compiler model.
+	 */
+	void index();
+
 	boolean containsIdValue(Integer idValue);
 
 	boolean containsField(String name);
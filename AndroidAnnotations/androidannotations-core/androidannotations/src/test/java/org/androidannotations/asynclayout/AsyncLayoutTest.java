@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.asynclayout;
+
+import java.io.File;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncLayoutTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(AsyncLayoutTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void activityInflatesItsLayoutAsynchronously() {
+		CompileResult result = compileFiles(ActivityWithAsyncLayout.class);
+		assertCompilationSuccessful(result);
+
+		File generatedFile = toGeneratedFile(ActivityWithAsyncLayout.class);
+		assertGeneratedClassMatches(generatedFile, ".*AsyncLayoutInflater.inflate\\(getLayoutInflater\\(\\), R.layout.main, .*");
+		assertGeneratedClassMatches(generatedFile, ".*setContentView\\(view, view.getLayoutParams\\(\\)\\);");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*setContentView\\(R.layout.main\\);");
+	}
+
+	@Test
+	public void destroyedActivityIgnoresItsAsyncLayout() {
+		CompileResult result = compileFiles(ActivityWithAsyncLayout.class);
+		assertCompilationSuccessful(result);
+
+		File generatedFile = toGeneratedFile(ActivityWithAsyncLayout.class);
+		assertGeneratedClassMatches(generatedFile, ".*asyncLayoutPending_ = true;");
+		assertGeneratedClassMatches(generatedFile, ".*if \\(\\(!asyncLayoutPending_\\)\\|\\|isFinishing\\(\\)\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*public void onDestroy\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*asyncLayoutPending_ = false;");
+	}
+
+	@Test
+	public void fragmentInflatesItsLayoutAsynchronously() {
+		CompileResult result = compileFiles(FragmentWithAsyncLayout.class);
+		assertCompilationSuccessful(result);
+
+		File generatedFile = toGeneratedFile(FragmentWithAsyncLayout.class);
+		assertGeneratedClassMatches(generatedFile, ".*AsyncLayoutInflater.inflate\\(inflater, R.layout.main, asyncLayoutParent, .*");
+		assertGeneratedClassMatches(generatedFile, ".*if \\(!asyncLayoutPending_\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*parent.addView\\(view\\);");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*inflater.inflate\\(.*");
+	}
+
+	@Test
+	public void viewGroupInflatesItsLayoutAsynchronously() {
+		CompileResult result = compileFiles(ViewGroupWithAsyncLayout.class);
+		assertCompilationSuccessful(result);
+
+		File generatedFile = toGeneratedFile(ViewGroupWithAsyncLayout.class);
+		assertGeneratedClassMatches(generatedFile, ".*AsyncLayoutInflater.inflate\\(LayoutInflater.from\\(getContext\\(\\)\\), R.layout.main, this, .*");
+		assertGeneratedClassMatches(generatedFile, ".*if \\(!asyncLayoutPending_\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*addView\\(view\\);");
+	}
+}
@@ -0,0 +1,14 @@
+package org.androidannotations.asynclayout;
+
+public class R {
+
+	public static class layout {
+
+		public static final int main = 0x7f030000;
+	}
+
+	public static class id {
+
+		public static final int title = 0x7f050000;
+	}
+}
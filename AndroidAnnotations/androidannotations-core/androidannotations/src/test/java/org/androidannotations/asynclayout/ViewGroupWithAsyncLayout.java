@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.asynclayout;
+
+import org.androidannotations.annotations.AfterViews;
+import org.androidannotations.annotations.EViewGroup;
+import org.androidannotations.annotations.ViewById;
+
+import android.content.Context;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+@EViewGroup(value = R.layout.main, asyncLayout = true)
+public class ViewGroupWithAsyncLayout extends FrameLayout {
+
+	@ViewById
+	TextView title;
+
+	public ViewGroupWithAsyncLayout(Context context) {
+		super(context);
+	}
+
+	@AfterViews
+	void afterViews() {
+		title.setText("attached");
+	}
+}
@@ -113,6 +113,14 @@ public class DataBindingTest extends AAProcessorTestHelper {
 		assertGeneratedClassContains(generatedFile, DATA_BINDING_EXPRESSIONS_VIEWGROUP);
 	}
 
+	@Test
+	public void fragmentWithAsyncDataBoundLayoutDoesNotCompile() throws IOException {
+		CompileResult result = compileFiles(FragmentWithAsyncDataBoundLayout.class, getDataBindingUtilClass());
+
+		assertCompilationErrorCount(1, result);
+		assertCompilationErrorOn(FragmentWithAsyncDataBoundLayout.class, "@EFragment", result);
+	}
+
 	@Test
 	public void beanWithDataBoundAnnotationDoesNotCompile() throws IOException {
 		CompileResult result = compileFiles(BeanWithDataBoundAnnotation.class, getDataBindingUtilClass());
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.ebean;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.androidannotations.annotations.EBean;
+
+/**
+ * Takes until {@link #RELEASED} to be built. Its members are public because
+ * the test loads the generated subclass in another class loader.
+ */
+@EBean(scope = EBean.Scope.Singleton)
+public class BlockingSingletonBean {
+
+	static final CountDownLatch STARTED = new CountDownLatch(1);
+	static final CountDownLatch RELEASED = new CountDownLatch(1);
+
+	public boolean released;
+
+	public BlockingSingletonBean() {
+		STARTED.countDown();
+		try {
+			released = RELEASED.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.ebean;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a bean extending {@link IntermediateBean} in the first round, so
+ * that AndroidAnnotations processes a subclass of the same ancestors in the
+ * next round.
+ */
+@SupportedAnnotationTypes("*")
+public class ChildBeanGeneratingProcessor extends AbstractProcessor {
+
+	static final String GENERATED_BEAN_NAME = "GeneratedChildBean";
+
+	private boolean generated;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (generated) {
+			return false;
+		}
+		generated = true;
+		String packageName = ChildBeanGeneratingProcessor.class.getPackage().getName();
+		try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + GENERATED_BEAN_NAME).openWriter()) {
+			writer.write("package " + packageName + ";\n\n");
+			writer.write("@org.androidannotations.annotations.EBean\n");
+			writer.write("public class " + GENERATED_BEAN_NAME + " extends IntermediateBean {\n}\n");
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate the bean: " + e);
+		}
+		return false;
+	}
+}
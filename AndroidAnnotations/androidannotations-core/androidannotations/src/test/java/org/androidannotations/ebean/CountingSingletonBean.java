@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.ebean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.androidannotations.annotations.AfterInject;
+import org.androidannotations.annotations.Bean;
+import org.androidannotations.annotations.EBean;
+
+/**
+ * Its members are public because the stress test loads the generated subclass
+ * in another class loader.
+ */
+@EBean(scope = EBean.Scope.Singleton)
+public class CountingSingletonBean {
+
+	static final AtomicInteger CONSTRUCTIONS = new AtomicInteger();
+	static final AtomicInteger INITIALIZATIONS = new AtomicInteger();
+
+	@Bean
+	public CountingSingletonBean self;
+
+	public CountingSingletonBean() {
+		CONSTRUCTIONS.incrementAndGet();
+		Thread.yield();
+	}
+
+	@AfterInject
+	public void initialized() {
+		INITIALIZATIONS.incrementAndGet();
+	}
+}
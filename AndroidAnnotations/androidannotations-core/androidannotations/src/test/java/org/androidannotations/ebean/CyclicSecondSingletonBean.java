@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.ebean;
+
+import org.androidannotations.annotations.Bean;
+import org.androidannotations.annotations.EBean;
+
+/**
+ * Depends on {@link CyclicFirstSingletonBean}, which depends on this bean. Its
+ * members are public because the test loads the generated subclass in another
+ * class loader.
+ */
+@EBean(scope = EBean.Scope.Singleton)
+public class CyclicSecondSingletonBean {
+
+	@Bean
+	public CyclicFirstSingletonBean other;
+
+	public CyclicSecondSingletonBean() {
+		// leaves the time to the other thread to start building the other bean
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
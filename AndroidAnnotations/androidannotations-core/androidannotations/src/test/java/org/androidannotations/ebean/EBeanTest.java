@@ -15,6 +15,9 @@
  */
 package org.androidannotations.ebean;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.androidannotations.internal.AndroidAnnotationProcessor;
 import org.androidannotations.testutils.AAProcessorTestHelper;
 import org.junit.Before;
@@ -26,6 +29,7 @@ public class EBeanTest extends AAProcessorTestHelper {
 	public void setUp() {
 		addManifestProcessorParameter(EBeanTest.class);
 		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
 	}
 
 	@Test
@@ -38,4 +42,53 @@ public class EBeanTest extends AAProcessorTestHelper {
 		assertCompilationError(compileFiles(InterfaceWithEBean.class));
 	}
 
+	@Test
+	public void lazyBeansAreBuiltOnFirstAccess() {
+		CompileResult result = compileFiles(ActivityWithLazyBeans.class, SomeImplementation.class, SingletonBean.class, SomeGenericBean.class);
+		File generatedFile = toGeneratedFile(ActivityWithLazyBeans.class);
+
+		assertCompilationSuccessful(result);
+		assertGeneratedClassMatches(generatedFile, ".*this.lazySingleton = new LazyBean<SingletonBean>\\(this\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*protected SingletonBean create\\(Context context\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*return SingletonBean_.getInstance_\\(context\\);");
+		assertGeneratedClassMatches(generatedFile, ".*return SomeImplementation_.getInstance_\\(context\\);");
+		assertGeneratedClassMatches(generatedFile, ".*this.genericBeanProvider = new BeanProvider<SomeGenericBean<Object>>\\(this\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*singletonProvider = new BeanProvider<SingletonBean>\\(this\\) \\{");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*= SingletonBean_.getInstance_\\(this\\);");
+	}
+
+	@Test
+	public void beansSharingAncestorsInheritTheirAnnotations() {
+		CompileResult result = compileFiles(FirstChildBean.class, SecondChildBean.class, SingletonBean.class);
+
+		assertCompilationSuccessful(result);
+		for (Class<?> beanClass : new Class<?>[] { FirstChildBean.class, SecondChildBean.class, }) {
+			File generatedFile = toGeneratedFile(beanClass);
+			assertGeneratedClassMatches(generatedFile, ".*this.singleton = SingletonBean_.getInstance_\\(context_\\);");
+			assertGeneratedClassMatches(generatedFile, ".*baseInjected\\(\\);");
+			assertGeneratedClassMatches(generatedFile, ".*void refresh\\(\\) \\{");
+		}
+	}
+
+	@Test
+	public void beansProcessedInLaterRoundsInheritTheAnnotationsOfSharedAncestors() {
+		addProcessor(ChildBeanGeneratingProcessor.class);
+		CompileResult result = compileFiles(FirstChildBean.class, SingletonBean.class);
+
+		assertCompilationSuccessful(result);
+		File[] generatedFiles = { toGeneratedFile(FirstChildBean.class), toGeneratedFile(EBeanTest.class, ChildBeanGeneratingProcessor.GENERATED_BEAN_NAME) };
+		for (File generatedFile : generatedFiles) {
+			assertGeneratedClassMatches(generatedFile, ".*this.singleton = SingletonBean_.getInstance_\\(context_\\);");
+			assertGeneratedClassMatches(generatedFile, ".*baseInjected\\(\\);");
+			assertGeneratedClassMatches(generatedFile, ".*void refresh\\(\\) \\{");
+		}
+	}
+
+	@Test
+	public void lazyBeanTypeMustBeAnEBean() throws IOException {
+		CompileResult result = compileFiles(ActivityWithInvalidLazyBean.class, SomeImplementation.class);
+
+		assertCompilationErrorOn(ActivityWithInvalidLazyBean.class, "@Bean", result);
+	}
+
 }
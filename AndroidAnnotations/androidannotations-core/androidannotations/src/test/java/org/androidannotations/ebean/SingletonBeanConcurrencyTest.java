@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.ebean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.Context;
+
+public class SingletonBeanConcurrencyTest extends AAProcessorTestHelper {
+
+	private static final int THREADS = 16;
+	private static final int ROUNDS = 200;
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(SingletonBeanConcurrencyTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void singletonIsBuiltOnceUnderContention() throws Exception {
+		CompileResult result = compileFiles(CountingSingletonBean.class);
+		assertCompilationSuccessful(result);
+		File generatedFile = toGeneratedFile(CountingSingletonBean.class);
+		assertGeneratedClassMatches(generatedFile, ".*private static volatile CountingSingletonBean_ instance_;");
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { getOuputDirectory().toURI().toURL() }, getClass().getClassLoader())) {
+			Class<?> generatedClass = classLoader.loadClass(CountingSingletonBean.class.getName() + "_");
+			final Method getInstance = generatedClass.getMethod("getInstance_", Context.class);
+			Field instanceField = generatedClass.getDeclaredField("instance_");
+			instanceField.setAccessible(true);
+			final Context context = mock(Context.class);
+			final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+			ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+
+			try {
+				for (int round = 0; round < ROUNDS; round++) {
+					instanceField.set(null, null);
+					CountingSingletonBean.CONSTRUCTIONS.set(0);
+					CountingSingletonBean.INITIALIZATIONS.set(0);
+
+					List<Future<Object>> futures = new ArrayList<>();
+					for (int i = 0; i < THREADS; i++) {
+						futures.add(executorService.submit(new Callable<Object>() {
+							@Override
+							public Object call() throws Exception {
+								barrier.await();
+								return getInstance.invoke(null, context);
+							}
+						}));
+					}
+
+					CountingSingletonBean instance = (CountingSingletonBean) futures.get(0).get();
+					for (Future<Object> future : futures) {
+						assertSame(instance, future.get());
+					}
+					assertSame(instance, instance.self);
+					assertEquals(1, CountingSingletonBean.CONSTRUCTIONS.get());
+					assertEquals(1, CountingSingletonBean.INITIALIZATIONS.get());
+				}
+			} finally {
+				executorService.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void independentSingletonsAreBuiltConcurrently() throws Exception {
+		CompileResult result = compileFiles(BlockingSingletonBean.class, CountingSingletonBean.class);
+		assertCompilationSuccessful(result);
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { getOuputDirectory().toURI().toURL() }, getClass().getClassLoader())) {
+			final Method getBlockingInstance = classLoader.loadClass(BlockingSingletonBean.class.getName() + "_").getMethod("getInstance_", Context.class);
+			final Method getCountingInstance = classLoader.loadClass(CountingSingletonBean.class.getName() + "_").getMethod("getInstance_", Context.class);
+			final Context context = mock(Context.class);
+			ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+			try {
+				Future<Object> blocking = executorService.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						return getBlockingInstance.invoke(null, context);
+					}
+				});
+				assertTrue(BlockingSingletonBean.STARTED.await(10, TimeUnit.SECONDS));
+
+				// the blocking bean is still being built
+				Future<Object> counting = executorService.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						return getCountingInstance.invoke(null, context);
+					}
+				});
+				assertNotNull(counting.get(5, TimeUnit.SECONDS));
+				assertFalse(blocking.isDone());
+
+				BlockingSingletonBean.RELEASED.countDown();
+				assertTrue(((BlockingSingletonBean) blocking.get(10, TimeUnit.SECONDS)).released);
+			} finally {
+				BlockingSingletonBean.RELEASED.countDown();
+				executorService.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void cyclicSingletonsBuiltFromTwoThreadsDoNotDeadlock() throws Exception {
+		CompileResult result = compileFiles(CyclicFirstSingletonBean.class, CyclicSecondSingletonBean.class);
+		assertCompilationSuccessful(result);
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { getOuputDirectory().toURI().toURL() }, getClass().getClassLoader())) {
+			final Method getFirstInstance = classLoader.loadClass(CyclicFirstSingletonBean.class.getName() + "_").getMethod("getInstance_", Context.class);
+			final Method getSecondInstance = classLoader.loadClass(CyclicSecondSingletonBean.class.getName() + "_").getMethod("getInstance_", Context.class);
+			final Context context = mock(Context.class);
+			// the beans pass their application context to each other
+			when(context.getApplicationContext()).thenReturn(context);
+			final CyclicBarrier barrier = new CyclicBarrier(2);
+			// a deadlocked thread must not prevent the JVM from exiting
+			ExecutorService executorService = Executors.newFixedThreadPool(2, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+			try {
+				Future<Object> first = executorService.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						barrier.await();
+						return getFirstInstance.invoke(null, context);
+					}
+				});
+				Future<Object> second = executorService.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						barrier.await();
+						return getSecondInstance.invoke(null, context);
+					}
+				});
+
+				CyclicFirstSingletonBean firstBean = (CyclicFirstSingletonBean) first.get(10, TimeUnit.SECONDS);
+				CyclicSecondSingletonBean secondBean = (CyclicSecondSingletonBean) second.get(10, TimeUnit.SECONDS);
+				assertSame(secondBean, firstBean.other);
+				assertSame(firstBean, secondBean.other);
+			} finally {
+				executorService.shutdownNow();
+			}
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import org.androidannotations.annotations.EActivity;
+import org.androidannotations.annotations.res.ColorRes;
+import org.androidannotations.annotations.res.DrawableRes;
+import org.androidannotations.api.Lazy;
+
+import android.app.Activity;
+import android.graphics.drawable.Drawable;
+
+@EActivity
+public class ActivityWithLazyResources extends Activity {
+
+	@DrawableRes(R.drawable.myDrawable)
+	Lazy<Drawable> myDrawable;
+
+	@ColorRes(R.color.myColor)
+	Lazy<Integer> myColor;
+
+	@DrawableRes(R.drawable.myDrawable)
+	void setLazyDrawable(Lazy<Drawable> lazyDrawable) {
+	}
+}
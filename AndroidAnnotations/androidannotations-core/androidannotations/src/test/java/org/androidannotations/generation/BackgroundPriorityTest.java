@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BackgroundPriorityTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(BackgroundPriorityTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+	}
+
+	@Test
+	public void priorityIsPassedToTheTask() {
+		CompileResult result = compileFiles(BeanWithBackgroundPriority.class);
+		File generatedFile = toGeneratedFile(BeanWithBackgroundPriority.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*new BackgroundExecutor.Task\\(\"\", 0L, \"\", 10\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*new BackgroundExecutor.Task\\(\"\", 0L, \"prefetch\"\\) \\{");
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import org.androidannotations.annotations.Background;
+import org.androidannotations.annotations.EBean;
+import org.androidannotations.annotations.UiThread;
+
+@EBean
+public class BeanWithCoalescedTasks {
+
+	@UiThread(id = "refresh", coalesce = UiThread.Coalesce.LATEST)
+	void refresh() {
+	}
+
+	@UiThread(id = "update")
+	void update() {
+	}
+
+	@Background(id = "search", serial = "search", coalesce = Background.Coalesce.LATEST)
+	void search(String query) {
+	}
+
+	@Background(id = "load")
+	void load() {
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoalescedTasksTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(CoalescedTasksTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+	}
+
+	@Test
+	public void latestCallsUseTheCoalescingMethods() {
+		CompileResult result = compileFiles(BeanWithCoalescedTasks.class);
+		File generatedFile = toGeneratedFile(BeanWithCoalescedTasks.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*UiThreadExecutor.runLatestTask\\(\"refresh\", new Runnable\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*UiThreadExecutor.runTask\\(\"update\", new Runnable\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*BackgroundExecutor.executeLatest\\(new BackgroundExecutor.Task\\(\"search\", 0L, \"search\"\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*BackgroundExecutor.execute\\(new BackgroundExecutor.Task\\(\"load\", 0L, \"\"\\) \\{");
+	}
+
+	@Test
+	public void coalescingWithoutIdFails() throws IOException {
+		CompileResult result = compileFiles(BeanWithCoalescedTasksWithoutId.class);
+
+		assertCompilationErrorOn(BeanWithCoalescedTasksWithoutId.class, "@UiThread", result);
+		assertCompilationErrorOn(BeanWithCoalescedTasksWithoutId.class, "@Background", result);
+		assertCompilationErrorCount(2, result);
+	}
+}
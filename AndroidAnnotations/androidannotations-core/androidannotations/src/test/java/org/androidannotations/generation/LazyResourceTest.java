@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyResourceTest extends AAProcessorTestHelper {
+
+	// CHECKSTYLE:OFF
+	private static final String[] LAZY_DRAWABLE_CONDITIONAL = new String[] { "                if (VERSION.SDK_INT >= VERSION_CODES.LOLLIPOP) {",
+			"                    resource = context.getDrawable(R.drawable.myDrawable);", "                } else {", "                    resource = resources.getDrawable(R.drawable.myDrawable);",
+			"                }", "                return resource;", };
+	// CHECKSTYLE:ON
+
+	@Before
+	public void setUp() {
+		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void lazyResourcesAreLoadedOnFirstAccess() {
+		addManifestProcessorParameter(LazyResourceTest.class, "AndroidManifestForDrawable.xml");
+
+		CompileResult result = compileFiles(ActivityWithLazyResources.class);
+		File generatedFile = toGeneratedFile(ActivityWithLazyResources.class);
+
+		assertCompilationSuccessful(result);
+		assertGeneratedClassMatches(generatedFile, ".*this.myDrawable = new LazyResource<Drawable>\\(this\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*protected Drawable load\\(Context context, Resources resources\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*return resources.getDrawable\\(R.drawable.myDrawable\\);");
+		assertGeneratedClassMatches(generatedFile, ".*return resources.getColor\\(R.color.myColor\\);");
+		assertGeneratedClassMatches(generatedFile, ".*lazyDrawable = new LazyResource<Drawable>\\(this\\) \\{");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*resources_.*");
+	}
+
+	@Test
+	public void lazyResourceKeepsTheSdkCondition() throws Exception {
+		addManifestProcessorParameter(LazyResourceTest.class, "AndroidManifestForDrawableMinSdk20.xml");
+
+		CompileResult result = compileFiles(toPath(LazyResourceTest.class, "Context.java"), toPath(LazyResourceTest.class, "Build.java"), ActivityWithLazyResources.class);
+		File generatedFile = toGeneratedFile(ActivityWithLazyResources.class);
+
+		assertCompilationSuccessful(result);
+		assertGeneratedClassContains(generatedFile, LAZY_DRAWABLE_CONDITIONAL);
+	}
+
+	@Test
+	public void lazyResourceTypeIsValidated() throws IOException {
+		addManifestProcessorParameter(LazyResourceTest.class, "AndroidManifestForDrawable.xml");
+
+		CompileResult result = compileFiles(ActivityWithInvalidLazyResource.class);
+
+		assertCompilationErrorOn(ActivityWithInvalidLazyResource.class, "@DrawableRes", result);
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.androidannotations.ebean.ActivityWithLazyBeans;
+import org.androidannotations.ebean.EBeanTest;
+import org.androidannotations.ebean.FirstChildBean;
+import org.androidannotations.ebean.SecondChildBean;
+import org.androidannotations.ebean.SingletonBean;
+import org.androidannotations.ebean.SomeActivity;
+import org.androidannotations.ebean.SomeGenericBean;
+import org.androidannotations.ebean.SomeGenericBeanExt;
+import org.androidannotations.ebean.SomeImplementation;
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelSourceGenerationTest extends AAProcessorTestHelper {
+
+	private static final Class<?>[] COMPILED_CLASSES = { //
+		SomeActivity.class, ActivityWithLazyBeans.class, SomeImplementation.class, SingletonBean.class, //
+		SomeGenericBean.class, SomeGenericBeanExt.class, FirstChildBean.class, SecondChildBean.class, //
+	};
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(EBeanTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void parallelGenerationWritesTheSameSources() throws IOException {
+		assertCompilationSuccessful(compileFiles((Object[]) COMPILED_CLASSES));
+		Map<String, String> sequentialSources = readGeneratedSources();
+
+		ensureOutputDirectoryIsEmpty();
+		addProcessorParameter("parallelSourceGeneration", "true");
+		addProcessorParameter("sourceGenerationThreads", "4");
+		assertCompilationSuccessful(compileFiles((Object[]) COMPILED_CLASSES));
+		Map<String, String> parallelSources = readGeneratedSources();
+
+		Assert.assertTrue(sequentialSources.containsKey("org/androidannotations/ebean/SecondChildBean_.java"));
+		Assert.assertEquals(sequentialSources, parallelSources);
+	}
+
+	private Map<String, String> readGeneratedSources() throws IOException {
+		Map<String, String> sources = new TreeMap<>();
+		readGeneratedSources(getOuputDirectory(), "", sources);
+		return sources;
+	}
+
+	private void readGeneratedSources(File directory, String path, Map<String, String> sources) throws IOException {
+		for (File file : directory.listFiles()) {
+			if (file.isDirectory()) {
+				readGeneratedSources(file, path + file.getName() + "/", sources);
+			} else if (file.getName().endsWith(SOURCE_FILE_SUFFIX)) {
+				sources.put(path + file.getName(), new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+			}
+		}
+	}
+}
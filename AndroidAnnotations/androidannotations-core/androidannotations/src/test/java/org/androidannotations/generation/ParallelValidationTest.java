@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2010-2016 eBusiness Information, Excilys Group
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelValidationTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(ParallelValidationTest.class, "AndroidManifestForDrawable.xml");
+		addProcessor(AndroidAnnotationProcessor.class);
+		addProcessorParameter("parallelValidation", "true");
+		addProcessorParameter("validationThreads", "4");
+	}
+
+	@Test
+	public void compileValidActivitiesConcurrently() {
+		assertCompilationSuccessful(compileFiles(ActivityWithViewPager.class, ActivityWithDrawable.class));
+	}
+
+	@Test
+	public void compileFailForDuplicateIdInSameClass() {
+		CompileResult result = compileFiles(ActivityWithViewPager.class, ActivityWithViewPagerDuplicatePageSelected.class);
+		assertCompilationErrorCount(1, result);
+	}
+
+	@Test
+	public void compileFailReportsEveryInvalidElement() throws IOException {
+		CompileResult result = compileFiles(ActivityWithViewPagerWrongParams.class);
+		assertCompilationErrorOn(ActivityWithViewPagerWrongParams.class, "@PageSelected(R.id.myViewPager)", result);
+		assertCompilationErrorOn(ActivityWithViewPagerWrongParams.class, "@PageScrolled(R.id.myViewPager)", result);
+		assertCompilationErrorOn(ActivityWithViewPagerWrongParams.class, "@PageScrollStateChanged(R.id.myViewPager)", result);
+		assertCompilationErrorOn(ActivityWithViewPagerWrongParams.class, "@PageScrolled(R.id.myViewPager2)", result);
+	}
+
+	@Test
+	public void diagnosticsAreReportedInTheSequentialOrder() {
+		Object[] compiledClasses = { ActivityWithViewPagerWrongParams.class, ActivityWithViewPagerDuplicatePageSelected.class, //
+			ActivityWithViewPagerDuplicatePageScrolled.class, ActivityWithViewPagerDuplicatePageScrollStateChanged.class, //
+			ActivityWithDrawable.class, };
+		List<String> concurrentDiagnostics = describe(compileFiles(compiledClasses));
+
+		addProcessorParameter("parallelValidation", "false");
+		List<String> sequentialDiagnostics = describe(compileFiles(compiledClasses));
+
+		Assert.assertFalse(sequentialDiagnostics.isEmpty());
+		Assert.assertEquals(sequentialDiagnostics, concurrentDiagnostics);
+	}
+
+	private List<String> describe(CompileResult result) {
+		List<String> descriptions = new ArrayList<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : result.getDiagnostics()) {
+			String source = diagnostic.getSource() == null ? null : diagnostic.getSource().getName();
+			descriptions.add(diagnostic.getKind() + " " + source + ":" + diagnostic.getLineNumber() + " " + diagnostic.getMessage(Locale.ENGLISH));
+		}
+		return descriptions;
+	}
+
+}
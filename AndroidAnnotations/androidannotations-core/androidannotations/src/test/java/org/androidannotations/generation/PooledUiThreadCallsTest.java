@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledUiThreadCallsTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(PooledUiThreadCallsTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		addProcessorParameter("pooledUiThreadCalls", "true");
+	}
+
+	@Test
+	public void callsReuseTheirRunnables() {
+		CompileResult result = compileFiles(BeanWithPooledUiThreadCalls.class);
+		File generatedFile = toGeneratedFile(BeanWithPooledUiThreadCalls.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*private final Runnable refreshUiThreadCall = new Runnable\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*UiThreadExecutor.runTask\\(refreshUiThreadCall, 0L\\);");
+
+		assertGeneratedClassMatches(generatedFile, ".*private final RunnablePool<BeanWithPooledUiThreadCalls_.UpdateUiThreadCall> updateUiThreadCallPool = new RunnablePool<.*>\\(\\);");
+		assertGeneratedClassMatches(generatedFile, ".*BeanWithPooledUiThreadCalls_.UpdateUiThreadCall task = updateUiThreadCallPool.obtain\\(\\);");
+		assertGeneratedClassMatches(generatedFile, ".*task.text = text;");
+		assertGeneratedClassMatches(generatedFile, ".*UiThreadExecutor.runTask\\(\"update\", task, 0L\\);");
+		assertGeneratedClassMatches(generatedFile, ".*final class UpdateUiThreadCall");
+		assertGeneratedClassMatches(generatedFile, ".*implements RunnablePool.Recyclable");
+		assertGeneratedClassMatches(generatedFile, ".*public void recycle\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*updateUiThreadCallPool.recycle\\(this\\);");
+
+		assertGeneratedClassMatches(generatedFile, ".*final class Update1UiThreadCall");
+		assertGeneratedClassMatches(generatedFile, ".*update1UiThreadCallPool.recycle\\(this\\);");
+
+		assertGeneratedClassMatches(generatedFile, ".*_task.task = task;");
+
+		assertGeneratedClassMatches(generatedFile, ".*UiThreadExecutor.runTask\\(new Runnable\\(\\) \\{");
+	}
+}
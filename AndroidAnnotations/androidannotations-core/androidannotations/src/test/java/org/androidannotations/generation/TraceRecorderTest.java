@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.generation;
+
+import java.io.File;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceRecorderTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(TraceRecorderTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		addProcessorParameter("trace", "true");
+		addProcessorParameter("traceRecorder", "true");
+	}
+
+	@Test
+	public void tracedMethodsRecordSpans() {
+		CompileResult result = compileFiles(BeanWithRecordedTraces.class);
+		File generatedFile = toGeneratedFile(BeanWithRecordedTraces.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*long traceStart_ = System.nanoTime\\(\\);");
+		assertGeneratedClassMatches(generatedFile, ".*TraceRecorder.record\\(\"BeanWithRecordedTraces\", \"void doWork\\(String, int\\)\", traceStart_\\);");
+		assertGeneratedClassMatches(generatedFile, ".*TraceRecorder.record\\(\"Compute\", \"int compute\\(\\)\", traceStart_\\);");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*Log\\..*");
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+
+import org.androidannotations.internal.helper.AndroidManifestFinder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalProcessingTest {
+
+	private static final String GRADLE_REGISTRATION = "META-INF/gradle/incremental.annotation.processors";
+
+	private static final String GRADLE_AGGREGATING_OPTION = "org.gradle.annotation.processing.aggregating";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void processorIsRegisteredAsDynamic() throws IOException {
+		List<String> registrations = new ArrayList<>();
+		for (URL resource : Collections.list(getClass().getClassLoader().getResources(GRADLE_REGISTRATION))) {
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					registrations.add(line.trim());
+				}
+			}
+		}
+
+		assertTrue(registrations.toString(), registrations.contains(AndroidAnnotationProcessor.class.getName() + ",dynamic"));
+	}
+
+	@Test
+	public void processorIsAggregatingByDefault() throws IOException {
+		Set<String> supportedOptions = initProcessor(Collections.<String, String> emptyMap()).getSupportedOptions();
+
+		assertTrue(supportedOptions.contains(GRADLE_AGGREGATING_OPTION));
+		assertTrue(supportedOptions.contains(AndroidAnnotationProcessor.OPTION_INCREMENTAL.getName()));
+		assertTrue(supportedOptions.contains(AndroidManifestFinder.OPTION_MANIFEST.getName()));
+	}
+
+	@Test
+	public void processorIsNotAggregatingWhenIncrementalOptionIsDisabled() throws IOException {
+		Map<String, String> options = new HashMap<>();
+		options.put(AndroidAnnotationProcessor.OPTION_INCREMENTAL.getName(), "false");
+
+		Set<String> supportedOptions = initProcessor(options).getSupportedOptions();
+
+		assertFalse(supportedOptions.contains(GRADLE_AGGREGATING_OPTION));
+		assertTrue(supportedOptions.contains(AndroidAnnotationProcessor.OPTION_INCREMENTAL.getName()));
+	}
+
+	private AndroidAnnotationProcessor initProcessor(Map<String, String> options) throws IOException {
+		FileObject generatedSourceFile = mock(FileObject.class);
+		when(generatedSourceFile.toUri()).thenReturn(new File(temporaryFolder.newFolder(), "dummy").toURI());
+		Filer filer = mock(Filer.class);
+		when(filer.createResource(any(Location.class), anyString(), anyString())).thenReturn(generatedSourceFile);
+		ProcessingEnvironment processingEnvironment = mock(ProcessingEnvironment.class);
+		when(processingEnvironment.getOptions()).thenReturn(options);
+		when(processingEnvironment.getMessager()).thenReturn(mock(Messager.class));
+		when(processingEnvironment.getFiler()).thenReturn(filer);
+		when(processingEnvironment.getElementUtils()).thenReturn(mock(Elements.class));
+		when(processingEnvironment.getTypeUtils()).thenReturn(mock(Types.class));
+
+		AndroidAnnotationProcessor processor = new AndroidAnnotationProcessor();
+		processor.init(processingEnvironment);
+		return processor;
+	}
+}
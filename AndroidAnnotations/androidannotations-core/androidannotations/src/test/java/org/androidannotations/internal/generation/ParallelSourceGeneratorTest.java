@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.AbstractCodeWriter;
+import com.helger.jcodemodel.JClassAlreadyExistsException;
+import com.helger.jcodemodel.JCodeModel;
+import com.helger.jcodemodel.JDefinedClass;
+import com.helger.jcodemodel.JMod;
+import com.helger.jcodemodel.JPackage;
+import com.helger.jcodemodel.writer.PrologCodeWriter;
+
+public class ParallelSourceGeneratorTest {
+
+	private static final String HEADER = "Generated by ParallelSourceGeneratorTest";
+	private static final int CLASS_COUNT = 64;
+
+	@Test
+	public void referencedInnerClassesAreWrittenAsSequentially() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			MemoryCodeWriter sequentialWriter = new MemoryCodeWriter();
+			createCodeModel().build(new PrologCodeWriter(sequentialWriter, HEADER));
+
+			MemoryCodeWriter parallelWriter = new MemoryCodeWriter();
+			new ParallelSourceGenerator(8, HEADER).generate(createCodeModel(), parallelWriter);
+
+			assertEquals(CLASS_COUNT, parallelWriter.sources().size());
+			assertEquals(sequentialWriter.sources(), parallelWriter.sources());
+		}
+	}
+
+	@Test
+	public void formattingDoesNotAddPackages() throws Exception {
+		JCodeModel codeModel = createCodeModel();
+		assertTrue(new ParallelSourceGenerator(4, HEADER).initializeReferencedClasses(codeModel));
+		List<String> packageNames = listPackageNames(codeModel);
+		assertTrue(packageNames.containsAll(Arrays.asList("java.lang", "java.util", "java.util.concurrent")));
+
+		codeModel.build(new PrologCodeWriter(new MemoryCodeWriter(), HEADER));
+
+		assertEquals(packageNames, listPackageNames(codeModel));
+	}
+
+	@Test
+	public void writtenClassesAreNotBuiltAgain() throws Exception {
+		JCodeModel codeModel = createCodeModel();
+		new ParallelSourceGenerator(4, HEADER).generate(codeModel, new MemoryCodeWriter());
+
+		MemoryCodeWriter writer = new MemoryCodeWriter();
+		codeModel.build(new PrologCodeWriter(writer, HEADER));
+
+		assertTrue(writer.sources().isEmpty());
+	}
+
+	/**
+	 * Only inner classes are referenced, so that their outer classes and their
+	 * packages are added to the code model when they are first looked up.
+	 */
+	private JCodeModel createCodeModel() throws JClassAlreadyExistsException {
+		JCodeModel codeModel = new JCodeModel();
+		for (int i = 0; i < CLASS_COUNT; i++) {
+			JDefinedClass definedClass = codeModel._class("com.example.Generated" + i);
+			definedClass.field(JMod.PRIVATE, codeModel.ref(Map.Entry.class), "entry");
+			definedClass.field(JMod.PRIVATE, codeModel.ref(AbstractMap.SimpleEntry.class), "simpleEntry");
+			definedClass.field(JMod.PRIVATE, codeModel.ref(Thread.State.class), "state");
+			definedClass.field(JMod.PRIVATE, codeModel.ref(ThreadPoolExecutor.AbortPolicy.class), "abortPolicy");
+		}
+		return codeModel;
+	}
+
+	private List<String> listPackageNames(JCodeModel codeModel) {
+		List<String> packageNames = new ArrayList<>();
+		for (Iterator<JPackage> iterator = codeModel.packages(); iterator.hasNext();) {
+			packageNames.add(iterator.next().name());
+		}
+		return packageNames;
+	}
+
+	private static class MemoryCodeWriter extends AbstractCodeWriter {
+
+		private final Map<String, ByteArrayOutputStream> buffers = new TreeMap<>();
+
+		MemoryCodeWriter() {
+			super(Charset.forName("UTF-8"), "\n");
+		}
+
+		@Override
+		public OutputStream openBinary(JPackage pkg, String fileName) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			buffers.put(pkg.name() + "." + fileName, buffer);
+			return buffer;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		Map<String, String> sources() {
+			Map<String, String> sources = new TreeMap<>();
+			for (Map.Entry<String, ByteArrayOutputStream> buffer : buffers.entrySet()) {
+				sources.put(buffer.getKey(), new String(buffer.getValue().toByteArray(), encoding()));
+			}
+			return sources;
+		}
+	}
+}
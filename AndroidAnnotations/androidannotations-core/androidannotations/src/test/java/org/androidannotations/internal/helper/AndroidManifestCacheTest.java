@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.helper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.androidannotations.AndroidAnnotationsEnvironment;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AndroidManifestCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File outputDirectory;
+	private File manifestFile;
+
+	@Before
+	public void setUp() throws IOException {
+		outputDirectory = temporaryFolder.newFolder("build");
+		manifestFile = temporaryFolder.newFile("AndroidManifest.xml");
+		Files.write(manifestFile.toPath(), "<manifest />".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void storedDataIsReadBack() {
+		AndroidManifestCache cache = AndroidManifestCache.load(outputDirectory);
+		cache.put(manifestFile, createManifestData());
+		cache.save();
+
+		AndroidManifestCache reloadedCache = AndroidManifestCache.load(outputDirectory);
+		AndroidManifestCache.ManifestData data = reloadedCache.get(manifestFile);
+		assertNotNull(data);
+		assertEquals("org.androidannotations.test", data.applicationPackage);
+		assertEquals(14, data.minSdkVersion);
+		assertEquals(-1, data.maxSdkVersion);
+		assertEquals(".App", data.applicationName);
+		assertEquals(Arrays.asList(".MainActivity", null), data.activityNames);
+		assertArrayEquals(new String[] { "key", null, "@xml/res" }, data.metaData.get(0));
+		assertNull(data.usesPermissionNames);
+	}
+
+	@Test
+	public void changedManifestIsNotRead() throws IOException {
+		AndroidManifestCache cache = AndroidManifestCache.load(outputDirectory);
+		cache.put(manifestFile, createManifestData());
+		cache.save();
+
+		Files.write(manifestFile.toPath(), "<manifest package=\"changed\" />".getBytes(StandardCharsets.UTF_8));
+
+		assertNull(AndroidManifestCache.load(outputDirectory).get(manifestFile));
+	}
+
+	@Test
+	public void corruptedCacheIsIgnored() throws IOException {
+		Files.write(new File(outputDirectory, AndroidManifestCache.CACHE_FILE_NAME).toPath(), new byte[] { 1, 2, 3 });
+
+		assertNull(AndroidManifestCache.load(outputDirectory).get(manifestFile));
+	}
+
+	@Test
+	public void specifiedManifestIsCachedWithoutRunningTheDiscovery() throws Exception {
+		Files.write(manifestFile.toPath(), "<manifest package=\"org.androidannotations.test\" />".getBytes(StandardCharsets.UTF_8));
+		AndroidAnnotationsEnvironment environment = mock(AndroidAnnotationsEnvironment.class);
+		when(environment.getOptionValue(AndroidManifestFinder.OPTION_MANIFEST)).thenReturn(manifestFile.getAbsolutePath());
+		when(environment.getOptionBooleanValue(AndroidManifestFinder.OPTION_LIBRARY)).thenReturn(true);
+
+		assertEquals("org.androidannotations.test", new AndroidManifestFinder(environment).extractAndroidManifest().getApplicationPackage());
+
+		verify(environment, never()).getProcessingEnvironment();
+		assertNotNull(AndroidManifestCache.load(outputDirectory).get(manifestFile));
+	}
+
+	private AndroidManifestCache.ManifestData createManifestData() {
+		AndroidManifestCache.ManifestData data = new AndroidManifestCache.ManifestData();
+		data.applicationPackage = "org.androidannotations.test";
+		data.minSdkVersion = 14;
+		data.hasApplication = true;
+		data.applicationName = ".App";
+		data.activityNames.add(".MainActivity");
+		data.activityNames.add(null);
+		data.metaData.add(new String[] { "key", null, "@xml/res" });
+		data.usesPermissionNames = null;
+		return data;
+	}
+}
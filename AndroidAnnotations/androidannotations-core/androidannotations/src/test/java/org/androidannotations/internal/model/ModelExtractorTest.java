@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import org.androidannotations.internal.model.AnnotationElements.AnnotatedAndRootElements;
+import org.junit.Test;
+
+public class ModelExtractorTest {
+
+	private static final String ANNOTATION_NAME = "org.androidannotations.annotations.Background";
+
+	private final ModelExtractor modelExtractor = new ModelExtractor();
+	private final TypeElement annotation = typeElement(ANNOTATION_NAME, null);
+
+	@Test
+	public void ancestorsAreScannedAgainInEachRound() {
+		List<Element> ancestorMembers = new ArrayList<>();
+		TypeElement ancestor = typeElement("com.example.Ancestor", null);
+		doReturn(ancestorMembers).when(ancestor).getEnclosedElements();
+		Element firstMethod = annotatedMethod();
+		ancestorMembers.add(firstMethod);
+
+		TypeElement firstChild = typeElement("com.example.FirstChild", ancestor);
+		assertEquals(Collections.singletonList(firstMethod), extractAncestorAnnotatedElements(firstChild));
+
+		// the next round sees the ancestor as the compiler completed it then
+		Element secondMethod = annotatedMethod();
+		ancestorMembers.add(secondMethod);
+
+		TypeElement secondChild = typeElement("com.example.SecondChild", ancestor);
+		assertEquals(new HashSet<>(ancestorMembers), new HashSet<>(extractAncestorAnnotatedElements(secondChild)));
+	}
+
+	@Test
+	public void ancestorsAreScannedOnceInARound() {
+		TypeElement ancestor = typeElement("com.example.Ancestor", null);
+		Element method = annotatedMethod();
+		doReturn(Collections.singletonList(method)).when(ancestor).getEnclosedElements();
+		TypeElement firstChild = typeElement("com.example.FirstChild", ancestor);
+		TypeElement secondChild = typeElement("com.example.SecondChild", ancestor);
+
+		RoundEnvironment roundEnv = mock(RoundEnvironment.class);
+		doReturn(new HashSet<>(Arrays.asList(firstChild, secondChild))).when(roundEnv).getRootElements();
+		AnnotationElementsHolder extractedModel = modelExtractor.extract(Collections.<TypeElement> emptySet(), Collections.singleton(ANNOTATION_NAME), roundEnv);
+
+		Set<TypeElement> rootTypeElements = new HashSet<>();
+		for (AnnotatedAndRootElements elements : extractedModel.getAncestorAnnotatedElements(ANNOTATION_NAME)) {
+			assertEquals(method, elements.annotatedElement);
+			rootTypeElements.add(elements.rootTypeElement);
+		}
+		assertEquals(new HashSet<>(Arrays.asList(firstChild, secondChild)), rootTypeElements);
+	}
+
+	private List<Element> extractAncestorAnnotatedElements(TypeElement rootTypeElement) {
+		RoundEnvironment roundEnv = mock(RoundEnvironment.class);
+		doReturn(Collections.singleton(rootTypeElement)).when(roundEnv).getRootElements();
+		AnnotationElementsHolder extractedModel = modelExtractor.extract(Collections.<TypeElement> emptySet(), Collections.singleton(ANNOTATION_NAME), roundEnv);
+
+		List<Element> annotatedElements = new ArrayList<>();
+		for (AnnotatedAndRootElements elements : extractedModel.getAncestorAnnotatedElements(ANNOTATION_NAME)) {
+			assertEquals(rootTypeElement, elements.rootTypeElement);
+			annotatedElements.add(elements.annotatedElement);
+		}
+		return annotatedElements;
+	}
+
+	private Element annotatedMethod() {
+		DeclaredType annotationType = mock(DeclaredType.class);
+		when(annotationType.toString()).thenReturn(ANNOTATION_NAME);
+		when(annotationType.asElement()).thenReturn(annotation);
+		AnnotationMirror annotationMirror = mock(AnnotationMirror.class);
+		when(annotationMirror.getAnnotationType()).thenReturn(annotationType);
+
+		Element method = mock(Element.class);
+		when(method.getKind()).thenReturn(ElementKind.METHOD);
+		doReturn(Collections.singletonList(annotationMirror)).when(method).getAnnotationMirrors();
+		return method;
+	}
+
+	private static TypeElement typeElement(String qualifiedName, TypeElement superclass) {
+		TypeElement typeElement = mock(TypeElement.class);
+		Name name = mock(Name.class);
+		when(name.toString()).thenReturn(qualifiedName);
+		when(name.length()).thenReturn(qualifiedName.length());
+		for (int i = 0; i < qualifiedName.length(); i++) {
+			when(name.charAt(i)).thenReturn(qualifiedName.charAt(i));
+		}
+		when(typeElement.getQualifiedName()).thenReturn(name);
+		when(typeElement.getKind()).thenReturn(ElementKind.CLASS);
+
+		TypeMirror superclassType;
+		if (superclass == null) {
+			superclassType = mock(TypeMirror.class);
+			when(superclassType.getKind()).thenReturn(TypeKind.NONE);
+		} else {
+			DeclaredType declaredType = mock(DeclaredType.class);
+			when(declaredType.getKind()).thenReturn(TypeKind.DECLARED);
+			when(declaredType.asElement()).thenReturn(superclass);
+			superclassType = declaredType;
+		}
+		when(typeElement.getSuperclass()).thenReturn(superclassType);
+		doReturn(Collections.emptyList()).when(typeElement).getAnnotationMirrors();
+		doReturn(Collections.emptyList()).when(typeElement).getEnclosedElements();
+		return typeElement;
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.SimpleElementVisitor6;
+import javax.lang.model.util.Types;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class GuardedProcessingEnvironmentTest {
+
+	private final ProcessingEnvironment processingEnvironment = mock(ProcessingEnvironment.class);
+	private final Types types = mock(Types.class);
+
+	public GuardedProcessingEnvironmentTest() {
+		when(processingEnvironment.getTypeUtils()).thenReturn(types);
+	}
+
+	@Test
+	public void guardedViewsAreCanonical() {
+		GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(processingEnvironment);
+		TypeElement element = mock(TypeElement.class);
+
+		TypeElement guardedElement = guardedEnvironment.guard(element);
+
+		assertNotSame(element, guardedElement);
+		assertSame(guardedElement, guardedEnvironment.guard(element));
+		assertSame(guardedElement, guardedEnvironment.guard(guardedElement));
+		assertSame(element, GuardedProcessingEnvironment.unguard(guardedElement));
+		assertTrue(guardedElement.equals(element));
+		assertEquals(element.hashCode(), guardedElement.hashCode());
+	}
+
+	@Test
+	public void resultsAreGuardedAndArgumentsUnguarded() {
+		GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(processingEnvironment);
+		TypeMirror type = mock(TypeMirror.class);
+		TypeMirror superType = mock(TypeMirror.class);
+		when(types.isSubtype(type, superType)).thenReturn(true);
+		TypeElement element = mock(TypeElement.class);
+		Element enclosedElement = mock(Element.class);
+		doReturn(Collections.singletonList(enclosedElement)).when(element).getEnclosedElements();
+
+		assertTrue(guardedEnvironment.getTypeUtils().isSubtype(guardedEnvironment.guard(type), guardedEnvironment.guard(superType)));
+
+		List<? extends Element> enclosedElements = guardedEnvironment.guard(element).getEnclosedElements();
+		assertSame(guardedEnvironment.guard(enclosedElement), enclosedElements.get(0));
+		try {
+			enclosedElements.clear();
+			fail("The guarded list should be unmodifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void visitorsReceiveGuardedViews() {
+		GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(processingEnvironment);
+		final TypeElement guardedElement = guardedEnvironment.guard(mock(TypeElement.class));
+
+		Boolean visited = guardedElement.accept(new SimpleElementVisitor6<Boolean, Void>(false) {
+			@Override
+			public Boolean visitType(TypeElement e, Void p) {
+				return e == guardedElement;
+			}
+		}, null);
+
+		assertTrue(visited);
+	}
+
+	@Test
+	public void mirroredTypesAreGuarded() {
+		GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(processingEnvironment);
+		TypeMirror type = mock(TypeMirror.class);
+		MirroredTypeException exception = new MirroredTypeException(type);
+		ClassValue annotation = mock(ClassValue.class);
+		doReturn(ClassValue.class).when(annotation).annotationType();
+		when(annotation.value()).thenThrow(exception);
+		Element element = mock(Element.class);
+		when(element.getAnnotation(ClassValue.class)).thenReturn(annotation);
+
+		try {
+			guardedEnvironment.guard(element).getAnnotation(ClassValue.class).value();
+			fail("The annotation should not give access to the class");
+		} catch (MirroredTypeException e) {
+			assertSame(guardedEnvironment.guard(type), e.getTypeMirror());
+		}
+	}
+
+	@Test
+	public void compilerIsNeverCalledConcurrently() throws Exception {
+		final GuardedProcessingEnvironment guardedEnvironment = new GuardedProcessingEnvironment(processingEnvironment);
+		final AtomicInteger runningCalls = new AtomicInteger();
+		final AtomicInteger maxRunningCalls = new AtomicInteger();
+		final Element element = mock(Element.class);
+		when(element.getSimpleName()).thenAnswer(new Answer<Name>() {
+			@Override
+			public Name answer(InvocationOnMock invocation) throws Throwable {
+				int running = runningCalls.incrementAndGet();
+				maxRunningCalls.set(Math.max(maxRunningCalls.get(), running));
+				Thread.sleep(1);
+				runningCalls.decrementAndGet();
+				return null;
+			}
+		});
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executorService.submit(new Runnable() {
+					@Override
+					public void run() {
+						Element guardedElement = guardedEnvironment.guard(element);
+						for (int j = 0; j < 20; j++) {
+							guardedElement.getSimpleName();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		assertEquals(1, maxRunningCalls.get());
+	}
+
+	private @interface ClassValue {
+		Class<?> value();
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.internal.process;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.androidannotations.internal.process.ProcessingProfiler.Format;
+import org.androidannotations.internal.process.ProcessingProfiler.Phase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProcessingProfilerTest {
+
+	private static final String VIEW_BY_ID = "org.androidannotations.internal.core.handler.ViewByIdHandler";
+	private static final String CLICK = "org.androidannotations.internal.core.handler.ClickHandler";
+
+	private static ProcessingProfiler profilerWithMeasures(Format format, int topElements) {
+		ProcessingProfiler profiler = new ProcessingProfiler(format, topElements);
+		profiler.record(Phase.VALIDATE, VIEW_BY_ID, "com.example.FastActivity", 10);
+		profiler.record(Phase.PROCESS, VIEW_BY_ID, "com.example.SlowActivity", 100);
+		profiler.record(Phase.PROCESS, CLICK, "com.example.SlowActivity", 300);
+		profiler.record(Phase.EMIT, CLICK, "com.example.Middle,Activity", 50);
+		return profiler;
+	}
+
+	private static String report(ProcessingProfiler profiler) throws IOException {
+		StringWriter writer = new StringWriter();
+		profiler.writeReport(writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void jsonReportListsHandlersAndSlowestElements() throws IOException {
+		String report = report(profilerWithMeasures(Format.JSON, 2));
+
+		Assert.assertEquals("{\n" //
+				+ "  \"handlers\": [\n" //
+				+ "    {\"name\": \"" + CLICK + "\", \"invocations\": 2, \"totalNanos\": 350, \"validateNanos\": 0, \"generateNanos\": 0, \"processNanos\": 300, \"emitNanos\": 50},\n" //
+				+ "    {\"name\": \"" + VIEW_BY_ID + "\", \"invocations\": 2, \"totalNanos\": 110, \"validateNanos\": 10, \"generateNanos\": 0, \"processNanos\": 100, \"emitNanos\": 0}\n" //
+				+ "  ],\n" //
+				+ "  \"elementCount\": 3,\n" //
+				+ "  \"slowestElements\": [\n" //
+				+ "    {\"name\": \"com.example.SlowActivity\", \"invocations\": 2, \"totalNanos\": 400, \"validateNanos\": 0, \"generateNanos\": 0, \"processNanos\": 400, \"emitNanos\": 0},\n" //
+				+ "    {\"name\": \"com.example.Middle,Activity\", \"invocations\": 1, \"totalNanos\": 50, \"validateNanos\": 0, \"generateNanos\": 0, \"processNanos\": 0, \"emitNanos\": 50}\n" //
+				+ "  ]\n" //
+				+ "}\n", report);
+	}
+
+	@Test
+	public void csvReportQuotesNamesContainingSeparators() throws IOException {
+		String report = report(profilerWithMeasures(Format.CSV, 20));
+
+		Assert.assertEquals("section,name,invocations,totalNanos,validateNanos,generateNanos,processNanos,emitNanos\n" //
+				+ "handler," + CLICK + ",2,350,0,0,300,50\n" //
+				+ "handler," + VIEW_BY_ID + ",2,110,10,0,100,0\n" //
+				+ "element,com.example.SlowActivity,2,400,0,0,400,0\n" //
+				+ "element,\"com.example.Middle,Activity\",1,50,0,0,0,50\n" //
+				+ "element,com.example.FastActivity,1,10,10,0,0,0\n", report);
+	}
+
+	@Test
+	public void emptyJsonReport() throws IOException {
+		String report = report(new ProcessingProfiler(Format.JSON, 20));
+
+		Assert.assertEquals("{\n  \"handlers\": [],\n  \"elementCount\": 0,\n  \"slowestElements\": []\n}\n", report);
+	}
+
+	@Test
+	public void disabledProfilerDoesNotMeasure() {
+		ProcessingProfiler profiler = new ProcessingProfiler(null, 20);
+
+		Assert.assertFalse(profiler.isEnabled());
+		Assert.assertEquals(0L, profiler.start());
+	}
+}
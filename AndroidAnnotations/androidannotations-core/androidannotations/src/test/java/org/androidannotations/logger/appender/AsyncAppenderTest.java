@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.logger.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+
+import org.androidannotations.logger.Level;
+import org.androidannotations.logger.formatter.FormatterSimple;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncAppenderTest {
+
+	private static final int MESSAGES = 1000;
+
+	private static class RecordingAppender extends Appender {
+
+		final List<String> written = new ArrayList<>();
+		final List<String> pending = new ArrayList<>();
+		Thread writerThread;
+		boolean closed;
+
+		RecordingAppender() {
+			super(new FormatterSimple());
+		}
+
+		@Override
+		public void open() {
+		}
+
+		@Override
+		public synchronized void append(Level level, Element element, AnnotationMirror annotationMirror, String message) {
+			writerThread = Thread.currentThread();
+			pending.add(message);
+		}
+
+		@Override
+		public synchronized void flush() {
+			written.addAll(pending);
+			pending.clear();
+		}
+
+		@Override
+		public synchronized void close(boolean lastRound) {
+			flush();
+			closed = true;
+		}
+	}
+
+	@Test
+	public void messagesAreWrittenInOrderByTheWriterThread() {
+		RecordingAppender delegate = new RecordingAppender();
+		AsyncAppender appender = new AsyncAppender(delegate, 2);
+		appender.open();
+
+		for (int i = 0; i < MESSAGES; i++) {
+			appender.append(Level.DEBUG, null, null, "message " + i);
+		}
+		appender.close(true);
+
+		synchronized (delegate) {
+			Assert.assertTrue(delegate.closed);
+			Assert.assertNotSame(Thread.currentThread(), delegate.writerThread);
+			Assert.assertEquals(MESSAGES, delegate.written.size());
+			for (int i = 0; i < MESSAGES; i++) {
+				Assert.assertEquals("message " + i, delegate.written.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void flushWaitsForTheQueuedMessages() {
+		RecordingAppender delegate = new RecordingAppender();
+		AsyncAppender appender = new AsyncAppender(delegate);
+		appender.open();
+
+		appender.append(Level.INFO, null, null, "first");
+		appender.append(Level.INFO, null, null, "second");
+		appender.flush();
+
+		synchronized (delegate) {
+			Assert.assertEquals(2, delegate.written.size());
+			Assert.assertFalse(delegate.closed);
+		}
+		appender.close(true);
+	}
+
+	@Test
+	public void messagesAreWrittenDirectlyOnceClosed() {
+		RecordingAppender delegate = new RecordingAppender();
+		AsyncAppender appender = new AsyncAppender(delegate);
+		appender.open();
+		appender.close(true);
+
+		appender.append(Level.INFO, null, null, "late");
+
+		synchronized (delegate) {
+			Assert.assertSame(Thread.currentThread(), delegate.writerThread);
+			Assert.assertEquals(1, delegate.pending.size());
+		}
+	}
+}
@@ -18,6 +18,7 @@ package org.androidannotations.logger.formatter;
 import java.util.Arrays;
 import java.util.List;
 
+import org.androidannotations.logger.Level;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -58,6 +59,15 @@ public class FormatterTest {
 		Assert.assertEquals("Objects = [a, b]", formatter.buildFullMessage("Objects = {}", new Object[] { values }));
 	}
 
+	@Test
+	public void testBuildLogWithoutCallerLineNumber() throws Exception {
+		Formatter fullFormatter = new FormatterFull();
+		fullFormatter.setCallerLineNumberEnabled(false);
+
+		String log = fullFormatter.buildLog(Level.INFO, "SomeLogger", "This is a {}", null, "test");
+		Assert.assertTrue(log, log.endsWith(" INFO  SomeLogger - This is a test"));
+	}
+
 	@Test
 	public void testBuildFullMessageList() throws Exception {
 		List<SomeObject> values = Arrays.asList(new SomeObject("a"), new SomeObject("b"));
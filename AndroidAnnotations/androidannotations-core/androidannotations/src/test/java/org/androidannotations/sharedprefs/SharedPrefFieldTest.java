@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.sharedprefs;
+
+import java.io.File;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedPrefFieldTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(ActivityInManifest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+	}
+
+	@Test
+	public void fieldsAreCreatedOnce() {
+		CompileResult result = compileFiles(FieldPrefs.class);
+		File generatedFile = toGeneratedFile(FieldPrefs.class);
+
+		assertCompilationSuccessful(result);
+
+		// CHECKSTYLE:OFF
+		String[] userIdMethod = { //
+				"    public IntPrefField userId() {", //
+				"        IntPrefField field = userIdField_;", //
+				"        if (field == null) {", //
+				"            synchronized (this)", //
+				"            {", //
+				"                field = userIdField_;", //
+				"                if (field == null) {", //
+				"                    field = intField(\"userId\", 42);", //
+				"                    userIdField_ = field;", //
+				"                }", //
+				"            }", //
+				"        }", //
+				"        return field;", //
+				"    }" //
+		};
+		// CHECKSTYLE:ON
+		assertGeneratedClassContains(generatedFile, userIdMethod);
+		assertGeneratedClassMatches(generatedFile, ".*private volatile StringPrefField userNameField_;");
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.sharedprefs;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedPrefStorageTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(ActivityInManifest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void storageProvidesThePreferences() {
+		CompileResult result = compileFiles(PrefsWithStorage.class);
+		File generatedFile = toGeneratedFile(PrefsWithStorage.class);
+
+		assertCompilationSuccessful(result);
+
+		// CHECKSTYLE:OFF
+		String[] uniquePref = { //
+				"        public MappedUniquePrefs_(Context context) {", //
+				"            super(new MappedSharedPreferencesStorage().getSharedPreferences(context, \"MappedUniquePrefs\", 0));", //
+				"        }" //
+		};
+		String[] applicationDefaultPref = { //
+				"        public MappedApplicationDefaultPrefs_(Context context) {", //
+				"            super(new MappedSharedPreferencesStorage().getSharedPreferences(context, (context.getPackageName()+\"_preferences\"), 0));", //
+				"        }" //
+		};
+		// CHECKSTYLE:ON
+		assertGeneratedClassContains(generatedFile, uniquePref);
+		assertGeneratedClassContains(generatedFile, applicationDefaultPref);
+	}
+
+	@Test
+	public void storageMustBeInstantiable() throws IOException {
+		CompileResult result = compileFiles(PrefsWithInvalidStorage.class);
+
+		assertCompilationErrorCount(2, result);
+		assertCompilationErrorOn(PrefsWithInvalidStorage.class, "@SharedPref(value = SharedPref.Scope.UNIQUE, storage = AbstractStorage.class)", result);
+		assertCompilationErrorOn(PrefsWithInvalidStorage.class, "@SharedPref(value = SharedPref.Scope.UNIQUE, storage = StorageWithArgument.class)", result);
+	}
+}
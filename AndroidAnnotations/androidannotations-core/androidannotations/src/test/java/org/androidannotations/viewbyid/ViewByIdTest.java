@@ -15,6 +15,8 @@
  */
 package org.androidannotations.viewbyid;
 
+import java.io.File;
+
 import org.androidannotations.internal.AndroidAnnotationProcessor;
 import org.androidannotations.testutils.AAProcessorTestHelper;
 import org.junit.Before;
@@ -26,6 +28,7 @@ public class ViewByIdTest extends AAProcessorTestHelper {
 	public void setUp() {
 		addManifestProcessorParameter(ViewByIdTest.class);
 		addProcessor(AndroidAnnotationProcessor.class);
+		ensureOutputDirectoryIsEmpty();
 	}
 
 	@Test
@@ -33,4 +36,30 @@ public class ViewByIdTest extends AAProcessorTestHelper {
 		assertCompilationSuccessful(compileFiles(GenericViewByIdActivity.class));
 	}
 
+	@Test
+	public void singlePassViewBindingFindsAllIdsOnce() {
+		addProcessorParameter("singlePassViewBinding", "true");
+		CompileResult result = compileFiles(SinglePassViewBindingActivity.class);
+		File generatedFile = toGeneratedFile(SinglePassViewBindingActivity.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*ViewTable viewTable_ = ViewTable.find\\(hasViews, .*R.id.view, .*R.id.view2, .*R.id.view3\\);");
+		assertGeneratedClassMatches(generatedFile, ".*this.view = viewTable_.get\\(.*R.id.view\\);");
+		assertGeneratedClassMatches(generatedFile, ".*public View internalGetRootView\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*return this.getWindow\\(\\).getDecorView\\(\\);");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*hasViews.internalFindViewById.*");
+	}
+
+	@Test
+	public void viewsAreFoundOneByOneByDefault() {
+		CompileResult result = compileFiles(SinglePassViewBindingActivity.class);
+		File generatedFile = toGeneratedFile(SinglePassViewBindingActivity.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*this.view = hasViews.internalFindViewById\\(.*R.id.view\\);");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*ViewTable.*");
+	}
+
 }
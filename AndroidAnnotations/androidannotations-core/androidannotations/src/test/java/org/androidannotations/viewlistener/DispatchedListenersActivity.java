@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.viewlistener;
+
+import org.androidannotations.annotations.Click;
+import org.androidannotations.annotations.EActivity;
+import org.androidannotations.annotations.ItemClick;
+import org.androidannotations.annotations.ItemSelect;
+import org.androidannotations.annotations.LongClick;
+import org.androidannotations.viewbyid.R;
+
+import android.app.Activity;
+import android.view.View;
+
+@EActivity
+public class DispatchedListenersActivity extends Activity {
+
+	@Click(R.id.view)
+	void clicked() {
+	}
+
+	@Click({ R.id.view2, R.id.view3 })
+	void otherClicked(View view) {
+	}
+
+	@LongClick(R.id.view)
+	boolean longClicked() {
+		return false;
+	}
+
+	@LongClick(R.id.view2)
+	void otherLongClicked() {
+	}
+
+	@ItemClick(R.id.view3)
+	void itemClicked(String item) {
+	}
+
+	@ItemSelect(R.id.view3)
+	void itemSelected(boolean selected) {
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016-2018 the AndroidAnnotations project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed To in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.androidannotations.viewlistener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.androidannotations.internal.AndroidAnnotationProcessor;
+import org.androidannotations.testutils.AAProcessorTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DispatchedViewListenersTest extends AAProcessorTestHelper {
+
+	@Before
+	public void setUp() {
+		addManifestProcessorParameter(DispatchedViewListenersTest.class);
+		addProcessor(AndroidAnnotationProcessor.class);
+		addProcessorParameter("dispatchViewListeners", "true");
+		ensureOutputDirectoryIsEmpty();
+	}
+
+	@Test
+	public void listenersDispatchOnViewId() {
+		CompileResult result = compileFiles(DispatchedListenersActivity.class);
+		File generatedFile = toGeneratedFile(DispatchedListenersActivity.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*private final .*OnClickListener onClickListener_ = new .*OnClickListener\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*private final .*OnLongClickListener onLongClickListener_ = new .*OnLongClickListener\\(\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*switch \\(view.getId\\(\\)\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*switch \\(parent.getId\\(\\)\\) \\{");
+		assertGeneratedClassMatches(generatedFile, ".*case .*R.id.view2 ?:");
+		assertGeneratedClassMatches(generatedFile, ".*setOnClickListener\\(onClickListener_\\);");
+		assertGeneratedClassMatches(generatedFile, ".*setOnItemClickListener\\(onItemClickListener_\\);");
+		assertGeneratedClassMatches(generatedFile, ".*return DispatchedListenersActivity_.this.longClicked\\(\\);");
+		assertGeneratedClassMatches(generatedFile, ".*setOnItemSelectedListener\\(new .*OnItemSelectedListener\\(\\) \\{");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*setOnClickListener\\(new .*");
+	}
+
+	@Test
+	public void inheritedIdsAreDispatchedOnce() throws IOException {
+		CompileResult result = compileFiles(DispatchedListenersParentActivity.class, InheritedDispatchedListenersActivity.class);
+		File generatedFile = toGeneratedFile(InheritedDispatchedListenersActivity.class);
+
+		assertCompilationSuccessful(result);
+
+		String generatedCode = new String(Files.readAllBytes(generatedFile.toPath()), StandardCharsets.UTF_8);
+		assertEquals(1, occurrences(generatedCode, "case R\\.id\\.view ?:"));
+		assertEquals(1, occurrences(generatedCode, "case R\\.id\\.view3 ?:"));
+		assertEquals(3, occurrences(generatedCode, "\\.setOnClickListener\\(onClickListener_\\);"));
+		// the child method handles the id it shares with its parent
+		assertTrue(generatedCode.matches("(?s).*case R\\.id\\.view2 ?:[\\s{]*InheritedDispatchedListenersActivity_\\.this\\.parentClicked\\(\\);.*"));
+		assertTrue(generatedCode.matches("(?s).*case R\\.id\\.view ?:\\s*case R\\.id\\.view3 ?:[\\s{]*InheritedDispatchedListenersActivity_\\.this\\.clicked\\(\\);.*"));
+	}
+
+	@Test
+	public void libraryListenersCompareViewIds() {
+		addProcessorParameter("library", "true");
+		CompileResult result = compileFiles(DispatchedListenersActivity.class);
+		File generatedFile = toGeneratedFile(DispatchedListenersActivity.class);
+
+		assertCompilationSuccessful(result);
+
+		assertGeneratedClassMatches(generatedFile, ".*int viewId = view.getId\\(\\);");
+		assertGeneratedClassMatches(generatedFile, ".*if \\(\\(viewId == .*R.id.view2\\)\\|\\|\\(viewId == .*R.id.view3\\)\\) \\{");
+		assertGeneratedClassDoesntMatches(generatedFile, ".*switch .*");
+	}
+
+	private static int occurrences(String string, String regex) {
+		Matcher matcher = Pattern.compile(regex).matcher(string);
+		int count = 0;
+		while (matcher.find()) {
+			count++;
+		}
+		return count;
+	}
+}
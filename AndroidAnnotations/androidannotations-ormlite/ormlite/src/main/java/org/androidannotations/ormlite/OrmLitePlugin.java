@@ -32,6 +32,11 @@ public class OrmLitePlugin extends AndroidAnnotationsPlugin {
 		return NAME;
 	}
 
+	@Override
+	public boolean supportsIncrementalProcessing() {
+		return true;
+	}
+
 	@Override
 	public List<AnnotationHandler<?>> getHandlers(AndroidAnnotationsEnvironment androidAnnotationEnv) {
 		List<AnnotationHandler<?>> annotationHandlers = new ArrayList<>();
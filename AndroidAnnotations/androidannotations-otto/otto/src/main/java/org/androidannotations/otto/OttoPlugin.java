@@ -33,6 +33,11 @@ public class OttoPlugin extends AndroidAnnotationsPlugin {
 		return NAME;
 	}
 
+	@Override
+	public boolean supportsIncrementalProcessing() {
+		return true;
+	}
+
 	@Override
 	public boolean shouldCheckApiAndProcessorVersions() {
 		return false;
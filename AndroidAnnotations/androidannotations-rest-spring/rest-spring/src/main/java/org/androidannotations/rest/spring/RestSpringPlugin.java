@@ -46,6 +46,11 @@ public class RestSpringPlugin extends AndroidAnnotationsPlugin {
 		return NAME;
 	}
 
+	@Override
+	public boolean supportsIncrementalProcessing() {
+		return true;
+	}
+
 	@Override
 	public List<AnnotationHandler<?>> getHandlers(AndroidAnnotationsEnvironment androidAnnotationEnv) {
 		List<AnnotationHandler<?>> annotationHandlers = new ArrayList<>();
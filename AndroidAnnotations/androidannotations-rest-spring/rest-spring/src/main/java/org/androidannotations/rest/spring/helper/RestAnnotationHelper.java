@@ -533,7 +533,7 @@ public class RestAnnotationHelper extends TargetAnnotationHelper {
 			decoratedFinalClassName = decoratedFinalClassName.replaceAll("\\[\\]", "s");
 			String packageName = holder.getGeneratedClass()._package().name();
 			decoratedFinalClassName = packageName + "." + decoratedFinalClassName;
-			JDefinedClass decoratedJClass = getEnvironment().getDefinedClass(decoratedFinalClassName);
+			JDefinedClass decoratedJClass = getEnvironment().getDefinedClass(decoratedFinalClassName, holder.getAnnotatedElement());
 			decoratedJClass._extends(decoratedSuperClass);
 
 			return decoratedJClass;
@@ -32,6 +32,11 @@ public class RoboGuicePlugin extends AndroidAnnotationsPlugin {
 		return NAME;
 	}
 
+	@Override
+	public boolean supportsIncrementalProcessing() {
+		return true;
+	}
+
 	@Override
 	public List<AnnotationHandler<?>> getHandlers(AndroidAnnotationsEnvironment androidAnnotationEnv) {
 		List<AnnotationHandler<?>> annotationHandlers = new ArrayList<>();